@@ -8,11 +8,13 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 
 import com.apigateway.security.JwtService;
+import com.apigateway.security.TokenRevocationFilter;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.Mono;
 
+import java.util.Date;
 import java.util.UUID;
 
 @Slf4j
@@ -24,6 +26,7 @@ public class AuthService {
     private final PasswordEncoder       passwordEncoder;
     private final JwtService            jwtService;
     private final TokenRedisService     tokenRedisService;
+    private final TokenRevocationFilter tokenRevocationFilter;
 
 
     @Value("${jwt.refresh-expiration-ms:604800000}")
@@ -99,19 +102,18 @@ public class AuthService {
                 })
                 .then();
 
-        Mono<Void> blacklistAccess = Mono.empty();
+        Mono<Void> revokeAccess = Mono.empty();
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             try {
                 var claims = jwtService.extractAllClaims(authHeader.substring(7));
-                long ttl = claims.getExpiration().getTime() - System.currentTimeMillis();
-                if (ttl > 0) {
-                    blacklistAccess = tokenRedisService.blacklistAccessTokenReactive(authHeader.substring(7), ttl);
+                if (claims.getId() != null && claims.getExpiration().after(new Date())) {
+                    revokeAccess = tokenRevocationFilter.revoke(claims.getId(), claims.getExpiration().toInstant());
                 }
             } catch (Exception e) {
-                log.warn("Failed to blacklist access token: {}", e.getMessage());
+                log.warn("Failed to revoke access token: {}", e.getMessage());
             }
         }
-        return deleteRefresh.then(blacklistAccess);
+        return deleteRefresh.then(revokeAccess);
     }
 
     @Transactional
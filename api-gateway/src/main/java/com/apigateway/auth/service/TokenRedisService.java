@@ -15,7 +15,6 @@ public class TokenRedisService {
 
     private static final String REFRESH_TOKEN_PREFIX = "refresh_token:";
     private static final String USER_TOKENS_PREFIX = "user_tokens:";
-    private static final String BLACKLIST_PREFIX = "token_blacklist:";
 
     public Mono<Void> saveRefreshTokenReactive(String token, String email, String userId, String role, long expiryMs) {
         String tokenKey = REFRESH_TOKEN_PREFIX + token;
@@ -45,12 +44,4 @@ public class TokenRedisService {
                 .then(redisTemplate.delete(userKey))
                 .then();
     }
-
-    public Mono<Void> blacklistAccessTokenReactive(String token, long expiryMs) {
-        if (expiryMs > 0) {
-            return redisTemplate.opsForValue().set(BLACKLIST_PREFIX + token, "revoked", Duration.ofMillis(expiryMs))
-                    .then();
-        }
-        return Mono.empty();
-    }
 }
@@ -1,27 +1,20 @@
 package com.apigateway.configuration;
 
+import com.apigateway.security.TokenVerifier;
 import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
-import org.springframework.http.HttpHeaders;
 import reactor.core.publisher.Mono;
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
-import org.springframework.beans.factory.annotation.Value;
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
-import java.util.Base64;
 import java.util.Optional;
 
 @Configuration
 public class RateLimiterConfig {
 
-    private final SecretKey secretKey;
+    private final TokenVerifier tokenVerifier;
 
-    public RateLimiterConfig(@Value("${jwt.secret}") String secret) {
-        this.secretKey = buildKey(secret);
+    public RateLimiterConfig(TokenVerifier tokenVerifier) {
+        this.tokenVerifier = tokenVerifier;
     }
 
     /**
@@ -33,25 +26,12 @@ public class RateLimiterConfig {
     @Primary
     public KeyResolver userKeyResolver() {
         return exchange -> {
-            String authHeader = exchange.getRequest()
-                    .getHeaders()
-                    .getFirst(HttpHeaders.AUTHORIZATION);
-
-            if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                String token = authHeader.substring(7);
-                try {
-                    Claims claims = Jwts.parser()
-                            .verifyWith(secretKey)
-                            .build()
-                            .parseSignedClaims(token)
-                            .getPayload();
-                    String userId = claims.get("userId", String.class);
-                    if (userId != null) {
-                        return Mono.just("user:" + userId);  // e.g. user:550e8400-e29b-41d4
-                    }
-                } catch (Exception ignored) {
-                    // invalid token — fall through to IP
-                }
+            // Reads the claims verified during authentication — no second parse
+            String userId = tokenVerifier.claims(exchange)
+                    .map(claims -> claims.get("userId", String.class))
+                    .orElse(null);
+            if (userId != null) {
+                return Mono.just("user:" + userId);  // e.g. user:550e8400-e29b-41d4
             }
 
             // Fallback to IP
@@ -93,16 +73,4 @@ public class RateLimiterConfig {
                 .map(addr -> addr.getAddress().getHostAddress())
                 .orElse("unknown");
     }
-
-    private SecretKey buildKey(String secret) {
-        try {
-            byte[] decoded = Base64.getDecoder().decode(secret);
-            if (decoded.length >= 32) return Keys.hmacShaKeyFor(decoded);
-        } catch (IllegalArgumentException ignored) {}
-
-        if (secret.length() < 32)
-            throw new IllegalStateException("jwt.secret must be at least 32 characters");
-
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
-    }
-}
\ No newline at end of file
+}
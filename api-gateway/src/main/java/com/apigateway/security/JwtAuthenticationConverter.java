@@ -1,6 +1,6 @@
 package com.apigateway.security;
 
-import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.web.server.authentication.ServerAuthenticationConverter;
 import org.springframework.stereotype.Component;
@@ -11,18 +11,24 @@ import reactor.core.publisher.Mono;
 public class JwtAuthenticationConverter
         implements ServerAuthenticationConverter {
 
+    private final TokenVerifier tokenVerifier;
+
+    public JwtAuthenticationConverter(TokenVerifier tokenVerifier) {
+        this.tokenVerifier = tokenVerifier;
+    }
+
+    /**
+     * Verifies the token here, where the exchange is at hand, so the claims
+     * land on it for the gateway filters and ride along to the manager.
+     */
     @Override
     public Mono<Authentication> convert(ServerWebExchange exchange) {
-        String token = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
-        if (token != null && token.startsWith("Bearer ")) {
-            return Mono.just(new JwtAuthenticationToken(token.substring(7)));
-        }
-        
-        String queryToken = exchange.getRequest().getQueryParams().getFirst("token");
-        if (queryToken != null && !queryToken.isEmpty()) {
-            return Mono.just(new JwtAuthenticationToken(queryToken));
+        String token = TokenVerifier.extractToken(exchange.getRequest());
+        if (token == null) {
+            return Mono.empty();
         }
-        
-        return Mono.empty();
+        return tokenVerifier.claims(exchange)
+                .<Mono<Authentication>>map(claims -> Mono.just(new JwtAuthenticationToken(token, claims)))
+                .orElseGet(() -> Mono.error(new BadCredentialsException("Invalid JWT token")));
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package com.apigateway.security;
 
+import io.jsonwebtoken.Claims;
 import org.springframework.security.authentication.AbstractAuthenticationToken;
 import org.springframework.security.core.GrantedAuthority;
 
@@ -9,12 +10,19 @@ public class JwtAuthenticationToken extends AbstractAuthenticationToken {
 
     private final String token;
     private final Object principal;
+    private final Claims claims;
 
     // Unauthenticated token
     public JwtAuthenticationToken(String token) {
+        this(token, null);
+    }
+
+    // Unauthenticated token whose signature TokenVerifier already checked
+    public JwtAuthenticationToken(String token, Claims claims) {
         super(null);
         this.token = token;
         this.principal = null;
+        this.claims = claims;
         setAuthenticated(false);
     }
 
@@ -27,9 +35,14 @@ public class JwtAuthenticationToken extends AbstractAuthenticationToken {
         super(authorities);
         this.token = token;
         this.principal = principal;
+        this.claims = null;
         setAuthenticated(true);
     }
 
+    public Claims getClaims() {
+        return claims;
+    }
+
     @Override
     public Object getCredentials() {
         return token;
@@ -2,19 +2,13 @@ package com.apigateway.security;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.ReactiveAuthenticationManager;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
 
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
-import java.util.Base64;
 import java.util.List;
 
 @Slf4j
@@ -22,19 +16,14 @@ import java.util.List;
 public class JwtReactiveAuthenticationManager
         implements ReactiveAuthenticationManager {
 
-    private final SecretKey secretKey;
-    private final org.springframework.data.redis.core.ReactiveStringRedisTemplate redisTemplate;
-    private final com.github.benmanes.caffeine.cache.Cache<String, Claims> claimsCache;
+    private final TokenVerifier tokenVerifier;
+    private final TokenRevocationFilter revocationFilter;
 
     public JwtReactiveAuthenticationManager(
-            @Value("${jwt.secret}") String secret,
-            org.springframework.data.redis.core.ReactiveStringRedisTemplate redisTemplate) {
-        this.secretKey = buildKey(secret);
-        this.redisTemplate = redisTemplate;
-        this.claimsCache = com.github.benmanes.caffeine.cache.Caffeine.newBuilder()
-                .maximumSize(5000)
-                .expireAfterWrite(java.time.Duration.ofMinutes(5))
-                .build();
+            TokenVerifier tokenVerifier,
+            TokenRevocationFilter revocationFilter) {
+        this.tokenVerifier = tokenVerifier;
+        this.revocationFilter = revocationFilter;
     }
 
     @Override
@@ -45,19 +34,32 @@ public class JwtReactiveAuthenticationManager
 
         String token = authentication.getCredentials().toString();
 
-        return redisTemplate.hasKey("token_blacklist:" + token)
-                .flatMap(isBlacklisted -> {
-                    if (isBlacklisted) {
-                        log.warn("Rejected blacklisted token: {}", token);
-                        return Mono.error(new org.springframework.security.authentication.BadCredentialsException("Token is blacklisted"));
+        Claims claims;
+        try {
+            // JwtAuthenticationConverter has verified it already; anyone else goes through the cache
+            claims = authentication instanceof JwtAuthenticationToken jwt && jwt.getClaims() != null
+                    ? jwt.getClaims()
+                    : tokenVerifier.verify(token);
+        } catch (JwtException ex) {
+            log.error("JWT Exception while authenticating token: {}", ex.getMessage());
+            return Mono.error(new org.springframework.security.authentication.BadCredentialsException("Invalid JWT token"));
+        } catch (Exception ex) {
+            log.error("Unexpected error authenticating token: ", ex);
+            return Mono.error(new org.springframework.security.authentication.BadCredentialsException("Invalid JWT token"));
+        }
+        if (claims.getId() == null) {
+            // JwtService always sets a jti; without one the token could never be revoked
+            log.warn("Rejected token without jti for subject: {}", claims.getSubject());
+            return Mono.error(new org.springframework.security.authentication.BadCredentialsException("Token has no id"));
+        }
+
+        return revocationFilter.isRevoked(claims.getId())
+                .flatMap(isRevoked -> {
+                    if (isRevoked) {
+                        log.warn("Rejected revoked token: {}", claims.getId());
+                        return Mono.error(new org.springframework.security.authentication.BadCredentialsException("Token is revoked"));
                     }
                     try {
-                        Claims claims = claimsCache.get(token, t -> Jwts.parser()
-                                .verifyWith(secretKey)
-                                .build()
-                                .parseSignedClaims(t)
-                                .getPayload());
-
                         String email = claims.getSubject();
 
                         Object rolesObj = claims.get("roles");
@@ -76,7 +78,7 @@ public class JwtReactiveAuthenticationManager
                         }
 
                         if (rolesList == null || rolesList.isEmpty()) {
-                            log.warn("Roles list is empty for token: {}", token);
+                            log.warn("Roles list is empty for token: {}", claims.getId());
                             return Mono.error(new org.springframework.security.authentication.BadCredentialsException("Token has no roles"));
                         }
 
@@ -91,34 +93,10 @@ public class JwtReactiveAuthenticationManager
                                         token,
                                         authorities));
 
-                    } catch (JwtException ex) {
-                        log.error("JWT Exception while authenticating token: {}", ex.getMessage());
-                        return Mono.error(new org.springframework.security.authentication.BadCredentialsException("Invalid JWT token"));
                     } catch (Exception ex) {
                         log.error("Unexpected error authenticating token: ", ex);
                         return Mono.error(new org.springframework.security.authentication.BadCredentialsException("Invalid JWT token"));
                     }
                 });
     }
-
-    private SecretKey buildKey(String secret) {
-
-        try {
-            byte[] decoded = Base64.getDecoder().decode(secret);
-
-            if (decoded.length >= 32) {
-                return Keys.hmacShaKeyFor(decoded);
-            }
-        } catch (IllegalArgumentException ignored) {
-        }
-
-        if (secret.length() < 32) {
-            throw new IllegalStateException(
-                    "jwt.secret is too weak: must be at least 32 characters " +
-                            "(or a Base64-encoded value decoding to 32+ bytes)");
-        }
-
-        return Keys.hmacShaKeyFor(
-                secret.getBytes(StandardCharsets.UTF_8));
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,141 @@
+package com.apigateway.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * The gateway's single point of access-token verification.
+ *
+ * The authentication manager, UserHeaderFilter and the rate limiter's key
+ * resolver all need the caller's claims. Whichever asks first verifies the
+ * token and leaves the outcome on the exchange under {@link #CLAIMS_ATTR};
+ * the others read it back, so a request pays for one verification at most.
+ *
+ * Across requests, verified claims live in one bounded cache keyed by the
+ * token's SHA-256 — the bearer credential itself is never kept as a key — and
+ * an entry is never served past the token's own expiry.
+ */
+@Slf4j
+@Component
+public class TokenVerifier {
+
+    /** Exchange attribute holding the request's {@link Claims}, or a marker for a rejected token. */
+    public static final String CLAIMS_ATTR = TokenVerifier.class.getName() + ".claims";
+
+    private static final Object INVALID = new Object();
+
+    private final JwtParser parser;
+    private final Cache<String, Claims> claimsCache;
+
+    public TokenVerifier(@Value("${jwt.secret}") String secret,
+                         @Value("${jwt.claims-cache.maximum-size:10000}") long maximumSize,
+                         @Value("${jwt.claims-cache.expire-after-write:PT5M}") Duration expireAfterWrite,
+                         MeterRegistry meterRegistry) {
+        // JwtParser is immutable and thread-safe — build it once, not per token
+        this.parser = Jwts.parser().verifyWith(buildKey(secret)).build();
+        this.claimsCache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, claimsCache, "jwt.claims");
+    }
+
+    /** The bearer token from the Authorization header, else the {@code token} query parameter (SSE). */
+    public static String extractToken(ServerHttpRequest request) {
+        String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            return authHeader.substring(7);
+        }
+        String queryToken = request.getQueryParams().getFirst("token");
+        return queryToken != null && !queryToken.isEmpty() ? queryToken : null;
+    }
+
+    /**
+     * The claims of the request's token, verified at most once per exchange.
+     * Empty when the request carries no token or its token is invalid.
+     */
+    public Optional<Claims> claims(ServerWebExchange exchange) {
+        Object outcome = exchange.getAttribute(CLAIMS_ATTR);
+        if (outcome == null) {
+            String token = extractToken(exchange.getRequest());
+            if (token == null) {
+                return Optional.empty();
+            }
+            try {
+                outcome = verify(token);
+            } catch (JwtException | IllegalArgumentException e) {
+                log.debug("Rejected JWT: {}", e.getMessage());
+                outcome = INVALID;
+            }
+            exchange.getAttributes().put(CLAIMS_ATTR, outcome);
+        }
+        return outcome instanceof Claims claims ? Optional.of(claims) : Optional.empty();
+    }
+
+    /**
+     * Verifies a token, or returns its cached claims.
+     *
+     * @throws JwtException if the signature is invalid or the token has expired
+     */
+    public Claims verify(String token) {
+        String key = sha256(token);
+        Claims claims = claimsCache.get(key, k -> parser.parseSignedClaims(token).getPayload());
+        Date expiration = claims.getExpiration();
+        if (expiration != null && expiration.before(new Date())) {
+            claimsCache.invalidate(key);
+            throw new ExpiredJwtException(null, claims, "JWT expired at " + expiration.toInstant());
+        }
+        return claims;
+    }
+
+    private static String sha256(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+
+    private static SecretKey buildKey(String secret) {
+        try {
+            byte[] decoded = Base64.getDecoder().decode(secret);
+            if (decoded.length >= 32) {
+                return Keys.hmacShaKeyFor(decoded);
+            }
+        } catch (IllegalArgumentException ignored) {
+        }
+
+        if (secret.length() < 32) {
+            throw new IllegalStateException(
+                    "jwt.secret is too weak: must be at least 32 characters " +
+                            "(or a Base64-encoded value decoding to 32+ bytes)");
+        }
+        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    }
+}
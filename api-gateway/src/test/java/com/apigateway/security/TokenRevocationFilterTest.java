@@ -0,0 +1,147 @@
+package com.apigateway.security;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ReactiveZSetOperations;
+import org.springframework.data.redis.core.ScanOptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static com.apigateway.security.TokenRevocationFilter.REVOKED_CHANNEL;
+import static com.apigateway.security.TokenRevocationFilter.REVOKED_KEY;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("TokenRevocationFilter — Unit Tests")
+class TokenRevocationFilterTest {
+
+    private static final String REVOKED = "revoked-jti";
+
+    @Mock ReactiveStringRedisTemplate redisTemplate;
+    @Mock ReactiveZSetOperations<String, String> zSetOps;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TokenVerifier tokenVerifier;
+    private TokenRevocationFilter revocations;
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOps);
+        when(redisTemplate.scan(any(ScanOptions.class))).thenReturn(Flux.empty());
+        when(redisTemplate.delete(anyString())).thenReturn(Mono.just(1L));
+        when(redisTemplate.convertAndSend(anyString(), anyString())).thenReturn(Mono.just(1L));
+        when(zSetOps.removeRangeByScore(eq(REVOKED_KEY), any())).thenReturn(Mono.just(0L));
+        when(zSetOps.size(REVOKED_KEY)).thenReturn(Mono.just(1L));
+        when(zSetOps.rangeByScore(eq(REVOKED_KEY), any())).thenReturn(Flux.just(REVOKED));
+        when(zSetOps.add(eq(REVOKED_KEY), anyString(), anyDouble())).thenReturn(Mono.just(true));
+        when(zSetOps.score(eq(REVOKED_KEY), anyString())).thenReturn(Mono.empty());
+        when(zSetOps.score(REVOKED_KEY, REVOKED))
+                .thenReturn(Mono.just((double) System.currentTimeMillis() + 60_000));
+
+        meterRegistry = new SimpleMeterRegistry();
+        tokenVerifier = new TokenVerifier(TokenVerifierTest.SECRET, 100, Duration.ofMinutes(5), meterRegistry);
+        revocations = new TokenRevocationFilter(redisTemplate, tokenVerifier, 1000, 0.01,
+                Duration.ofMinutes(1), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("until the first sync every check goes to Redis")
+    void beforeSync_checksRedis() {
+        StepVerifier.create(revocations.isRevoked("some-jti")).expectNext(false).verifyComplete();
+
+        verify(zSetOps).score(REVOKED_KEY, "some-jti");
+        assertThat(counter("jwt.revocation.filter.false_positives")).isZero();
+    }
+
+    @Test
+    @DisplayName("after a sync, unrevoked ids are answered locally and revoked ones confirmed in Redis")
+    void afterSync_redisOnlyOnHit() {
+        revocations.resync().block();
+
+        StepVerifier.create(revocations.isRevoked("some-jti")).expectNext(false).verifyComplete();
+        StepVerifier.create(revocations.isRevoked(REVOKED)).expectNext(true).verifyComplete();
+
+        verify(zSetOps, never()).score(REVOKED_KEY, "some-jti");
+        verify(zSetOps).score(REVOKED_KEY, REVOKED);
+        assertThat(counter("jwt.revocation.filter.negatives")).isEqualTo(1);
+        assertThat(counter("jwt.revocation.rejected")).isEqualTo(1);
+        assertThat(meterRegistry.get("jwt.revocation.latency.saved.p99").gauge().value()).isNotNegative();
+    }
+
+    @Test
+    @DisplayName("a filter hit that Redis doesn't confirm counts as a false positive")
+    void filterHit_notInRedis_countsFalsePositive() {
+        revocations.resync().block();
+        revocations.add("announced-then-expired");
+
+        StepVerifier.create(revocations.isRevoked("announced-then-expired")).expectNext(false).verifyComplete();
+
+        assertThat(counter("jwt.revocation.filter.false_positives")).isEqualTo(1);
+        assertThat(meterRegistry.get("jwt.revocation.filter.false_positive_rate").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("revoking stores the jti with its expiry and announces it")
+    void revoke_storesAndPublishes() {
+        Instant expiresAt = Instant.now().plusSeconds(600);
+
+        revocations.revoke("jti-1", expiresAt).block();
+
+        verify(zSetOps).add(REVOKED_KEY, "jti-1", (double) expiresAt.toEpochMilli());
+        verify(redisTemplate).convertAndSend(REVOKED_CHANNEL, "jti-1");
+    }
+
+    @Test
+    @DisplayName("entries from the old whole-token blacklist are folded into the set by jti")
+    void resync_importsLegacyBlacklist() {
+        String token = TokenVerifierTest.token(Duration.ofMinutes(15));
+        Claims claims = tokenVerifier.verify(token);
+        when(redisTemplate.scan(any(ScanOptions.class))).thenReturn(Flux.just("token_blacklist:" + token));
+
+        revocations.resync().block();
+
+        verify(zSetOps).add(REVOKED_KEY, claims.getId(), (double) claims.getExpiration().getTime());
+        verify(redisTemplate).delete("token_blacklist:" + token);
+    }
+
+    @Test
+    @DisplayName("the Bloom filter never misses an entry and stays near its target false-positive rate")
+    void bloomFilter_noFalseNegatives() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("jti-" + i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("jti-" + i)).isTrue();
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+        assertThatThrownBy(() -> new BloomFilter(10, 1.5)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private double counter(String name) {
+        return meterRegistry.get(name).counter().count();
+    }
+}
@@ -0,0 +1,109 @@
+package com.apigateway.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Per-request cost of token handling along the gateway's path — authentication,
+ * UserHeaderFilter, rate-limit key resolver — before and after the shared
+ * TokenVerifier. "Before" replays what those components did: two private caches
+ * keyed by the raw token plus an uncached parse in the key resolver. The
+ * manager's Redis check is identical on both sides and left out. Timings are
+ * printed; what is asserted is the number of signature verifications.
+ * Excluded from the default build — run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@DisplayName("Token verification — per-request benchmark")
+class TokenVerificationBenchmarkTest {
+
+    private static final int WARMUP = 5_000;
+    private static final int REQUESTS = 20_000;
+
+    private final JwtParser parser = Jwts.parser()
+            .verifyWith(Keys.hmacShaKeyFor(TokenVerifierTest.SECRET.getBytes(StandardCharsets.UTF_8)))
+            .build();
+    private final AtomicInteger parses = new AtomicInteger();
+    private final List<String> tokens = IntStream.range(0, 500)
+            .mapToObj(i -> TokenVerifierTest.token(Duration.ofMinutes(15)))
+            .toList();
+
+    @Test
+    @DisplayName("one verification per request replaces three")
+    void sharedVerifier_isCheaperPerRequest() {
+        Cache<String, Claims> managerCache = Caffeine.newBuilder().maximumSize(5000).build();
+        Cache<String, Claims> headerCache = Caffeine.newBuilder().maximumSize(5000).build();
+        Consumer<MockServerWebExchange> before = exchange -> {
+            String token = TokenVerifier.extractToken(exchange.getRequest());
+            managerCache.get(token, this::parse).getSubject();
+            headerCache.get(token, this::parse).get("userId", String.class);
+            parse(token).get("userId", String.class);
+        };
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TokenVerifier verifier = new TokenVerifier(TokenVerifierTest.SECRET, 5000, Duration.ofMinutes(5),
+                meterRegistry);
+        JwtAuthenticationConverter converter = new JwtAuthenticationConverter(verifier);
+        Consumer<MockServerWebExchange> after = exchange -> {
+            ((JwtAuthenticationToken) converter.convert(exchange).block()).getClaims().getSubject();
+            verifier.claims(exchange).orElseThrow().get("userId", String.class);
+            verifier.claims(exchange).orElseThrow().get("userId", String.class);
+        };
+
+        double beforeMicros = run(before);
+        int parsesBefore = parses.get();
+        double afterMicros = run(after);
+
+        System.out.printf("%-28s %8.2f µs/request%n", "three verifications", beforeMicros);
+        System.out.printf("%-28s %8.2f µs/request%n", "shared TokenVerifier", afterMicros);
+        System.out.printf("%-28s %8.2f µs/request%n", "saving", beforeMicros - afterMicros);
+
+        int requests = WARMUP + REQUESTS;
+        // Before: every request re-parsed in the key resolver, plus one parse per token in each private cache
+        assertThat(parsesBefore).isEqualTo(requests + 2 * tokens.size());
+        // After: one cache lookup per request, and one signature check per distinct token
+        assertThat(cacheGets(meterRegistry, "miss")).isEqualTo(tokens.size());
+        assertThat(cacheGets(meterRegistry, "hit") + cacheGets(meterRegistry, "miss")).isEqualTo(requests);
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private static double cacheGets(SimpleMeterRegistry meterRegistry, String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "jwt.claims").tag("result", result)
+                .functionCounter().count();
+    }
+
+    private Claims parse(String token) {
+        parses.incrementAndGet();
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
+    private double run(Consumer<MockServerWebExchange> path) {
+        List<MockServerWebExchange> exchanges = IntStream.range(0, REQUESTS + WARMUP)
+                .mapToObj(i -> TokenVerifierTest.bearer(tokens.get(i % tokens.size())))
+                .toList();
+        for (int i = 0; i < WARMUP; i++) {
+            path.accept(exchanges.get(i));
+        }
+        long start = System.nanoTime();
+        for (int i = WARMUP; i < exchanges.size(); i++) {
+            path.accept(exchanges.get(i));
+        }
+        return (System.nanoTime() - start) / 1_000.0 / REQUESTS;
+    }
+}
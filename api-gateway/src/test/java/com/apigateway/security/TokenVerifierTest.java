@@ -0,0 +1,142 @@
+package com.apigateway.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.authentication.BadCredentialsException;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("TokenVerifier — Unit Tests")
+class TokenVerifierTest {
+
+    static final String SECRET = "a-test-secret-that-is-long-enough-for-hs256";
+    static final String USER_ID = UUID.randomUUID().toString();
+
+    private SimpleMeterRegistry meterRegistry;
+    private TokenVerifier verifier;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        verifier = new TokenVerifier(SECRET, 100, Duration.ofMinutes(5), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("claims are verified once and reused by every reader of the exchange")
+    void claims_verifiedOncePerExchange() {
+        MockServerWebExchange exchange = bearer(token(Duration.ofMinutes(15)));
+
+        Claims first = verifier.claims(exchange).orElseThrow();
+        Claims second = verifier.claims(exchange).orElseThrow();
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.get("userId", String.class)).isEqualTo(USER_ID);
+        assertThat(exchange.<Object>getAttribute(TokenVerifier.CLAIMS_ATTR)).isSameAs(first);
+        assertThat(misses()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("a token seen on an earlier request is served from the cache")
+    void verify_cachedAcrossRequests() {
+        String token = token(Duration.ofMinutes(15));
+
+        verifier.claims(bearer(token));
+        verifier.claims(bearer(token));
+
+        assertThat(misses()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "jwt.claims").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("a tampered token yields no claims and is not re-verified within the request")
+    void claims_invalidToken_empty() {
+        String token = token(Duration.ofMinutes(15));
+        MockServerWebExchange exchange = bearer(token.substring(0, token.length() - 2) + "xx");
+
+        assertThat(verifier.claims(exchange)).isEmpty();
+        assertThat(verifier.claims(exchange)).isEmpty();
+        assertThat(misses()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("a cached token is rejected once it expires")
+    void verify_expiredWhileCached_rejected() throws InterruptedException {
+        String token = token(Duration.ofSeconds(1));
+        verifier.verify(token);
+
+        Thread.sleep(1100);
+
+        assertThatThrownBy(() -> verifier.verify(token)).isInstanceOf(ExpiredJwtException.class);
+    }
+
+    @Test
+    @DisplayName("the token query parameter is honoured when there is no Authorization header")
+    void extractToken_queryParameter() {
+        String token = token(Duration.ofMinutes(15));
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.get("/api/upsert/notifications/stream").queryParam("token", token));
+
+        assertThat(verifier.claims(exchange)).isPresent();
+        assertThat(verifier.claims(MockServerWebExchange.from(MockServerHttpRequest.get("/")))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("the converter hands verified claims to the manager, and rejects a bad token")
+    void converter_carriesClaims() {
+        JwtAuthenticationConverter converter = new JwtAuthenticationConverter(verifier);
+
+        StepVerifier.create(converter.convert(bearer(token(Duration.ofMinutes(15)))))
+                .assertNext(auth -> assertThat(((JwtAuthenticationToken) auth).getClaims()).isNotNull())
+                .verifyComplete();
+        StepVerifier.create(converter.convert(bearer("not-a-jwt")))
+                .expectError(BadCredentialsException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("a short secret is refused at startup")
+    void weakSecret_rejected() {
+        assertThatThrownBy(() -> new TokenVerifier("short", 100, Duration.ofMinutes(5), meterRegistry))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> verifier.verify("not-a-jwt")).isInstanceOf(JwtException.class);
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private double misses() {
+        return meterRegistry.get("cache.gets").tag("cache", "jwt.claims").tag("result", "miss")
+                .functionCounter().count();
+    }
+
+    static String token(Duration ttl) {
+        return Jwts.builder()
+                .subject("user@example.com")
+                .claim("userId", USER_ID)
+                .claim("role", "USER")
+                .id(UUID.randomUUID().toString())
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + ttl.toMillis()))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+
+    static MockServerWebExchange bearer(String token) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/analytics/summary")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+    }
+}
@@ -0,0 +1,23 @@
+package com.finance.command.cache;
+
+/**
+ * Hibernate second-level cache regions. Each one is created explicitly by
+ * SecondLevelCacheConfig (a region missing there fails startup), with its
+ * own size and TTL.
+ */
+public final class CacheRegions {
+
+    /** auth.users — written by the gateway only, so entries simply expire. */
+    public static final String REGISTERED_USERS = "auth.registered-users";
+    public static final String EXPENSE_GROUPS   = "groups.expense-groups";
+    public static final String GROUP_MEMBERS    = "groups.group-members";
+
+    /** Cached results of GroupMemberRepository lookups. */
+    public static final String GROUP_MEMBER_QUERIES = "groups.group-member-queries";
+
+    /** Hibernate's built-in query cache regions. */
+    public static final String DEFAULT_QUERY_RESULTS = "default-query-results-region";
+    public static final String UPDATE_TIMESTAMPS     = "default-update-timestamps-region";
+
+    private CacheRegions() {}
+}
@@ -0,0 +1,230 @@
+package com.finance.command.cache;
+
+import com.finance.command.model.GroupMember;
+import com.finance.command.model.GroupMember.InvitationStatus;
+import com.finance.command.repository.GroupMemberRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-instance directory of group memberships, used by SplitService for
+ * membership checks, payer validation and display-name resolution.
+ *
+ * Snapshots are immutable and cached in Caffeine under (groupId, version).
+ * Invalidation bumps the group's version instead of deleting the entry, so a
+ * load that raced with a membership change can only ever populate a key no
+ * one will read again. Versions are bumped:
+ *  - immediately, when a transaction mutates membership — that transaction
+ *    then reads through to the DB for the group until it completes
+ *  - again after completion, so concurrent loads of pre-commit state are dropped
+ *  - on every instance, via {@link #INVALIDATE_CHANNEL}, after commit
+ *
+ * Versions idle for longer than the snapshot TTL are dropped; a group with no
+ * version gets a fresh clock value, never a reused one, so an old snapshot
+ * still cached under an earlier version cannot come back.
+ *
+ * Loads run in the caller's transaction; call from read-write (primary) paths
+ * so a lagging replica never seeds the cache.
+ */
+@Slf4j
+@Component
+public class GroupMembershipDirectory {
+
+    static final String INVALIDATE_CHANNEL = "finance:upsert:v1:group-directory:invalidate";
+
+    /** Transaction resource key holding the groups mutated by the current transaction. */
+    private static final Object TX_DIRTY_KEY = GroupMembershipDirectory.class.getName() + ".dirty";
+
+    public record Member(UUID userId, String name, InvitationStatus status, boolean archived) {
+        public boolean accepted() {
+            return status == InvitationStatus.ACCEPTED;
+        }
+    }
+
+    public record Snapshot(Long groupId, long version, Map<UUID, Member> members) {
+
+        public boolean contains(UUID userId) {
+            return members.containsKey(userId);
+        }
+
+        public Optional<Member> find(UUID userId) {
+            return Optional.ofNullable(members.get(userId));
+        }
+
+        public Optional<String> nameOf(UUID userId) {
+            return find(userId).map(Member::name);
+        }
+
+        public Set<UUID> memberIds() {
+            return members.keySet();
+        }
+
+        public List<Member> acceptedMembers() {
+            return members.values().stream().filter(Member::accepted).toList();
+        }
+    }
+
+    private record GroupKey(long groupId, long version) {}
+
+    private final GroupMemberRepository memberRepo;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final Cache<GroupKey, Snapshot> snapshots;
+    private final Cache<Long, Long> versions;
+    private final AtomicLong versionClock = new AtomicLong();
+    private final Counter loadCounter;
+
+    public GroupMembershipDirectory(GroupMemberRepository memberRepo,
+                                    StringRedisTemplate redisTemplate,
+                                    RedisMessageListenerContainer listenerContainer,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${groups.directory.max-groups:10000}") long maxGroups,
+                                    @Value("${groups.directory.ttl:PT10M}") Duration ttl) {
+        this.memberRepo = memberRepo;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(maxGroups)
+                .expireAfterWrite(ttl)
+                .build();
+        // Outlives any snapshot it keys, so an active group keeps hitting its cached snapshot
+        this.versions = Caffeine.newBuilder()
+                .expireAfterAccess(ttl.multipliedBy(2))
+                .build();
+        this.loadCounter = meterRegistry.counter("groups.directory.load");
+    }
+
+    @PostConstruct
+    void subscribe() {
+        listenerContainer.addMessageListener(
+                (message, pattern) -> onRemoteInvalidate(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(INVALIDATE_CHANNEL));
+    }
+
+    // ── Lookups ───────────────────────────────────────────────────────────────
+
+    /** Membership snapshot for {@code groupId}; at most one query on a miss. */
+    public Snapshot get(Long groupId) {
+        if (dirtyInCurrentTransaction(groupId)) {
+            // Our own uncommitted membership writes must be visible, but never cached
+            return load(groupId, -1L);
+        }
+        long version = versions.get(groupId, id -> versionClock.incrementAndGet());
+        return snapshots.get(new GroupKey(groupId, version), key -> load(groupId, version));
+    }
+
+    /** @throws SecurityException if {@code userId} is not a member of the group */
+    public Snapshot requireMember(Long groupId, UUID userId) {
+        Snapshot snapshot = get(groupId);
+        if (!snapshot.contains(userId)) {
+            throw new SecurityException("User is not a member of this group");
+        }
+        return snapshot;
+    }
+
+    // ── Invalidation ──────────────────────────────────────────────────────────
+
+    /**
+     * Call after any write to the group's membership rows. Safe outside a
+     * transaction, in which case the change is treated as already committed.
+     */
+    public void invalidate(Long groupId) {
+        bumpVersion(groupId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(groupId);
+            return;
+        }
+        if (!markDirty(groupId)) {
+            return; // completion callback already registered for this group
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                bumpVersion(groupId);
+                if (status == STATUS_COMMITTED) {
+                    publish(groupId);
+                }
+            }
+        });
+    }
+
+    // ── Internals ─────────────────────────────────────────────────────────────
+
+    private Snapshot load(Long groupId, long version) {
+        loadCounter.increment();
+        Map<UUID, Member> members = new LinkedHashMap<>();
+        for (GroupMember m : memberRepo.findByGroupId(groupId)) {
+            members.put(m.getUserId(), new Member(m.getUserId(), m.getName(), m.getStatus(), m.isArchived()));
+        }
+        return new Snapshot(groupId, version, Collections.unmodifiableMap(members));
+    }
+
+    private void bumpVersion(Long groupId) {
+        versions.put(groupId, versionClock.incrementAndGet());
+    }
+
+    private void publish(Long groupId) {
+        try {
+            redisTemplate.convertAndSend(INVALIDATE_CHANNEL, groupId.toString());
+        } catch (Exception e) {
+            // Other instances fall back to the snapshot TTL
+            log.warn("Failed to publish directory invalidation for group {}: {}", groupId, e.getMessage());
+        }
+    }
+
+    private void onRemoteInvalidate(String payload) {
+        try {
+            bumpVersion(Long.parseLong(payload));
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed directory invalidation: {}", payload);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static boolean markDirty(Long groupId) {
+        Set<Long> dirty = (Set<Long>) TransactionSynchronizationManager.getResource(TX_DIRTY_KEY);
+        if (dirty == null) {
+            dirty = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(TX_DIRTY_KEY, dirty);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TX_DIRTY_KEY);
+                }
+            });
+        }
+        return dirty.add(groupId);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static boolean dirtyInCurrentTransaction(Long groupId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return false;
+        }
+        Set<Long> dirty = (Set<Long>) TransactionSynchronizationManager.getResource(TX_DIRTY_KEY);
+        return dirty != null && dirty.contains(groupId);
+    }
+}
@@ -0,0 +1,183 @@
+package com.finance.command.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Keeps the per-instance Hibernate second-level cache coherent across instances.
+ *
+ * Hibernate already updates this instance's regions on commit; what it can't
+ * see is a commit on another instance. After every committed insert, update or
+ * delete of a cacheable entity we publish {@code origin|entity|id} on
+ * {@link #INVALIDATE_CHANNEL}. Every other instance evicts that entity and its
+ * query-cache regions — cached query results are only guarded by the local
+ * update-timestamps region, which never saw the remote write.
+ *
+ * Read-only transactions may load from a replica up to max-lag behind the
+ * primary, so a load racing the first eviction could re-cache the old row.
+ * Remote evictions are therefore repeated once max-lag later.
+ */
+@Slf4j
+@Component
+public class SecondLevelCacheInvalidator implements PostCommitInsertEventListener,
+        PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    static final String INVALIDATE_CHANNEL = "finance:upsert:v1:l2:invalidate";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final TaskScheduler taskScheduler;
+    private final Duration replicaMaxLag;
+    private final Counter publishedCounter;
+    private final Counter receivedCounter;
+
+    /** Distinguishes our own messages, which the subscription also delivers back to us. */
+    private final String originId = UUID.randomUUID().toString();
+
+    private SessionFactoryImplementor sessionFactory;
+
+    public SecondLevelCacheInvalidator(EntityManagerFactory entityManagerFactory,
+                                       StringRedisTemplate redisTemplate,
+                                       RedisMessageListenerContainer listenerContainer,
+                                       TaskScheduler taskScheduler,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${app.datasource.read.lag.max-lag:PT1S}") Duration replicaMaxLag) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.taskScheduler = taskScheduler;
+        this.replicaMaxLag = replicaMaxLag;
+        this.publishedCounter = meterRegistry.counter("hibernate.l2.invalidations", "direction", "published");
+        this.receivedCounter = meterRegistry.counter("hibernate.l2.invalidations", "direction", "received");
+    }
+
+    @PostConstruct
+    void register() {
+        sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+
+        listenerContainer.addMessageListener(
+                (message, pattern) -> onRemoteInvalidate(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(INVALIDATE_CHANNEL));
+    }
+
+    // ── Local commits ─────────────────────────────────────────────────────────
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return persister.canWriteToCache();
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        publish(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        publish(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        publish(event.getPersister(), event.getId());
+    }
+
+    // Rolled back: nothing changed, nothing to tell other instances
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {}
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {}
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {}
+
+    private void publish(EntityPersister persister, Object id) {
+        if (!persister.canWriteToCache()) {
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(INVALIDATE_CHANNEL,
+                    originId + "|" + persister.getEntityName() + "|" + id);
+            publishedCounter.increment();
+        } catch (Exception e) {
+            // Other instances fall back to the region TTL
+            log.warn("Failed to publish L2 invalidation for {}#{}: {}", persister.getEntityName(), id, e.getMessage());
+        }
+    }
+
+    // ── Remote commits ────────────────────────────────────────────────────────
+
+    void onRemoteInvalidate(String payload) {
+        String[] parts = payload.split("\\|", 3);
+        if (parts.length != 3) {
+            log.warn("Ignoring malformed L2 invalidation: {}", payload);
+            return;
+        }
+        if (originId.equals(parts[0])) {
+            return;
+        }
+        EntityPersister persister = sessionFactory.getMappingMetamodel().findEntityDescriptor(parts[1]);
+        if (persister == null || !persister.canWriteToCache()) {
+            log.warn("Ignoring L2 invalidation for unknown or uncached entity {}", parts[1]);
+            return;
+        }
+        Object id;
+        try {
+            id = parseId(persister.getIdentifierType().getReturnedClass(), parts[2]);
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring L2 invalidation with malformed id: {}", payload);
+            return;
+        }
+        receivedCounter.increment();
+        evict(persister.getEntityName(), id);
+        taskScheduler.schedule(() -> evict(persister.getEntityName(), id), Instant.now().plus(replicaMaxLag));
+    }
+
+    private void evict(String entityName, Object id) {
+        CacheImplementor cache = sessionFactory.getCache();
+        cache.evictEntityData(entityName, id);
+        // Only GroupMemberRepository lookups are query-cached today; both regions are small
+        cache.evictQueryRegions();
+    }
+
+    private static Object parseId(Class<?> type, String raw) {
+        if (type == Long.class) {
+            return Long.valueOf(raw);
+        }
+        if (type == UUID.class) {
+            return UUID.fromString(raw);
+        }
+        throw new IllegalArgumentException("Unsupported id type " + type.getName());
+    }
+}
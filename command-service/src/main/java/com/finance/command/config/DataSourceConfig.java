@@ -2,15 +2,24 @@ package com.finance.command.config;
 
 import com.finance.command.config.TransactionRoutingDataSource.DataSourceType;
 import com.zaxxer.hikari.HikariConfig;
+import com.finance.command.shard.ShardingProperties;
 import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
 
 import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -28,6 +37,7 @@ import java.util.Map;
  */
 @Slf4j
 @Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
 public class DataSourceConfig {
 
     // ── Write pool properties ─────────────────────────────────────────────────
@@ -56,6 +66,9 @@ public class DataSourceConfig {
     @Value("${app.datasource.write.max-lifetime:1800000}")
     private long writeMaxLifetime;
 
+    @Value("${app.datasource.write.rewrite-batched-inserts:true}")
+    private boolean writeRewriteBatchedInserts;
+
     // ── Read pool properties ──────────────────────────────────────────────────
 
     @Value("${app.datasource.read.jdbc-url}")
@@ -96,6 +109,8 @@ public class DataSourceConfig {
         cfg.setConnectionTimeout(writeConnectionTimeout);
         cfg.setMaxLifetime(writeMaxLifetime);
         cfg.setAutoCommit(false);            // Spring manages commits via @Transactional
+        // Lets pgJDBC collapse Hibernate's batched INSERTs into multi-row statements
+        cfg.addDataSourceProperty("reWriteBatchedInserts", writeRewriteBatchedInserts);
         log.info("Initialized write connection pool: {} (max={})", writePoolName, writeMaxPoolSize);
         return new HikariDataSource(cfg);
     }
@@ -119,19 +134,31 @@ public class DataSourceConfig {
 
     /**
      * The routing DataSource — delegates to writeDataSource or readDataSource
-     * based on TransactionSynchronizationManager.isCurrentTransactionReadOnly().
+     * based on TransactionSynchronizationManager.isCurrentTransactionReadOnly(),
+     * falling back to writeDataSource while the replica lags (ReplicaLagMonitor).
+     *
+     * With app.sharding.shards configured, that pair becomes shard 0 and a
+     * ShardRoutingDataSource picks between it and one such pair per extra shard.
      */
     @Bean
     public DataSource routingDataSource(HikariDataSource writeDataSource,
-                                        HikariDataSource readDataSource) {
-        TransactionRoutingDataSource routing = new TransactionRoutingDataSource();
-        routing.setTargetDataSources(Map.of(
-                DataSourceType.WRITE, writeDataSource,
-                DataSourceType.READ,  readDataSource
-        ));
-        routing.setDefaultTargetDataSource(writeDataSource); // fallback for non-transactional calls
-        routing.afterPropertiesSet();
-        return routing;
+                                        HikariDataSource readDataSource,
+                                        ReplicaLagMonitor replicaLagMonitor,
+                                        ShardingProperties sharding,
+                                        MeterRegistry meterRegistry) {
+        // Tagged shard=0 even unsharded: Prometheus drops meters whose tag keys differ from the first registered
+        DataSource shardZero = transactionRouting(writeDataSource, readDataSource, replicaLagMonitor,
+                meterRegistry, Tags.of("shard", "0"));
+        if (sharding.shards().isEmpty()) {
+            return shardZero;
+        }
+        List<DataSource> shards = new ArrayList<>();
+        shards.add(shardZero);
+        for (int i = 0; i < sharding.shards().size(); i++) {
+            shards.add(shardRouting(i + 1, sharding.shards().get(i), meterRegistry));
+        }
+        log.info("Routing across {} shards", shards.size());
+        return new ShardRoutingDataSource(shards, meterRegistry);
     }
 
     /**
@@ -148,4 +175,73 @@ public class DataSourceConfig {
     public DataSource dataSource(DataSource routingDataSource) {
         return new LazyConnectionDataSourceProxy(routingDataSource);
     }
+
+    // ── Additional shards ─────────────────────────────────────────────────────
+
+    @Value("${app.datasource.read.lag.max-lag:PT1S}")
+    private Duration maxLag;
+
+    @Value("${app.datasource.read.lag.resume-lag:PT0.25S}")
+    private Duration resumeLag;
+
+    @Value("${app.datasource.read.lag.timeout-seconds:2}")
+    private int lagTimeoutSeconds;
+
+    /** Pools and lag monitors of shards 1..N; not beans, so closed and sampled here. */
+    private final List<HikariDataSource> shardPools = new ArrayList<>();
+    private final List<ReplicaLagMonitor> shardLagMonitors = new ArrayList<>();
+
+    private DataSource shardRouting(int shard, ShardingProperties.Shard cfg, MeterRegistry meterRegistry) {
+        String name = "HikariPool-shard" + shard;
+        HikariDataSource write = shardPool(name + "-write", cfg.write(), false);
+        HikariDataSource read = shardPool(name + "-read", cfg.read() != null ? cfg.read() : cfg.write(), true);
+        Tags tags = Tags.of("shard", Integer.toString(shard));
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(read, meterRegistry, maxLag, resumeLag, lagTimeoutSeconds, tags);
+        shardLagMonitors.add(monitor);
+        return transactionRouting(write, read, monitor, meterRegistry, tags);
+    }
+
+    private HikariDataSource shardPool(String poolName, ShardingProperties.Pool pool, boolean readOnly) {
+        HikariConfig cfg = new HikariConfig();
+        cfg.setJdbcUrl(pool.jdbcUrl());
+        cfg.setUsername(pool.username());
+        cfg.setPassword(pool.password());
+        cfg.setPoolName(poolName);
+        cfg.setMaximumPoolSize(pool.maximumPoolSize());
+        cfg.setMinimumIdle(Math.min(2, pool.maximumPoolSize()));
+        cfg.setConnectionTimeout(readOnly ? readConnectionTimeout : writeConnectionTimeout);
+        cfg.setMaxLifetime(readOnly ? readMaxLifetime : writeMaxLifetime);
+        cfg.setAutoCommit(false);
+        if (readOnly) {
+            cfg.setReadOnly(true);
+        } else {
+            cfg.addDataSourceProperty("reWriteBatchedInserts", writeRewriteBatchedInserts);
+        }
+        log.info("Initialized connection pool: {} (max={})", poolName, pool.maximumPoolSize());
+        HikariDataSource dataSource = new HikariDataSource(cfg);
+        shardPools.add(dataSource);
+        return dataSource;
+    }
+
+    private static DataSource transactionRouting(HikariDataSource write, HikariDataSource read,
+                                                 ReplicaLagMonitor monitor, MeterRegistry meterRegistry, Tags tags) {
+        TransactionRoutingDataSource routing = new TransactionRoutingDataSource(monitor, meterRegistry, tags);
+        routing.setTargetDataSources(Map.of(
+                DataSourceType.WRITE, write,
+                DataSourceType.READ,  read
+        ));
+        routing.setDefaultTargetDataSource(write); // fallback for non-transactional calls
+        routing.afterPropertiesSet();
+        return routing;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.read.lag.sample-interval:PT1S}")
+    public void sampleShardReplicas() {
+        shardLagMonitors.forEach(ReplicaLagMonitor::sample);
+    }
+
+    @PreDestroy
+    public void closeShardPools() {
+        shardPools.forEach(HikariDataSource::close);
+    }
 }
@@ -0,0 +1,31 @@
+package com.finance.command.config;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Runs Flyway migrations after Hibernate's schema update instead of before it.
+ *
+ * Tables are still created from the entities (ddl-auto update); versioned
+ * migrations own everything Hibernate can't express — partitioning, partial
+ * and covering indexes, BRIN. Running them second means a migration can
+ * always rely on the entity tables existing, even on a fresh database.
+ */
+@Configuration
+public class FlywayConfig {
+
+    /** Skips Boot's migrate-before-JPA step; see {@link #migrateAfterSchemaUpdate}. */
+    @Bean
+    public FlywayMigrationStrategy deferredFlywayMigration() {
+        return flyway -> { };
+    }
+
+    /** Called once every singleton — including the EntityManagerFactory — is initialized. */
+    @Bean
+    public SmartInitializingSingleton migrateAfterSchemaUpdate(Flyway flyway) {
+        return flyway::migrate;
+    }
+}
@@ -0,0 +1,142 @@
+package com.finance.command.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Samples the read pool's replication delay and decides whether read-only
+ * transactions may use it.
+ *
+ * Hysteresis keeps routing from flapping around a single threshold:
+ *   - routable, lag  > max-lag      → stop routing reads to the replica
+ *   - not routable, lag ≤ resume-lag → start routing reads to the replica again
+ *
+ * A failed sample counts as unbounded lag, so an unreachable replica is
+ * bypassed until it answers again. When the read pool points at the primary
+ * itself (pg_is_in_recovery() = false) lag is always 0.
+ */
+@Slf4j
+@Component
+public class ReplicaLagMonitor {
+
+    /**
+     * Seconds behind the primary. A replica that has replayed everything it
+     * received reports 0 — otherwise an idle primary would look like lag. That
+     * only holds while WAL is actually arriving: with no streaming receiver,
+     * receive = replay because nothing is received, so the lag is unbounded.
+     * Roles without pg_read_all_stats see a NULL status, so only an absent
+     * receiver counts for them. query-service's ReplicaHealthProbe runs the
+     * same query; change both together.
+     */
+    static final String LAG_SQL = """
+            SELECT CASE
+                     WHEN NOT pg_is_in_recovery() THEN 0
+                     WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver
+                                      WHERE COALESCE(status, 'streaming') = 'streaming') THEN 'Infinity'::float8
+                     WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                     ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp())::float8, 0)
+                   END
+            """;
+
+    private final DataSource readDataSource;
+    private final double maxLagSeconds;
+    private final double resumeLagSeconds;
+    private final int timeoutSeconds;
+
+    private volatile double lagSeconds;
+    private volatile boolean replicaRoutable = true;
+
+    @Autowired
+    public ReplicaLagMonitor(@Qualifier("readDataSource") DataSource readDataSource,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.datasource.read.lag.max-lag:PT1S}") Duration maxLag,
+                             @Value("${app.datasource.read.lag.resume-lag:PT0.25S}") Duration resumeLag,
+                             @Value("${app.datasource.read.lag.timeout-seconds:2}") int timeoutSeconds) {
+        // Shard 0's replica; extra shards add the same tag key so Prometheus keeps every series
+        this(readDataSource, meterRegistry, maxLag, resumeLag, timeoutSeconds, Tags.of("shard", "0"));
+    }
+
+    /** For the replicas of additional shards, which DataSourceConfig samples itself. */
+    ReplicaLagMonitor(DataSource readDataSource, MeterRegistry meterRegistry,
+                      Duration maxLag, Duration resumeLag, int timeoutSeconds, Tags tags) {
+        if (resumeLag.compareTo(maxLag) > 0) {
+            throw new IllegalArgumentException("app.datasource.read.lag.resume-lag must not exceed max-lag");
+        }
+        this.readDataSource = readDataSource;
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        this.resumeLagSeconds = resumeLag.toMillis() / 1000.0;
+        this.timeoutSeconds = timeoutSeconds;
+        Gauge.builder("datasource.replica.lag", this, ReplicaLagMonitor::getLagSeconds)
+                .tags(tags).baseUnit("seconds").register(meterRegistry);
+        Gauge.builder("datasource.replica.routable", this, m -> m.replicaRoutable ? 1 : 0)
+                .tags(tags).register(meterRegistry);
+    }
+
+    /** Whether read-only transactions may currently be sent to the read pool. */
+    public boolean isReplicaRoutable() {
+        return replicaRoutable;
+    }
+
+    public double getLagSeconds() {
+        return lagSeconds;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.read.lag.sample-interval:PT1S}")
+    public void sample() {
+        double lag;
+        try {
+            lag = sampleLag();
+        } catch (Exception e) {
+            if (replicaRoutable) {
+                log.warn("Replica lag sample failed, routing reads to the primary: {}", e.getMessage());
+            }
+            lag = Double.POSITIVE_INFINITY;
+        }
+        record(lag);
+    }
+
+    /** Applies one lag observation to the hysteresis state. */
+    void record(double lag) {
+        lagSeconds = lag;
+        if (replicaRoutable && lag > maxLagSeconds) {
+            replicaRoutable = false;
+            if (Double.isInfinite(lag)) {
+                log.warn("Replica has no streaming WAL receiver — routing reads to the primary");
+            } else {
+                log.warn("Replica lag {}s exceeds {}s — routing reads to the primary", lag, maxLagSeconds);
+            }
+        } else if (!replicaRoutable && lag <= resumeLagSeconds) {
+            replicaRoutable = true;
+            log.info("Replica lag {}s back under {}s — routing reads to the replica", lag, resumeLagSeconds);
+        }
+    }
+
+    private double sampleLag() throws SQLException {
+        try (Connection conn = readDataSource.getConnection();
+             Statement st = conn.createStatement()) {
+            st.setQueryTimeout(timeoutSeconds);
+            try (ResultSet rs = st.executeQuery(LAG_SQL)) {
+                rs.next();
+                double lag = rs.getDouble(1);
+                if (!conn.getAutoCommit()) {
+                    conn.rollback();
+                }
+                return lag;
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.finance.command.config;
+
+import com.finance.command.cache.CacheRegions;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+
+/**
+ * Hibernate second-level and query cache, held in Caffeine through JCache.
+ *
+ * Every region is created here with its own bound and TTL, and Hibernate is
+ * told to fail on any region it can't find, so a typo in an @Cache region
+ * can't silently fall back to an unbounded default. Each instance has its own
+ * in-memory regions; SecondLevelCacheInvalidator keeps them coherent across
+ * instances. Region hit/miss/put/eviction counts are published as cache.* meters
+ * tagged cache=<region>.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    private static final URI CACHE_MANAGER_URI = URI.create("finance-command-hibernate");
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            MeterRegistry meterRegistry,
+            @Value("${cache.l2.max-entries:10000}") long maxEntries,
+            @Value("${cache.l2.users-ttl:PT10M}") Duration usersTtl,
+            @Value("${cache.l2.groups-ttl:PT30M}") Duration groupsTtl,
+            @Value("${cache.l2.query-ttl:PT5M}") Duration queryTtl) {
+        CaffeineCachingProvider provider = (CaffeineCachingProvider)
+                Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(CACHE_MANAGER_URI, getClass().getClassLoader());
+
+        createRegion(cacheManager, meterRegistry, CacheRegions.REGISTERED_USERS, maxEntries, usersTtl);
+        createRegion(cacheManager, meterRegistry, CacheRegions.EXPENSE_GROUPS, maxEntries, groupsTtl);
+        createRegion(cacheManager, meterRegistry, CacheRegions.GROUP_MEMBERS, maxEntries, groupsTtl);
+        createRegion(cacheManager, meterRegistry, CacheRegions.GROUP_MEMBER_QUERIES, maxEntries, queryTtl);
+        createRegion(cacheManager, meterRegistry, CacheRegions.DEFAULT_QUERY_RESULTS, maxEntries, queryTtl);
+        // Timestamps must outlive every query result they guard: no size bound, no expiry
+        createRegion(cacheManager, meterRegistry, CacheRegions.UPDATE_TIMESTAMPS, -1, null);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheProperties(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    private static void createRegion(CacheManager cacheManager, MeterRegistry meterRegistry,
+                                      String region, long maxEntries, Duration ttl) {
+        CaffeineConfiguration<Object, Object> config = new CaffeineConfiguration<>();
+        config.setStatisticsEnabled(true);
+        if (maxEntries > 0) {
+            config.setMaximumSize(OptionalLong.of(maxEntries));
+        }
+        if (ttl != null) {
+            config.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        }
+        if (cacheManager.getCache(region) == null) {
+            cacheManager.createCache(region, config);
+        }
+        JCacheMetrics.monitor(meterRegistry, cacheManager.getCache(region), Tags.of("layer", "hibernate-l2"));
+    }
+}
@@ -0,0 +1,67 @@
+package com.finance.command.config;
+
+import com.finance.command.shard.ShardContext;
+import com.finance.command.shard.ShardMap;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.UUID;
+
+/**
+ * Pins each request to a shard before any transaction starts:
+ *   - /upsert/groups/**  → the groups home shard
+ *   - everything else    → the shard of the X-User-Id user
+ *
+ * Writes for a user whose rows are being moved between shards get 503 with
+ * Retry-After; reads keep being served from the old shard until the move
+ * completes. Runs after SecurityInterceptor, so X-User-Id is already checked.
+ */
+@Component
+@RequiredArgsConstructor
+public class ShardInterceptor implements HandlerInterceptor {
+
+    private static final String GROUPS_PREFIX = "/upsert/groups";
+
+    private final ShardMap shardMap;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (request.getRequestURI().startsWith(GROUPS_PREFIX)) {
+            ShardContext.set(shardMap.groupShard());
+            return true;
+        }
+        String xUserId = request.getHeader("X-User-Id");
+        if (xUserId == null || xUserId.isBlank()) {
+            return true;
+        }
+        UUID userId;
+        try {
+            userId = UUID.fromString(xUserId);
+        } catch (IllegalArgumentException e) {
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            response.getWriter().write("{\"message\":\"Malformed user context\"}");
+            return false;
+        }
+        if (shardMap.isMigrating(userId) && !isRead(request)) {
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader("Retry-After", "5");
+            response.getWriter().write("{\"message\":\"Your data is being moved, please retry shortly\"}");
+            return false;
+        }
+        ShardContext.set(shardMap.shardFor(userId));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ShardContext.clear();
+    }
+
+    private static boolean isRead(HttpServletRequest request) {
+        return HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+    }
+}
@@ -0,0 +1,55 @@
+package com.finance.command.config;
+
+import com.finance.command.shard.ShardContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * First routing hop when more than one shard is configured: picks the shard
+ * from {@link ShardContext}, then that shard's TransactionRoutingDataSource
+ * picks its primary or replica exactly as it does unsharded.
+ *
+ *   LazyConnectionDataSourceProxy
+ *     └─ ShardRoutingDataSource        (ShardContext.current())
+ *          └─ TransactionRoutingDataSource per shard  (readOnly + replica lag)
+ *               └─ write pool / read pool
+ *
+ * The decision is made when the transaction borrows its connection, so one
+ * transaction never spans shards.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final int shardCount;
+    private final Counter[] routed;
+
+    /** @param shards per-shard routing datasources, indexed by shard number */
+    public ShardRoutingDataSource(List<DataSource> shards, MeterRegistry meterRegistry) {
+        this.shardCount = shards.size();
+        this.routed = new Counter[shardCount];
+        Map<Object, Object> targets = new HashMap<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            targets.put(shard, shards.get(shard));
+            routed[shard] = meterRegistry.counter("datasource.shard.decisions", "shard", Integer.toString(shard));
+        }
+        setTargetDataSources(targets);
+        // Unknown keys must fail, not silently land on shard 0
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        int shard = ShardContext.current();
+        if (shard < 0 || shard >= shardCount) {
+            throw new IllegalStateException("No datasource for shard " + shard + " (" + shardCount + " configured)");
+        }
+        routed[shard].increment();
+        return shard;
+    }
+}
@@ -0,0 +1,109 @@
+package com.finance.command.config;
+
+import com.finance.command.shard.ShardContext;
+import com.finance.command.shard.ShardingProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.jpa.boot.spi.JpaSettings;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Brings shards 1..N to the same schema as shard 0, in the same order shard 0
+ * gets it at startup: Hibernate's schema update (ddl-auto), the
+ * spring.sql.init data scripts, then Flyway. Each step runs with the shard
+ * pinned in ShardContext, so the usual DataSource reaches that shard.
+ *
+ * Flyway sees {@code ${shard_id}} so per-shard migrations (V3 id ranges) can
+ * tell the shards apart. Databases are expected to be provisioned from db-init
+ * like the primary, schemas included.
+ */
+@Slf4j
+@Component
+public class ShardSchemaInitializer implements Integrator, HibernatePropertiesCustomizer, SmartInitializingSingleton {
+
+    private final ShardingProperties sharding;
+    private final ObjectProvider<Flyway> flyway;
+    private final DataSource dataSource;
+    private final ResourceLoader resourceLoader;
+    private final List<String> dataLocations;
+
+    private volatile Metadata metadata;
+    private volatile ServiceRegistry serviceRegistry;
+
+    public ShardSchemaInitializer(ShardingProperties sharding,
+                                  ObjectProvider<Flyway> flyway,
+                                  DataSource dataSource,
+                                  ResourceLoader resourceLoader,
+                                  @Value("${spring.sql.init.data-locations:}") List<String> dataLocations) {
+        this.sharding = sharding;
+        this.flyway = flyway;
+        this.dataSource = dataSource;
+        this.resourceLoader = resourceLoader;
+        this.dataLocations = dataLocations;
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        if (!sharding.shards().isEmpty()) {
+            hibernateProperties.put(JpaSettings.INTEGRATOR_PROVIDER, (IntegratorProvider) () -> List.of(this));
+        }
+    }
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+        this.metadata = metadata;
+        this.serviceRegistry = sessionFactory.getServiceRegistry();
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (int shard = 1; shard < sharding.shardCount(); shard++) {
+            int target = shard;
+            ShardContext.run(target, () -> initialize(target));
+        }
+    }
+
+    private void initialize(int shard) {
+        log.info("Initializing schema on shard {}", shard);
+        Map<String, Object> settings = serviceRegistry.requireService(ConfigurationService.class).getSettings();
+        SchemaManagementToolCoordinator.process(metadata, serviceRegistry, settings, action -> { });
+
+        if (!dataLocations.isEmpty()) {
+            ResourceDatabasePopulator populator = new ResourceDatabasePopulator();
+            dataLocations.forEach(location -> populator.addScript(resourceLoader.getResource(location)));
+            populator.execute(dataSource);
+        }
+
+        Flyway base = flyway.getIfAvailable();
+        if (base != null) {
+            Flyway.configure()
+                    .configuration(base.getConfiguration())
+                    .placeholders(Map.of("shard_id", Integer.toString(shard)))
+                    .load()
+                    .migrate();
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.finance.command.config;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
 import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 
@@ -13,6 +16,8 @@ import org.springframework.transaction.support.TransactionSynchronizationManager
  *   3. We check TransactionSynchronizationManager.isCurrentTransactionReadOnly():
  *        - true  → returns DataSourceType.READ  → HikariPool-read  (20 connections)
  *        - false → returns DataSourceType.WRITE → HikariPool-write (8 connections)
+ *   4. Read-only transactions still go to the write pool while
+ *      {@link ReplicaLagMonitor} reports the replica as too far behind.
  *
  * No changes needed in TransactionEntryService — it already uses
  * @Transactional(readOnly = true) on all read methods.
@@ -21,9 +26,37 @@ public class TransactionRoutingDataSource extends AbstractRoutingDataSource {
 
     public enum DataSourceType { READ, WRITE }
 
+    private final ReplicaLagMonitor lagMonitor;
+    private final Counter readRouted;
+    private final Counter writeRouted;
+    private final Counter laggingRouted;
+
+    public TransactionRoutingDataSource(ReplicaLagMonitor lagMonitor, MeterRegistry meterRegistry) {
+        this(lagMonitor, meterRegistry, Tags.of("shard", "0"));
+    }
+
+    /** @param tags extra tags on the routing counters, e.g. the shard this pair serves */
+    public TransactionRoutingDataSource(ReplicaLagMonitor lagMonitor, MeterRegistry meterRegistry, Tags tags) {
+        this.lagMonitor = lagMonitor;
+        this.readRouted = meterRegistry.counter("datasource.routing.decisions",
+                tags.and("target", "read", "reason", "read-only"));
+        this.writeRouted = meterRegistry.counter("datasource.routing.decisions",
+                tags.and("target", "write", "reason", "read-write"));
+        this.laggingRouted = meterRegistry.counter("datasource.routing.decisions",
+                tags.and("target", "write", "reason", "replica-lag"));
+    }
+
     @Override
     protected Object determineCurrentLookupKey() {
-        boolean isReadOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
-        return isReadOnly ? DataSourceType.READ : DataSourceType.WRITE;
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            writeRouted.increment();
+            return DataSourceType.WRITE;
+        }
+        if (!lagMonitor.isReplicaRoutable()) {
+            laggingRouted.increment();
+            return DataSourceType.WRITE;
+        }
+        readRouted.increment();
+        return DataSourceType.READ;
     }
 }
@@ -1,6 +1,7 @@
 package com.finance.command.controller;
 
 import com.finance.command.service.NotificationService;
+import com.finance.command.shard.ShardRebalancer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -20,6 +21,7 @@ import java.util.UUID;
 public class InternalController {
 
     private final NotificationService notificationService;
+    private final ShardRebalancer shardRebalancer;
 
     /**
      * Called by the ocr-service (bill-parser) when bill processing completes.
@@ -61,4 +63,13 @@ public class InternalController {
         }
         return ResponseEntity.ok().build();
     }
+
+    /**
+     * Moves a user's rows to shard {@code target}. Blocks until the copy and
+     * cleanup finish; the user's writes are refused with 503 meanwhile.
+     */
+    @PostMapping("/shards/users/{userId}/move")
+    public ResponseEntity<ShardRebalancer.MoveResult> moveUser(@PathVariable UUID userId, @RequestParam int target) {
+        return ResponseEntity.ok(shardRebalancer.moveUser(userId, target));
+    }
 }
@@ -1,11 +1,16 @@
 package com.finance.command.controller;
 
+import com.finance.command.dto.BulkDeleteResponse;
 import com.finance.command.dto.CreateEntryRequest;
 import com.finance.command.dto.CreateEntryResponse;
+import com.finance.command.dto.ImportResult;
 import com.finance.command.dto.PatchAmountRequest;
 import com.finance.command.dto.UpdateEntryRequest;
+import com.finance.command.imports.ImportFormat;
+import com.finance.command.imports.StatementImportService;
 import com.finance.command.model.TransactionEntry;
 import com.finance.command.model.TransactionType;
+import com.finance.command.service.CreateEntryGroupCommitter;
 import com.finance.command.service.TransactionEntryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -20,6 +25,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
@@ -32,6 +38,8 @@ import java.util.UUID;
 public class TransactionEntryController {
 
     private final TransactionEntryService service;
+    private final StatementImportService importService;
+    private final CreateEntryGroupCommitter groupCommitter;
 
     // ── Create ────────────────────────────────────────────────────────────────
 
@@ -44,6 +52,10 @@ public class TransactionEntryController {
         if (!request.getUserId().toString().equalsIgnoreCase(xUserId)) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access denied: User ID mismatch");
         }
+        if (groupCommitter.isEnabled() && (idempotencyKey == null || idempotencyKey.isBlank())) {
+            // Idempotent retries keep the direct path so the key check and write stay together
+            return ResponseEntity.status(HttpStatus.CREATED).body(groupCommitter.create(request));
+        }
         return ResponseEntity.status(HttpStatus.CREATED).body(service.createEntry(request, idempotencyKey));
     }
 
@@ -61,6 +73,16 @@ public class TransactionEntryController {
         return ResponseEntity.status(HttpStatus.CREATED).body(service.createBulkEntries(requests));
     }
 
+    @PostMapping(value = "/import", consumes = {ImportFormat.NDJSON_VALUE, "text/csv"})
+    @Operation(summary = "Stream-import a bank statement (NDJSON or CSV); progress is pushed over SSE")
+    public ResponseEntity<ImportResult> importStatement(
+            @RequestHeader("X-User-Id") UUID userId,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+        ImportFormat format = ImportFormat.fromContentType(contentType);
+        return ResponseEntity.ok(importService.importStatement(userId, body, format));
+    }
+
     // ── Update (full) ─────────────────────────────────────────────────────────
 
     @PutMapping("/update")
@@ -98,11 +120,10 @@ public class TransactionEntryController {
 
     @PostMapping("/delete/bulk")
     @Operation(summary = "Bulk soft-delete financial entries")
-    public ResponseEntity<Map<String, Object>> bulkDelete(
+    public ResponseEntity<BulkDeleteResponse> bulkDelete(
             @RequestParam UUID userId,
             @RequestBody List<Long> ids) {
-        ids.forEach(id -> service.deleteEntry(id, userId));
-        return ResponseEntity.ok(Map.of("message", "Entries deleted successfully", "count", ids.size()));
+        return ResponseEntity.ok(service.bulkDelete(ids, userId));
     }
 
     // ── Read — single entry & goal contributions ──────────────────────────────
@@ -0,0 +1,33 @@
+package com.finance.command.dto;
+
+import com.finance.command.model.Category;
+import com.finance.command.model.RecurringPeriod;
+import com.finance.command.model.convert.CurrencyCodes;
+import com.finance.command.model.convert.EnumCodes;
+
+import java.math.BigDecimal;
+
+/**
+ * Spring Data projection: an active budget together with its current-period spend.
+ * The query is native, so coded columns arrive as raw codes and are decoded here.
+ */
+public interface BudgetSpendRow {
+    Long getBudgetId();
+    Short getExpenseCategoryCode();
+    BigDecimal getBudgetAmount();
+    Short getPeriodCode();
+    Short getCurrencyCode();
+    BigDecimal getSpent();
+
+    default Category getExpenseCategory() {
+        return EnumCodes.decodeNullable(Category.class, getExpenseCategoryCode());
+    }
+
+    default RecurringPeriod getPeriod() {
+        return EnumCodes.decodeNullable(RecurringPeriod.class, getPeriodCode());
+    }
+
+    default String getCurrency() {
+        return CurrencyCodes.decodeNullable(getCurrencyCode());
+    }
+}
@@ -0,0 +1,21 @@
+package com.finance.command.dto;
+
+import com.finance.command.model.Category;
+import com.finance.command.model.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/** Spring Data projection: a live entry requested for bulk delete, with its group-link count. */
+public interface BulkDeleteCandidateRow {
+    Long getId();
+    UUID getUserId();
+    TransactionType getType();
+    Category getCategory();
+    String getName();
+    BigDecimal getAmount();
+    LocalDateTime getCreatedAt();
+    Boolean getRecurring();
+    Long getLinkCount();
+}
@@ -0,0 +1,15 @@
+package com.finance.command.dto;
+
+import java.util.List;
+
+/**
+ * Response body for POST /upsert/delete/bulk — one result per distinct requested ID.
+ */
+public record BulkDeleteResponse(int deleted, List<Result> results) {
+
+    public enum Status {
+        DELETED, NOT_FOUND, FORBIDDEN, GROUP_MANAGED
+    }
+
+    public record Result(Long id, Status status) {}
+}
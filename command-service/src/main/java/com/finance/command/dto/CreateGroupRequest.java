@@ -2,6 +2,7 @@ package com.finance.command.dto;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
 
@@ -15,5 +16,6 @@ public class CreateGroupRequest {
     private String description;
     @NotNull
     private UUID createdBy;
+    @Pattern(regexp = "[A-Za-z]{3}", message = "Currency must be a three-letter code")
     private String currency = "INR";
 }
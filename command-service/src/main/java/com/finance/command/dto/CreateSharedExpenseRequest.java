@@ -22,6 +22,7 @@ public class CreateSharedExpenseRequest {
     @DecimalMin("0.01")
     private BigDecimal amount;
 
+    @Pattern(regexp = "[A-Za-z]{3}", message = "Currency must be a three-letter code")
     private String currency = "INR";
 
     @NotNull
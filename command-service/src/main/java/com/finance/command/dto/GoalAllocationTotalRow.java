@@ -0,0 +1,9 @@
+package com.finance.command.dto;
+
+import java.math.BigDecimal;
+
+/** Spring Data projection: summed allocation amount per goal. */
+public interface GoalAllocationTotalRow {
+    Long getGoalId();
+    BigDecimal getTotal();
+}
@@ -1,6 +1,7 @@
 package com.finance.command.dto;
 
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Positive;
 import lombok.Data;
 
@@ -17,5 +18,6 @@ public class GoalContributionRequest {
 
     private LocalDateTime createdAt;
     
+    @Pattern(regexp = "[A-Za-z]{3}", message = "Currency must be a three-letter code")
     private String currency;
 }
@@ -0,0 +1,14 @@
+package com.finance.command.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/** Spring Data projection: a goal's counters as returned by an atomic saved-amount update. */
+public interface GoalProgressRow {
+    Long getId();
+    BigDecimal getSavedAmount();
+    BigDecimal getTargetAmount();
+    LocalDateTime getCompletedAt();
+    /** True only for the update that crossed the target. */
+    Boolean getJustCompleted();
+}
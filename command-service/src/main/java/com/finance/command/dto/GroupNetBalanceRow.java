@@ -0,0 +1,10 @@
+package com.finance.command.dto;
+
+import java.math.BigDecimal;
+
+/** Spring Data projection: one user's paid and owed totals within one group. */
+public interface GroupNetBalanceRow {
+    Long getGroupId();
+    BigDecimal getPaid();
+    BigDecimal getOwed();
+}
@@ -0,0 +1,21 @@
+package com.finance.command.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Response body for POST /upsert/import.
+ *
+ * {@code received} counts non-blank input records; {@code duplicates} are valid
+ * rows skipped because an identical entry already exists (or appeared earlier
+ * in the same file); {@code errors} lists at most the first few rejected lines.
+ */
+public record ImportResult(UUID importId,
+                           long received,
+                           long imported,
+                           long duplicates,
+                           long rejected,
+                           List<LineError> errors) {
+
+    public record LineError(long line, String message) {}
+}
@@ -0,0 +1,9 @@
+package com.finance.command.dto;
+
+import java.time.LocalDateTime;
+
+/** Spring Data projection used to (re)build the recurring schedule index. */
+public interface RecurringScheduleRow {
+    Long getId();
+    LocalDateTime getNextRunDate();
+}
@@ -14,7 +14,7 @@ public class SavingsGoalRequest {
     @NotNull  private UUID userId;
     @NotBlank private String name;
     @NotNull @DecimalMin("0.01") private BigDecimal targetAmount;
-    @NotBlank @Size(min=3,max=3) private String currency;
+    @NotBlank @Pattern(regexp = "[A-Za-z]{3}") private String currency;
     private String description;
     private LocalDate deadline;
     private com.finance.command.model.Priority priority = com.finance.command.model.Priority.MEDIUM;
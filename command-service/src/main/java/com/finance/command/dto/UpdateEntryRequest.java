@@ -35,7 +35,7 @@ public class UpdateEntryRequest {
     private Category category;
 
     @NotBlank(message = "Currency is required")
-    @Size(min = 3, max = 3, message = "Currency must be 3 characters")
+    @Pattern(regexp = "[A-Za-z]{3}", message = "Currency must be a three-letter code")
     private String currency;
 
     @Size(max = 500, message = "Description cannot exceed 500 characters")
@@ -1,6 +1,7 @@
 package com.finance.command.dto;
 
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
 
@@ -13,6 +14,6 @@ public class UpdateGroupRequest {
     @Size(max = 300)
     private String description;
     
-    @Size(min = 3, max = 3)
+    @Pattern(regexp = "[A-Za-z]{3}", message = "Currency must be a three-letter code")
     private String currency;
 }
@@ -0,0 +1,21 @@
+package com.finance.command.imports;
+
+import org.springframework.http.MediaType;
+
+/** Wire formats accepted by the statement import endpoint. */
+public enum ImportFormat {
+    NDJSON, CSV;
+
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+
+    /** @throws IllegalArgumentException for anything other than NDJSON or CSV */
+    public static ImportFormat fromContentType(String contentType) {
+        if (contentType != null) {
+            MediaType type = MediaType.parseMediaType(contentType);
+            if (type.isCompatibleWith(MediaType.parseMediaType(NDJSON_VALUE))) return NDJSON;
+            if (type.isCompatibleWith(MediaType.parseMediaType("text/csv"))) return CSV;
+        }
+        throw new IllegalArgumentException("Unsupported import content type: " + contentType
+                + " (expected " + NDJSON_VALUE + " or text/csv)");
+    }
+}
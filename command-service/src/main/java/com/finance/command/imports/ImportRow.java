@@ -0,0 +1,98 @@
+package com.finance.command.imports;
+
+import com.finance.command.model.Category;
+import com.finance.command.model.TransactionType;
+import com.finance.command.model.convert.CurrencyCodes;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * One validated statement line. Validation mirrors the constraints on
+ * CreateEntryRequest so imported rows are indistinguishable from API-created ones.
+ */
+record ImportRow(long line, String name, BigDecimal amount, TransactionType type, Category category,
+                 String currency, String description, LocalDateTime createdAt) {
+
+    /**
+     * @param fields    raw field values keyed by lower-case column name
+     * @param defaultAt timestamp for rows without a date
+     * @throws IllegalArgumentException describing the first invalid field
+     */
+    static ImportRow validate(long line, Map<String, String> fields, String defaultCurrency, LocalDateTime defaultAt) {
+        String name = trimToNull(fields.get("name"));
+        if (name == null) throw new IllegalArgumentException("name is required");
+        if (name.length() > 100) throw new IllegalArgumentException("name cannot exceed 100 characters");
+
+        BigDecimal amount;
+        try {
+            amount = new BigDecimal(require(fields, "amount"));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("amount is not a number");
+        }
+        if (amount.signum() <= 0) throw new IllegalArgumentException("amount must be greater than 0");
+        if (amount.scale() > 2 || amount.precision() - amount.scale() > 10) {
+            throw new IllegalArgumentException("invalid amount format");
+        }
+
+        TransactionType type = parseEnum(TransactionType.class, require(fields, "type"), "type");
+
+        String rawCategory = trimToNull(fields.get("category"));
+        Category category = rawCategory == null ? Category.OTHERS : parseEnum(Category.class, rawCategory, "category");
+
+        String currency = trimToNull(fields.get("currency"));
+        if (currency == null) currency = defaultCurrency;
+        if (currency.length() != 3) throw new IllegalArgumentException("currency must be 3 characters");
+        CurrencyCodes.encode(currency); // letters only — the column stores a packed code
+
+        String description = trimToNull(fields.get("description"));
+        if (description != null && description.length() > 500) {
+            throw new IllegalArgumentException("description cannot exceed 500 characters");
+        }
+
+        String rawDate = trimToNull(fields.get("createdat"));
+        if (rawDate == null) rawDate = trimToNull(fields.get("date"));
+        LocalDateTime createdAt = rawDate == null ? defaultAt : parseDate(rawDate);
+
+        return new ImportRow(line, name, amount, type, category, currency.toUpperCase(Locale.ROOT),
+                description, createdAt);
+    }
+
+    private static String require(Map<String, String> fields, String key) {
+        String value = trimToNull(fields.get(key));
+        if (value == null) throw new IllegalArgumentException(key + " is required");
+        return value;
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String raw, String field) {
+        try {
+            return Enum.valueOf(type, raw.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("unknown " + field + ": " + raw);
+        }
+    }
+
+    /** Accepts ISO date, ISO local date-time, or ISO offset date-time (as the frontend sends). */
+    private static LocalDateTime parseDate(String raw) {
+        try {
+            if (raw.length() == 10) return LocalDate.parse(raw).atStartOfDay();
+            if (raw.endsWith("Z") || raw.lastIndexOf('+') > 10 || raw.lastIndexOf('-') > 10) {
+                return OffsetDateTime.parse(raw).toLocalDateTime();
+            }
+            return LocalDateTime.parse(raw);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("unparseable date: " + raw);
+        }
+    }
+
+    private static String trimToNull(String s) {
+        if (s == null) return null;
+        String t = s.trim();
+        return t.isEmpty() ? null : t;
+    }
+}
@@ -0,0 +1,348 @@
+package com.finance.command.imports;
+
+import com.finance.command.cache.QueryCacheEvictor;
+import com.finance.command.dto.ImportResult;
+import com.finance.command.model.Category;
+import com.finance.command.model.OutboxEvent;
+import com.finance.command.model.TransactionEntry;
+import com.finance.command.model.TransactionType;
+import com.finance.command.model.convert.CurrencyCodes;
+import com.finance.command.model.convert.EnumCodes;
+import com.finance.command.repository.OutboxEventRepository;
+import com.finance.command.service.BudgetSpendTracker;
+import com.finance.command.service.NotificationService;
+import com.finance.command.service.SubscriptionDetectorService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * High-volume statement import.
+ *
+ * The request body is parsed and validated as a stream and written straight
+ * into a per-transaction staging table through COPY, so memory stays flat no
+ * matter how large the file is. A single INSERT ... SELECT then merges the
+ * staged rows into transaction_entries, skipping rows that duplicate an
+ * existing live entry (same name, amount, type and timestamp) or an earlier
+ * line of the same file. Side effects are per import, not per row: one outbox
+ * event, one cache eviction, and one pattern-detection pass, fed from
+ * aggregates folded as the merged rows stream back. Staged type,
+ * category and currency are already the stored smallint codes.
+ */
+@Slf4j
+@Service
+public class StatementImportService {
+
+    private static final String CREATE_STAGING_SQL = """
+            CREATE TEMP TABLE import_staging (
+                line_no     bigint        NOT NULL,
+                name        varchar(100)  NOT NULL,
+                amount      numeric(12,2) NOT NULL,
+                type        smallint      NOT NULL,
+                category    smallint      NOT NULL,
+                currency    smallint      NOT NULL,
+                description varchar(500),
+                created_at  timestamp     NOT NULL
+            ) ON COMMIT DROP
+            """;
+
+    private static final String COPY_SQL = """
+            COPY import_staging (line_no, name, amount, type, category, currency, description, created_at)
+            FROM STDIN WITH (FORMAT csv)
+            """;
+
+    /** Serialises concurrent imports for one user so both cannot pass the duplicate check. */
+    private static final String LOCK_SQL = "SELECT pg_advisory_xact_lock(?)";
+
+    private static final String MERGE_SQL = """
+            WITH deduped AS (
+                SELECT DISTINCT ON (s.name, s.amount, s.type, s.created_at) s.*
+                FROM import_staging s
+                ORDER BY s.name, s.amount, s.type, s.created_at, s.line_no
+            )
+            INSERT INTO finance.transaction_entries
+                (id, user_id, name, amount, type, category, currency, description,
+                 created_at, updated_at, recurring)
+            SELECT nextval('finance.transaction_entries_id_seq'), ?, d.name, d.amount, d.type, d.category,
+                   d.currency, d.description, d.created_at, now(), false
+            FROM deduped d
+            WHERE NOT EXISTS (
+                SELECT 1 FROM finance.transaction_entries t
+                WHERE t.user_id = ?
+                  AND t.type = d.type
+                  AND t.created_at = d.created_at
+                  AND t.amount = d.amount
+                  AND t.name = d.name
+                  AND t.deleted_at IS NULL)
+            ORDER BY d.line_no
+            RETURNING id, type, category, name, amount, currency, created_at
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OutboxEventRepository outboxEventRepository;
+    private final QueryCacheEvictor queryCacheEvictor;
+    private final NotificationService notificationService;
+    private final SubscriptionDetectorService subscriptionDetector;
+    private final BudgetSpendTracker budgetSpendTracker;
+    private final Counter importedCounter;
+    private final Counter rejectedCounter;
+
+    @Value("${imports.default-currency:INR}")
+    private String defaultCurrency;
+
+    @Value("${imports.progress-every:10000}")
+    private long progressEvery;
+
+    @Value("${imports.max-reported-errors:100}")
+    private int maxReportedErrors;
+
+    public StatementImportService(JdbcTemplate jdbcTemplate,
+                                  OutboxEventRepository outboxEventRepository,
+                                  QueryCacheEvictor queryCacheEvictor,
+                                  NotificationService notificationService,
+                                  SubscriptionDetectorService subscriptionDetector,
+                                  BudgetSpendTracker budgetSpendTracker,
+                                  MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.outboxEventRepository = outboxEventRepository;
+        this.queryCacheEvictor = queryCacheEvictor;
+        this.notificationService = notificationService;
+        this.subscriptionDetector = subscriptionDetector;
+        this.budgetSpendTracker = budgetSpendTracker;
+        this.importedCounter = meterRegistry.counter("transactions.import.rows", "outcome", "imported");
+        this.rejectedCounter = meterRegistry.counter("transactions.import.rows", "outcome", "rejected");
+    }
+
+    @Transactional
+    public ImportResult importStatement(UUID userId, InputStream body, ImportFormat format) {
+        UUID importId = UUID.randomUUID();
+        Progress progress = new Progress(importId, userId, LocalDateTime.now());
+
+        // Folded as the merged rows stream back, so nothing holds the whole import
+        SubscriptionDetectorService.ImportedPatterns patterns = new SubscriptionDetectorService.ImportedPatterns();
+        BudgetSpendTracker.SpendTotals spend = new BudgetSpendTracker.SpendTotals(progress.startedAt);
+        long imported = jdbcTemplate.execute((ConnectionCallback<Long>) con -> {
+            stage(con, body, format, progress);
+            return merge(con, userId, expense -> {
+                patterns.add(expense);
+                spend.add(expense.getCategory(), expense.getCreatedAt(), expense.getAmount());
+            });
+        });
+        long valid = progress.received - progress.rejected;
+
+        if (imported > 0) {
+            subscriptionDetector.onExpensesImported(patterns.entries());
+            budgetSpendTracker.apply(userId, spend.deltas());
+
+            OutboxEvent event = new OutboxEvent();
+            event.setUserId(userId);
+            event.setEventType("IMPORT");
+            event.setEntityId(imported);
+            outboxEventRepository.save(event);
+
+            queryCacheEvictor.evictUserKeysWithReplicationGuard(userId);
+        }
+        importedCounter.increment(imported);
+        rejectedCounter.increment(progress.rejected);
+
+        ImportResult result = new ImportResult(importId, progress.received, imported, valid - imported,
+                progress.rejected, progress.errors);
+        notifyAfterCompletion(userId, result);
+        log.info("Statement import {} for user={}: received={}, imported={}, duplicates={}, rejected={}",
+                importId, userId, result.received(), imported, result.duplicates(), result.rejected());
+        return result;
+    }
+
+    /** Reports the outcome once it is final: success only after commit, failure if the import rolls back. */
+    private void notifyAfterCompletion(UUID userId, ImportResult result) {
+        Map<String, Object> success = Map.of(
+                "status", "SUCCESS",
+                "event", "import-complete",
+                "importId", result.importId(),
+                "imported", result.imported(),
+                "duplicates", result.duplicates(),
+                "rejected", result.rejected());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            notificationService.sendNotification(userId, success);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    notificationService.sendNotification(userId, success);
+                } else {
+                    notificationService.sendNotification(userId, Map.of(
+                            "status", "ERROR",
+                            "event", "import-failed",
+                            "importId", result.importId()));
+                }
+            }
+        });
+    }
+
+    // ── Stage: stream → validate → COPY ───────────────────────────────────────
+
+    private void stage(Connection con, InputStream body, ImportFormat format, Progress progress) throws SQLException {
+        try (Statement st = con.createStatement()) {
+            st.execute(CREATE_STAGING_SQL);
+        }
+        PGConnection pg = con.unwrap(PGConnection.class);
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                new PGCopyOutputStream(pg, COPY_SQL, 1 << 16), StandardCharsets.UTF_8), 1 << 16)) {
+            StatementRowReader.read(body, format, new StatementRowReader.Sink() {
+                @Override
+                public void row(long line, Map<String, String> fields) {
+                    progress.received++;
+                    ImportRow row;
+                    try {
+                        row = ImportRow.validate(line, fields, defaultCurrency, progress.startedAt);
+                    } catch (IllegalArgumentException e) {
+                        progress.reject(line, e.getMessage());
+                        return;
+                    }
+                    try {
+                        writeCopyRecord(out, row);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    progress.tick();
+                }
+
+                @Override
+                public void malformed(long line, String reason) {
+                    progress.received++;
+                    progress.reject(line, reason);
+                }
+            });
+        } catch (IOException | UncheckedIOException e) {
+            throw new IllegalStateException("Statement import failed while staging rows: " + e.getMessage(), e);
+        }
+    }
+
+    private static void writeCopyRecord(Writer out, ImportRow row) throws IOException {
+        out.write(Long.toString(row.line()));
+        out.write(',');
+        writeQuoted(out, row.name());
+        out.write(',');
+        out.write(row.amount().toPlainString());
+        out.write(',');
+        out.write(Short.toString(row.type().code()));
+        out.write(',');
+        out.write(Short.toString(row.category().code()));
+        out.write(',');
+        out.write(Short.toString(CurrencyCodes.encode(row.currency())));
+        out.write(',');
+        if (row.description() != null) {
+            writeQuoted(out, row.description()); // unquoted empty = NULL in COPY csv
+        }
+        out.write(',');
+        out.write(row.createdAt().toString());
+        out.write('\n');
+    }
+
+    private static void writeQuoted(Writer out, String value) throws IOException {
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') out.write('"');
+            out.write(c);
+        }
+        out.write('"');
+    }
+
+    // ── Merge: one statement, duplicates skipped ──────────────────────────────
+
+    private long merge(Connection con, UUID userId, Consumer<TransactionEntry> expenses) throws SQLException {
+        try (PreparedStatement lock = con.prepareStatement(LOCK_SQL)) {
+            lock.setLong(1, userId.getMostSignificantBits() ^ userId.getLeastSignificantBits());
+            lock.execute();
+        }
+        long imported = 0;
+        try (PreparedStatement ps = con.prepareStatement(MERGE_SQL)) {
+            ps.setObject(1, userId);
+            ps.setObject(2, userId);
+            ps.setFetchSize(10_000);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    imported++;
+                    TransactionType type = EnumCodes.decode(TransactionType.class, rs.getShort("type"));
+                    if (type == TransactionType.EXPENSE) {
+                        // Detached snapshot — only the fields pattern detection and budget tracking key on
+                        TransactionEntry entry = new TransactionEntry(userId, rs.getString("name"),
+                                rs.getBigDecimal("amount"), type, CurrencyCodes.decode(rs.getShort("currency")));
+                        entry.setId(rs.getLong("id"));
+                        entry.setCategory(EnumCodes.decode(Category.class, rs.getShort("category")));
+                        entry.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+                        expenses.accept(entry);
+                    }
+                }
+            }
+        }
+        return imported;
+    }
+
+    // ── Progress ──────────────────────────────────────────────────────────────
+
+    private final class Progress {
+        final UUID importId;
+        final UUID userId;
+        final LocalDateTime startedAt;
+        final List<ImportResult.LineError> errors = new ArrayList<>();
+        long received;
+        long rejected;
+
+        Progress(UUID importId, UUID userId, LocalDateTime startedAt) {
+            this.importId = importId;
+            this.userId = userId;
+            this.startedAt = startedAt;
+        }
+
+        void reject(long line, String message) {
+            rejected++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ImportResult.LineError(line, message));
+            }
+            tick();
+        }
+
+        void tick() {
+            if (progressEvery > 0 && received % progressEvery == 0) {
+                notificationService.sendNotification(userId, Map.of(
+                        "status", "INFO",
+                        "event", "import-progress",
+                        "importId", importId,
+                        "received", received,
+                        "rejected", rejected));
+            }
+        }
+    }
+}
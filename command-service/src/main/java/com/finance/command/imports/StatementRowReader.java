@@ -0,0 +1,161 @@
+package com.finance.command.imports;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Streams raw records out of an NDJSON or CSV body, one at a time, without
+ * buffering the payload. Field names are lower-cased; values are untyped strings
+ * (validation happens in {@link ImportRow}).
+ */
+final class StatementRowReader {
+
+    interface Sink {
+        void row(long line, Map<String, String> fields);
+
+        void malformed(long line, String reason);
+    }
+
+    private static final ObjectReader JSON = new ObjectMapper()
+            .reader()
+            .with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+
+    private StatementRowReader() {}
+
+    static void read(InputStream in, ImportFormat format, Sink sink) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16);
+        skipBom(reader);
+        switch (format) {
+            case NDJSON -> readNdjson(reader, sink);
+            case CSV -> readCsv(reader, sink);
+        }
+    }
+
+    // ── NDJSON ────────────────────────────────────────────────────────────────
+
+    private static void readNdjson(BufferedReader reader, Sink sink) throws IOException {
+        long line = 0;
+        String text;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.isBlank()) continue;
+            JsonNode node;
+            try {
+                node = JSON.readTree(text);
+            } catch (JsonProcessingException e) {
+                sink.malformed(line, "invalid JSON");
+                continue;
+            }
+            if (!node.isObject()) {
+                sink.malformed(line, "expected a JSON object");
+                continue;
+            }
+            Map<String, String> fields = new HashMap<>();
+            for (Iterator<Map.Entry<String, JsonNode>> it = node.fields(); it.hasNext(); ) {
+                Map.Entry<String, JsonNode> field = it.next();
+                JsonNode value = field.getValue();
+                fields.put(field.getKey().toLowerCase(Locale.ROOT), value.isNull() ? null : value.asText());
+            }
+            sink.row(line, fields);
+        }
+    }
+
+    // ── CSV (RFC 4180, header row required) ───────────────────────────────────
+
+    private static void readCsv(BufferedReader reader, Sink sink) throws IOException {
+        CsvCursor cursor = new CsvCursor(reader);
+        List<String> header = cursor.next();
+        if (header == null) return;
+        header.replaceAll(h -> h.trim().toLowerCase(Locale.ROOT));
+
+        List<String> record;
+        while ((record = cursor.next()) != null) {
+            long line = cursor.recordStartLine;
+            if (record.size() == 1 && record.getFirst().isBlank()) continue;
+            if (record.size() > header.size()) {
+                sink.malformed(line, "expected " + header.size() + " columns, got " + record.size());
+                continue;
+            }
+            Map<String, String> fields = new HashMap<>();
+            for (int i = 0; i < record.size(); i++) {
+                fields.put(header.get(i), record.get(i));
+            }
+            sink.row(line, fields);
+        }
+    }
+
+    private static final class CsvCursor {
+        private final Reader reader;
+        private long line = 1;
+        long recordStartLine;
+
+        CsvCursor(Reader reader) {
+            this.reader = reader;
+        }
+
+        /** @return the next record's fields, or null at end of input */
+        List<String> next() throws IOException {
+            int c = reader.read();
+            if (c == -1) return null;
+            recordStartLine = line;
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        throw new IllegalArgumentException("Unterminated quoted field starting on line " + recordStartLine);
+                    }
+                    if (c == '"') {
+                        reader.mark(1);
+                        int peek = reader.read();
+                        if (peek == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            reader.reset();
+                        }
+                    } else {
+                        if (c == '\n') line++;
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c == -1) {
+                    if (c == '\n') line++;
+                    fields.add(field.toString());
+                    return fields;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+                c = reader.read();
+            }
+        }
+    }
+
+    private static void skipBom(BufferedReader reader) throws IOException {
+        reader.mark(1);
+        if (reader.read() != '﻿') {
+            reader.reset();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.finance.command.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Running expense total for one budget period. Seeded from the ledger the
+ * first time the period sees a write, then moved by each expense delta, so
+ * threshold crossings are detected at write time without re-summing.
+ */
+@Entity
+@Table(name = "budget_spend_counters", schema = "finance", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_budget_spend_period", columnNames = {"budget_id", "period_start"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BudgetSpendCounter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "budget_id", nullable = false)
+    private Long budgetId;
+
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    @Column(name = "spent", nullable = false, precision = 14, scale = 2)
+    private BigDecimal spent = BigDecimal.ZERO;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -1,98 +1,109 @@
 package com.finance.command.model;
 
-public enum Category {
+public enum Category implements CodedEnum {
 
     // ── Income ────────────────────────────────────────────────────────────────
-    SALARY,
-    FREELANCE,
-    BUSINESS,
-    INVESTMENTS,        // renamed from INVESTMENT for consistency
-    RENTAL_INCOME,      // renamed from RENTAL
-    DIVIDENDS,
-    INTEREST,           // savings/FD interest
-    BONUS,
-    PENSION,
-    GOVT_BENEFITS,      // PF, gratuity, subsidies
-    CASHBACK_REWARDS,   // credit card cashback, rewards
-    GIFTS_RECEIVED,     // renamed from GIFT
-    TAX_REFUND,
-    SIDE_HUSTLE,        // gig work, part-time
-    OTHER_INCOME,
+    SALARY(1),
+    FREELANCE(2),
+    BUSINESS(3),
+    INVESTMENTS(4),        // renamed from INVESTMENT for consistency
+    RENTAL_INCOME(5),      // renamed from RENTAL
+    DIVIDENDS(6),
+    INTEREST(7),           // savings/FD interest
+    BONUS(8),
+    PENSION(9),
+    GOVT_BENEFITS(10),     // PF, gratuity, subsidies
+    CASHBACK_REWARDS(11),  // credit card cashback, rewards
+    GIFTS_RECEIVED(12),    // renamed from GIFT
+    TAX_REFUND(13),
+    SIDE_HUSTLE(14),       // gig work, part-time
+    OTHER_INCOME(15),
 
     // ── Housing & Utilities ───────────────────────────────────────────────────
-    RENT,               // split from HOUSING
-    HOME_LOAN_EMI,
-    HOME_MAINTENANCE,   // repairs, painting, plumbing
-    PROPERTY_TAX,
-    ELECTRICITY,        // split from UTILITIES
-    WATER,
-    GAS,
-    INTERNET,
-    MOBILE_PHONE,
-    OTT_SUBSCRIPTIONS,  // Netflix, Hotstar, Spotify
+    RENT(16),              // split from HOUSING
+    HOME_LOAN_EMI(17),
+    HOME_MAINTENANCE(18),  // repairs, painting, plumbing
+    PROPERTY_TAX(19),
+    ELECTRICITY(20),       // split from UTILITIES
+    WATER(21),
+    GAS(22),
+    INTERNET(23),
+    MOBILE_PHONE(24),
+    OTT_SUBSCRIPTIONS(25), // Netflix, Hotstar, Spotify
 
     // ── Food & Dining ─────────────────────────────────────────────────────────
-    GROCERIES,          // split from FOOD_AND_DINING
-    RESTAURANTS,
-    FOOD_DELIVERY,      // Swiggy, Zomato
-    COFFEE_AND_SNACKS,
+    GROCERIES(26),         // split from FOOD_AND_DINING
+    RESTAURANTS(27),
+    FOOD_DELIVERY(28),     // Swiggy, Zomato
+    COFFEE_AND_SNACKS(29),
 
     // ── Transport ─────────────────────────────────────────────────────────────
-    FUEL,               // split from TRANSPORT
-    PUBLIC_TRANSPORT,   // bus, metro, train
-    CAB_AND_AUTO,       // Ola, Uber, auto
-    VEHICLE_EMI,
-    VEHICLE_MAINTENANCE,
-    PARKING_AND_TOLLS,
-    FLIGHT_AND_TRAIN,   // intercity travel
+    FUEL(30),              // split from TRANSPORT
+    PUBLIC_TRANSPORT(31),  // bus, metro, train
+    CAB_AND_AUTO(32),      // Ola, Uber, auto
+    VEHICLE_EMI(33),
+    VEHICLE_MAINTENANCE(34),
+    PARKING_AND_TOLLS(35),
+    FLIGHT_AND_TRAIN(36),  // intercity travel
 
     // ── Health ────────────────────────────────────────────────────────────────
-    DOCTOR_AND_CLINIC,  // split from HEALTHCARE
-    MEDICINES,
-    HEALTH_INSURANCE,
-    GYM_AND_FITNESS,
-    MENTAL_WELLNESS,
+    DOCTOR_AND_CLINIC(37), // split from HEALTHCARE
+    MEDICINES(38),
+    HEALTH_INSURANCE(39),
+    GYM_AND_FITNESS(40),
+    MENTAL_WELLNESS(41),
 
     // ── Education ─────────────────────────────────────────────────────────────
-    TUITION_AND_FEES,   // split from EDUCATION
-    BOOKS_AND_COURSES,
-    COACHING,
-    STUDENT_LOAN_EMI,
+    TUITION_AND_FEES(42),  // split from EDUCATION
+    BOOKS_AND_COURSES(43),
+    COACHING(44),
+    STUDENT_LOAN_EMI(45),
 
     // ── Shopping ──────────────────────────────────────────────────────────────
-    CLOTHING,           // split from SHOPPING
-    ELECTRONICS,
-    HOME_APPLIANCES,
-    PERSONAL_CARE,      // cosmetics, haircut, salon
-    GIFTS_GIVEN,
+    CLOTHING(46),          // split from SHOPPING
+    ELECTRONICS(47),
+    HOME_APPLIANCES(48),
+    PERSONAL_CARE(49),     // cosmetics, haircut, salon
+    GIFTS_GIVEN(50),
 
     // ── Entertainment & Lifestyle ─────────────────────────────────────────────
-    MOVIES_AND_EVENTS,  // split from ENTERTAINMENT
-    GAMING,
-    SPORTS_AND_HOBBIES,
-    BOOKS_AND_MAGAZINES,
-    TRAVEL_VACATION,    // split from TRAVEL — leisure trips
-    HOTEL_AND_STAYS,
+    MOVIES_AND_EVENTS(51), // split from ENTERTAINMENT
+    GAMING(52),
+    SPORTS_AND_HOBBIES(53),
+    BOOKS_AND_MAGAZINES(54),
+    TRAVEL_VACATION(55),   // split from TRAVEL — leisure trips
+    HOTEL_AND_STAYS(56),
 
     // ── Finance & Insurance ───────────────────────────────────────────────────
-    LIFE_INSURANCE,     // split from INSURANCE
-    VEHICLE_INSURANCE,
-    CREDIT_CARD_PAYMENT,
-    LOAN_REPAYMENT,
-    MUTUAL_FUNDS_SIP,
-    STOCKS_AND_TRADING,
-    CRYPTO,
-    EMERGENCY_FUND,
-    FIXED_DEPOSIT,
+    LIFE_INSURANCE(57),    // split from INSURANCE
+    VEHICLE_INSURANCE(58),
+    CREDIT_CARD_PAYMENT(59),
+    LOAN_REPAYMENT(60),
+    MUTUAL_FUNDS_SIP(61),
+    STOCKS_AND_TRADING(62),
+    CRYPTO(63),
+    EMERGENCY_FUND(64),
+    FIXED_DEPOSIT(65),
 
     // ── Miscellaneous ─────────────────────────────────────────────────────────
-    CHARITY_AND_DONATIONS,
-    TAXES,
-    FINES_AND_PENALTIES,
-    PETS,
-    CHILDCARE,
-    ELDER_CARE,
-    GOAL,
-    SETTLEMENT,
-    OTHERS
+    CHARITY_AND_DONATIONS(66),
+    TAXES(67),
+    FINES_AND_PENALTIES(68),
+    PETS(69),
+    CHILDCARE(70),
+    ELDER_CARE(71),
+    GOAL(72),
+    SETTLEMENT(73),
+    OTHERS(74);
+
+    private final short code;
+
+    Category(int code) {
+        this.code = (short) code;
+    }
+
+    @Override
+    public short code() {
+        return code;
+    }
 }
\ No newline at end of file
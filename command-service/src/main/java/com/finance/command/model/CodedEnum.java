@@ -0,0 +1,15 @@
+package com.finance.command.model;
+
+/**
+ * An enum persisted as a smallint code instead of its name (see
+ * {@code model.convert.EnumConverters}).
+ *
+ * Codes are part of the schema: once a constant has shipped, its code never
+ * changes and is never reused, so constants can be renamed or reordered
+ * freely. A new constant takes the next unused code. query-service keeps a
+ * copy of every coded enum and must use the same codes.
+ */
+public interface CodedEnum {
+
+    short code();
+}
@@ -1,16 +1,22 @@
 package com.finance.command.model;
 
+import com.finance.command.cache.CacheRegions;
+import com.finance.command.model.convert.CurrencyConverter;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.EXPENSE_GROUPS)
 @Table(name = "expense_groups", schema = "groups")
 @Data
 @NoArgsConstructor
@@ -33,7 +39,8 @@ public class ExpenseGroup {
     @Column(name = "created_by", nullable = false)
     private UUID createdBy;
 
-    @Column(nullable = false, length = 3)
+    @Convert(converter = CurrencyConverter.class)
+    @Column(nullable = false)
     private String currency = "INR";
 
     @Column(name = "created_at", nullable = false, updatable = false)
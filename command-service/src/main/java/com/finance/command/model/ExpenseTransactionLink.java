@@ -17,7 +17,9 @@ import java.util.UUID;
 public class ExpenseTransactionLink {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "expense_transaction_links_seq")
+    @SequenceGenerator(name = "expense_transaction_links_seq", sequenceName = "expense_transaction_links_id_seq",
+            schema = "groups", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -32,7 +34,8 @@ public class ExpenseTransactionLink {
     private UUID userId;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "transaction_entry_id")
+    // transaction_entries is partitioned (PK id, created_at), so no FK on id alone
+    @JoinColumn(name = "transaction_entry_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     @JsonIgnore
     private TransactionEntry transactionEntry;
 
@@ -1,15 +1,20 @@
 package com.finance.command.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.finance.command.cache.CacheRegions;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.GROUP_MEMBERS)
 @Table(name = "group_members", schema = "groups",
        uniqueConstraints = @UniqueConstraint(columnNames = {"group_id", "user_id"}))
 @Data
@@ -17,8 +22,19 @@ import java.util.UUID;
 @AllArgsConstructor
 public class GroupMember {
 
-    public enum InvitationStatus {
-        PENDING, ACCEPTED, REJECTED
+    public enum InvitationStatus implements CodedEnum {
+        PENDING(1), ACCEPTED(2), REJECTED(3);
+
+        private final short code;
+
+        InvitationStatus(int code) {
+            this.code = (short) code;
+        }
+
+        @Override
+        public short code() {
+            return code;
+        }
     }
 
     @Id
@@ -43,8 +59,7 @@ public class GroupMember {
     @Column(name = "joined_at", nullable = false, updatable = false)
     private LocalDateTime joinedAt;
 
-    @Enumerated(EnumType.STRING)
-    @Column(nullable = false, length = 20)
+    @Column(nullable = false)
     private InvitationStatus status = InvitationStatus.PENDING;
 
     @Column(name = "is_archived", nullable = false)
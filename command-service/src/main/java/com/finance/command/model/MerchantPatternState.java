@@ -0,0 +1,78 @@
+package com.finance.command.model;
+
+import com.finance.command.model.convert.CurrencyConverter;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Compact, incrementally maintained pattern state for one (user, merchant).
+ * Updated on every expense create/delete so subscription detection never has
+ * to re-scan transaction history.
+ */
+@Entity
+@Table(name = "merchant_pattern_state", schema = "finance", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_merchant_pattern_user_key", columnNames = {"user_id", "merchant_key"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MerchantPatternState {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    /** Lower-cased, whitespace-collapsed transaction name. */
+    @Column(name = "merchant_key", nullable = false, length = 100)
+    private String merchantKey;
+
+    /** Display name and currency of the most recent occurrence. */
+    @Column(name = "last_name", length = 100)
+    private String lastName;
+
+    @Column(name = "last_amount", precision = 12, scale = 2)
+    private BigDecimal lastAmount;
+
+    @Convert(converter = CurrencyConverter.class)
+    private String currency;
+
+    /**
+     * Up to the last N occurrences, oldest first, encoded as
+     * {@code yyyy-MM-dd@amount} joined by commas.
+     */
+    @Column(name = "recent_occurrences", nullable = false, columnDefinition = "text")
+    private String recentOccurrences = "";
+
+    /** Amount band across the recent occurrences. */
+    @Column(name = "amount_min", precision = 12, scale = 2)
+    private BigDecimal amountMin;
+
+    @Column(name = "amount_max", precision = 12, scale = 2)
+    private BigDecimal amountMax;
+
+    /** Period the recent gaps agree on, or null when there is no consistent pattern. */
+    @Column(name = "candidate_period")
+    private RecurringPeriod candidatePeriod;
+
+    /** Subscription promoted from this pattern, if any. */
+    @Column(name = "subscription_id")
+    private Long subscriptionId;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -16,27 +16,43 @@ import java.util.UUID;
 public class OutboxEvent {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_seq")
+    @SequenceGenerator(name = "outbox_events_seq", sequenceName = "outbox_events_id_seq",
+            schema = "finance", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
     private UUID userId;
 
     @Column(nullable = false)
-    private String eventType; // "CREATE", "UPDATE", "DELETE", "PATCH"
+    private String eventType; // "CREATE", "UPDATE", "DELETE", "PATCH", "BULK_DELETE" (entityId = count)
 
     @Column(nullable = false)
     private Long entityId;
 
+    /** Cross-shard split entries (CrossShardEntryRelay) carry the entry to create; null otherwise. */
+    @Column(columnDefinition = "text")
+    private String payload;
+
     @Column(nullable = false)
-    @Enumerated(EnumType.STRING)
     private EventStatus status = EventStatus.PENDING;
 
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
 
-    public enum EventStatus {
-        PENDING, PROCESSED, FAILED
+    public enum EventStatus implements CodedEnum {
+        PENDING(1), PROCESSED(2), FAILED(3);
+
+        private final short code;
+
+        EventStatus(int code) {
+            this.code = (short) code;
+        }
+
+        @Override
+        public short code() {
+            return code;
+        }
     }
 }
@@ -1,16 +1,22 @@
 package com.finance.command.model;
 
+import com.finance.command.cache.CacheRegions;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import lombok.Getter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Immutable;
 
 import java.util.UUID;
 
 @Entity
 @Immutable
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = CacheRegions.REGISTERED_USERS)
 @Table(name = "users", schema = "auth")
 @Getter
 public class RegisteredUser {
@@ -1,5 +1,6 @@
 package com.finance.command.model;
 
+import com.finance.command.model.convert.CurrencyConverter;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
@@ -39,7 +40,8 @@ public class SavingsGoal {
     @Column(name = "saved_amount", nullable = false, precision = 12, scale = 2)
     private BigDecimal savedAmount = BigDecimal.ZERO;
 
-    @Column(nullable = false, length = 3)
+    @Convert(converter = CurrencyConverter.class)
+    @Column(nullable = false)
     @NotBlank
     private String currency;
 
@@ -59,7 +61,6 @@ public class SavingsGoal {
     @Column(name = "active", nullable = false)
     private boolean active = true;
 
-    @Enumerated(EnumType.STRING)
     @Column(name = "priority", nullable = false)
     private Priority priority = Priority.MEDIUM;
 
@@ -1,5 +1,6 @@
 package com.finance.command.model;
 
+import com.finance.command.model.convert.CurrencyConverter;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -13,6 +14,9 @@ import java.util.UUID;
 @Entity
 @Table(name = "subscriptions", schema = "finance", indexes = {
     @Index(name = "idx_subscription_user", columnList = "user_id, active")
+}, uniqueConstraints = {
+    // Conflict target for the bulk upsert in SubscriptionDetectorService
+    @UniqueConstraint(name = "uk_subscription_user_name_amount", columnNames = {"user_id", "name", "amount"})
 })
 @Data
 @NoArgsConstructor
@@ -32,10 +36,10 @@ public class Subscription {
     @Column(nullable = false, precision = 12, scale = 2)
     private BigDecimal amount;
 
-    @Column(nullable = false, length = 3)
+    @Convert(converter = CurrencyConverter.class)
+    @Column(nullable = false)
     private String currency;
 
-    @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private RecurringPeriod period;
 
@@ -0,0 +1,29 @@
+package com.finance.command.model.convert;
+
+import com.finance.command.model.CodedEnum;
+import jakarta.persistence.AttributeConverter;
+
+/**
+ * Stores a {@link CodedEnum} as its smallint code. Two bytes per row instead
+ * of a varlena name, and equality / GROUP BY compare integers rather than
+ * collated strings.
+ */
+public abstract class CodedEnumConverter<E extends Enum<E> & CodedEnum> implements AttributeConverter<E, Short> {
+
+    private final Class<E> type;
+
+    protected CodedEnumConverter(Class<E> type) {
+        this.type = type;
+        EnumCodes.verify(type);
+    }
+
+    @Override
+    public Short convertToDatabaseColumn(E value) {
+        return value == null ? null : value.code();
+    }
+
+    @Override
+    public E convertToEntityAttribute(Short code) {
+        return code == null ? null : EnumCodes.decode(type, code);
+    }
+}
@@ -0,0 +1,45 @@
+package com.finance.command.model.convert;
+
+import com.finance.command.model.CodedEnum;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/** Code → constant lookup for {@link CodedEnum}s, built once per enum. */
+public final class EnumCodes {
+
+    private static final ClassValue<Map<Short, Enum<?>>> BY_CODE = new ClassValue<>() {
+        @Override
+        protected Map<Short, Enum<?>> computeValue(Class<?> type) {
+            Map<Short, Enum<?>> byCode = new HashMap<>();
+            for (Object constant : type.getEnumConstants()) {
+                Enum<?> previous = byCode.put(((CodedEnum) constant).code(), (Enum<?>) constant);
+                if (previous != null) {
+                    throw new IllegalStateException(type.getSimpleName() + "." + previous + " and "
+                            + type.getSimpleName() + "." + constant + " share code " + ((CodedEnum) constant).code());
+                }
+            }
+            return Map.copyOf(byCode);
+        }
+    };
+
+    private EnumCodes() {}
+
+    public static <E extends Enum<E> & CodedEnum> E decode(Class<E> type, short code) {
+        Enum<?> constant = BY_CODE.get(type).get(code);
+        if (constant == null) {
+            throw new IllegalArgumentException("Unknown " + type.getSimpleName() + " code " + code);
+        }
+        return type.cast(constant);
+    }
+
+    /** Null-safe variant for nullable columns read outside Hibernate (native projections, JDBC). */
+    public static <E extends Enum<E> & CodedEnum> E decodeNullable(Class<E> type, Number code) {
+        return code == null ? null : decode(type, code.shortValue());
+    }
+
+    /** Fails fast on duplicate codes; called once per converter. */
+    static void verify(Class<? extends Enum<?>> type) {
+        BY_CODE.get(type);
+    }
+}
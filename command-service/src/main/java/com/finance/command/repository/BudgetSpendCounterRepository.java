@@ -0,0 +1,45 @@
+package com.finance.command.repository;
+
+import com.finance.command.model.BudgetSpendCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Repository
+public interface BudgetSpendCounterRepository extends JpaRepository<BudgetSpendCounter, Long> {
+
+    /**
+     * Moves the period's counter by {@code delta} and returns the new total.
+     * The first write of a period seeds the row from the ledger instead; that
+     * sum already includes the caller's own (flushed) write. Concurrent first
+     * writers conflict on the unique key and fall through to the delta branch.
+     */
+    @Query(value = """
+            INSERT INTO finance.budget_spend_counters (budget_id, period_start, spent, updated_at)
+            SELECT :budgetId, :periodStart, COALESCE(SUM(t.amount), 0), now()
+            FROM finance.transaction_entries t
+            WHERE t.user_id = :userId
+              AND t.deleted_at IS NULL
+              AND t.type = :expense
+              AND t.category = :category
+              AND t.created_at BETWEEN :start AND :end
+            ON CONFLICT (budget_id, period_start) DO UPDATE
+            SET spent = budget_spend_counters.spent + :delta,
+                updated_at = now()
+            RETURNING spent
+            """, nativeQuery = true)
+    BigDecimal applyDelta(@Param("budgetId") Long budgetId,
+                          @Param("periodStart") LocalDate periodStart,
+                          @Param("userId") UUID userId,
+                          @Param("expense") short expense,
+                          @Param("category") short category,
+                          @Param("start") LocalDateTime start,
+                          @Param("end") LocalDateTime end,
+                          @Param("delta") BigDecimal delta);
+}
@@ -1,10 +1,16 @@
 package com.finance.command.repository;
 
+import com.finance.command.dto.BudgetSpendRow;
 import com.finance.command.model.Category;
 import com.finance.command.model.CategoryBudget;
+import com.finance.command.model.RecurringPeriod;
+import com.finance.command.model.TransactionType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -13,4 +19,44 @@ import java.util.UUID;
 public interface CategoryBudgetRepository extends JpaRepository<CategoryBudget, Long> {
     List<CategoryBudget> findByUserIdAndActiveTrueOrderByCreatedAtDesc(UUID userId);
     Optional<CategoryBudget> findByUserIdAndExpenseCategoryAndActiveTrue(UUID userId, Category category);
+
+    /**
+     * Every active budget of the user with its current-period spend, in one
+     * grouped query. Period bounds mirror BudgetSpendTracker.periodRange:
+     * a custom range wins, otherwise week (ISO, Monday) or month to date.
+     */
+    @Query(value = """
+            SELECT b.id AS budgetId, b.expense_category AS expenseCategoryCode,
+                   b.budget_amount AS budgetAmount, b.period AS periodCode, b.currency AS currencyCode,
+                   COALESCE(SUM(t.amount), 0) AS spent
+            FROM finance.category_budgets b
+            LEFT JOIN finance.transaction_entries t
+                   ON t.user_id = b.user_id
+                  AND t.category = b.expense_category
+                  AND t.type = :expense
+                  AND t.deleted_at IS NULL
+                  AND t.created_at BETWEEN
+                      CASE
+                          WHEN b.custom_start_date IS NOT NULL AND b.custom_end_date IS NOT NULL
+                              THEN CAST(b.custom_start_date AS timestamp)
+                          WHEN b.period = :weekly THEN date_trunc('week', CAST(:now AS timestamp))
+                          ELSE date_trunc('month', CAST(:now AS timestamp))
+                      END
+                  AND CASE
+                          WHEN b.custom_start_date IS NOT NULL AND b.custom_end_date IS NOT NULL
+                              THEN CAST(b.custom_end_date AS timestamp) + INTERVAL '23:59:59'
+                          ELSE CAST(:now AS timestamp)
+                      END
+            WHERE b.user_id = :userId
+              AND b.active = true
+            GROUP BY b.id
+            ORDER BY b.created_at DESC
+            """, nativeQuery = true)
+    List<BudgetSpendRow> findActiveWithSpend(@Param("userId") UUID userId, @Param("now") LocalDateTime now,
+                                             @Param("expense") short expense, @Param("weekly") short weekly);
+
+    /** Enum columns hold codes, so the literals this query compares against are bound as parameters. */
+    default List<BudgetSpendRow> findActiveWithSpend(UUID userId, LocalDateTime now) {
+        return findActiveWithSpend(userId, now, TransactionType.EXPENSE.code(), RecurringPeriod.WEEKLY.code());
+    }
 }
@@ -21,4 +21,11 @@ public interface ExpenseGroupRepository extends JpaRepository<ExpenseGroup, Long
            "WHERE m.userId = :userId AND g.isDeleted = false " +
            "ORDER BY g.createdAt DESC")
     List<ExpenseGroup> findGroupsByMember(@Param("userId") UUID userId);
+
+    @Query("SELECT g.id FROM ExpenseGroup g WHERE g.id > :afterId ORDER BY g.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, org.springframework.data.domain.Pageable pageable);
+
+    /** Row lock that serializes ledger writes for one group. */
+    @Query(value = "SELECT id FROM groups.expense_groups WHERE id = :groupId FOR UPDATE", nativeQuery = true)
+    Long lockById(@Param("groupId") Long groupId);
 }
@@ -0,0 +1,85 @@
+package com.finance.command.repository;
+
+import com.finance.command.model.GroupMemberBalance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface GroupMemberBalanceRepository extends JpaRepository<GroupMemberBalance, Long> {
+
+    List<GroupMemberBalance> findByGroupId(Long groupId);
+
+    boolean existsByGroupId(Long groupId);
+
+    /** Atomic delta: creates the row on first touch, otherwise adds to the running totals. */
+    @Modifying
+    @Query(value = """
+            INSERT INTO groups.group_member_balance (group_id, user_id, total_paid, total_owed, updated_at)
+            VALUES (:groupId, :userId, :paidDelta, :owedDelta, now())
+            ON CONFLICT (group_id, user_id) DO UPDATE SET
+                total_paid = group_member_balance.total_paid + EXCLUDED.total_paid,
+                total_owed = group_member_balance.total_owed + EXCLUDED.total_owed,
+                updated_at = now()
+            """, nativeQuery = true)
+    int applyDelta(@Param("groupId") Long groupId,
+                   @Param("userId") UUID userId,
+                   @Param("paidDelta") BigDecimal paidDelta,
+                   @Param("owedDelta") BigDecimal owedDelta);
+
+    @Modifying
+    @Query(value = "DELETE FROM groups.group_member_balance WHERE group_id = :groupId", nativeQuery = true)
+    int deleteByGroupIdNative(@Param("groupId") Long groupId);
+
+    /** Recomputes one group's ledger from the raw expenses and splits. */
+    @Modifying
+    @Query(value = """
+            INSERT INTO groups.group_member_balance (group_id, user_id, total_paid, total_owed, updated_at)
+            SELECT :groupId, t.user_id, SUM(t.paid), SUM(t.owed), now()
+            FROM (
+                SELECT e.paid_by AS user_id, e.amount AS paid, 0 AS owed
+                FROM groups.shared_expenses e
+                WHERE e.group_id = :groupId
+                UNION ALL
+                SELECT s.user_id, 0, s.amount
+                FROM groups.expense_splits s
+                JOIN groups.shared_expenses e ON e.id = s.shared_expense_id
+                WHERE e.group_id = :groupId
+            ) t
+            GROUP BY t.user_id
+            """, nativeQuery = true)
+    int rebuildFromSplits(@Param("groupId") Long groupId);
+
+    /** Of the given groups, returns those whose ledger disagrees with the raw splits. */
+    @Query(value = """
+            SELECT DISTINCT COALESCE(a.group_id, b.group_id)
+            FROM (
+                SELECT t.group_id, t.user_id, SUM(t.paid) AS paid, SUM(t.owed) AS owed
+                FROM (
+                    SELECT e.group_id, e.paid_by AS user_id, e.amount AS paid, 0 AS owed
+                    FROM groups.shared_expenses e
+                    WHERE e.group_id IN (:groupIds)
+                    UNION ALL
+                    SELECT e.group_id, s.user_id, 0, s.amount
+                    FROM groups.expense_splits s
+                    JOIN groups.shared_expenses e ON e.id = s.shared_expense_id
+                    WHERE e.group_id IN (:groupIds)
+                ) t
+                GROUP BY t.group_id, t.user_id
+            ) a
+            FULL OUTER JOIN (
+                SELECT group_id, user_id, total_paid, total_owed
+                FROM groups.group_member_balance
+                WHERE group_id IN (:groupIds)
+            ) b ON a.group_id = b.group_id AND a.user_id = b.user_id
+            WHERE COALESCE(a.paid, 0) <> COALESCE(b.total_paid, 0)
+               OR COALESCE(a.owed, 0) <> COALESCE(b.total_owed, 0)
+            """, nativeQuery = true)
+    List<Long> findDriftedGroupIds(@Param("groupIds") List<Long> groupIds);
+}
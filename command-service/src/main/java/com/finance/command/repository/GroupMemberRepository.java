@@ -1,7 +1,11 @@
 package com.finance.command.repository;
 
+import com.finance.command.cache.CacheRegions;
 import com.finance.command.model.GroupMember;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,8 +14,22 @@ import java.util.UUID;
 
 @Repository
 public interface GroupMemberRepository extends JpaRepository<GroupMember, Long> {
+
+    // Not query-cached: GroupMembershipDirectory already caches member lists per group
     List<GroupMember> findByGroupId(Long groupId);
+
+    // Results are cached in the L2 query region; any group_members write invalidates them
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.GROUP_MEMBER_QUERIES)
+    })
     Optional<GroupMember> findByGroupIdAndUserId(Long groupId, UUID userId);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.GROUP_MEMBER_QUERIES)
+    })
     boolean existsByGroupIdAndUserId(Long groupId, UUID userId);
+
     List<GroupMember> findByGroupIdInAndUserId(List<Long> groupIds, UUID userId);
 }
@@ -0,0 +1,33 @@
+package com.finance.command.repository;
+
+import com.finance.command.model.MerchantPatternState;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface MerchantPatternStateRepository extends JpaRepository<MerchantPatternState, Long> {
+
+    /** Creates an empty state row if none exists; safe under concurrent first writes. */
+    @Modifying
+    @Query(value = """
+            INSERT INTO finance.merchant_pattern_state (user_id, merchant_key, recent_occurrences, updated_at)
+            VALUES (:userId, :merchantKey, '', now())
+            ON CONFLICT (user_id, merchant_key) DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("userId") UUID userId, @Param("merchantKey") String merchantKey);
+
+    /** Row-locks the state so concurrent expenses for one merchant apply in order. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM MerchantPatternState s WHERE s.userId = :userId AND s.merchantKey = :merchantKey")
+    Optional<MerchantPatternState> findForUpdate(@Param("userId") UUID userId, @Param("merchantKey") String merchantKey);
+
+    Optional<MerchantPatternState> findByUserIdAndMerchantKey(UUID userId, String merchantKey);
+}
@@ -1,14 +1,74 @@
 package com.finance.command.repository;
 
+import com.finance.command.dto.GoalProgressRow;
 import com.finance.command.model.SavingsGoal;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface SavingsGoalRepository extends JpaRepository<SavingsGoal, Long> {
     List<SavingsGoal> findByUserIdAndActiveTrueOrderByCreatedAtDesc(UUID userId);
     List<SavingsGoal> findByUserId(UUID userId);
+
+    // ── Atomic counters ───────────────────────────────────────────────────────
+
+    /**
+     * Adds {@code delta} to saved_amount in place and stamps completed_at in the
+     * same statement when the goal first reaches its target. SET expressions see
+     * the pre-update row, so concurrent deltas never overwrite each other.
+     * Empty when the goal does not exist or belongs to another user.
+     */
+    @Query(value = """
+            UPDATE finance.savings_goals
+            SET saved_amount = saved_amount + :delta,
+                completed_at = CASE
+                    WHEN completed_at IS NULL AND saved_amount + :delta >= target_amount THEN :now
+                    ELSE completed_at
+                END
+            WHERE id = :goalId
+              AND user_id = :userId
+            RETURNING id, saved_amount AS savedAmount, target_amount AS targetAmount,
+                      completed_at AS completedAt,
+                      (completed_at IS NOT DISTINCT FROM CAST(:now AS timestamp)) AS justCompleted
+            """, nativeQuery = true)
+    Optional<GoalProgressRow> applySavedDelta(@Param("goalId") Long goalId,
+                                              @Param("userId") UUID userId,
+                                              @Param("delta") BigDecimal delta,
+                                              @Param("now") LocalDateTime now);
+
+    /**
+     * Batched {@link #applySavedDelta}: applies one delta per goal for a single
+     * user in one statement. Repeated goal IDs are summed first so each row is
+     * updated (and locked) once.
+     */
+    @Query(value = """
+            UPDATE finance.savings_goals g
+            SET saved_amount = g.saved_amount + d.delta,
+                completed_at = CASE
+                    WHEN g.completed_at IS NULL AND g.saved_amount + d.delta >= g.target_amount THEN :now
+                    ELSE g.completed_at
+                END
+            FROM (
+                SELECT u.goal_id, SUM(u.delta) AS delta
+                FROM unnest(CAST(:goalIds AS bigint[]), CAST(:deltas AS numeric[])) AS u(goal_id, delta)
+                GROUP BY u.goal_id
+            ) d
+            WHERE g.id = d.goal_id
+              AND g.user_id = :userId
+            RETURNING g.id, g.saved_amount AS savedAmount, g.target_amount AS targetAmount,
+                      g.completed_at AS completedAt,
+                      (g.completed_at IS NOT DISTINCT FROM CAST(:now AS timestamp)) AS justCompleted
+            """, nativeQuery = true)
+    List<GoalProgressRow> applySavedDeltas(@Param("goalIds") Long[] goalIds,
+                                           @Param("deltas") BigDecimal[] deltas,
+                                           @Param("userId") UUID userId,
+                                           @Param("now") LocalDateTime now);
 }
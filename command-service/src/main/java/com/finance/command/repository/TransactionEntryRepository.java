@@ -1,11 +1,15 @@
 package com.finance.command.repository;
 
+import com.finance.command.dto.BulkDeleteCandidateRow;
+import com.finance.command.dto.RecurringScheduleRow;
 import com.finance.command.model.Category;
 import com.finance.command.model.TransactionEntry;
 import com.finance.command.model.TransactionType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -19,7 +23,8 @@ import java.util.UUID;
 
 
 @Repository
-public interface TransactionEntryRepository extends JpaRepository<TransactionEntry, Long> {
+public interface TransactionEntryRepository extends JpaRepository<TransactionEntry, Long>,
+        JpaSpecificationExecutor<TransactionEntry> {
 
     // ── Basic listing ─────────────────────────────────────────────────────────
 
@@ -45,23 +50,34 @@ public interface TransactionEntryRepository extends JpaRepository<TransactionEnt
     @Query("SELECT t FROM TransactionEntry t JOIN TransactionGoalAllocation a ON t.id = a.transactionId WHERE a.goalId = :goalId AND t.userId = :userId AND t.deletedAt IS NULL ORDER BY t.createdAt DESC")
     Page<TransactionEntry> findByGoalIdAndUserId(@Param("goalId") Long goalId, @Param("userId") UUID userId, Pageable pageable);
 
-    // ── Date-range queries ────────────────────────────────────────────────────
+    // ── Bulk delete ───────────────────────────────────────────────────────────
 
+    /** Ownership and group-link check for every requested ID in one round trip. */
     @Query("""
-            SELECT t FROM TransactionEntry t
-            WHERE t.userId = :userId
+            SELECT t.id AS id, t.userId AS userId, t.type AS type, t.category AS category, t.name AS name,
+                   t.amount AS amount, t.createdAt AS createdAt, t.recurring AS recurring,
+                   (SELECT COUNT(l) FROM ExpenseTransactionLink l WHERE l.transactionEntryId = t.id) AS linkCount
+            FROM TransactionEntry t
+            WHERE t.id IN :ids
               AND t.deletedAt IS NULL
-              AND (cast(:type as string) IS NULL OR t.type = :type)
-              AND (cast(:start as timestamp) IS NULL OR t.createdAt >= :start)
-              AND (cast(:end as timestamp) IS NULL OR t.createdAt <= :end)
-            ORDER BY t.createdAt DESC
             """)
-    Page<TransactionEntry> findByUserIdAndFilters(
-            @Param("userId") UUID userId,
-            @Param("type") TransactionType type,
-            @Param("start") LocalDateTime start,
-            @Param("end") LocalDateTime end,
-            Pageable pageable);
+    List<BulkDeleteCandidateRow> findBulkDeleteCandidates(@Param("ids") java.util.Collection<Long> ids);
+
+    /**
+     * Soft-deletes the given entries in a single statement. Returns the IDs that
+     * were actually flipped, so rows deleted concurrently are not double-counted.
+     */
+    @Query(value = """
+            UPDATE finance.transaction_entries
+            SET deleted_at = :deletedAt
+            WHERE id = ANY(:ids)
+              AND user_id = :userId
+              AND deleted_at IS NULL
+            RETURNING id
+            """, nativeQuery = true)
+    List<Long> softDeleteAll(@Param("ids") Long[] ids,
+                             @Param("userId") UUID userId,
+                             @Param("deletedAt") LocalDateTime deletedAt);
 
     // ── Full-text search ──────────────────────────────────────────────────────
 
@@ -82,10 +98,76 @@ public interface TransactionEntryRepository extends JpaRepository<TransactionEnt
 
     List<TransactionEntry> findByUserIdAndRecurringTrueAndDeletedAtIsNull(UUID userId);
 
+    /** Keyset page over every live recurring schedule — used to rebuild the timer index. */
+    @Query("""
+            SELECT t.id AS id, t.nextRunDate AS nextRunDate
+            FROM TransactionEntry t
+            WHERE t.recurring = true
+              AND t.deletedAt IS NULL
+              AND t.nextRunDate IS NOT NULL
+              AND t.id > :afterId
+            ORDER BY t.id
+            """)
+    List<RecurringScheduleRow> findRecurringSchedulesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /** Keyset page over recurring entries whose run date passed before {@code cutoff}. */
+    @Query("""
+            SELECT t.id FROM TransactionEntry t
+            WHERE t.recurring = true
+              AND t.deletedAt IS NULL
+              AND t.nextRunDate <= :cutoff
+              AND t.id > :afterId
+            ORDER BY t.id
+            """)
+    List<Long> findOverdueRecurringIdsAfter(@Param("cutoff") LocalDateTime cutoff,
+                                            @Param("afterId") Long afterId,
+                                            Pageable pageable);
+
+    /**
+     * Compare-and-set on next_run_date. Returns 0 when another instance already
+     * advanced (or deleted) the schedule, which is what makes a firing idempotent.
+     */
+    @Modifying
+    @Query("""
+            UPDATE TransactionEntry t
+            SET t.nextRunDate = :next
+            WHERE t.id = :id
+              AND t.nextRunDate = :expected
+              AND t.recurring = true
+              AND t.deletedAt IS NULL
+            """)
+    int advanceNextRunDate(@Param("id") Long id,
+                           @Param("expected") LocalDateTime expected,
+                           @Param("next") LocalDateTime next);
+
     List<TransactionEntry> findAllByRecurringTrueAndDeletedAtIsNull();
 
-    List<TransactionEntry> findByUserIdAndTypeAndCreatedAtAfterAndDeletedAtIsNull(
-            UUID userId, TransactionType type, LocalDateTime after);
+    /**
+     * Keyset page over users that own at least one live recurring expense.
+     * Pass the nil UUID to start from the beginning.
+     */
+    @Query("""
+            SELECT DISTINCT t.userId FROM TransactionEntry t
+            WHERE t.recurring = true
+              AND t.deletedAt IS NULL
+              AND t.type = com.finance.command.model.TransactionType.EXPENSE
+              AND t.userId > :afterUserId
+            ORDER BY t.userId
+            """)
+    List<UUID> findRecurringExpenseUserIdsAfter(@Param("afterUserId") UUID afterUserId, Pageable pageable);
+
+    @Query("""
+            SELECT t FROM TransactionEntry t
+            WHERE t.userId IN :userIds
+              AND t.recurring = true
+              AND t.deletedAt IS NULL
+              AND t.type = com.finance.command.model.TransactionType.EXPENSE
+            ORDER BY t.id
+            """)
+    List<TransactionEntry> findRecurringExpensesByUserIds(@Param("userIds") java.util.Collection<UUID> userIds);
+
+    boolean existsByUserIdAndNameAndAmountAndRecurringTrueAndDeletedAtIsNull(
+            UUID userId, String name, BigDecimal amount);
 
     // ── Budget utilization ────────────────────────────────────────────────────
 
@@ -1,9 +1,13 @@
 package com.finance.command.repository;
 
+import com.finance.command.dto.GoalAllocationTotalRow;
 import com.finance.command.model.TransactionGoalAllocation;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 import java.util.Optional;
@@ -12,4 +16,12 @@ import java.util.Optional;
 public interface TransactionGoalAllocationRepository extends JpaRepository<TransactionGoalAllocation, Long> {
     Optional<TransactionGoalAllocation> findByTransactionId(Long transactionId);
     List<TransactionGoalAllocation> findByGoalId(Long goalId);
+
+    @Query("""
+            SELECT a.goalId AS goalId, SUM(a.amount) AS total
+            FROM TransactionGoalAllocation a
+            WHERE a.transactionId IN :transactionIds
+            GROUP BY a.goalId
+            """)
+    List<GoalAllocationTotalRow> sumByGoalForTransactions(@Param("transactionIds") Collection<Long> transactionIds);
 }
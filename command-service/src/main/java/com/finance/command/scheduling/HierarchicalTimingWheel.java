@@ -0,0 +1,135 @@
+package com.finance.command.scheduling;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory hierarchical timing wheel keyed by a {@code long} id.
+ *
+ * Insert, reschedule and cancel are O(1). A single driver thread blocks on a
+ * DelayQueue of non-empty buckets, so an idle wheel costs nothing and a due
+ * key fires within one base tick of its deadline. Expired keys are handed to
+ * {@code executor} so slow callbacks never stall the clock.
+ *
+ * Each key is scheduled at most once: scheduling an existing key replaces it.
+ */
+@Slf4j
+public class HierarchicalTimingWheel implements AutoCloseable {
+
+    /** Invoked with (key, dueAtMs) when a key expires. */
+    @FunctionalInterface
+    public interface ExpiryHandler {
+        void onExpire(long key, long dueAtMs);
+    }
+
+    private final DelayQueue<TimerBucket> queue = new DelayQueue<>();
+    private final Map<Long, TimerEntry> entries = new ConcurrentHashMap<>();
+    private final TimingWheel wheel;
+    private final ExpiryHandler handler;
+    private final Executor executor;
+    private final Thread driver;
+
+    private volatile boolean running;
+
+    public HierarchicalTimingWheel(String name, long tickMs, int wheelSize,
+                                   ExpiryHandler handler, Executor executor) {
+        this.wheel = new TimingWheel(tickMs, wheelSize, System.currentTimeMillis(), queue);
+        this.handler = handler;
+        this.executor = executor;
+        this.driver = Thread.ofPlatform().name(name).daemon().unstarted(this::drive);
+    }
+
+    public void start() {
+        running = true;
+        driver.start();
+    }
+
+    /** Schedules {@code key} to fire at {@code dueAtMs}; replaces any earlier schedule for the key. */
+    public void schedule(long key, long dueAtMs) {
+        TimerEntry entry = new TimerEntry(key, dueAtMs);
+        TimerEntry previous = entries.put(key, entry);
+        if (previous != null) {
+            previous.cancel();
+        }
+        addOrFire(entry);
+    }
+
+    /** @return true if the key was pending and has been cancelled */
+    public boolean cancel(long key) {
+        TimerEntry entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        entry.cancel();
+        return true;
+    }
+
+    /** @return the pending due time for {@code key}, or null if it is not scheduled */
+    public Long dueAt(long key) {
+        TimerEntry entry = entries.get(key);
+        return entry != null ? entry.dueAtMs : null;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        driver.interrupt();
+        entries.values().forEach(TimerEntry::cancel);
+        entries.clear();
+    }
+
+    // ── Internals ─────────────────────────────────────────────────────────────
+
+    private void addOrFire(TimerEntry entry) {
+        boolean added;
+        synchronized (wheel) {
+            added = wheel.add(entry);
+        }
+        if (!added && !entry.cancelled) {
+            fire(entry);
+        }
+    }
+
+    private void fire(TimerEntry entry) {
+        // Only fire if this entry is still the live schedule for its key
+        if (!entries.remove(entry.key, entry)) {
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                handler.onExpire(entry.key, entry.dueAtMs);
+            } catch (Exception e) {
+                log.error("Timer callback failed for key={}", entry.key, e);
+            }
+        });
+    }
+
+    private void drive() {
+        while (running) {
+            try {
+                TimerBucket bucket = queue.poll(1, TimeUnit.SECONDS);
+                while (bucket != null) {
+                    synchronized (wheel) {
+                        wheel.advanceClock(bucket.getExpiration());
+                        bucket.flush(this::addOrFire);
+                    }
+                    bucket = queue.poll();
+                }
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Timing wheel driver error", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,385 @@
+package com.finance.command.scheduling;
+
+import com.finance.command.dto.RecurringScheduleRow;
+import com.finance.command.repository.TransactionEntryRepository;
+import com.finance.command.service.RecurringTransactionScheduler;
+import com.finance.command.shard.ShardContext;
+import com.finance.command.shard.ShardMap;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.core.DefaultLockingTaskExecutor;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Precise, event-driven index of upcoming recurring-transaction run dates.
+ *
+ * Source of truth is a Redis sorted set (member = entry id, score = next run
+ * epoch-millis) shared by every command-service instance. Each instance mirrors
+ * the part of it that falls inside {@link #horizon} into a local
+ * {@link HierarchicalTimingWheel}, so a schedule fires within one tick of its
+ * due time instead of waiting for the next cron scan.
+ *
+ * Exactly-once firing across instances:
+ *   1. Claim   — a Lua script moves the member from the schedule set to an
+ *                in-flight set only if its score still equals the fired due
+ *                time, so only one instance wins and stale timers are dropped.
+ *   2. Process — the DB row is advanced with a compare-and-set on
+ *                next_run_date, so even a re-fired lease cannot post twice.
+ *   3. Complete— the member is re-added with its new score and removed from
+ *                the in-flight set. Leases that expire (instance died mid-way)
+ *                are moved back by {@link #recoverExpiredLeases()}.
+ *
+ * Changes are broadcast on a pub/sub channel so other instances update their
+ * wheels immediately; {@link #refill()} re-syncs periodically as a safety net.
+ */
+@Slf4j
+@Component
+public class RecurringScheduleIndex {
+
+    static final String SCHEDULE_KEY = "finance:upsert:v1:recurring:schedule";
+    static final String INFLIGHT_KEY = "finance:upsert:v1:recurring:inflight";
+    static final String CHANGES_CHANNEL = "finance:upsert:v1:recurring:changes";
+
+    private static final int REBUILD_PAGE_SIZE = 1000;
+    private static final long REMOVED = -1L;
+
+    /** Claim only if the member is still scheduled at exactly the fired due time. */
+    private static final String CLAIM_LUA = """
+            local score = redis.call('ZSCORE', KEYS[1], ARGV[1])
+            if not score or tonumber(score) ~= tonumber(ARGV[2]) then return 0 end
+            redis.call('ZREM', KEYS[1], ARGV[1])
+            redis.call('ZADD', KEYS[2], ARGV[3], ARGV[1])
+            return 1
+            """;
+
+    /** Move expired in-flight leases back into the schedule so they fire again. */
+    private static final String RECOVER_LUA = """
+            local ids = redis.call('ZRANGEBYSCORE', KEYS[2], '-inf', ARGV[1], 'LIMIT', 0, ARGV[2])
+            for _, id in ipairs(ids) do
+                redis.call('ZREM', KEYS[2], id)
+                redis.call('ZADD', KEYS[1], 'NX', ARGV[1], id)
+            end
+            return ids
+            """;
+
+    private final StringRedisTemplate redisTemplate;
+    private final TransactionEntryRepository repository;
+    private final RecurringTransactionScheduler scheduler;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final LockProvider lockProvider;
+    private final AsyncTaskExecutor executor;
+    private final ShardMap shardMap;
+
+    private final Counter firedCounter;
+    private final Counter claimLostCounter;
+    private final Counter recoveredCounter;
+
+    private final DefaultRedisScript<Long> claimScript = new DefaultRedisScript<>(CLAIM_LUA, Long.class);
+    @SuppressWarnings("rawtypes")
+    private final DefaultRedisScript<List> recoverScript = new DefaultRedisScript<>(RECOVER_LUA, List.class);
+
+    @Value("${recurring.timer.tick-ms:1000}")
+    private long tickMs;
+
+    @Value("${recurring.timer.wheel-size:60}")
+    private int wheelSize;
+
+    @Value("${recurring.timer.horizon:PT6H}")
+    private Duration horizon;
+
+    @Value("${recurring.timer.lease:PT2M}")
+    private Duration lease;
+
+    @Value("${recurring.timer.retry-delay:PT1M}")
+    private Duration retryDelay;
+
+    private HierarchicalTimingWheel wheel;
+
+    public RecurringScheduleIndex(StringRedisTemplate redisTemplate,
+                                  TransactionEntryRepository repository,
+                                  @Lazy RecurringTransactionScheduler scheduler,
+                                  RedisMessageListenerContainer listenerContainer,
+                                  LockProvider lockProvider,
+                                  @Qualifier("applicationTaskExecutor") AsyncTaskExecutor executor,
+                                  ShardMap shardMap,
+                                  MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.repository = repository;
+        this.scheduler = scheduler;
+        this.listenerContainer = listenerContainer;
+        this.lockProvider = lockProvider;
+        this.executor = executor;
+        this.shardMap = shardMap;
+        this.firedCounter = meterRegistry.counter("recurring.timer.fired");
+        this.claimLostCounter = meterRegistry.counter("recurring.timer.claim.lost");
+        this.recoveredCounter = meterRegistry.counter("recurring.timer.lease.recovered");
+        meterRegistry.gauge("recurring.timer.wheel.size", this, idx -> idx.wheel != null ? idx.wheel.size() : 0);
+    }
+
+    @PostConstruct
+    void start() {
+        wheel = new HierarchicalTimingWheel("recurring-timing-wheel", tickMs, wheelSize, this::onExpire, executor);
+        wheel.start();
+        listenerContainer.addMessageListener(
+                (message, pattern) -> applyChange(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(CHANGES_CHANNEL));
+    }
+
+    @PreDestroy
+    void stop() {
+        if (wheel != null) {
+            wheel.close();
+        }
+    }
+
+    // ── Write-path hooks (called from TransactionEntryService) ────────────────
+
+    /**
+     * Index {@code entryId} at {@code nextRunDate} once the surrounding
+     * transaction commits. A null run date removes the entry from the index.
+     */
+    public void scheduleAfterCommit(Long entryId, LocalDateTime nextRunDate) {
+        runAfterCommit(() -> {
+            if (nextRunDate == null) {
+                remove(entryId);
+            } else {
+                schedule(entryId, nextRunDate);
+            }
+        });
+    }
+
+    public void removeAfterCommit(Long entryId) {
+        runAfterCommit(() -> remove(entryId));
+    }
+
+    public void schedule(Long entryId, LocalDateTime nextRunDate) {
+        long dueAtMs = toEpochMillis(nextRunDate);
+        try {
+            redisTemplate.opsForZSet().add(SCHEDULE_KEY, entryId.toString(), dueAtMs);
+            redisTemplate.convertAndSend(CHANGES_CHANNEL, entryId + ":" + dueAtMs);
+        } catch (Exception e) {
+            // The catch-up sweep in RecurringTransactionScheduler still covers this entry
+            log.warn("Failed to index recurring entry {}: {}", entryId, e.getMessage());
+        }
+        applyLocally(entryId, dueAtMs);
+    }
+
+    public void remove(Long entryId) {
+        try {
+            redisTemplate.opsForZSet().remove(SCHEDULE_KEY, entryId.toString());
+            redisTemplate.convertAndSend(CHANGES_CHANNEL, entryId + ":" + REMOVED);
+        } catch (Exception e) {
+            log.warn("Failed to de-index recurring entry {}: {}", entryId, e.getMessage());
+        }
+        wheel.cancel(entryId);
+    }
+
+    // ── Startup rebuild & periodic sync ───────────────────────────────────────
+
+    /**
+     * Rebuild the Redis index from the database on startup. Guarded by a
+     * ShedLock lock so a rolling restart rebuilds once, not once per pod.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        Instant now = Instant.now();
+        try {
+            new DefaultLockingTaskExecutor(lockProvider).executeWithLock(
+                    (Runnable) this::rebuild,
+                    new LockConfiguration(now, "rebuildRecurringScheduleIndex",
+                            Duration.ofMinutes(10), Duration.ofMinutes(5)));
+        } catch (Exception e) {
+            log.error("Recurring schedule index rebuild failed", e);
+        }
+        refill();
+    }
+
+    void rebuild() {
+        String staging = SCHEDULE_KEY + ":rebuild";
+        redisTemplate.delete(staging);
+        // Entry ids are unique across shards, so one index serves them all
+        int total = shardMap.shards()
+                .map(shard -> ShardContext.call(shard, () -> stageCurrentShard(staging)))
+                .sum();
+        if (total == 0) {
+            redisTemplate.delete(SCHEDULE_KEY);
+        } else {
+            // Atomic swap: readers never observe a half-built index
+            redisTemplate.rename(staging, SCHEDULE_KEY);
+        }
+        log.info("Rebuilt recurring schedule index from database: {} entries", total);
+    }
+
+    private int stageCurrentShard(String staging) {
+        long afterId = 0L;
+        int staged = 0;
+        while (true) {
+            List<RecurringScheduleRow> rows = repository.findRecurringSchedulesAfter(
+                    afterId, PageRequest.of(0, REBUILD_PAGE_SIZE));
+            if (rows.isEmpty()) {
+                break;
+            }
+            Set<ZSetOperations.TypedTuple<String>> tuples = new java.util.HashSet<>(rows.size());
+            for (RecurringScheduleRow row : rows) {
+                tuples.add(ZSetOperations.TypedTuple.of(row.getId().toString(),
+                        (double) toEpochMillis(row.getNextRunDate())));
+            }
+            redisTemplate.opsForZSet().add(staging, tuples);
+            staged += rows.size();
+            afterId = rows.getLast().getId();
+        }
+        return staged;
+    }
+
+    /**
+     * Pull everything due within the horizon into the local wheel. Covers
+     * missed pub/sub messages and entries that drift into the horizon.
+     */
+    @Scheduled(fixedDelayString = "${recurring.timer.refill-interval:PT5M}",
+               initialDelayString = "${recurring.timer.refill-interval:PT5M}")
+    public void refill() {
+        long upper = System.currentTimeMillis() + horizon.toMillis();
+        try {
+            Set<ZSetOperations.TypedTuple<String>> due = redisTemplate.opsForZSet()
+                    .rangeByScoreWithScores(SCHEDULE_KEY, Double.NEGATIVE_INFINITY, upper);
+            if (due == null) {
+                return;
+            }
+            for (ZSetOperations.TypedTuple<String> t : due) {
+                if (t.getValue() == null || t.getScore() == null) continue;
+                applyLocally(Long.parseLong(t.getValue()), t.getScore().longValue());
+            }
+            log.debug("Recurring wheel refilled: {} entries within horizon", due.size());
+        } catch (Exception e) {
+            log.warn("Recurring wheel refill failed: {}", e.getMessage());
+        }
+    }
+
+    /** Re-arm firings whose claiming instance died before completing them. */
+    @Scheduled(fixedDelayString = "${recurring.timer.lease-check-interval:PT30S}")
+    @SchedulerLock(name = "recoverRecurringLeases", lockAtMostFor = "1m")
+    public void recoverExpiredLeases() {
+        long now = System.currentTimeMillis();
+        try {
+            List<?> ids = redisTemplate.execute(recoverScript,
+                    List.of(SCHEDULE_KEY, INFLIGHT_KEY), String.valueOf(now), "500");
+            if (ids == null || ids.isEmpty()) {
+                return;
+            }
+            for (Object id : ids) {
+                applyLocally(Long.parseLong(id.toString()), now);
+            }
+            recoveredCounter.increment(ids.size());
+            log.warn("Recovered {} expired recurring leases", ids.size());
+        } catch (Exception e) {
+            log.warn("Recurring lease recovery failed: {}", e.getMessage());
+        }
+    }
+
+    // ── Firing ────────────────────────────────────────────────────────────────
+
+    void onExpire(long entryId, long dueAtMs) {
+        String member = Long.toString(entryId);
+        long leaseUntil = System.currentTimeMillis() + lease.toMillis();
+        Long claimed = redisTemplate.execute(claimScript, List.of(SCHEDULE_KEY, INFLIGHT_KEY),
+                member, Long.toString(dueAtMs), Long.toString(leaseUntil));
+        if (claimed == null || claimed == 0L) {
+            claimLostCounter.increment();
+            log.debug("Recurring entry {} already claimed or rescheduled", entryId);
+            return;
+        }
+
+        firedCounter.increment();
+        LocalDateTime next;
+        try {
+            next = scheduler.processDueEntry(entryId);
+        } catch (Exception e) {
+            log.error("Recurring entry {} failed; retrying in {}", entryId, retryDelay, e);
+            complete(entryId, System.currentTimeMillis() + retryDelay.toMillis());
+            return;
+        }
+        complete(entryId, next != null ? toEpochMillis(next) : REMOVED);
+    }
+
+    private void complete(long entryId, long nextDueAtMs) {
+        String member = Long.toString(entryId);
+        try {
+            redisTemplate.opsForZSet().remove(INFLIGHT_KEY, member);
+            if (nextDueAtMs != REMOVED) {
+                redisTemplate.opsForZSet().add(SCHEDULE_KEY, member, nextDueAtMs);
+            }
+            redisTemplate.convertAndSend(CHANGES_CHANNEL, entryId + ":" + nextDueAtMs);
+        } catch (Exception e) {
+            // Lease expiry will put it back; the DB compare-and-set prevents a double post
+            log.warn("Failed to complete recurring entry {}: {}", entryId, e.getMessage());
+        }
+        applyLocally(entryId, nextDueAtMs);
+    }
+
+    private void applyChange(String payload) {
+        int sep = payload.indexOf(':');
+        if (sep < 0) return;
+        try {
+            applyLocally(Long.parseLong(payload.substring(0, sep)), Long.parseLong(payload.substring(sep + 1)));
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed recurring schedule change: {}", payload);
+        }
+    }
+
+    private void applyLocally(long entryId, long dueAtMs) {
+        if (dueAtMs == REMOVED || dueAtMs > System.currentTimeMillis() + horizon.toMillis()) {
+            wheel.cancel(entryId);
+            return;
+        }
+        Long current = wheel.dueAt(entryId);
+        if (current == null || current != dueAtMs) {
+            wheel.schedule(entryId, dueAtMs);
+        }
+    }
+
+    private static void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
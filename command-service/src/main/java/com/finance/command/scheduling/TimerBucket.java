@@ -0,0 +1,63 @@
+package com.finance.command.scheduling;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * One slot of a {@link TimingWheel}. All entries in a bucket expire within the
+ * same tick, so the whole bucket is queued once in the shared DelayQueue and
+ * flushed as a unit when its tick arrives.
+ */
+final class TimerBucket implements Delayed {
+
+    private final AtomicLong expiration = new AtomicLong(-1L);
+    private final Set<TimerEntry> entries = ConcurrentHashMap.newKeySet();
+
+    /** @return true if the expiration changed, i.e. the bucket must be (re-)queued */
+    boolean setExpiration(long expirationMs) {
+        return expiration.getAndSet(expirationMs) != expirationMs;
+    }
+
+    long getExpiration() {
+        return expiration.get();
+    }
+
+    void add(TimerEntry entry) {
+        entries.add(entry);
+        entry.bucket = this;
+    }
+
+    void remove(TimerEntry entry) {
+        if (entries.remove(entry)) {
+            entry.bucket = null;
+        }
+    }
+
+    /** Empties the bucket and hands every live entry back to the caller (cascade or fire). */
+    void flush(Consumer<TimerEntry> reinsert) {
+        List<TimerEntry> snapshot = new ArrayList<>(entries);
+        entries.clear();
+        expiration.set(-1L);
+        for (TimerEntry entry : snapshot) {
+            entry.bucket = null;
+            reinsert.accept(entry);
+        }
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+        long delayMs = Math.max(0L, expiration.get() - System.currentTimeMillis());
+        return unit.convert(delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+        return Long.compare(getExpiration(), ((TimerBucket) other).getExpiration());
+    }
+}
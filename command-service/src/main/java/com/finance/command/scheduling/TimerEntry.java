@@ -0,0 +1,26 @@
+package com.finance.command.scheduling;
+
+/**
+ * A single scheduled key inside the wheel. Identity-based equality on purpose:
+ * rescheduling a key creates a new entry and cancels the old one.
+ */
+final class TimerEntry {
+
+    final long key;
+    final long dueAtMs;
+    volatile boolean cancelled;
+    volatile TimerBucket bucket;
+
+    TimerEntry(long key, long dueAtMs) {
+        this.key = key;
+        this.dueAtMs = dueAtMs;
+    }
+
+    void cancel() {
+        cancelled = true;
+        TimerBucket b = bucket;
+        if (b != null) {
+            b.remove(this);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.finance.command.scheduling;
+
+import java.util.concurrent.DelayQueue;
+
+/**
+ * One level of a hierarchical timing wheel.
+ *
+ * Level 0 has a tick of {@code tickMs} and spans {@code tickMs * wheelSize}.
+ * Entries further out go to a lazily created overflow wheel whose tick equals
+ * this wheel's full span, and so on — so a 1s/60-slot base covers a minute,
+ * the next level an hour, the next 60 hours, without ever scanning entries.
+ *
+ * Not thread-safe on its own; {@link HierarchicalTimingWheel} guards it.
+ */
+final class TimingWheel {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final long interval;
+    private final TimerBucket[] buckets;
+    private final DelayQueue<TimerBucket> queue;
+
+    private long currentTime;
+    private TimingWheel overflowWheel;
+
+    TimingWheel(long tickMs, int wheelSize, long startMs, DelayQueue<TimerBucket> queue) {
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.interval = tickMs * wheelSize;
+        this.queue = queue;
+        this.currentTime = startMs - (startMs % tickMs);
+        this.buckets = new TimerBucket[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new TimerBucket();
+        }
+    }
+
+    /**
+     * @return false if the entry is already due (or cancelled) and must be run by the caller
+     */
+    boolean add(TimerEntry entry) {
+        if (entry.cancelled) {
+            return false;
+        }
+        long expiration = entry.dueAtMs;
+        if (expiration < currentTime + tickMs) {
+            return false;
+        }
+        if (expiration < currentTime + interval) {
+            long virtualId = expiration / tickMs;
+            TimerBucket bucket = buckets[(int) (virtualId % wheelSize)];
+            bucket.add(entry);
+            if (bucket.setExpiration(virtualId * tickMs)) {
+                queue.offer(bucket);
+            }
+            return true;
+        }
+        return overflow().add(entry);
+    }
+
+    void advanceClock(long timeMs) {
+        if (timeMs >= currentTime + tickMs) {
+            currentTime = timeMs - (timeMs % tickMs);
+            if (overflowWheel != null) {
+                overflowWheel.advanceClock(currentTime);
+            }
+        }
+    }
+
+    private TimingWheel overflow() {
+        if (overflowWheel == null) {
+            overflowWheel = new TimingWheel(interval, wheelSize, currentTime, queue);
+        }
+        return overflowWheel;
+    }
+}
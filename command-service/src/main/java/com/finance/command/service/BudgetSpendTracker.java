@@ -0,0 +1,240 @@
+package com.finance.command.service;
+
+import com.finance.command.model.Category;
+import com.finance.command.model.CategoryBudget;
+import com.finance.command.model.TransactionEntry;
+import com.finance.command.model.TransactionType;
+import com.finance.command.repository.BudgetSpendCounterRepository;
+import com.finance.command.repository.CategoryBudgetRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.finance.command.model.RecurringPeriod.WEEKLY;
+
+/**
+ * Write-time budget tracking. Every expense write moves the matching budget's
+ * per-period counter (see {@link com.finance.command.model.BudgetSpendCounter})
+ * inside the same transaction; when the new total crosses 80% or 100% of the
+ * budget, a {@code budget-threshold} notification is pushed over SSE after
+ * commit.
+ */
+@Slf4j
+@Service
+public class BudgetSpendTracker {
+
+    static final int WARNING_PCT = 80;
+    static final int EXCEEDED_PCT = 100;
+
+    /** A change to one expense's contribution to its category's spend. */
+    public record SpendDelta(Category category, LocalDateTime at, BigDecimal amount) {
+
+        public static SpendDelta of(TransactionEntry entry, BigDecimal amount) {
+            return new SpendDelta(entry.getCategory(), entry.getCreatedAt(), amount);
+        }
+    }
+
+    /**
+     * Sums a stream of deltas so a bulk write holds one per (category, day)
+     * instead of one per row. Budget periods start at midnight and end now or
+     * at 23:59:59, so a day up to {@code asOf} is either wholly inside a period
+     * or wholly outside it. Deltas after {@code asOf} keep their exact time.
+     */
+    public static final class SpendTotals {
+
+        private final LocalDateTime asOf;
+        private final Map<Category, Map<LocalDateTime, BigDecimal>> totals = new EnumMap<>(Category.class);
+
+        public SpendTotals(LocalDateTime asOf) {
+            this.asOf = asOf;
+        }
+
+        public void add(Category category, LocalDateTime at, BigDecimal amount) {
+            if (category == null || at == null || amount == null) {
+                return;
+            }
+            LocalDateTime bucket = at.isAfter(asOf) ? at : at.toLocalDate().atStartOfDay();
+            totals.computeIfAbsent(category, c -> new HashMap<>()).merge(bucket, amount, BigDecimal::add);
+        }
+
+        public List<SpendDelta> deltas() {
+            List<SpendDelta> deltas = new ArrayList<>();
+            totals.forEach((category, byDay) ->
+                    byDay.forEach((at, amount) -> deltas.add(new SpendDelta(category, at, amount))));
+            return deltas;
+        }
+    }
+
+    private final CategoryBudgetRepository budgetRepository;
+    private final BudgetSpendCounterRepository counterRepository;
+    private final NotificationService notificationService;
+    private final MeterRegistry meterRegistry;
+
+    public BudgetSpendTracker(CategoryBudgetRepository budgetRepository,
+                              BudgetSpendCounterRepository counterRepository,
+                              NotificationService notificationService,
+                              MeterRegistry meterRegistry) {
+        this.budgetRepository = budgetRepository;
+        this.counterRepository = counterRepository;
+        this.notificationService = notificationService;
+        this.meterRegistry = meterRegistry;
+    }
+
+    // ── Write-path hooks ──────────────────────────────────────────────────────
+
+    @Transactional
+    public void onExpenseCreated(TransactionEntry entry) {
+        if (entry.getType() == TransactionType.EXPENSE) {
+            apply(entry.getUserId(), List.of(SpendDelta.of(entry, entry.getAmount())));
+        }
+    }
+
+    @Transactional
+    public void onExpenseRemoved(TransactionEntry entry) {
+        if (entry.getType() == TransactionType.EXPENSE) {
+            apply(entry.getUserId(), List.of(SpendDelta.of(entry, entry.getAmount().negate())));
+        }
+    }
+
+    /** {@code before} is a detached snapshot of the entry prior to the update. */
+    @Transactional
+    public void onExpenseUpdated(TransactionEntry before, TransactionEntry after) {
+        List<SpendDelta> deltas = new ArrayList<>(2);
+        if (before.getType() == TransactionType.EXPENSE) {
+            deltas.add(SpendDelta.of(before, before.getAmount().negate()));
+        }
+        if (after.getType() == TransactionType.EXPENSE) {
+            deltas.add(SpendDelta.of(after, after.getAmount()));
+        }
+        apply(after.getUserId(), deltas);
+    }
+
+    /**
+     * Applies many deltas for one user. Deltas are summed per category (for
+     * those falling in the budget's current period) so each counter moves once.
+     */
+    @Transactional
+    public void apply(UUID userId, List<SpendDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        Map<Category, BigDecimal> byCategory = new EnumMap<>(Category.class);
+        for (SpendDelta d : deltas) {
+            if (d.category() != null && d.amount() != null && d.amount().signum() != 0) {
+                byCategory.merge(d.category(), d.amount(), BigDecimal::add);
+            }
+        }
+        if (byCategory.isEmpty()) {
+            return;
+        }
+        // Seeding a counter sums the ledger, which must include this transaction's pending writes
+        counterRepository.flush();
+        for (Category category : byCategory.keySet()) {
+            budgetRepository.findByUserIdAndExpenseCategoryAndActiveTrue(userId, category)
+                    .ifPresent(budget -> applyToBudget(budget, periodDelta(budget, deltas)));
+        }
+    }
+
+    // ── Period ranges ─────────────────────────────────────────────────────────
+
+    /** [start, end] of the budget's current period; custom ranges win over MONTHLY/WEEKLY. */
+    public static LocalDateTime[] periodRange(CategoryBudget budget, LocalDateTime now) {
+        if (budget.getCustomStartDate() != null && budget.getCustomEndDate() != null) {
+            return new LocalDateTime[]{
+                    budget.getCustomStartDate().atStartOfDay(),
+                    budget.getCustomEndDate().atTime(23, 59, 59)
+            };
+        }
+        LocalDate today = now.toLocalDate();
+        LocalDateTime start = budget.getPeriod() == WEEKLY ? today.with(DayOfWeek.MONDAY).atStartOfDay()
+                : today.withDayOfMonth(1).atStartOfDay();
+        return new LocalDateTime[]{start, now};
+    }
+
+    // ── Internals ─────────────────────────────────────────────────────────────
+
+    /** Sum of the deltas in the budget's category that fall inside its current period. */
+    private static BigDecimal periodDelta(CategoryBudget budget, List<SpendDelta> deltas) {
+        LocalDateTime[] range = periodRange(budget, LocalDateTime.now());
+        BigDecimal total = BigDecimal.ZERO;
+        for (SpendDelta d : deltas) {
+            if (d.category() == budget.getExpenseCategory() && d.amount() != null && d.at() != null
+                    && !d.at().isBefore(range[0]) && !d.at().isAfter(range[1])) {
+                total = total.add(d.amount());
+            }
+        }
+        return total;
+    }
+
+    private void applyToBudget(CategoryBudget budget, BigDecimal delta) {
+        if (delta.signum() == 0) {
+            return;
+        }
+        LocalDateTime[] range = periodRange(budget, LocalDateTime.now());
+        BigDecimal spent = counterRepository.applyDelta(budget.getId(), range[0].toLocalDate(),
+                budget.getUserId(), TransactionType.EXPENSE.code(), budget.getExpenseCategory().code(),
+                range[0], range[1], delta);
+        int crossed = crossedThreshold(spent.subtract(delta), spent, budget.getBudgetAmount());
+        if (crossed > 0) {
+            notifyAfterCommit(budget, spent, crossed);
+        }
+    }
+
+    /** The highest threshold the change moved spend across upwards, or 0. */
+    static int crossedThreshold(BigDecimal before, BigDecimal after, BigDecimal budgetAmount) {
+        if (budgetAmount.signum() <= 0 || after.compareTo(before) <= 0) {
+            return 0;
+        }
+        for (int pct : new int[]{EXCEEDED_PCT, WARNING_PCT}) {
+            BigDecimal line = budgetAmount.multiply(BigDecimal.valueOf(pct)).movePointLeft(2);
+            if (before.compareTo(line) < 0 && after.compareTo(line) >= 0) {
+                return pct;
+            }
+        }
+        return 0;
+    }
+
+    private void notifyAfterCommit(CategoryBudget budget, BigDecimal spent, int threshold) {
+        double pct = spent.multiply(BigDecimal.valueOf(100))
+                .divide(budget.getBudgetAmount(), 1, RoundingMode.HALF_UP).doubleValue();
+        Map<String, Object> payload = Map.of(
+                "status", threshold >= EXCEEDED_PCT ? "ERROR" : "WARNING",
+                "event", "budget-threshold",
+                "message", "You've used " + pct + "% of your " + budget.getExpenseCategory() + " budget",
+                "budgetId", budget.getId(),
+                "category", budget.getExpenseCategory(),
+                "threshold", threshold,
+                "spentAmount", spent,
+                "budgetAmount", budget.getBudgetAmount());
+        log.info("Budget {} crossed {}% for user {}", budget.getId(), threshold, budget.getUserId());
+        Runnable send = () -> {
+            meterRegistry.counter("budgets.threshold.crossed", "threshold", String.valueOf(threshold)).increment();
+            notificationService.sendNotification(budget.getUserId(), payload);
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            send.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                send.run();
+            }
+        });
+    }
+}
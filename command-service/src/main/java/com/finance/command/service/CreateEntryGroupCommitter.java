@@ -0,0 +1,239 @@
+package com.finance.command.service;
+
+import com.finance.command.dto.CreateEntryRequest;
+import com.finance.command.dto.CreateEntryResponse;
+import com.finance.command.shard.ShardContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Optional group commit for single-entry creates.
+ *
+ * Concurrent {@code /upsert/create} calls are queued and a leader thread
+ * collects them for up to {@code window} or {@code max-batch} entries, then
+ * writes the whole group through {@link TransactionEntryService#createEntries}:
+ * one transaction, one batched multi-row INSERT for entries and outbox events,
+ * and one cache eviction per distinct user. Each caller blocks (cheaply, on a
+ * virtual thread) until its own entry — with its generated ID — is committed.
+ *
+ * If a group fails, its requests are replayed one by one so a single bad
+ * request only fails its own caller. Up to {@code max-in-flight} groups commit
+ * concurrently; while they do, the next group keeps filling.
+ *
+ * A group only ever commits on one shard: requests remember the caller's shard
+ * and a collected batch is split by it before flushing.
+ *
+ * Each group is written in (user, merchant) order. The per-user budget and
+ * merchant-pattern rows it updates are then locked in the same order by every
+ * concurrent group, so two groups cannot deadlock on them.
+ */
+@Slf4j
+@Component
+public class CreateEntryGroupCommitter {
+
+    private static final Duration IDLE_POLL = Duration.ofMillis(100);
+
+    private record Pending(int shard, CreateEntryRequest request, CompletableFuture<CreateEntryResponse> result) {}
+
+    private static final Comparator<Pending> LOCK_ORDER = Comparator
+            .comparing((Pending p) -> p.request().getUserId(), Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(p -> p.request().getName() == null ? null : SubscriptionDetectorService.merchantKey(p.request().getName()),
+                    Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final TransactionEntryService service;
+    private final AsyncTaskExecutor executor;
+    private final boolean enabled;
+    private final Duration window;
+    private final int maxBatch;
+    private final Semaphore inFlight;
+    private final Duration waitTimeout;
+
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final DistributionSummary batchSize;
+    private final Counter fallbackCounter;
+
+    private volatile boolean running;
+
+    public CreateEntryGroupCommitter(TransactionEntryService service,
+                                     @Qualifier("applicationTaskExecutor") AsyncTaskExecutor executor,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${transactions.group-commit.enabled:false}") boolean enabled,
+                                     @Value("${transactions.group-commit.window:PT0.002S}") Duration window,
+                                     @Value("${transactions.group-commit.max-batch:64}") int maxBatch,
+                                     @Value("${transactions.group-commit.max-in-flight:4}") int maxInFlight,
+                                     @Value("${transactions.group-commit.wait-timeout:PT30S}") Duration waitTimeout) {
+        this.service = service;
+        this.executor = executor;
+        this.enabled = enabled;
+        this.window = window;
+        this.maxBatch = Math.max(1, maxBatch);
+        this.inFlight = new Semaphore(Math.max(1, maxInFlight));
+        this.waitTimeout = waitTimeout;
+        this.batchSize = DistributionSummary.builder("transactions.group-commit.batch.size")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.fallbackCounter = meterRegistry.counter("transactions.group-commit.fallback");
+        meterRegistry.gauge("transactions.group-commit.queue.size", queue, BlockingQueue::size);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        executor.execute(this::collectLoop);
+        log.info("Create group commit enabled: window={}, maxBatch={}", window, maxBatch);
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        List<Pending> abandoned = new ArrayList<>();
+        queue.drainTo(abandoned);
+        abandoned.forEach(p -> p.result().completeExceptionally(
+                new IllegalStateException("Service is shutting down, please retry")));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // ── Caller side ───────────────────────────────────────────────────────────
+
+    /** Queues {@code request} for the next group and waits for it to commit. */
+    public CreateEntryResponse create(CreateEntryRequest request) {
+        if (!running) {
+            return service.createEntry(request, null);
+        }
+        CompletableFuture<CreateEntryResponse> result = new CompletableFuture<>();
+        queue.add(new Pending(ShardContext.current(), request, result));
+        try {
+            return result.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Timed out waiting for entry to commit; it may still be created", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for entry to commit", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException("Failed to create entry", e.getCause());
+        }
+    }
+
+    // ── Leader loop ───────────────────────────────────────────────────────────
+
+    private void collectLoop() {
+        while (running) {
+            try {
+                List<Pending> batch = nextBatch();
+                if (batch.isEmpty()) {
+                    continue;
+                }
+                Map<Integer, List<Pending>> byShard = batch.stream()
+                        .collect(Collectors.groupingBy(Pending::shard));
+                for (Map.Entry<Integer, List<Pending>> group : byShard.entrySet()) {
+                    inFlight.acquire();
+                    try {
+                        executor.execute(() -> {
+                            try {
+                                ShardContext.run(group.getKey(), () -> flush(group.getValue()));
+                            } finally {
+                                inFlight.release();
+                            }
+                        });
+                    } catch (RuntimeException e) {
+                        // Rejected or shutting down: the task never runs, so nothing else releases or answers
+                        inFlight.release();
+                        group.getValue().forEach(p -> p.result().completeExceptionally(
+                                new IllegalStateException("Group commit unavailable, please retry", e)));
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Group commit leader loop error: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /** Blocks for the first request, then gathers more until the window closes or the batch is full. */
+    private List<Pending> nextBatch() throws InterruptedException {
+        Pending first = queue.poll(IDLE_POLL.toMillis(), TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return List.of();
+        }
+        List<Pending> batch = new ArrayList<>(maxBatch);
+        batch.add(first);
+        long deadline = System.nanoTime() + window.toNanos();
+        while (batch.size() < maxBatch) {
+            queue.drainTo(batch, maxBatch - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatch || remaining <= 0) {
+                break;
+            }
+            Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    private void flush(List<Pending> group) {
+        batchSize.record(group.size());
+        // Responses come back in request order, and each Pending carries its own caller's future
+        List<Pending> batch = group.stream().sorted(LOCK_ORDER).toList();
+        List<CreateEntryResponse> responses;
+        try {
+            responses = service.createEntries(batch.stream().map(Pending::request).toList(), true);
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).result().completeExceptionally(e);
+                return;
+            }
+            // The whole group rolled back; replay individually so only the offending request fails
+            log.warn("Group commit of {} entries failed, replaying individually: {}", batch.size(), e.getMessage());
+            fallbackCounter.increment();
+            batch.forEach(this::createSingle);
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).result().complete(responses.get(i));
+        }
+    }
+
+    private void createSingle(Pending pending) {
+        try {
+            pending.result().complete(service.createEntry(pending.request(), null));
+        } catch (RuntimeException e) {
+            pending.result().completeExceptionally(e);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.finance.command.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finance.command.dto.CreateEntryRequest;
+import com.finance.command.model.ExpenseTransactionLink;
+import com.finance.command.model.IdempotencyRecord;
+import com.finance.command.model.OutboxEvent;
+import com.finance.command.model.SharedExpense;
+import com.finance.command.repository.ExpenseTransactionLinkRepository;
+import com.finance.command.repository.IdempotencyRecordRepository;
+import com.finance.command.repository.OutboxEventRepository;
+import com.finance.command.repository.SharedExpenseRepository;
+import com.finance.command.repository.TransactionEntryRepository;
+import com.finance.command.shard.ShardContext;
+import com.finance.command.shard.ShardMap;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Carries split-expense ledger entries to members whose rows live on another
+ * shard than the group.
+ *
+ * The group's transaction can only write its own shard, so for a remote member
+ * it stores an outbox event instead of the entry. OutboxProcessor later hands
+ * the event to {@link #relay}, which writes the entry on the member's current
+ * shard in a transaction of its own and then links it to the expense in the
+ * outbox transaction on the group shard.
+ *
+ * Creates are made idempotent by an IdempotencyRecord written with the entry on
+ * the target shard, so an event replayed after a failed outbox commit reuses the
+ * entry it already created. Deletes of an already deleted entry are no-ops.
+ */
+@Slf4j
+@Service
+public class CrossShardEntryRelay {
+
+    static final String CREATE = "SPLIT_ENTRY_CREATE";
+    static final String DELETE = "SPLIT_ENTRY_DELETE";
+
+    private final ShardMap shardMap;
+    private final OutboxEventRepository outboxRepo;
+    private final SharedExpenseRepository expenseRepo;
+    private final ExpenseTransactionLinkRepository linkRepo;
+    private final TransactionEntryRepository entryRepo;
+    private final IdempotencyRecordRepository idempotencyRepo;
+    private final TransactionEntryService entryService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate targetTransaction;
+    private final Counter relayedCounter;
+
+    public CrossShardEntryRelay(ShardMap shardMap,
+                                OutboxEventRepository outboxRepo,
+                                SharedExpenseRepository expenseRepo,
+                                ExpenseTransactionLinkRepository linkRepo,
+                                TransactionEntryRepository entryRepo,
+                                IdempotencyRecordRepository idempotencyRepo,
+                                TransactionEntryService entryService,
+                                ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry) {
+        this.shardMap = shardMap;
+        this.outboxRepo = outboxRepo;
+        this.expenseRepo = expenseRepo;
+        this.linkRepo = linkRepo;
+        this.entryRepo = entryRepo;
+        this.idempotencyRepo = idempotencyRepo;
+        this.entryService = entryService;
+        this.objectMapper = objectMapper;
+        this.targetTransaction = new TransactionTemplate(transactionManager);
+        this.targetTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.relayedCounter = meterRegistry.counter("sharding.relay.entries");
+    }
+
+    /** Whether {@code userId}'s rows live on the shard the caller is pinned to. */
+    public boolean isLocal(UUID userId) {
+        return shardMap.shardFor(userId) == ShardContext.current();
+    }
+
+    // ── Enqueue (group shard, inside the caller's transaction) ────────────────
+
+    public void enqueueCreate(SharedExpense expense, CreateEntryRequest entry) {
+        OutboxEvent event = new OutboxEvent();
+        event.setUserId(entry.getUserId());
+        event.setEventType(CREATE);
+        event.setEntityId(expense.getId());
+        try {
+            event.setPayload(objectMapper.writeValueAsString(entry));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize entry for user " + entry.getUserId(), e);
+        }
+        outboxRepo.save(event);
+    }
+
+    public void enqueueDelete(Long transactionEntryId, UUID userId) {
+        OutboxEvent event = new OutboxEvent();
+        event.setUserId(userId);
+        event.setEventType(DELETE);
+        event.setEntityId(transactionEntryId);
+        outboxRepo.save(event);
+    }
+
+    // ── Relay (OutboxProcessor, inside the group shard's outbox transaction) ──
+
+    public boolean handles(OutboxEvent event) {
+        return CREATE.equals(event.getEventType()) || DELETE.equals(event.getEventType());
+    }
+
+    /**
+     * @return false if the event must stay pending — the member is being moved
+     *         between shards — true once it has been applied
+     */
+    public boolean relay(OutboxEvent event) {
+        UUID userId = event.getUserId();
+        if (shardMap.isMigrating(userId)) {
+            return false;
+        }
+        int target = shardMap.shardFor(userId);
+        if (DELETE.equals(event.getEventType())) {
+            ShardContext.run(target, () -> targetTransaction.executeWithoutResult(status -> deleteIfPresent(event)));
+        } else {
+            relayCreate(event, target);
+        }
+        relayedCounter.increment();
+        return true;
+    }
+
+    private void relayCreate(OutboxEvent event, int target) {
+        // Holding the expense row keeps a concurrent delete from missing the link we add
+        Optional<SharedExpense> expense = expenseRepo.findLockedById(event.getEntityId());
+        if (expense.isEmpty()) {
+            log.info("Expense {} was deleted before its entry for {} was relayed", event.getEntityId(), event.getUserId());
+            return;
+        }
+        String key = "outbox:" + ShardContext.current() + ":" + event.getId();
+        Long entryId = ShardContext.call(target, () -> targetTransaction.execute(status -> createOnce(event, key)));
+
+        ExpenseTransactionLink link = new ExpenseTransactionLink();
+        link.setSharedExpense(expense.get());
+        link.setUserId(event.getUserId());
+        link.setTransactionEntry(entryRepo.getReferenceById(entryId));
+        linkRepo.save(link);
+    }
+
+    private Long createOnce(OutboxEvent event, String key) {
+        Optional<IdempotencyRecord> existing = idempotencyRepo.findByUserIdAndIdempotencyKey(event.getUserId(), key);
+        if (existing.isPresent()) {
+            return existing.get().getTransactionId();
+        }
+        CreateEntryRequest request;
+        try {
+            request = objectMapper.readValue(event.getPayload(), CreateEntryRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Malformed entry payload in outbox event " + event.getId(), e);
+        }
+        Long entryId = entryService.createEntries(List.of(request), true).getFirst().getId();
+
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setUserId(event.getUserId());
+        record.setIdempotencyKey(key);
+        record.setTransactionId(entryId);
+        idempotencyRepo.save(record);
+        return entryId;
+    }
+
+    private void deleteIfPresent(OutboxEvent event) {
+        if (entryRepo.findByIdAndDeletedAtIsNull(event.getEntityId()).isEmpty()) {
+            return;
+        }
+        entryService.deleteEntryInternal(event.getEntityId(), event.getUserId());
+    }
+}
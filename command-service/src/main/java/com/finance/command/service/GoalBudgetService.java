@@ -12,15 +12,13 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.time.DayOfWeek;
-import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
-import static com.finance.command.model.RecurringPeriod.WEEKLY;
-
 
 @Slf4j
 @Service
@@ -31,6 +29,7 @@ public class GoalBudgetService {
     private final CategoryBudgetRepository budgetRepository;
     private final TransactionEntryRepository transactionRepository;
     private final com.finance.command.repository.TransactionGoalAllocationRepository allocationRepository;
+    private final BudgetSpendTracker budgetSpendTracker;
 
     // ── Savings Goals ─────────────────────────────────────────────────────────
 
@@ -68,6 +67,7 @@ public class GoalBudgetService {
             entry.setCreatedAt(payload.getCreatedAt());
         }
         TransactionEntry savedEntry = transactionRepository.save(entry);
+        budgetSpendTracker.onExpenseCreated(savedEntry);
         
         // 2. Create Transaction Goal Allocation
         TransactionGoalAllocation tga = new TransactionGoalAllocation();
@@ -76,23 +76,40 @@ public class GoalBudgetService {
         tga.setAmount(payload.getAmount());
         allocationRepository.save(tga);
         
-        // 3. Update Goal
-        goal.setSavedAmount(goal.getSavedAmount().add(payload.getAmount()));
-        if (goal.isCompleted() && goal.getCompletedAt() == null) {
-            goal.setCompletedAt(LocalDateTime.now());
-            log.info("Goal {} completed by user {}!", goalId, userId);
-        }
-        return toGoalResponse(goalRepository.save(goal));
+        // 3. Update Goal — atomic delta, never a read-modify-write of savedAmount
+        GoalProgressRow progress = applyDelta(goalId, userId, payload.getAmount());
+        return toGoalResponse(goal, progress);
     }
 
+    /**
+     * Adds {@code amount} (negative to revert) to the goal's saved amount in a
+     * single UPDATE, so concurrent contributions and edits are never lost.
+     */
     @Transactional
     public void adjustGoalSavedAmount(Long goalId, UUID userId, BigDecimal amount) {
-        SavingsGoal goal = findGoalOwnedBy(goalId, userId);
-        goal.setSavedAmount(goal.getSavedAmount().add(amount));
-        if (goal.isCompleted() && goal.getCompletedAt() == null) {
-            goal.setCompletedAt(LocalDateTime.now());
+        applyDelta(goalId, userId, amount);
+    }
+
+    /**
+     * Batched {@link #adjustGoalSavedAmount}: applies every goal's delta for
+     * {@code userId} in one statement. Goals that no longer exist or belong to
+     * someone else are skipped and logged.
+     */
+    @Transactional
+    public void adjustGoalSavedAmounts(UUID userId, Map<Long, BigDecimal> deltasByGoal) {
+        if (deltasByGoal.isEmpty()) {
+            return;
+        }
+        Long[] goalIds = deltasByGoal.keySet().toArray(Long[]::new);
+        BigDecimal[] deltas = Arrays.stream(goalIds).map(deltasByGoal::get).toArray(BigDecimal[]::new);
+        List<GoalProgressRow> updated = goalRepository.applySavedDeltas(goalIds, deltas, userId, LocalDateTime.now());
+        updated.stream()
+                .filter(row -> Boolean.TRUE.equals(row.getJustCompleted()))
+                .forEach(row -> log.info("Goal {} completed by user {}!", row.getId(), userId));
+        if (updated.size() != goalIds.length) {
+            log.warn("Skipped {} goal adjustment(s) for user {}: goal missing or not owned",
+                    goalIds.length - updated.size(), userId);
         }
-        goalRepository.save(goal);
     }
 
     @Transactional
@@ -128,8 +145,11 @@ public class GoalBudgetService {
 
     @Transactional(readOnly = true)
     public List<BudgetUtilizationResponse> getBudgets(UUID userId) {
-        return budgetRepository.findByUserIdAndActiveTrueOrderByCreatedAtDesc(userId)
-                .stream().map(this::computeUtilization).collect(Collectors.toList());
+        return budgetRepository.findActiveWithSpend(userId, LocalDateTime.now())
+                .stream()
+                .map(row -> toUtilization(row.getBudgetId(), row.getExpenseCategory(), row.getBudgetAmount(),
+                        row.getSpent(), row.getPeriod(), row.getCurrency()))
+                .collect(Collectors.toList());
     }
 
     @Transactional
@@ -144,35 +164,41 @@ public class GoalBudgetService {
     // ── Internal helpers ──────────────────────────────────────────────────────
 
     BudgetUtilizationResponse computeUtilization(CategoryBudget budget) {
-        LocalDateTime[] range = getPeriodRange(budget);
+        LocalDateTime[] range = BudgetSpendTracker.periodRange(budget, LocalDateTime.now());
         BigDecimal spent = transactionRepository.sumExpensesByCategory(
                 budget.getUserId(), budget.getExpenseCategory(), range[0], range[1]);
+        return toUtilization(budget.getId(), budget.getExpenseCategory(), budget.getBudgetAmount(),
+                spent, budget.getPeriod(), budget.getCurrency());
+    }
+
+    private BudgetUtilizationResponse toUtilization(Long budgetId, Category category, BigDecimal budgetAmount,
+                                                    BigDecimal spent, RecurringPeriod period, String currency) {
         if (spent == null) spent = BigDecimal.ZERO;
 
         double pct = 0;
-        if (budget.getBudgetAmount().compareTo(BigDecimal.ZERO) > 0) {
-            pct = spent.divide(budget.getBudgetAmount(), 4, RoundingMode.HALF_UP)
+        if (budgetAmount.compareTo(BigDecimal.ZERO) > 0) {
+            pct = spent.divide(budgetAmount, 4, RoundingMode.HALF_UP)
                     .multiply(BigDecimal.valueOf(100)).doubleValue();
         }
         return new BudgetUtilizationResponse(
-                budget.getId(), budget.getExpenseCategory(),
-                budget.getBudgetAmount(), spent,
+                budgetId, category,
+                budgetAmount, spent,
                 Math.min(pct, 200.0),   // cap at 200% for display
-                budget.getPeriod(), budget.getCurrency(),
+                period, currency,
                 BudgetUtilizationResponse.deriveStatus(pct));
     }
 
-    private LocalDateTime[] getPeriodRange(CategoryBudget budget) {
-        if (budget.getCustomStartDate() != null && budget.getCustomEndDate() != null) {
-            return new LocalDateTime[]{
-                    budget.getCustomStartDate().atStartOfDay(),
-                    budget.getCustomEndDate().atTime(23, 59, 59)
-            };
+    private GoalProgressRow applyDelta(Long goalId, UUID userId, BigDecimal amount) {
+        GoalProgressRow progress = goalRepository.applySavedDelta(goalId, userId, amount, LocalDateTime.now())
+                .orElseGet(() -> {
+                    // Zero rows updated — find out why only on this (rare) path
+                    findGoalOwnedBy(goalId, userId);
+                    throw new IllegalStateException("Goal " + goalId + " could not be updated");
+                });
+        if (Boolean.TRUE.equals(progress.getJustCompleted())) {
+            log.info("Goal {} completed by user {}!", goalId, userId);
         }
-        LocalDateTime end = LocalDateTime.now();
-        LocalDateTime start = budget.getPeriod() == WEEKLY ? LocalDate.now().with(DayOfWeek.MONDAY).atStartOfDay()
-                :LocalDate.now().withDayOfMonth(1).atStartOfDay();
-        return new LocalDateTime[]{start, end};
+        return progress;
     }
 
     private SavingsGoal findGoalOwnedBy(Long goalId, UUID userId) {
@@ -182,6 +208,19 @@ public class GoalBudgetService {
         return goal;
     }
 
+    /** Response for {@code g} with the counters returned by an atomic update. */
+    private SavingsGoalResponse toGoalResponse(SavingsGoal g, GoalProgressRow progress) {
+        BigDecimal saved = progress.getSavedAmount();
+        BigDecimal target = progress.getTargetAmount();
+        double pct = target.compareTo(BigDecimal.ZERO) == 0 ? 0
+                : Math.min(saved.doubleValue() / target.doubleValue() * 100.0, 100.0);
+        return new SavingsGoalResponse(
+                g.getId(), g.getName(), target, saved,
+                pct, g.getCurrency(), g.getDescription(),
+                g.getDeadline(), saved.compareTo(target) >= 0, g.getCreatedAt(), progress.getCompletedAt(),
+                g.getPriority());
+    }
+
     private SavingsGoalResponse toGoalResponse(SavingsGoal g) {
         return new SavingsGoalResponse(
                 g.getId(), g.getName(), g.getTargetAmount(), g.getSavedAmount(),
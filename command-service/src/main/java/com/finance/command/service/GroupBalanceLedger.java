@@ -0,0 +1,180 @@
+package com.finance.command.service;
+
+import com.finance.command.model.ExpenseSplit;
+import com.finance.command.model.GroupMemberBalance;
+import com.finance.command.model.SharedExpense;
+import com.finance.command.repository.ExpenseGroupRepository;
+import com.finance.command.repository.GroupMemberBalanceRepository;
+import com.finance.command.shard.ShardContext;
+import com.finance.command.shard.ShardMap;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Maintains {@code groups.group_member_balance}, the running paid/owed ledger
+ * behind group balance reads.
+ *
+ * Writes join the caller's transaction so a shared expense and its ledger
+ * delta commit or roll back together. Each write first locks the group row,
+ * which serializes ledger updates per group and rules out deadlocks between
+ * concurrent expenses touching overlapping members.
+ *
+ * A group with no ledger rows yet (created before the ledger existed) is
+ * rebuilt from raw splits on its first write instead of receiving a delta;
+ * readers fall back to the raw computation until then.
+ */
+@Slf4j
+@Service
+public class GroupBalanceLedger {
+
+    private static final int RECONCILE_BATCH_SIZE = 200;
+
+    private final GroupMemberBalanceRepository balanceRepo;
+    private final ExpenseGroupRepository groupRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+    private final ShardMap shardMap;
+    private final Counter driftCounter;
+
+    public GroupBalanceLedger(GroupMemberBalanceRepository balanceRepo,
+                              ExpenseGroupRepository groupRepo,
+                              TransactionTemplate transactionTemplate,
+                              CacheManager cacheManager,
+                              ShardMap shardMap,
+                              MeterRegistry meterRegistry) {
+        this.balanceRepo = balanceRepo;
+        this.groupRepo = groupRepo;
+        this.transactionTemplate = transactionTemplate;
+        this.cacheManager = cacheManager;
+        this.shardMap = shardMap;
+        this.driftCounter = meterRegistry.counter("group.balance.ledger.drift");
+    }
+
+    // ── Write path ────────────────────────────────────────────────────────────
+
+    /** Adds a freshly saved expense (and its saved splits) to the ledger. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordExpense(SharedExpense expense, List<ExpenseSplit> splits) {
+        Long groupId = groupIdOf(expense);
+        groupRepo.lockById(groupId);
+        if (!balanceRepo.existsByGroupId(groupId)) {
+            // Raw tables already contain this expense — a rebuild covers it
+            balanceRepo.rebuildFromSplits(groupId);
+            return;
+        }
+        applyDeltas(groupId, deltas(expense, splits, BigDecimal.ONE));
+    }
+
+    /** Removes an expense from the ledger; call before its splits are deleted. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reverseExpense(SharedExpense expense, List<ExpenseSplit> splits) {
+        Long groupId = groupIdOf(expense);
+        groupRepo.lockById(groupId);
+        if (!balanceRepo.existsByGroupId(groupId)) {
+            return; // no ledger yet — readers use raw splits, which the delete keeps correct
+        }
+        applyDeltas(groupId, deltas(expense, splits, BigDecimal.ONE.negate()));
+    }
+
+    // ── Read path ─────────────────────────────────────────────────────────────
+
+    /**
+     * @return ledger rows keyed by user, or empty when the group has no ledger
+     *         yet and the caller should compute from raw splits
+     */
+    public Map<UUID, GroupMemberBalance> balancesFor(Long groupId) {
+        Map<UUID, GroupMemberBalance> byUser = new HashMap<>();
+        for (GroupMemberBalance b : balanceRepo.findByGroupId(groupId)) {
+            byUser.put(b.getUserId(), b);
+        }
+        return byUser;
+    }
+
+    // ── Reconciliation ────────────────────────────────────────────────────────
+
+    /**
+     * Nightly verify: compares every group's ledger to its raw splits in
+     * batches and rebuilds any group that drifted. Also backfills groups
+     * that predate the ledger.
+     */
+    @Scheduled(cron = "${groups.balance-ledger.reconcile-cron:0 30 3 * * *}", zone = "UTC")
+    @SchedulerLock(name = "reconcileGroupBalanceLedger", lockAtLeastFor = "5m", lockAtMostFor = "1h")
+    public void reconcile() {
+        ShardContext.run(shardMap.groupShard(), this::reconcileGroups);
+    }
+
+    private void reconcileGroups() {
+        long afterId = 0L;
+        int checked = 0;
+        int rebuilt = 0;
+        while (true) {
+            List<Long> groupIds = groupRepo.findIdsAfter(afterId, PageRequest.of(0, RECONCILE_BATCH_SIZE));
+            if (groupIds.isEmpty()) {
+                break;
+            }
+            for (Long groupId : balanceRepo.findDriftedGroupIds(groupIds)) {
+                rebuild(groupId);
+                rebuilt++;
+            }
+            checked += groupIds.size();
+            afterId = groupIds.getLast();
+        }
+        if (rebuilt > 0) {
+            driftCounter.increment(rebuilt);
+            log.warn("Group balance ledger: rebuilt {} of {} groups", rebuilt, checked);
+        } else {
+            log.info("Group balance ledger verified: {} groups consistent", checked);
+        }
+    }
+
+    /** Recomputes one group's ledger from raw splits in its own transaction. */
+    public void rebuild(Long groupId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            groupRepo.lockById(groupId);
+            balanceRepo.deleteByGroupIdNative(groupId);
+            balanceRepo.rebuildFromSplits(groupId);
+        });
+        var cache = cacheManager.getCache("group-balances");
+        if (cache != null) {
+            cache.evict(groupId);
+        }
+    }
+
+    // ── Internals ─────────────────────────────────────────────────────────────
+
+    private static Long groupIdOf(SharedExpense expense) {
+        // groupId is a read-only mirror column, unset on a just-persisted expense
+        return expense.getGroupId() != null ? expense.getGroupId() : expense.getGroup().getId();
+    }
+
+    private static Map<UUID, BigDecimal[]> deltas(SharedExpense expense, List<ExpenseSplit> splits, BigDecimal sign) {
+        // TreeMap: apply in a stable user order
+        Map<UUID, BigDecimal[]> deltas = new TreeMap<>();
+        deltas.computeIfAbsent(expense.getPaidBy(), k -> zero())[0] = expense.getAmount().multiply(sign);
+        for (ExpenseSplit s : splits) {
+            BigDecimal[] d = deltas.computeIfAbsent(s.getUserId(), k -> zero());
+            d[1] = d[1].add(s.getAmount().multiply(sign));
+        }
+        return deltas;
+    }
+
+    private static BigDecimal[] zero() {
+        return new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO};
+    }
+
+    private void applyDeltas(Long groupId, Map<UUID, BigDecimal[]> deltas) {
+        deltas.forEach((userId, d) -> balanceRepo.applyDelta(groupId, userId, d[0], d[1]));
+    }
+}
@@ -0,0 +1,183 @@
+package com.finance.command.service;
+
+import com.finance.command.model.MerchantPatternState;
+import com.finance.command.model.TransactionEntry;
+import com.finance.command.model.TransactionType;
+import com.finance.command.model.convert.CurrencyCodes;
+import com.finance.command.shard.ShardContext;
+import com.finance.command.shard.ShardMap;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * One-off seeding of merchant_pattern_state from expenses recorded before
+ * patterns were tracked incrementally. Without it a merchant's pattern only
+ * forms once enough new charges arrive, so existing subscriptions surface
+ * months late.
+ *
+ * Each tick rebuilds one chunk of users, shard by shard in user-id order, and
+ * checkpoints the shard and cursor in Redis; a restart or another instance
+ * carries on from there. Per user the merchants' state rows are locked first
+ * (in merchant-key order, as group commit does) and only then are the newest
+ * {@link SubscriptionDetectorService#PATTERN_WINDOW} expenses per merchant
+ * read, so a concurrent expense is either already in that read or waits for
+ * the rebuild and folds itself in afterwards. Rebuilding replaces the window,
+ * so re-running a chunk is harmless.
+ */
+@Slf4j
+@Service
+public class MerchantPatternBackfill {
+
+    private static final String CHECKPOINT_KEY = "finance:upsert:v1:merchant-pattern-backfill:checkpoint";
+    private static final String STATUS_DONE = "DONE";
+    /** Nil UUID — sorts before every other uuid in Postgres. */
+    private static final UUID START_CURSOR = new UUID(0L, 0L);
+
+    private static final String USERS_SQL = """
+            SELECT DISTINCT user_id FROM finance.transaction_entries
+            WHERE type = ? AND deleted_at IS NULL AND user_id > ?
+            ORDER BY user_id
+            LIMIT ?
+            """;
+
+    private static final String MERCHANTS_SQL = """
+            SELECT DISTINCT name FROM finance.transaction_entries
+            WHERE user_id = ? AND type = ? AND deleted_at IS NULL
+              AND name IS NOT NULL AND amount IS NOT NULL AND created_at IS NOT NULL
+            """;
+
+    /**
+     * Newest expenses per merchant for one user. The partition approximates
+     * {@link SubscriptionDetectorService#merchantKey}; callers regroup by the
+     * real key, so the SQL only has to bound the rows.
+     */
+    private static final String LATEST_SQL = """
+            SELECT id, name, amount, currency, created_at FROM (
+                SELECT t.*, row_number() OVER (
+                           PARTITION BY btrim(regexp_replace(lower(t.name), '\\s+', ' ', 'g'))
+                           ORDER BY t.created_at DESC, t.id DESC) AS rn
+                FROM finance.transaction_entries t
+                WHERE t.user_id = ? AND t.type = ? AND t.deleted_at IS NULL
+                  AND t.name IS NOT NULL AND t.amount IS NOT NULL AND t.created_at IS NOT NULL
+            ) latest
+            WHERE rn <= ?
+            """;
+
+    private final SubscriptionDetectorService detector;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StringRedisTemplate redisTemplate;
+    private final ShardMap shardMap;
+    private final boolean enabled;
+    private final int chunkSize;
+
+    private volatile boolean done;
+
+    public MerchantPatternBackfill(SubscriptionDetectorService detector,
+                                   JdbcTemplate jdbcTemplate,
+                                   TransactionTemplate transactionTemplate,
+                                   StringRedisTemplate redisTemplate,
+                                   ShardMap shardMap,
+                                   @Value("${subscription.pattern-backfill.enabled:true}") boolean enabled,
+                                   @Value("${subscription.pattern-backfill.chunk-size:200}") int chunkSize) {
+        this.detector = detector;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.redisTemplate = redisTemplate;
+        this.shardMap = shardMap;
+        this.enabled = enabled;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /** Rebuilds the next chunk of users; a no-op once the backfill has finished. */
+    @Scheduled(fixedDelayString = "${subscription.pattern-backfill.interval:PT1S}",
+               initialDelayString = "${subscription.pattern-backfill.initial-delay:PT1M}")
+    @SchedulerLock(name = "backfillMerchantPatterns", lockAtMostFor = "5m")
+    public void backfillChunk() {
+        if (!enabled || done) {
+            return;
+        }
+        Map<Object, Object> checkpoint = redisTemplate.opsForHash().entries(CHECKPOINT_KEY);
+        if (STATUS_DONE.equals(checkpoint.get("status"))) {
+            done = true;
+            return;
+        }
+        int shard = Integer.parseInt((String) checkpoint.getOrDefault("shard", "0"));
+        UUID cursor = UUID.fromString((String) checkpoint.getOrDefault("cursor", START_CURSOR.toString()));
+        if (shard >= shardMap.shardCount()) {
+            finish();
+            return;
+        }
+
+        List<UUID> users = ShardContext.call(shard, () -> jdbcTemplate.queryForList(USERS_SQL, UUID.class,
+                TransactionType.EXPENSE.code(), cursor, chunkSize));
+        for (UUID userId : users) {
+            ShardContext.run(shard, () -> transactionTemplate.executeWithoutResult(status -> rebuild(userId)));
+        }
+        if (users.size() < chunkSize) {
+            log.info("Merchant pattern backfill finished shard {}", shard);
+            if (shard + 1 >= shardMap.shardCount()) {
+                finish();
+                return;
+            }
+            redisTemplate.opsForHash().putAll(CHECKPOINT_KEY,
+                    Map.of("shard", Integer.toString(shard + 1), "cursor", START_CURSOR.toString()));
+        } else {
+            redisTemplate.opsForHash().put(CHECKPOINT_KEY, "cursor", users.getLast().toString());
+        }
+    }
+
+    void rebuild(UUID userId) {
+        Set<String> merchants = new TreeSet<>();
+        jdbcTemplate.query(MERCHANTS_SQL, rs -> {
+            merchants.add(SubscriptionDetectorService.merchantKey(rs.getString("name")));
+        }, userId, TransactionType.EXPENSE.code());
+        // Sorted keys, so this never waits on a lock another writer holds while wanting one of ours
+        Map<String, MerchantPatternState> locked = new HashMap<>();
+        for (String key : merchants) {
+            locked.put(key, detector.lockPatternState(userId, key));
+        }
+
+        latestByMerchant(userId).forEach((key, expenses) -> {
+            MerchantPatternState state = locked.get(key);
+            // A merchant first seen after the locks were taken was recorded incrementally
+            if (state != null) {
+                detector.rebuildPattern(state, expenses);
+            }
+        });
+    }
+
+    private Map<String, List<TransactionEntry>> latestByMerchant(UUID userId) {
+        Map<String, List<TransactionEntry>> byMerchant = new TreeMap<>();
+        jdbcTemplate.query(LATEST_SQL, rs -> {
+            TransactionEntry entry = new TransactionEntry(userId, rs.getString("name"), rs.getBigDecimal("amount"),
+                    TransactionType.EXPENSE, CurrencyCodes.decode(rs.getShort("currency")));
+            entry.setId(rs.getLong("id"));
+            entry.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+            byMerchant.computeIfAbsent(SubscriptionDetectorService.merchantKey(entry.getName()),
+                    k -> new ArrayList<>()).add(entry);
+        }, userId, TransactionType.EXPENSE.code(), SubscriptionDetectorService.PATTERN_WINDOW);
+        return byMerchant;
+    }
+
+    private void finish() {
+        redisTemplate.opsForHash().put(CHECKPOINT_KEY, "status", STATUS_DONE);
+        done = true;
+        log.info("Merchant pattern backfill complete");
+    }
+}
@@ -3,13 +3,16 @@ package com.finance.command.service;
 import com.finance.command.events.CacheEvictPublisher;
 import com.finance.command.model.OutboxEvent;
 import com.finance.command.repository.OutboxEventRepository;
+import com.finance.command.shard.ShardContext;
+import com.finance.command.shard.ShardMap;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @Slf4j
@@ -19,6 +22,9 @@ public class OutboxProcessor {
 
     private final OutboxEventRepository repository;
     private final CacheEvictPublisher cacheEvictPublisher;
+    private final CrossShardEntryRelay crossShardRelay;
+    private final ShardMap shardMap;
+    private final TransactionTemplate transactionTemplate;
 
     @Scheduled(fixedDelayString = "${outbox.processor.delay:5000}")
     @SchedulerLock(
@@ -26,16 +32,34 @@ public class OutboxProcessor {
             lockAtLeastFor = "2s",
             lockAtMostFor = "1m"
     )
-    @Transactional
     public void processOutboxEvents() {
+        // Every shard has its own outbox table
+        shardMap.shards().forEach(shard -> ShardContext.run(shard,
+                () -> transactionTemplate.executeWithoutResult(status -> processShard())));
+    }
+
+    private void processShard() {
         List<OutboxEvent> events = repository.findByStatusOrderByCreatedAtAsc(OutboxEvent.EventStatus.PENDING);
         if (events.isEmpty()) {
             return;
         }
 
-        log.info("Processing {} outbox events...", events.size());
+        log.info("Processing {} outbox events on shard {}...", events.size(), ShardContext.current());
 
+        List<OutboxEvent> done = new ArrayList<>(events.size());
         for (OutboxEvent event : events) {
+            if (crossShardRelay.handles(event)) {
+                try {
+                    if (crossShardRelay.relay(event)) {
+                        event.setStatus(OutboxEvent.EventStatus.PROCESSED);
+                        done.add(event);
+                    }
+                } catch (Exception e) {
+                    // Stays PENDING: dropping it would lose a member's ledger entry
+                    log.error("Failed to relay outbox event id={}, will retry", event.getId(), e);
+                }
+                continue;
+            }
             try {
                 cacheEvictPublisher.publish(event.getUserId(), event.getEventType(), event.getEntityId());
                 event.setStatus(OutboxEvent.EventStatus.PROCESSED);
@@ -44,8 +68,9 @@ public class OutboxProcessor {
                 // Depending on requirements, we can increment a retry counter and set to FAILED if > maxRetries
                 event.setStatus(OutboxEvent.EventStatus.FAILED);
             }
+            done.add(event);
         }
 
-        repository.saveAll(events);
+        repository.saveAll(done);
     }
 }
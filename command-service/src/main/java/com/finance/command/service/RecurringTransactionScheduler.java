@@ -2,20 +2,35 @@ package com.finance.command.service;
 
 import com.finance.command.model.TransactionEntry;
 import com.finance.command.repository.TransactionEntryRepository;
+import com.finance.command.shard.ShardContext;
+import com.finance.command.shard.ShardMap;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.IntStream;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.transaction.support.TransactionTemplate;
 
+/**
+ * Posts recurring transactions when they come due.
+ *
+ * Normal firing is driven per-entry by
+ * {@link com.finance.command.scheduling.RecurringScheduleIndex} at the exact
+ * run time. The hourly sweep is only a backstop for entries the index missed
+ * (Redis outage, lost lease) and skips anything younger than the grace period.
+ *
+ * Entries live on their owner's shard. The sweep walks every shard; a timer
+ * firing only knows the entry id, so {@link #processDueEntry} finds the shard
+ * holding it first.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -24,97 +39,161 @@ public class RecurringTransactionScheduler {
     private final TransactionEntryRepository repository;
     private final com.finance.command.repository.OutboxEventRepository outboxEventRepository;
     private final NotificationService notificationService;
+    private final BudgetSpendTracker budgetSpendTracker;
     private final TransactionTemplate transactionTemplate;
+    private final ShardMap shardMap;
+
+    @Value("${recurring.timer.sweep-grace:PT10M}")
+    private Duration sweepGrace;
 
     // Run every hour. ShedLock ensures only one instance executes this at a time.
     @Scheduled(cron = "0 0 * * * *")
     @SchedulerLock(name = "processRecurringTransactions", lockAtLeastFor = "5m", lockAtMostFor = "15m")
     public void processRecurringTransactions() {
-        LocalDateTime now = LocalDateTime.now();
-        log.info("Starting processing of recurring transactions at {}", now);
+        LocalDateTime cutoff = LocalDateTime.now().minus(sweepGrace);
+        log.info("Starting recurring transaction backstop sweep (cutoff {})", cutoff);
+
+        int totalProcessed = shardMap.shards()
+                .map(shard -> ShardContext.call(shard, () -> sweepCurrentShard(cutoff)))
+                .sum();
+
+        log.info("Finished backstop sweep: {} recurring transactions processed.", totalProcessed);
+    }
 
-        int page = 0;
+    private int sweepCurrentShard(LocalDateTime cutoff) {
         int size = 500;
-        int totalProcessed = 0;
+        int processed = 0;
+        long afterId = 0L;
 
+        // Keyset paging — processed rows drop out of the filter, so offsets would skip entries
         while (true) {
-            Page<TransactionEntry> duePage = repository.findByRecurringTrueAndDeletedAtIsNullAndNextRunDateLessThanEqual(
-                    now, PageRequest.of(page, size));
-
-            if (duePage.isEmpty()) {
+            List<Long> dueIds = repository.findOverdueRecurringIdsAfter(cutoff, afterId, PageRequest.of(0, size));
+            if (dueIds.isEmpty()) {
                 break;
             }
 
-            log.info("Processing page {} of recurring transactions ({} items).", page, duePage.getNumberOfElements());
-
-            for (TransactionEntry original : duePage.getContent()) {
+            for (Long id : dueIds) {
                 try {
-                    transactionTemplate.executeWithoutResult(status -> {
-                        // Calculate missed periods and aggregate amount
-                        LocalDateTime tempDate = original.getNextRunDate();
-                        int missedPeriods = 0;
-                        
-                        while (tempDate.isBefore(now) || tempDate.isEqual(now)) {
-                            missedPeriods++;
-                            tempDate = TransactionEntryService.calculateNextRunDate(tempDate, original.getRecurringPeriod());
-                            
-                            // Failsafe to prevent infinite loop
-                            if (missedPeriods > 1000) {
-                                log.warn("Excessive missed periods for transaction {}. Breaking loop.", original.getId());
-                                break;
-                            }
-                        }
-                        
-                        java.math.BigDecimal aggregatedAmount = original.getAmount().multiply(java.math.BigDecimal.valueOf(missedPeriods));
-
-                        // 1. Create a duplicate transaction for the current period
-                        TransactionEntry newEntry = new TransactionEntry(
-                                original.getUserId(),
-                                original.getName(),
-                                aggregatedAmount,
-                                original.getType(),
-                                original.getCurrency()
-                        );
-                        newEntry.setCategory(original.getCategory());
-                        newEntry.setDescription(missedPeriods > 1 ? 
-                                "Auto-generated (Aggregated " + missedPeriods + " missed periods): " + original.getDescription() :
-                                "Auto-generated: " + original.getDescription());
-                        newEntry.setRecurring(false); // The generated instance is not recurring itself
-                        newEntry.setCreatedAt(now);
-                        
-                        repository.save(newEntry);
-                        
-                        com.finance.command.model.OutboxEvent event = new com.finance.command.model.OutboxEvent();
-                        event.setUserId(newEntry.getUserId());
-                        event.setEventType("CREATE");
-                        event.setEntityId(newEntry.getId());
-                        outboxEventRepository.save(event);
-                        
-                        // 2. Advance the original transaction's nextRunDate
-                        original.setNextRunDate(tempDate);
-                        repository.save(original);
-                        
-                        // 3. Push notification
-                        notificationService.sendNotification(original.getUserId(), java.util.Map.of(
-                            "status", "INFO",
-                            "message", "Recurring transaction '" + original.getName() + "' of ₹" + aggregatedAmount + " was logged automatically.",
-                            "event", "recurring-processed"
-                        ));
-
-                        log.info("Successfully processed recurring transaction {}. Missed periods: {}. Next run: {}", original.getId(), missedPeriods, tempDate);
-                    });
-                    totalProcessed++;
+                    processOnCurrentShard(id);
+                    processed++;
                 } catch (Exception e) {
-                    log.error("Failed to process recurring transaction id={}", original.getId(), e);
+                    log.error("Failed to process recurring transaction id={} on shard {}", id, ShardContext.current(), e);
                 }
             }
+            afterId = dueIds.getLast();
+        }
+        return processed;
+    }
 
-            if (!duePage.hasNext()) {
-                break;
-            }
-            page++;
+    /**
+     * Posts every missed period of one recurring entry in its own transaction.
+     * Idempotent: next_run_date is advanced with a compare-and-set, so a
+     * concurrent or repeated firing for the same period is a no-op.
+     *
+     * @return the entry's next run date after processing, or null if it is no
+     *         longer a live recurring entry
+     * @throws IllegalStateException while the owner is being moved between
+     *         shards; callers retry later
+     */
+    public LocalDateTime processDueEntry(Long id) {
+        if (shardMap.shardCount() == 1) {
+            return processOnCurrentShard(id);
         }
+        int shard = locate(id);
+        return shard < 0 ? null : ShardContext.call(shard, () -> processOnCurrentShard(id));
+    }
+
+    /**
+     * The shard holding entry {@code id}, or -1. Ids are allocated from a
+     * per-shard range, so the allocating shard is tried first; entries of a
+     * user moved by the rebalancer keep their id and are found by probing.
+     */
+    private int locate(Long id) {
+        int origin = (int) (id >>> 48);
+        return IntStream.concat(IntStream.of(origin), shardMap.shards().filter(s -> s != origin))
+                .filter(s -> s < shardMap.shardCount())
+                // Read-write so the probe hits the primary, not a lagging replica
+                .filter(s -> ShardContext.call(s, () -> transactionTemplate.execute(status -> repository.existsById(id))))
+                .findFirst()
+                .orElse(-1);
+    }
+
+    private LocalDateTime processOnCurrentShard(Long id) {
+        return transactionTemplate.execute(status -> {
+            TransactionEntry original = repository.findByIdAndDeletedAtIsNull(id).orElse(null);
+            if (original == null || !original.isRecurring() || original.getNextRunDate() == null) {
+                return null;
+            }
+            if (shardMap.isMigrating(original.getUserId())) {
+                // A row written now could miss the copy to the new shard
+                throw new IllegalStateException("Owner of recurring transaction " + id + " is being moved between shards");
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime dueDate = original.getNextRunDate();
+            if (dueDate.isAfter(now)) {
+                return dueDate;
+            }
+
+            // Calculate missed periods and aggregate amount
+            LocalDateTime tempDate = dueDate;
+            int missedPeriods = 0;
+
+            while (tempDate.isBefore(now) || tempDate.isEqual(now)) {
+                missedPeriods++;
+                tempDate = TransactionEntryService.calculateNextRunDate(tempDate, original.getRecurringPeriod());
+
+                // Failsafe to prevent infinite loop
+                if (missedPeriods > 1000) {
+                    log.warn("Excessive missed periods for transaction {}. Breaking loop.", original.getId());
+                    break;
+                }
+            }
+
+            // 1. Claim the period(s) — loses cleanly if another firing got here first
+            if (repository.advanceNextRunDate(original.getId(), dueDate, tempDate) == 0) {
+                log.debug("Recurring transaction {} already advanced past {}", original.getId(), dueDate);
+                return repository.findByIdAndDeletedAtIsNull(id)
+                        .filter(TransactionEntry::isRecurring)
+                        .map(TransactionEntry::getNextRunDate)
+                        .orElse(null);
+            }
+
+            java.math.BigDecimal aggregatedAmount = original.getAmount().multiply(java.math.BigDecimal.valueOf(missedPeriods));
+
+            // 2. Create a duplicate transaction for the current period
+            TransactionEntry newEntry = new TransactionEntry(
+                    original.getUserId(),
+                    original.getName(),
+                    aggregatedAmount,
+                    original.getType(),
+                    original.getCurrency()
+            );
+            newEntry.setCategory(original.getCategory());
+            newEntry.setDescription(missedPeriods > 1 ?
+                    "Auto-generated (Aggregated " + missedPeriods + " missed periods): " + original.getDescription() :
+                    "Auto-generated: " + original.getDescription());
+            newEntry.setRecurring(false); // The generated instance is not recurring itself
+            newEntry.setCreatedAt(now);
+
+            repository.save(newEntry);
+            budgetSpendTracker.onExpenseCreated(newEntry);
+
+            com.finance.command.model.OutboxEvent event = new com.finance.command.model.OutboxEvent();
+            event.setUserId(newEntry.getUserId());
+            event.setEventType("CREATE");
+            event.setEntityId(newEntry.getId());
+            outboxEventRepository.save(event);
+
+            // 3. Push notification
+            notificationService.sendNotification(original.getUserId(), java.util.Map.of(
+                "status", "INFO",
+                "message", "Recurring transaction '" + original.getName() + "' of ₹" + aggregatedAmount + " was logged automatically.",
+                "event", "recurring-processed"
+            ));
 
-        log.info("Finished processing {} recurring transactions.", totalProcessed);
+            log.info("Successfully processed recurring transaction {}. Missed periods: {}. Next run: {}", original.getId(), missedPeriods, tempDate);
+            return tempDate;
+        });
     }
 }
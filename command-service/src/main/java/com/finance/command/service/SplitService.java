@@ -1,13 +1,16 @@
 package com.finance.command.service;
 
+import com.finance.command.cache.GroupMembershipDirectory;
 import com.finance.command.dto.*;
 import com.finance.command.events.CacheEvictPublisher;
 import com.finance.command.model.*;
 import com.finance.command.model.GroupActivity.ActivityType;
 import com.finance.command.repository.*;
+import com.finance.command.settlement.SettlementEngine;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
@@ -40,11 +43,17 @@ public class SplitService {
     private final NotificationService notificationService;
     private final org.springframework.cache.CacheManager cacheManager;
     private final com.finance.command.cache.QueryCacheEvictor queryCacheEvictor;
+    private final GroupBalanceLedger balanceLedger;
+    private final GroupMembershipDirectory directory;
+    private final CrossShardEntryRelay crossShardRelay;
 
     @Lazy
     @Autowired
     private SplitService self;
 
+    @Value("${groups.settlement.mode:OPTIMAL}")
+    private SettlementEngine.Mode settlementMode;
+
     /* ─── GROUPS ─── */
 
     @CacheEvict(value = "user-groups", key = "#req.createdBy")
@@ -60,20 +69,21 @@ public class SplitService {
         GroupMember creatorMember = addMemberInternal(group.getId(), req.getCreatedBy(), creatorName);
         creatorMember.setStatus(GroupMember.InvitationStatus.ACCEPTED);
         memberRepo.save(creatorMember);
+        directory.invalidate(group.getId());
         groupActivityService.log(group.getId(), req.getCreatedBy(), creatorName,
                 ActivityType.GROUP_CREATED,
                 "@" + creatorName + " created the group \"" + group.getName() + "\"",
                 group.getId());
         log.info("Group created: id={}, name={}", group.getId(), group.getName());
         cacheEvictPublisher.publishForUsers(Set.of(req.getCreatedBy()), "GROUP_CREATED", group.getId());
-        evictUserGroupsForMembers(group.getId());
+        evictUserGroupsForMembers(Set.of(req.getCreatedBy()));
         return group;
     }
 
     public ExpenseGroup updateGroup(Long groupId, UpdateGroupRequest req, UUID actorUserId) {
         ExpenseGroup group = groupRepo.findById(groupId)
                 .orElseThrow(() -> new IllegalArgumentException("Group " + groupId + " not found"));
-        requireGroupMember(groupId, actorUserId);
+        GroupMembershipDirectory.Snapshot snapshot = directory.requireMember(groupId, actorUserId);
 
         group.setName(req.getName());
         group.setDescription(req.getDescription());
@@ -83,21 +93,20 @@ public class SplitService {
         group = groupRepo.save(group);
 
         // Evict own caches (finance:upsert:v1:*)
-        var members = memberRepo.findByGroupId(groupId);
+        Set<UUID> memberIds = snapshot.memberIds();
         var detailsCache = cacheManager.getCache("group-details");
         if (detailsCache != null) {
-            members.forEach(m -> detailsCache.evict(groupId + "-" + m.getUserId()));
+            memberIds.forEach(uid -> detailsCache.evict(groupId + "-" + uid));
         }
         var userGroupsCache = cacheManager.getCache("user-groups");
         if (userGroupsCache != null) {
-            members.forEach(m -> userGroupsCache.evict(m.getUserId()));
+            memberIds.forEach(userGroupsCache::evict);
         }
 
         // Directly evict query-service keys on the shared Redis instance — no pub/sub needed
-        Set<UUID> memberIds = members.stream().map(GroupMember::getUserId).collect(Collectors.toSet());
         queryCacheEvictor.evictGroupKeys(groupId, memberIds);
 
-        String actorName = resolveMemberName(groupId, actorUserId);
+        String actorName = resolveMemberName(snapshot, actorUserId);
         groupActivityService.log(groupId, actorUserId, actorName,
                 ActivityType.GROUP_CREATED,
                 "@" + actorName + " updated group details",
@@ -117,12 +126,11 @@ public class SplitService {
         Map<Long, GroupMember> membershipByGroup = memberRepo.findByGroupIdInAndUserId(groupIds, userId)
                 .stream().collect(Collectors.toMap(GroupMember::getGroupId, m -> m));
 
-        List<SharedExpense> allExpenses = expenseRepo.findByGroupIdIn(groupIds);
-        List<Long> expenseIds = allExpenses.stream().map(SharedExpense::getId).toList();
-        List<ExpenseSplit> allSplits = expenseIds.isEmpty() ? List.of()
-                : splitRepo.findBySharedExpenseIdIn(expenseIds);
-
-        Map<Long, BigDecimal> netBalances = computeNetBalancesForUser(userId, groupIds, allExpenses, allSplits);
+        Map<Long, BigDecimal> netBalances = new HashMap<>();
+        for (GroupNetBalanceRow row : expenseRepo.sumPaidAndOwedByGroupForUser(userId, groupIds)) {
+            netBalances.put(row.getGroupId(),
+                    row.getPaid().subtract(row.getOwed()).setScale(2, RoundingMode.HALF_UP));
+        }
 
         for (ExpenseGroup group : groups) {
             GroupMember membership = membershipByGroup.get(group.getId());
@@ -137,39 +145,6 @@ public class SplitService {
     }
 
 
-    private Map<Long, BigDecimal> computeNetBalancesForUser(UUID userId, List<Long> groupIds,
-                                                            List<SharedExpense> allExpenses, List<ExpenseSplit> allSplits) {
-
-        // map expenseId -> groupId
-        Map<Long, Long> expenseToGroup = allExpenses.stream()
-                .collect(Collectors.toMap(SharedExpense::getId, SharedExpense::getGroupId));
-
-        Map<Long, BigDecimal> paidByGroup = new HashMap<>();
-        for (SharedExpense e : allExpenses) {
-            if (e.getPaidBy().equals(userId)) {
-                paidByGroup.merge(e.getGroupId(), e.getAmount(), BigDecimal::add);
-            }
-        }
-
-        Map<Long, BigDecimal> owedByGroup = new HashMap<>();
-        for (ExpenseSplit s : allSplits) {
-            if (s.getUserId().equals(userId)) {
-                Long gid = expenseToGroup.get(s.getSharedExpenseId());
-                if (gid != null) {
-                    owedByGroup.merge(gid, s.getAmount(), BigDecimal::add);
-                }
-            }
-        }
-
-        Map<Long, BigDecimal> result = new HashMap<>();
-        for (Long gid : groupIds) {
-            BigDecimal paid = paidByGroup.getOrDefault(gid, BigDecimal.ZERO);
-            BigDecimal owed = owedByGroup.getOrDefault(gid, BigDecimal.ZERO);
-            result.put(gid, paid.subtract(owed).setScale(2, RoundingMode.HALF_UP));
-        }
-        return result;
-    }
-
     @Transactional(readOnly = true)
     @Cacheable(value = "group-details", key = "#groupId + '-' + #userId", sync = true)
     public Optional<ExpenseGroup> getGroup(Long groupId, UUID userId) {
@@ -191,7 +166,7 @@ public class SplitService {
     public void deleteGroup(Long groupId, UUID actorUserId) {
         ExpenseGroup group = groupRepo.findById(groupId)
                 .orElseThrow(() -> new IllegalArgumentException("Group not found"));
-        requireGroupMember(groupId, actorUserId);
+        GroupMembershipDirectory.Snapshot snapshot = directory.requireMember(groupId, actorUserId);
 
         GroupBalanceResponse balances = self.getGroupBalances(groupId);
         boolean hasDebt = balances.getMemberBalances().stream()
@@ -204,20 +179,16 @@ public class SplitService {
         group.setDeleted(true);
         groupRepo.save(group);
 
-        List<GroupMember> members = memberRepo.findByGroupId(groupId);
+        Set<UUID> memberIds = snapshot.memberIds();
         if (cacheManager.getCache("user-groups") != null) {
-            members.forEach(m -> Objects.requireNonNull(cacheManager.getCache("user-groups")).evict(m.getUserId()));
+            memberIds.forEach(uid -> Objects.requireNonNull(cacheManager.getCache("user-groups")).evict(uid));
         }
         if (cacheManager.getCache("group-activity") != null) {
             Objects.requireNonNull(cacheManager.getCache("group-activity")).evict(groupId);
         }
-        cacheEvictPublisher.publishForUsers(
-                members.stream().map(GroupMember::getUserId).collect(Collectors.toSet()), 
-                "GROUP_DELETED", 
-                groupId);
-        
-        Set<UUID> memberIds = members.stream().map(GroupMember::getUserId).collect(Collectors.toSet());
-        evictUserGroupsForMembers(groupId);
+        cacheEvictPublisher.publishForUsers(memberIds, "GROUP_DELETED", groupId);
+
+        evictUserGroupsForMembers(memberIds);
         queryCacheEvictor.evictGroupKeys(groupId, memberIds);
     }
 
@@ -226,14 +197,13 @@ public class SplitService {
         @CacheEvict(value = "group-details", key = "#groupId + '-' + #userId")
     })
     public void archiveGroup(Long groupId, UUID userId, boolean archive) {
-        GroupMember member = memberRepo.findByGroupId(groupId).stream()
-                .filter(m -> m.getUserId().equals(userId))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("Membership not found"));
+        Set<UUID> memberIds = directory.get(groupId).memberIds();
+        GroupMember member = requireMembership(groupId, userId);
         member.setArchived(archive);
         memberRepo.save(member);
+        directory.invalidate(groupId);
         cacheEvictPublisher.publishForUsers(Set.of(userId), "GROUP_ARCHIVED", groupId);
-        evictUserGroupsForMembers(groupId);
+        evictUserGroupsForMembers(memberIds);
         queryCacheEvictor.evictGroupKeys(groupId, Set.of(userId));
     }
 
@@ -243,16 +213,17 @@ public class SplitService {
     public GroupMember addMember(Long groupId, AddMemberRequest req, UUID actorUserId) {
         groupRepo.findById(groupId)
                 .orElseThrow(() -> new IllegalArgumentException("Group " + groupId + " not found"));
-        requireGroupMember(groupId, actorUserId);
+        GroupMembershipDirectory.Snapshot snapshot = directory.requireMember(groupId, actorUserId);
         RegisteredUser user = userValidationService.requireRegisteredUser(req.getUserId());
-        if (memberRepo.existsByGroupIdAndUserId(groupId, req.getUserId())) {
+        if (snapshot.contains(req.getUserId())) {
             throw new IllegalArgumentException("User is already a member of this group");
         }
         String name = req.getName() != null && !req.getName().isBlank()
                 ? req.getName()
                 : userValidationService.displayName(user);
         GroupMember member = addMemberInternal(groupId, req.getUserId(), name);
-        String actorName = resolveMemberName(groupId, actorUserId);
+        directory.invalidate(groupId);
+        String actorName = resolveMemberName(snapshot, actorUserId);
         groupActivityService.log(groupId, actorUserId, actorName,
                 ActivityType.MEMBER_ADDED,
                 "@" + actorName + " added @" + name + " to the group",
@@ -266,7 +237,9 @@ public class SplitService {
                 "groupId", groupId)));
                 
         cacheEvictPublisher.publishForUsers(Set.of(req.getUserId()), "MEMBER_ADDED", groupId);
-        evictUserGroupsForMembers(groupId);
+        Set<UUID> memberIds = new HashSet<>(snapshot.memberIds());
+        memberIds.add(req.getUserId());
+        evictUserGroupsForMembers(memberIds);
         queryCacheEvictor.evictGroupKeys(groupId, Set.of(req.getUserId()));
         return member;
     }
@@ -285,25 +258,24 @@ public class SplitService {
             @CacheEvict(value = "group-details", key = "#groupId + '-' + #userId")
     })
     public void acceptInvitation(Long groupId, UUID userId) {
-        GroupMember member = memberRepo.findByGroupId(groupId).stream()
-                .filter(m -> m.getUserId().equals(userId))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("Membership not found"));
+        GroupMember member = requireMembership(groupId, userId);
 
         if (member.getStatus() == GroupMember.InvitationStatus.ACCEPTED) {
             return;
         }
 
+        Set<UUID> memberIds = directory.get(groupId).memberIds();
         member.setStatus(GroupMember.InvitationStatus.ACCEPTED);
         memberRepo.save(member);
+        directory.invalidate(groupId);
 
-        String actorName = resolveMemberName(groupId, userId);
+        String actorName = member.getName();
         groupActivityService.log(groupId, userId, actorName,
                 ActivityType.MEMBER_ADDED,
                 "@" + actorName + " joined the group",
                 member.getId());
         cacheEvictPublisher.publishForUsers(Set.of(userId), "MEMBER_ACCEPTED", groupId);
-        evictUserGroupsForMembers(groupId);
+        evictUserGroupsForMembers(memberIds);
         queryCacheEvictor.evictGroupKeys(groupId, Set.of(userId));
     }
 
@@ -312,19 +284,18 @@ public class SplitService {
             @CacheEvict(value = "group-details", key = "#groupId + '-' + #userId")
     })
     public void rejectInvitation(Long groupId, UUID userId) {
-        GroupMember member = memberRepo.findByGroupId(groupId).stream()
-                .filter(m -> m.getUserId().equals(userId))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("Membership not found"));
+        GroupMember member = requireMembership(groupId, userId);
 
         if (member.getStatus() == GroupMember.InvitationStatus.ACCEPTED) {
             throw new IllegalArgumentException(
                     "Cannot reject an already accepted invitation. Use leave group instead.");
         }
 
+        Set<UUID> memberIds = directory.get(groupId).memberIds();
         memberRepo.delete(member);
+        directory.invalidate(groupId);
         cacheEvictPublisher.publishForUsers(Set.of(userId), "MEMBER_REJECTED", groupId);
-        evictUserGroupsForMembers(groupId);
+        evictUserGroupsForMembers(memberIds);
         queryCacheEvictor.evictGroupKeys(groupId, Set.of(userId));
     }
 
@@ -333,10 +304,7 @@ public class SplitService {
             @CacheEvict(value = "group-details", key = "#groupId + '-' + #userId")
     })
     public void leaveGroup(Long groupId, UUID userId) {
-        GroupMember member = memberRepo.findByGroupId(groupId).stream()
-                .filter(m -> m.getUserId().equals(userId))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("Membership not found"));
+        GroupMember member = requireMembership(groupId, userId);
 
         // Ensure balance is 0
         GroupBalanceResponse balances = self.getGroupBalances(groupId);
@@ -349,7 +317,9 @@ public class SplitService {
                     "Cannot leave the group with a non-zero balance. Please settle your debts first.");
         }
 
+        Set<UUID> memberIds = directory.get(groupId).memberIds();
         memberRepo.delete(member);
+        directory.invalidate(groupId);
 
         String actorName = member.getName();
         groupActivityService.log(groupId, userId, actorName,
@@ -358,7 +328,7 @@ public class SplitService {
                 "@" + actorName + " left the group",
                 member.getId());
         cacheEvictPublisher.publishForUsers(Set.of(userId), "MEMBER_LEFT", groupId);
-        evictUserGroupsForMembers(groupId);
+        evictUserGroupsForMembers(memberIds);
         queryCacheEvictor.evictGroupKeys(groupId, Set.of(userId));
     }
 
@@ -377,19 +347,12 @@ public class SplitService {
         ExpenseGroup group = groupRepo.findById(req.getGroupId())
                 .orElseThrow(() -> new IllegalArgumentException("Group " + req.getGroupId() + " not found"));
 
-        List<GroupMember> allMembers = memberRepo.findByGroupId(req.getGroupId());
-
-        GroupMember actorMember = allMembers.stream()
-                .filter(m -> m.getUserId().equals(actorUserId))
-                .findFirst()
-                .orElseThrow(() -> new SecurityException("User is not a member of this group"));
-
-        boolean payerIsMember = allMembers.stream().anyMatch(m -> m.getUserId().equals(req.getPaidBy()));
-        if (!payerIsMember) {
+        GroupMembershipDirectory.Snapshot snapshot = directory.requireMember(req.getGroupId(), actorUserId);
+        if (!snapshot.contains(req.getPaidBy())) {
             throw new SecurityException("Payer is not a member of this group");
         }
 
-        String actorName = actorMember.getName();
+        String actorName = resolveMemberName(snapshot, actorUserId);
 
         SharedExpense expense = new SharedExpense();
         expense.setGroup(groupRepo.getReferenceById(req.getGroupId()));
@@ -411,8 +374,9 @@ public class SplitService {
         }
         expense = expenseRepo.save(expense);
 
-        List<ExpenseSplit> splits = generateSplits(expense, req, allMembers); // see Fix #7
-        createPersonalTransactions(expense, splits, group);
+        List<ExpenseSplit> splits = generateSplits(expense, req, snapshot); // see Fix #7
+        balanceLedger.recordExpense(expense, splits);
+        createPersonalTransactions(expense, splits, group, snapshot);
         evictAnalyticsCacheForSplits(splits, expense.getId(), "SPLIT_EXPENSE", expense.getPaidBy());
 
         ActivityType logType = expense.getSplitType() == SharedExpense.SplitType.SETTLEMENT
@@ -442,7 +406,7 @@ public class SplitService {
             }
         });
 
-        evictUserGroupsForMembers(req.getGroupId());
+        evictUserGroupsForMembers(snapshot.memberIds());
 
         return expense;
     }
@@ -454,7 +418,7 @@ public class SplitService {
     public void deleteSharedExpense(Long groupId, Long expenseId, UUID actorUserId) {
         ExpenseGroup group = groupRepo.findById(groupId)
                 .orElseThrow(() -> new IllegalArgumentException("Group " + groupId + " not found"));
-        requireGroupMember(groupId, actorUserId);
+        GroupMembershipDirectory.Snapshot snapshot = directory.requireMember(groupId, actorUserId);
 
         SharedExpense expense = expenseRepo.findById(expenseId)
                 .orElseThrow(() -> new IllegalArgumentException("Expense " + expenseId + " not found"));
@@ -471,30 +435,37 @@ public class SplitService {
 
         List<ExpenseTransactionLink> links = transactionLinkRepo.findBySharedExpenseId(expenseId);
         for (ExpenseTransactionLink link : links) {
-            transactionEntryService.deleteEntryInternal(link.getTransactionEntryId(), link.getUserId());
+            if (crossShardRelay.isLocal(link.getUserId())) {
+                transactionEntryService.deleteEntryInternal(link.getTransactionEntryId(), link.getUserId());
+            } else {
+                crossShardRelay.enqueueDelete(link.getTransactionEntryId(), link.getUserId());
+            }
         }
         transactionLinkRepo.deleteBySharedExpenseId(expenseId);
+        balanceLedger.reverseExpense(expense, splits);
         splitRepo.deleteAll(splits);
         expenseRepo.delete(expense);
 
         evictAnalyticsCacheForSplits(splits, expenseId, "SPLIT_EXPENSE_DELETE",expense.getPaidBy());
 
-        String actorName = resolveMemberName(groupId, actorUserId);
+        String actorName = resolveMemberName(snapshot, actorUserId);
         groupActivityService.log(groupId, actorUserId, actorName,
                 ActivityType.EXPENSE_DELETED,
                 "@" + actorName + " deleted expense \"" + expense.getDescription()
                         + "\" (" + expense.getAmount() + " " + expense.getCurrency() + ")",
                 expenseId);
         log.info("Shared expense deleted: id={}, group={}", expenseId, groupId);
-        evictUserGroupsForMembers(groupId);
+        evictUserGroupsForMembers(snapshot.memberIds());
     }
 
-    private void createPersonalTransactions(SharedExpense expense, List<ExpenseSplit> splits, ExpenseGroup group) {
+    private void createPersonalTransactions(SharedExpense expense, List<ExpenseSplit> splits, ExpenseGroup group,
+                                            GroupMembershipDirectory.Snapshot snapshot) {
         Category category = toTransactionCategory(expense);
         String groupLabel = group.getName() != null ? group.getName() : "group";
 
         List<CreateEntryRequest> entries = new ArrayList<>();
         List<UUID> entryUserIds = new ArrayList<>();
+        String payerName = resolveMemberName(snapshot, expense.getPaidBy());
 
         if (expense.getSplitType() == SharedExpense.SplitType.SETTLEMENT) {
             for (ExpenseSplit split : splits) {
@@ -514,7 +485,7 @@ public class SplitService {
 
                 CreateEntryRequest receiverEntry = new CreateEntryRequest();
                 receiverEntry.setUserId(split.getUserId());
-                receiverEntry.setName("Received from " + resolveMemberName(expense.getGroupId(), expense.getPaidBy()));
+                receiverEntry.setName("Received from " + payerName);
                 receiverEntry.setAmount(split.getAmount());
                 receiverEntry.setType(TransactionType.INCOME);
                 receiverEntry.setCurrency(expense.getCurrency());
@@ -541,6 +512,14 @@ public class SplitService {
             }
         }
 
+        // Members on another shard get their entry through the outbox
+        for (int i = entries.size() - 1; i >= 0; i--) {
+            if (!crossShardRelay.isLocal(entryUserIds.get(i))) {
+                crossShardRelay.enqueueCreate(expense, entries.remove(i));
+                entryUserIds.remove(i);
+            }
+        }
+
         if (entries.isEmpty()) {
             return;
         }
@@ -579,10 +558,9 @@ public class SplitService {
         return Category.valueOf(expense.getExpenseCategory().name());
     }
 
-    private List<ExpenseSplit> generateSplits(SharedExpense expense, CreateSharedExpenseRequest req, List<GroupMember> allMembers) {
-        List<GroupMember> members = allMembers.stream()
-                .filter(m -> m.getStatus() == GroupMember.InvitationStatus.ACCEPTED)
-                .collect(Collectors.toList());
+    private List<ExpenseSplit> generateSplits(SharedExpense expense, CreateSharedExpenseRequest req,
+                                              GroupMembershipDirectory.Snapshot snapshot) {
+        List<GroupMembershipDirectory.Member> members = snapshot.acceptedMembers();
         if (members.isEmpty())
             return List.of();
 
@@ -593,23 +571,23 @@ public class SplitService {
         };
     }
 
-    private List<ExpenseSplit> generateEqualSplits(SharedExpense expense, List<GroupMember> members) {
+    private List<ExpenseSplit> generateEqualSplits(SharedExpense expense, List<GroupMembershipDirectory.Member> members) {
         BigDecimal each = expense.getAmount()
                 .divide(BigDecimal.valueOf(members.size()), 2, RoundingMode.HALF_UP);
         List<ExpenseSplit> splits = members.stream().map(m -> {
             ExpenseSplit s = new ExpenseSplit();
             s.setSharedExpense(expense);
-            s.setUserId(m.getUserId());
-            s.setUserName(m.getName());
+            s.setUserId(m.userId());
+            s.setUserName(m.name());
             s.setAmount(each);
-            s.setSettled(m.getUserId().equals(expense.getPaidBy()));
+            s.setSettled(m.userId().equals(expense.getPaidBy()));
             return s;
         }).collect(Collectors.toList());
         return splitRepo.saveAll(splits);
     }
     private List<ExpenseSplit> generatePercentageSplits(SharedExpense expense,
                                                         CreateSharedExpenseRequest req,
-                                                        List<GroupMember> members) {
+                                                        List<GroupMembershipDirectory.Member> members) {
         Map<UUID, BigDecimal> pctMap = req.getSplitDetails() == null ? Map.of()
                 : req.getSplitDetails().stream()
                 .collect(Collectors.toMap(d -> d.getUserId(), d -> d.getValue()));
@@ -617,15 +595,15 @@ public class SplitService {
             return generateEqualSplits(expense, members);
         }
         List<ExpenseSplit> splits = members.stream().map(m -> {
-            BigDecimal pct = pctMap.getOrDefault(m.getUserId(), BigDecimal.ZERO);
+            BigDecimal pct = pctMap.getOrDefault(m.userId(), BigDecimal.ZERO);
             BigDecimal share = expense.getAmount().multiply(pct)
                     .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
             ExpenseSplit s = new ExpenseSplit();
             s.setSharedExpense(expense);
-            s.setUserId(m.getUserId());
-            s.setUserName(m.getName());
+            s.setUserId(m.userId());
+            s.setUserName(m.name());
             s.setAmount(share);
-            s.setSettled(m.getUserId().equals(expense.getPaidBy()));
+            s.setSettled(m.userId().equals(expense.getPaidBy()));
             return s;
         }).collect(Collectors.toList());
         return splitRepo.saveAll(splits);
@@ -633,21 +611,21 @@ public class SplitService {
 
     private List<ExpenseSplit> generateExactSplits(SharedExpense expense,
                                                    CreateSharedExpenseRequest req,
-                                                   List<GroupMember> members) {
+                                                   List<GroupMembershipDirectory.Member> members) {
         if (req.getSplitDetails() == null || req.getSplitDetails().isEmpty()) {
             return generateEqualSplits(expense, members);
         }
         Map<UUID, CreateSharedExpenseRequest.SplitDetailRequest> detailMap = req.getSplitDetails().stream()
                 .collect(Collectors.toMap(d -> d.getUserId(), d -> d));
         List<ExpenseSplit> splits = members.stream().map(m -> {
-            CreateSharedExpenseRequest.SplitDetailRequest detail = detailMap.get(m.getUserId());
+            CreateSharedExpenseRequest.SplitDetailRequest detail = detailMap.get(m.userId());
             BigDecimal share = detail != null ? detail.getValue() : BigDecimal.ZERO;
             ExpenseSplit s = new ExpenseSplit();
             s.setSharedExpense(expense);
-            s.setUserId(m.getUserId());
-            s.setUserName(m.getName());
+            s.setUserId(m.userId());
+            s.setUserName(m.name());
             s.setAmount(share);
-            s.setSettled(m.getUserId().equals(expense.getPaidBy()));
+            s.setSettled(m.userId().equals(expense.getPaidBy()));
             return s;
         }).collect(Collectors.toList());
         return splitRepo.saveAll(splits);
@@ -674,22 +652,30 @@ public class SplitService {
         ExpenseGroup group = groupRepo.findById(groupId)
                 .orElseThrow(() -> new IllegalArgumentException("Group " + groupId + " not found"));
         List<GroupMember> members = memberRepo.findByGroupId(groupId);
-        List<SharedExpense> expenses = expenseRepo.findByGroupIdOrderByCreatedAtDesc(groupId);
-        List<Long> expenseIds = expenses.stream().map(SharedExpense::getId).toList();
-        List<ExpenseSplit> allSplits = expenseIds.isEmpty() ? List.of()
-                : splitRepo.findBySharedExpenseIdIn(expenseIds);
 
         Map<UUID, String> nameMap = members.stream()
                 .collect(Collectors.toMap(GroupMember::getUserId, GroupMember::getName));
 
         Map<UUID, BigDecimal> totalPaid = new HashMap<>();
-        for (SharedExpense e : expenses) {
-            totalPaid.merge(e.getPaidBy(), e.getAmount(), BigDecimal::add);
-        }
-
         Map<UUID, BigDecimal> totalOwed = new HashMap<>();
-        for (ExpenseSplit s : allSplits) {
-            totalOwed.merge(s.getUserId(), s.getAmount(), BigDecimal::add);
+        Map<UUID, GroupMemberBalance> ledger = balanceLedger.balancesFor(groupId);
+        if (!ledger.isEmpty()) {
+            ledger.forEach((uid, b) -> {
+                totalPaid.put(uid, b.getTotalPaid());
+                totalOwed.put(uid, b.getTotalOwed());
+            });
+        } else {
+            // Group predates the ledger and has not been written to since — compute from raw splits
+            List<SharedExpense> expenses = expenseRepo.findByGroupIdOrderByCreatedAtDesc(groupId);
+            List<Long> expenseIds = expenses.stream().map(SharedExpense::getId).toList();
+            List<ExpenseSplit> allSplits = expenseIds.isEmpty() ? List.of()
+                    : splitRepo.findBySharedExpenseIdIn(expenseIds);
+            for (SharedExpense e : expenses) {
+                totalPaid.merge(e.getPaidBy(), e.getAmount(), BigDecimal::add);
+            }
+            for (ExpenseSplit s : allSplits) {
+                totalOwed.merge(s.getUserId(), s.getAmount(), BigDecimal::add);
+            }
         }
 
         List<GroupBalanceResponse.MemberBalance> memberBalances = members.stream().map(m -> {
@@ -713,62 +699,21 @@ public class SplitService {
             Map<UUID, String> nameMap,
             String currency) {
 
-        Map<UUID, BigDecimal> debt = new HashMap<>();
-        Map<UUID, BigDecimal> credit = new HashMap<>();
-
-        for (GroupBalanceResponse.MemberBalance mb : balances) {
-            BigDecimal net = mb.getNetBalance();
-            if (net.compareTo(BigDecimal.ZERO) < 0)
-                debt.put(mb.getUserId(), net.negate());
-            else if (net.compareTo(BigDecimal.ZERO) > 0)
-                credit.put(mb.getUserId(), net);
-        }
-
-        if (debt.isEmpty() || credit.isEmpty()) {
-            return List.of();
+        // Engine works on long minor units; balances are already scale 2
+        long[] minor = new long[balances.size()];
+        for (int i = 0; i < minor.length; i++) {
+            minor[i] = balances.get(i).getNetBalance().movePointRight(2).longValueExact();
         }
-        // Sort by amount descending — largest debts/credits settled first
-        List<UUID> debtorList = debt.keySet().stream()
-                .sorted(Comparator.comparing(debt::get).reversed())
-                .collect(Collectors.toCollection(ArrayList::new));
-        List<UUID> creditorList = credit.keySet().stream()
-                .sorted(Comparator.comparing(credit::get).reversed())
-                .collect(Collectors.toCollection(ArrayList::new));
 
         List<GroupBalanceResponse.SettlementSuggestion> suggestions = new ArrayList<>();
-        int di = 0, ci = 0;
-
-        while (di < debtorList.size() && ci < creditorList.size()) {
-            UUID debtor = debtorList.get(di);
-            UUID creditor = creditorList.get(ci);
-
-            BigDecimal debtAmt = debt.getOrDefault(debtor, BigDecimal.ZERO);
-            BigDecimal creditAmt = credit.getOrDefault(creditor, BigDecimal.ZERO);
-
-            if (debtAmt.compareTo(BigDecimal.ZERO) <= 0) {
-                di++;
-                continue;
-            }
-            if (creditAmt.compareTo(BigDecimal.ZERO) <= 0) {
-                ci++;
-                continue;
-            }
-
-            BigDecimal settle = debtAmt.min(creditAmt).setScale(2, RoundingMode.HALF_UP);
+        for (SettlementEngine.Transfer t : SettlementEngine.settle(minor, settlementMode)) {
+            UUID debtor = balances.get(t.from()).getUserId();
+            UUID creditor = balances.get(t.to()).getUserId();
             suggestions.add(new GroupBalanceResponse.SettlementSuggestion(
                     debtor, nameMap.getOrDefault(debtor, debtor.toString()),
                     creditor, nameMap.getOrDefault(creditor, creditor.toString()),
-                    settle, currency));
-
-            debt.put(debtor, debtAmt.subtract(settle));
-            credit.put(creditor, creditAmt.subtract(settle));
-
-            if (debt.get(debtor).compareTo(BigDecimal.ZERO) == 0)
-                di++;
-            if (credit.get(creditor).compareTo(BigDecimal.ZERO) == 0)
-                ci++;
+                    BigDecimal.valueOf(t.amountMinor(), 2), currency));
         }
-
         return suggestions;
     }
 
@@ -779,7 +724,7 @@ public class SplitService {
         @CacheEvict(value = "group-balances", key = "#groupId")
     })
     public void settleDebt(Long groupId, UUID fromUserId, UUID toUserId, UUID actorUserId) {
-        requireGroupMember(groupId, actorUserId);
+        GroupMembershipDirectory.Snapshot snapshot = directory.requireMember(groupId, actorUserId);
 
         GroupBalanceResponse balances = self.getGroupBalances(groupId);
 
@@ -793,8 +738,8 @@ public class SplitService {
             return; // No debt to settle
         }
 
-        String fromName = resolveMemberName(groupId, fromUserId);
-        String toName = resolveMemberName(groupId, toUserId);
+        String fromName = resolveMemberName(snapshot, fromUserId);
+        String toName = resolveMemberName(snapshot, toUserId);
 
         CreateSharedExpenseRequest req = new CreateSharedExpenseRequest();
         req.setGroupId(groupId);
@@ -824,28 +769,25 @@ public class SplitService {
                 "groupId", groupId));
     }
 
-    private void requireGroupMember(Long groupId, UUID userId) {
-        if (!memberRepo.existsByGroupIdAndUserId(groupId, userId)) {
-            throw new SecurityException("User is not a member of this group");
-        }
+    /** Managed membership row, for the endpoints that mutate it. */
+    private GroupMember requireMembership(Long groupId, UUID userId) {
+        return memberRepo.findByGroupIdAndUserId(groupId, userId)
+                .orElseThrow(() -> new IllegalArgumentException("Membership not found"));
     }
 
-    private String resolveMemberName(Long groupId, UUID userId) {
-        return memberRepo.findByGroupIdAndUserId(groupId, userId)
-                .map(GroupMember::getName)
+    private String resolveMemberName(GroupMembershipDirectory.Snapshot snapshot, UUID userId) {
+        return snapshot.nameOf(userId)
                 .orElseGet(() -> userValidationService.displayName(
                         userValidationService.requireRegisteredUser(userId)));
     }
 
-    private void evictUserGroupsForMembers(Long groupId) {
-        var members = memberRepo.findByGroupId(groupId);
+    private void evictUserGroupsForMembers(Set<UUID> memberIds) {
         // Evict own user-groups cache
         var cache = cacheManager.getCache("user-groups");
         if (cache != null) {
-            members.forEach(m -> cache.evict(m.getUserId()));
+            memberIds.forEach(cache::evict);
         }
         // Directly evict query-service user-groups keys — same Redis, no pub/sub needed
-        Set<UUID> memberIds = members.stream().map(GroupMember::getUserId).collect(Collectors.toSet());
         queryCacheEvictor.evictUserGroupsKeys(memberIds);
     }
 }
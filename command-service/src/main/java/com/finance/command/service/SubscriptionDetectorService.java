@@ -1,23 +1,45 @@
 package com.finance.command.service;
 
 import com.finance.command.dto.SubscriptionResponse;
+import com.finance.command.model.MerchantPatternState;
 import com.finance.command.model.RecurringPeriod;
 import com.finance.command.model.Subscription;
 import com.finance.command.model.TransactionEntry;
 import com.finance.command.model.TransactionType;
+import com.finance.command.model.convert.CurrencyCodes;
+import com.finance.command.repository.MerchantPatternStateRepository;
 import com.finance.command.repository.SubscriptionRepository;
 import com.finance.command.repository.TransactionEntryRepository;
+import com.finance.command.shard.ShardContext;
+import com.finance.command.shard.ShardMap;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -25,43 +47,511 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class SubscriptionDetectorService {
 
+    private static final String SUBSCRIPTION_DETECTION_LOCK = "runDailySubscriptionDetection";
+    private static final String CHECKPOINT_KEY = "finance:upsert:v1:subscription-detection:checkpoint";
+    private static final Duration CHECKPOINT_TTL = Duration.ofDays(2);
+    private static final String STATUS_RUNNING = "RUNNING";
+    private static final String STATUS_DONE = "DONE";
+
+    /**
+     * Takes over today's RUNNING run if its owner's heartbeat is older than
+     * ARGV[4]. Only one caller can win, however many see the stale heartbeat.
+     */
+    private static final DefaultRedisScript<Long> CLAIM_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('HGET', KEYS[1], 'status') ~= 'RUNNING'
+                    or redis.call('HGET', KEYS[1], 'runDate') ~= ARGV[1] then return 0 end
+            local beat = tonumber(redis.call('HGET', KEYS[1], 'heartbeat') or '0')
+            if beat > tonumber(ARGV[4]) then return 0 end
+            redis.call('HSET', KEYS[1], 'owner', ARGV[2], 'heartbeat', ARGV[3])
+            return 1
+            """, Long.class);
+
+    /** Advances the cursor and heartbeat, unless another instance has taken the run over. */
+    private static final DefaultRedisScript<Long> HEARTBEAT_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('HGET', KEYS[1], 'owner') ~= ARGV[1] then return 0 end
+            redis.call('HSET', KEYS[1], 'shard', ARGV[2], 'cursor', ARGV[3], 'heartbeat', ARGV[4])
+            redis.call('PEXPIRE', KEYS[1], ARGV[5])
+            return 1
+            """, Long.class);
+    /** Nil UUID — sorts before every other uuid in Postgres. */
+    private static final UUID START_CURSOR = new UUID(0L, 0L);
+
+    /** Recent occurrences kept per merchant — enough to see a stable rhythm. */
+    static final int PATTERN_WINDOW = 6;
+    /** Price drift (fraction of the band max) still treated as the same subscription. */
+    private static final BigDecimal AMOUNT_BAND_TOLERANCE = new BigDecimal("0.20");
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO finance.subscriptions
+                (user_id, name, amount, currency, period, next_charge_date, days_until_charge,
+                 active, detected_at, last_seen_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, true, ?, ?)
+            ON CONFLICT (user_id, name, amount) DO UPDATE SET
+                currency          = EXCLUDED.currency,
+                period            = EXCLUDED.period,
+                next_charge_date  = EXCLUDED.next_charge_date,
+                days_until_charge = EXCLUDED.days_until_charge,
+                active            = true,
+                last_seen_at      = EXCLUDED.last_seen_at
+            """;
+
     private final TransactionEntryRepository transactionRepository;
     private final SubscriptionRepository subscriptionRepository;
+    private final MerchantPatternStateRepository patternStateRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StringRedisTemplate redisTemplate;
+    private final AsyncTaskExecutor applicationTaskExecutor;   // resolved by name — the scheduler is an AsyncTaskExecutor too
+    private final ShardMap shardMap;
+
+    @Value("${subscription.detection.user-chunk-size:500}")
+    private int userChunkSize;
+
+    @Value("${subscription.detection.parallelism:4}")
+    private int parallelism;
+
+    /** A RUNNING checkpoint whose heartbeat is older than this belongs to a dead instance. */
+    @Value("${subscription.detection.stale-after:PT10M}")
+    private Duration staleAfter;
+
+    /** Identifies this instance as the checkpoint owner. */
+    private final String instanceId = UUID.randomUUID().toString();
 
     // ── Scheduled daily detection job ────────────────────────────────────────
 
     /**
-     * Runs every day at 02:00 UTC. Scans all users' recurring transactions
-     * and pattern-detected subscriptions, then refreshes the subscriptions table.
+     * Runs every day at 02:00 UTC. Walks each shard's users that own
+     * recurring expenses in keyset order, {@code userChunkSize} at a time, and
+     * bulk-upserts their subscriptions. The shard and cursor are checkpointed
+     * in Redis after every chunk, together with a heartbeat, so a run whose
+     * instance died is picked up where it stopped (see {@link #resumeInterruptedRun()}).
      */
     @Scheduled(cron = "0 0 2 * * *", zone = "UTC")
-    @Transactional
+    @SchedulerLock(name = SUBSCRIPTION_DETECTION_LOCK, lockAtLeastFor = "5m", lockAtMostFor = "2h")
     public void runDailyDetection() {
+        String runDate = LocalDate.now(ZoneOffset.UTC).toString();
+        Map<Object, Object> checkpoint = readCheckpoint();
+        if (STATUS_RUNNING.equals(checkpoint.get("status")) && runDate.equals(checkpoint.get("runDate"))) {
+            if (claimStaleRun(runDate)) {
+                resume();
+            }
+            return;
+        }
         log.info("Starting daily subscription detection job...");
-        // Detect from all recurring=true transactions in the system
-        List<TransactionEntry> allRecurring = transactionRepository
-                .findAllByRecurringTrueAndDeletedAtIsNull();
-        processRecurringTransactions(allRecurring);
-        log.info("Subscription detection complete. Processed {} recurring transactions.", allRecurring.size());
+        writeCheckpoint(Map.of("status", STATUS_RUNNING, "runDate", runDate, "owner", instanceId,
+                "heartbeat", Long.toString(System.currentTimeMillis()),
+                "shard", "0", "cursor", START_CURSOR.toString()));
+        detect(0, START_CURSOR);
+    }
+
+    /**
+     * Finishes today's run if the instance running it died half-way. The cron
+     * fires only once a day, and the dead instance's ShedLock is held for up to
+     * {@code lockAtMostFor}, so liveness is judged by the checkpoint heartbeat
+     * instead: once it is {@code staleAfter} old, the first instance to notice
+     * takes the run over. Checked at startup and every few minutes after.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${subscription.detection.takeover-check-interval:PT5M}",
+               initialDelayString = "${subscription.detection.takeover-check-interval:PT5M}")
+    public void resumeInterruptedRun() {
+        if (claimStaleRun(LocalDate.now(ZoneOffset.UTC).toString())) {
+            applicationTaskExecutor.execute(this::resume);
+        }
+    }
+
+    private void resume() {
+        Map<Object, Object> checkpoint = readCheckpoint();
+        int shard = Integer.parseInt((String) checkpoint.getOrDefault("shard", "0"));
+        UUID cursor = UUID.fromString((String) checkpoint.getOrDefault("cursor", START_CURSOR.toString()));
+        log.info("Resuming subscription detection for {} on shard {} after user {}",
+                checkpoint.get("runDate"), shard, cursor);
+        detect(shard, cursor);
+    }
+
+    private void detect(int startShard, UUID cursor) {
+        int[] totals = new int[2];   // users, upserted
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int shard = startShard; shard < shardMap.shardCount(); shard++) {
+                UUID from = shard == startShard ? cursor : START_CURSOR;
+                int current = shard;
+                boolean owned = ShardContext.call(shard, () -> detectShard(current, from, workers, totals));
+                if (!owned) {
+                    log.warn("Subscription detection was taken over by another instance; stopping after {} users",
+                            totals[0]);
+                    return;
+                }
+            }
+        }
+        writeCheckpoint(Map.of("status", STATUS_DONE));
+        log.info("Subscription detection complete. {} users scanned, {} subscriptions upserted.", totals[0], totals[1]);
+    }
+
+    /** @return false if another instance took the run over mid-shard */
+    private boolean detectShard(int shard, UUID cursor, ExecutorService workers, int[] totals) {
+        while (true) {
+            List<UUID> userIds = transactionRepository.findRecurringExpenseUserIdsAfter(
+                    cursor, PageRequest.of(0, userChunkSize));
+            if (userIds.isEmpty()) {
+                return true;
+            }
+            totals[1] += upsertChunk(userIds, workers);
+            totals[0] += userIds.size();
+            cursor = userIds.getLast();
+            if (!heartbeat(shard, cursor)) {
+                return false;
+            }
+        }
+    }
+
+    /** Loads one chunk of users and upserts their subscriptions in parallel slices. */
+    private int upsertChunk(List<UUID> userIds, ExecutorService workers) {
+        List<SubscriptionUpsert> rows = buildUpserts(
+                transactionRepository.findRecurringExpensesByUserIds(userIds));
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        int sliceSize = Math.max(1, (rows.size() + parallelism - 1) / parallelism);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int from = 0; from < rows.size(); from += sliceSize) {
+            List<SubscriptionUpsert> slice = rows.subList(from, Math.min(from + sliceSize, rows.size()));
+            // Each worker owns its connection, and the write pool never auto-commits
+            futures.add(workers.submit(ShardContext.wrap(
+                    () -> transactionTemplate.executeWithoutResult(status -> bulkUpsert(slice)))));
+        }
+        for (Future<?> f : futures) {
+            try {
+                f.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Subscription detection interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Subscription upsert failed", e.getCause());
+            }
+        }
+        return rows.size();
+    }
+
+    private void bulkUpsert(List<SubscriptionUpsert> rows) {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows, rows.size(), (ps, r) -> {
+            ps.setObject(1, r.userId());
+            ps.setString(2, r.name());
+            ps.setBigDecimal(3, r.amount());
+            ps.setShort(4, CurrencyCodes.encode(r.currency()));
+            ps.setShort(5, r.period().code());
+            ps.setObject(6, r.nextChargeDate());
+            ps.setInt(7, r.daysUntilCharge());
+            ps.setObject(8, now);
+            ps.setObject(9, now);
+        });
+    }
+
+    /**
+     * Turns recurring expenses into upsert rows, one per (user, name, amount).
+     * Later entries win, matching what sequential per-row upserts used to do —
+     * and Postgres rejects a batch that touches the same conflict key twice.
+     */
+    List<SubscriptionUpsert> buildUpserts(List<TransactionEntry> recurringEntries) {
+        Map<String, SubscriptionUpsert> byKey = new LinkedHashMap<>();
+        for (TransactionEntry entry : recurringEntries) {
+            if (entry.getType() != TransactionType.EXPENSE) continue;
+            RecurringPeriod period = entry.getRecurringPeriod() != null
+                    ? entry.getRecurringPeriod() : RecurringPeriod.MONTHLY;
+            BigDecimal amount = entry.getAmount().setScale(2, RoundingMode.HALF_UP);
+            LocalDate nextCharge = calculateNextChargeDate(entry.getCreatedAt().toLocalDate(), period);
+            int daysUntil = Math.max(0, (int) ChronoUnit.DAYS.between(LocalDate.now(), nextCharge));
+
+            byKey.put(entry.getUserId() + "|" + entry.getName() + "|" + amount.toPlainString(),
+                    new SubscriptionUpsert(entry.getUserId(), entry.getName(), amount,
+                            entry.getCurrency(), period, nextCharge, daysUntil));
+        }
+        return new ArrayList<>(byKey.values());
+    }
+
+    record SubscriptionUpsert(UUID userId, String name, BigDecimal amount, String currency,
+                              RecurringPeriod period, LocalDate nextChargeDate, int daysUntilCharge) {}
+
+    private Map<Object, Object> readCheckpoint() {
+        try {
+            return redisTemplate.opsForHash().entries(CHECKPOINT_KEY);
+        } catch (Exception e) {
+            // Upserts are idempotent, so losing the checkpoint only costs a full re-scan
+            log.warn("Could not read subscription detection checkpoint: {}", e.getMessage());
+            return Map.of();
+        }
     }
 
-    // ── Per-user detection (on-demand) ────────────────────────────────────────
+    private boolean claimStaleRun(String runDate) {
+        long now = System.currentTimeMillis();
+        try {
+            Long claimed = redisTemplate.execute(CLAIM_SCRIPT, List.of(CHECKPOINT_KEY), runDate, instanceId,
+                    Long.toString(now), Long.toString(now - staleAfter.toMillis()));
+            return claimed != null && claimed == 1L;
+        } catch (Exception e) {
+            log.warn("Could not check subscription detection checkpoint: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean heartbeat(int shard, UUID cursor) {
+        try {
+            Long owned = redisTemplate.execute(HEARTBEAT_SCRIPT, List.of(CHECKPOINT_KEY), instanceId,
+                    Integer.toString(shard), cursor.toString(), Long.toString(System.currentTimeMillis()),
+                    Long.toString(CHECKPOINT_TTL.toMillis()));
+            return owned == null || owned == 1L;
+        } catch (Exception e) {
+            // Nobody else can take over while Redis is unreachable either
+            log.warn("Could not write subscription detection checkpoint: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    private void writeCheckpoint(Map<String, String> fields) {
+        try {
+            redisTemplate.opsForHash().putAll(CHECKPOINT_KEY, fields);
+            redisTemplate.expire(CHECKPOINT_KEY, CHECKPOINT_TTL);
+        } catch (Exception e) {
+            log.warn("Could not write subscription detection checkpoint: {}", e.getMessage());
+        }
+    }
+
+    // ── Incremental pattern detection (write path) ───────────────────────────
 
+    /**
+     * Folds a newly recorded expense into its merchant's pattern state and
+     * promotes/demotes the matching subscription. Work is bounded by
+     * {@link #PATTERN_WINDOW}, independent of the user's history size.
+     */
     @Transactional
-    public List<SubscriptionResponse> detectAndGetForUser(UUID userId) {
-        // 1. From explicitly marked recurring transactions
-        List<TransactionEntry> recurring = transactionRepository
-                .findByUserIdAndRecurringTrueAndDeletedAtIsNull(userId);
-        processRecurringTransactions(recurring);
+    public void onExpenseRecorded(TransactionEntry entry) {
+        if (!isPatternCandidate(entry)) return;
+        MerchantPatternState state = lockPatternState(entry.getUserId(), merchantKey(entry.getName()));
 
-        // 2. Pattern-based detection from the last 90 days
-        LocalDateTime since = LocalDateTime.now().minusDays(90);
-        List<TransactionEntry> recent = transactionRepository
-                .findByUserIdAndTypeAndCreatedAtAfterAndDeletedAtIsNull(userId, TransactionType.EXPENSE, since);
-        detectPatternBasedSubscriptions(userId, recent);
+        List<Occurrence> occurrences = decodeOccurrences(state.getRecentOccurrences());
+        Occurrence added = new Occurrence(entry.getCreatedAt().toLocalDate(), entry.getAmount());
+        int pos = 0;
+        while (pos < occurrences.size() && !occurrences.get(pos).date().isAfter(added.date())) pos++;
+        occurrences.add(pos, added);
+        if (pos == occurrences.size() - 1 || state.getLastName() == null) {
+            state.setLastName(entry.getName());
+            state.setCurrency(entry.getCurrency());
+        }
+        if (occurrences.size() > PATTERN_WINDOW) {
+            occurrences.removeFirst();
+        }
+        reevaluate(state, occurrences);
+    }
 
-        // 3. Return current active subscriptions
-        return getSubscriptionsForUser(userId);
+    /**
+     * Bulk variant of {@link #onExpenseRecorded} for statement imports. Only the
+     * newest {@link #PATTERN_WINDOW} expenses per merchant can survive in the
+     * window, so older ones are skipped instead of being folded in and evicted.
+     */
+    @Transactional
+    public void onExpensesImported(List<TransactionEntry> entries) {
+        Map<String, List<TransactionEntry>> byMerchant = new HashMap<>();
+        for (TransactionEntry entry : entries) {
+            if (isPatternCandidate(entry)) {
+                byMerchant.computeIfAbsent(merchantKey(entry.getName()), k -> new ArrayList<>()).add(entry);
+            }
+        }
+        for (List<TransactionEntry> merchantEntries : byMerchant.values()) {
+            merchantEntries.sort(Comparator.comparing(TransactionEntry::getCreatedAt));
+            int from = Math.max(0, merchantEntries.size() - PATTERN_WINDOW);
+            for (TransactionEntry entry : merchantEntries.subList(from, merchantEntries.size())) {
+                onExpenseRecorded(entry);
+            }
+        }
+    }
+
+    /**
+     * Collects a stream of imported expenses, keeping per merchant only the
+     * newest {@link #PATTERN_WINDOW} that {@link #onExpensesImported} would fold
+     * in, so memory follows the number of merchants, not rows.
+     */
+    public static final class ImportedPatterns {
+
+        private record Seen(long seq, TransactionEntry entry) {}
+
+        /** Oldest first; on equal timestamps the earlier arrival is evicted, as the stable sort would drop it. */
+        private static final Comparator<Seen> AGE = Comparator
+                .comparing((Seen s) -> s.entry().getCreatedAt())
+                .thenComparingLong(Seen::seq);
+
+        private final Map<String, PriorityQueue<Seen>> byMerchant = new HashMap<>();
+        private long seq;
+
+        public void add(TransactionEntry entry) {
+            if (!isPatternCandidate(entry)) return;
+            PriorityQueue<Seen> window = byMerchant.computeIfAbsent(merchantKey(entry.getName()),
+                    k -> new PriorityQueue<>(PATTERN_WINDOW + 1, AGE));
+            window.add(new Seen(seq++, entry));
+            if (window.size() > PATTERN_WINDOW) {
+                window.poll();
+            }
+        }
+
+        public List<TransactionEntry> entries() {
+            return byMerchant.values().stream()
+                    .flatMap(window -> window.stream().sorted(AGE).map(Seen::entry))
+                    .toList();
+        }
+    }
+
+    /** Row-locks one merchant's pattern state, creating it first if needed. Needs a transaction. */
+    MerchantPatternState lockPatternState(UUID userId, String merchantKey) {
+        patternStateRepository.insertIfAbsent(userId, merchantKey);
+        return patternStateRepository.findForUpdate(userId, merchantKey)
+                .orElseThrow(() -> new IllegalStateException("Pattern state missing for merchant " + merchantKey));
+    }
+
+    /**
+     * Replaces a locked state's window with the merchant's newest expenses
+     * (any order; only the latest {@link #PATTERN_WINDOW} are kept) and
+     * re-evaluates it. Used to seed history recorded before incremental detection.
+     */
+    void rebuildPattern(MerchantPatternState state, List<TransactionEntry> expenses) {
+        List<TransactionEntry> sorted = expenses.stream()
+                .filter(SubscriptionDetectorService::isPatternCandidate)
+                .sorted(Comparator.comparing(TransactionEntry::getCreatedAt))
+                .toList();
+        List<TransactionEntry> window = sorted.subList(Math.max(0, sorted.size() - PATTERN_WINDOW), sorted.size());
+        List<Occurrence> occurrences = new ArrayList<>(PATTERN_WINDOW + 1);
+        for (TransactionEntry e : window) {
+            occurrences.add(new Occurrence(e.getCreatedAt().toLocalDate(), e.getAmount()));
+        }
+        if (!window.isEmpty()) {
+            state.setLastName(window.getLast().getName());
+            state.setCurrency(window.getLast().getCurrency());
+        }
+        reevaluate(state, occurrences);
+    }
+
+    /** Reverses {@link #onExpenseRecorded} for a deleted expense. */
+    @Transactional
+    public void onExpenseRemoved(TransactionEntry entry) {
+        if (!isPatternCandidate(entry)) return;
+        onExpenseRemoved(entry.getUserId(), entry.getName(), entry.getCreatedAt().toLocalDate(), entry.getAmount());
+    }
+
+    /** Same as {@link #onExpenseRemoved(TransactionEntry)} for callers holding only the key fields. */
+    @Transactional
+    public void onExpenseRemoved(UUID userId, String name, LocalDate date, BigDecimal amount) {
+        Optional<MerchantPatternState> locked = patternStateRepository
+                .findForUpdate(userId, merchantKey(name));
+        if (locked.isEmpty()) return;
+        MerchantPatternState state = locked.get();
+
+        List<Occurrence> occurrences = decodeOccurrences(state.getRecentOccurrences());
+        int match = -1;
+        for (int i = 0; i < occurrences.size(); i++) {
+            Occurrence o = occurrences.get(i);
+            if (o.date().equals(date) && o.amount().compareTo(amount) == 0) {
+                match = i;
+                break;
+            }
+        }
+        if (match < 0) return; // older than the window — cannot affect the current pattern
+        occurrences.remove(match);
+        reevaluate(state, occurrences);
+    }
+
+    /** Applies an edit as remove-old + record-new when a pattern-relevant field changed. */
+    @Transactional
+    public void onExpenseUpdated(TransactionEntry before, TransactionEntry after) {
+        boolean unchanged = before.getType() == after.getType()
+                && Objects.equals(before.getName(), after.getName())
+                && Objects.equals(before.getCreatedAt(), after.getCreatedAt())
+                && before.getAmount().compareTo(after.getAmount()) == 0;
+        if (unchanged) return;
+        onExpenseRemoved(before);
+        onExpenseRecorded(after);
+    }
+
+    private void reevaluate(MerchantPatternState state, List<Occurrence> occurrences) {
+        state.setRecentOccurrences(encodeOccurrences(occurrences));
+        if (occurrences.isEmpty()) {
+            state.setAmountMin(null);
+            state.setAmountMax(null);
+            state.setLastAmount(null);
+        } else {
+            state.setAmountMin(occurrences.stream().map(Occurrence::amount).min(Comparator.naturalOrder()).orElseThrow());
+            state.setAmountMax(occurrences.stream().map(Occurrence::amount).max(Comparator.naturalOrder()).orElseThrow());
+            state.setLastAmount(occurrences.getLast().amount());
+        }
+
+        RecurringPeriod period = null;
+        if (occurrences.size() >= 2 && withinAmountBand(state.getAmountMin(), state.getAmountMax())) {
+            List<Long> gaps = new ArrayList<>();
+            for (int i = 1; i < occurrences.size(); i++) {
+                gaps.add(ChronoUnit.DAYS.between(occurrences.get(i - 1).date(), occurrences.get(i).date()));
+            }
+            period = detectPeriodFromGaps(gaps);
+        }
+        state.setCandidatePeriod(period);
+
+        if (period != null) {
+            Subscription sub = upsertSubscription(state.getUserId(), state.getLastName(), state.getLastAmount(),
+                    state.getCurrency(), period, occurrences.getLast().date());
+            if (state.getSubscriptionId() != null && !state.getSubscriptionId().equals(sub.getId())) {
+                // Price changed — the old (user, name, amount) row no longer describes this merchant
+                demote(state.getSubscriptionId());
+            }
+            state.setSubscriptionId(sub.getId());
+        } else if (state.getSubscriptionId() != null) {
+            demote(state.getSubscriptionId());
+            state.setSubscriptionId(null);
+        }
+        patternStateRepository.save(state);
+    }
+
+    private void demote(Long subscriptionId) {
+        subscriptionRepository.findById(subscriptionId)
+                .filter(Subscription::isActive)
+                // Explicitly recurring entries keep their subscription regardless of the pattern
+                .filter(sub -> !transactionRepository.existsByUserIdAndNameAndAmountAndRecurringTrueAndDeletedAtIsNull(
+                        sub.getUserId(), sub.getName(), sub.getAmount()))
+                .ifPresent(sub -> {
+                    sub.setActive(false);
+                    subscriptionRepository.save(sub);
+                    log.info("Subscription {} demoted: pattern no longer holds", sub.getId());
+                });
+    }
+
+    private static boolean isPatternCandidate(TransactionEntry entry) {
+        return entry.getType() == TransactionType.EXPENSE
+                && entry.getName() != null && entry.getAmount() != null && entry.getCreatedAt() != null;
+    }
+
+    /** Amounts within {@link #AMOUNT_BAND_TOLERANCE} of the band maximum count as one price. */
+    static boolean withinAmountBand(BigDecimal min, BigDecimal max) {
+        if (min == null || max == null) return false;
+        return max.subtract(min).compareTo(max.multiply(AMOUNT_BAND_TOLERANCE)) <= 0;
+    }
+
+    static String merchantKey(String name) {
+        String key = name.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+        return key.length() > 100 ? key.substring(0, 100) : key;
+    }
+
+    record Occurrence(LocalDate date, BigDecimal amount) {}
+
+    static List<Occurrence> decodeOccurrences(String encoded) {
+        List<Occurrence> result = new ArrayList<>(PATTERN_WINDOW + 1);
+        if (encoded == null || encoded.isEmpty()) return result;
+        for (String part : encoded.split(",")) {
+            int at = part.indexOf('@');
+            result.add(new Occurrence(LocalDate.parse(part.substring(0, at)), new BigDecimal(part.substring(at + 1))));
+        }
+        return result;
+    }
+
+    static String encodeOccurrences(List<Occurrence> occurrences) {
+        return occurrences.stream()
+                .map(o -> o.date() + "@" + o.amount().toPlainString())
+                .collect(Collectors.joining(","));
     }
 
     public List<SubscriptionResponse> getSubscriptionsForUser(UUID userId) {
@@ -121,37 +611,6 @@ public class SubscriptionDetectorService {
         }
     }
 
-    /**
-     * Detects subscription patterns: if the same (name, ~amount) appears ≥2 times
-     * within a consistent interval, treat it as a subscription.
-     */
-    void detectPatternBasedSubscriptions(UUID userId, List<TransactionEntry> transactions) {
-        // Group by name (case-insensitive)
-        Map<String, List<TransactionEntry>> byName = transactions.stream()
-                .collect(Collectors.groupingBy(t -> t.getName().toLowerCase()));
-
-        for (Map.Entry<String, List<TransactionEntry>> entry : byName.entrySet()) {
-            List<TransactionEntry> group = entry.getValue();
-            if (group.size() < 2) continue;
-
-            // Sort by date, then compute gaps
-            group.sort(Comparator.comparing(TransactionEntry::getCreatedAt));
-            List<Long> gaps = new ArrayList<>();
-            for (int i = 1; i < group.size(); i++) {
-                long days = ChronoUnit.DAYS.between(
-                        group.get(i - 1).getCreatedAt(), group.get(i).getCreatedAt());
-                gaps.add(days);
-            }
-
-            RecurringPeriod period = detectPeriodFromGaps(gaps);
-            if (period == null) continue; // not a consistent pattern
-
-            TransactionEntry last = group.getLast();
-            upsertSubscription(userId, last.getName(), last.getAmount(),
-                    last.getCurrency(), period, last.getCreatedAt().toLocalDate());
-        }
-    }
-
     /**
      * Detects if a list of day-gaps corresponds to WEEKLY (≈7), MONTHLY (≈30), or YEARLY (≈365).
      * Allows ±5 day tolerance.
@@ -187,7 +646,7 @@ public class SubscriptionDetectorService {
     }
 
     /** Insert or update a subscription record. */
-    private void upsertSubscription(UUID userId, String name, BigDecimal amount,
+    private Subscription upsertSubscription(UUID userId, String name, BigDecimal amount,
                                      String currency, RecurringPeriod period, LocalDate lastDate) {
         LocalDate nextCharge = calculateNextChargeDate(lastDate, period);
         int daysUntil = Math.max(0, (int) ChronoUnit.DAYS.between(LocalDate.now(), nextCharge));
@@ -206,7 +665,7 @@ public class SubscriptionDetectorService {
         sub.setActive(true);
         sub.setLastSeenAt(LocalDateTime.now());
 
-        subscriptionRepository.save(sub);
+        return subscriptionRepository.save(sub);
     }
 
     private SubscriptionResponse toResponse(Subscription s) {
@@ -1,11 +1,15 @@
 package com.finance.command.service;
 
+import com.finance.command.dto.BulkDeleteCandidateRow;
+import com.finance.command.dto.BulkDeleteResponse;
 import com.finance.command.dto.CreateEntryRequest;
 import com.finance.command.dto.CreateEntryResponse;
+import com.finance.command.dto.GoalAllocationTotalRow;
 import com.finance.command.dto.UpdateEntryRequest;
 import com.finance.command.model.TransactionEntry;
 import com.finance.command.model.TransactionType;
 import com.finance.command.repository.TransactionEntryRepository;
+import com.finance.command.repository.TransactionFilter;
 import com.finance.command.repository.OutboxEventRepository;
 import com.finance.command.model.OutboxEvent;
 import io.micrometer.core.instrument.Counter;
@@ -13,6 +17,7 @@ import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.cache.annotation.Cacheable;
@@ -23,11 +28,15 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import org.springframework.data.redis.core.StringRedisTemplate;
+import com.finance.command.scheduling.RecurringScheduleIndex;
 import java.time.Duration;
 
 @Slf4j
@@ -44,6 +53,9 @@ public class TransactionEntryService {
     private final com.finance.command.repository.TransactionGoalAllocationRepository allocationRepository;
     private final com.finance.command.cache.QueryCacheEvictor queryCacheEvictor;
     private final com.finance.command.repository.ExpenseTransactionLinkRepository transactionLinkRepo;
+    private final RecurringScheduleIndex recurringScheduleIndex;
+    private final SubscriptionDetectorService subscriptionDetector;
+    private final BudgetSpendTracker budgetSpendTracker;
 
     public TransactionEntryService(
             TransactionEntryRepository repository,
@@ -52,7 +64,10 @@ public class TransactionEntryService {
             GoalBudgetService goalBudgetService,
             com.finance.command.repository.TransactionGoalAllocationRepository allocationRepository,
             com.finance.command.cache.QueryCacheEvictor queryCacheEvictor,
-            com.finance.command.repository.ExpenseTransactionLinkRepository transactionLinkRepo
+            com.finance.command.repository.ExpenseTransactionLinkRepository transactionLinkRepo,
+            RecurringScheduleIndex recurringScheduleIndex,
+            SubscriptionDetectorService subscriptionDetector,
+            BudgetSpendTracker budgetSpendTracker
     ) {
         this.repository = repository;
         this.redisTemplate = redisTemplate;
@@ -63,6 +78,9 @@ public class TransactionEntryService {
         this.allocationRepository = allocationRepository;
         this.queryCacheEvictor = queryCacheEvictor;
         this.transactionLinkRepo = transactionLinkRepo;
+        this.recurringScheduleIndex = recurringScheduleIndex;
+        this.subscriptionDetector = subscriptionDetector;
+        this.budgetSpendTracker = budgetSpendTracker;
     }
 
     // ── Create ────────────────────────────────────────────────────────────────
@@ -73,15 +91,11 @@ public class TransactionEntryService {
 
     @Transactional
     public List<CreateEntryResponse> createBulkEntries(List<CreateEntryRequest> requests) {
-        List<CreateEntryResponse> responses = new ArrayList<>();
-        UUID userId = null;
-        for (CreateEntryRequest req : requests) {
-            if (userId == null) userId = req.getUserId();
-            responses.add(createEntry(req, null, false));
-        }
-        if (userId != null && !responses.isEmpty()) {
+        // Batched insert with one eviction per user; large statements should use /upsert/import
+        List<CreateEntryResponse> responses = createEntries(requests, false);
+        if (!responses.isEmpty()) {
             OutboxEvent event = new OutboxEvent();
-            event.setUserId(userId);
+            event.setUserId(responses.get(0).getUserId());
             event.setEventType("CREATE");
             event.setEntityId(responses.get(0).getId());
             outboxEventRepository.save(event);
@@ -112,6 +126,11 @@ public class TransactionEntryService {
         TransactionEntry entry = getTransactionEntry(request);
 
         TransactionEntry saved = repository.save(entry);
+        if (saved.isRecurring() && saved.getNextRunDate() != null) {
+            recurringScheduleIndex.scheduleAfterCommit(saved.getId(), saved.getNextRunDate());
+        }
+        subscriptionDetector.onExpenseRecorded(saved);
+        budgetSpendTracker.onExpenseCreated(saved);
         
         if (publishCacheEvict) {
             OutboxEvent event = new OutboxEvent();
@@ -143,6 +162,15 @@ public class TransactionEntryService {
                 .toList();
 
         List<TransactionEntry> saved = repository.saveAll(entries);
+        saved.stream()
+                .filter(s -> s.isRecurring() && s.getNextRunDate() != null)
+                .forEach(s -> recurringScheduleIndex.scheduleAfterCommit(s.getId(), s.getNextRunDate()));
+        saved.forEach(subscriptionDetector::onExpenseRecorded);
+        saved.stream()
+                .filter(s -> s.getType() == TransactionType.EXPENSE)
+                .collect(Collectors.groupingBy(TransactionEntry::getUserId, LinkedHashMap::new,
+                        Collectors.mapping(s -> BudgetSpendTracker.SpendDelta.of(s, s.getAmount()), Collectors.toList())))
+                .forEach(budgetSpendTracker::apply);
 
         if (publishCacheEvict) {
             List<OutboxEvent> events = saved.stream().map(s -> {
@@ -189,6 +217,15 @@ public class TransactionEntryService {
         return entry;
     }
 
+    /** Detached copy of the fields subscription pattern detection and budget tracking key on. */
+    private static TransactionEntry patternSnapshot(TransactionEntry entry) {
+        TransactionEntry copy = new TransactionEntry(entry.getUserId(), entry.getName(),
+                entry.getAmount(), entry.getType(), entry.getCurrency());
+        copy.setCreatedAt(entry.getCreatedAt());
+        copy.setCategory(entry.getCategory());
+        return copy;
+    }
+
     public static LocalDateTime calculateNextRunDate(LocalDateTime from, com.finance.command.model.RecurringPeriod period) {
         if (period == null) return null;
         LocalDateTime next = switch (period) {
@@ -214,6 +251,7 @@ public class TransactionEntryService {
         }
         BigDecimal oldAmount = existing.getAmount();
         BigDecimal diff = request.getAmount().subtract(oldAmount);
+        TransactionEntry before = patternSnapshot(existing);
 
         existing.setName(request.getName());
         existing.setAmount(request.getAmount());
@@ -221,6 +259,8 @@ public class TransactionEntryService {
         existing.setCurrency(request.getCurrency());
         existing.setDescription(request.getDescription());
         existing.setCategory(request.getCategory());
+        boolean scheduleChanged = existing.isRecurring() != request.isRecurring()
+                || existing.getRecurringPeriod() != request.getRecurringPeriod();
         existing.setRecurring(request.isRecurring());
         existing.setRecurringPeriod(request.getRecurringPeriod());
         
@@ -228,8 +268,19 @@ public class TransactionEntryService {
             existing.setCreatedAt(request.getCreatedAt());
         }
         existing.setReceiptUrl(request.getReceiptUrl());
+
+        if (scheduleChanged) {
+            existing.setNextRunDate(request.isRecurring()
+                    ? calculateNextRunDate(LocalDateTime.now(), request.getRecurringPeriod())
+                    : null);
+        }
         
         TransactionEntry updated = repository.save(existing);
+        if (scheduleChanged) {
+            recurringScheduleIndex.scheduleAfterCommit(updated.getId(), updated.getNextRunDate());
+        }
+        subscriptionDetector.onExpenseUpdated(before, updated);
+        budgetSpendTracker.onExpenseUpdated(before, updated);
         
         if (diff.compareTo(BigDecimal.ZERO) != 0) {
             java.util.Optional<com.finance.command.model.TransactionGoalAllocation> allocationOpt = allocationRepository.findByTransactionId(updated.getId());
@@ -265,9 +316,12 @@ public class TransactionEntryService {
                         "Transaction entry with ID " + id + " not found for user " + userId));
         BigDecimal oldAmount = entry.getAmount();
         BigDecimal diff = newAmount.subtract(oldAmount);
+        TransactionEntry before = patternSnapshot(entry);
 
         entry.setAmount(newAmount);
         TransactionEntry saved = repository.save(entry);
+        subscriptionDetector.onExpenseUpdated(before, saved);
+        budgetSpendTracker.onExpenseUpdated(before, saved);
         
         if (diff.compareTo(BigDecimal.ZERO) != 0) {
             java.util.Optional<com.finance.command.model.TransactionGoalAllocation> allocationOpt = allocationRepository.findByTransactionId(saved.getId());
@@ -326,6 +380,11 @@ public class TransactionEntryService {
         
         entry.setDeletedAt(LocalDateTime.now());
         repository.save(entry);
+        if (entry.isRecurring()) {
+            recurringScheduleIndex.removeAfterCommit(id);
+        }
+        subscriptionDetector.onExpenseRemoved(entry);
+        budgetSpendTracker.onExpenseRemoved(entry);
         
         OutboxEvent event = new OutboxEvent();
         event.setUserId(userId);
@@ -339,6 +398,85 @@ public class TransactionEntryService {
         log.info("Transaction deleted: id={}, user={}", id, userId);
     }
 
+    /**
+     * Set-based soft delete: one ownership/link check, one UPDATE, goal
+     * allocations reverted per goal, one outbox event and one cache eviction.
+     * Invalid IDs are reported per ID instead of failing the whole request.
+     */
+    public BulkDeleteResponse bulkDelete(List<Long> ids, UUID userId) {
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        if (requested.isEmpty()) {
+            return new BulkDeleteResponse(0, List.of());
+        }
+
+        Map<Long, BulkDeleteResponse.Status> outcome = new LinkedHashMap<>();
+        requested.forEach(id -> outcome.put(id, BulkDeleteResponse.Status.NOT_FOUND));
+
+        Map<Long, BulkDeleteCandidateRow> deletable = new LinkedHashMap<>();
+        for (BulkDeleteCandidateRow row : repository.findBulkDeleteCandidates(requested)) {
+            if (!row.getUserId().equals(userId)) {
+                outcome.put(row.getId(), BulkDeleteResponse.Status.FORBIDDEN);
+            } else if (row.getLinkCount() > 0) {
+                outcome.put(row.getId(), BulkDeleteResponse.Status.GROUP_MANAGED);
+            } else {
+                deletable.put(row.getId(), row);
+            }
+        }
+
+        List<Long> deleted = deletable.isEmpty() ? List.of()
+                : repository.softDeleteAll(deletable.keySet().toArray(Long[]::new), userId, LocalDateTime.now());
+        if (deleted.isEmpty()) {
+            return new BulkDeleteResponse(0, toResults(outcome));
+        }
+        deleted.forEach(id -> outcome.put(id, BulkDeleteResponse.Status.DELETED));
+
+        // Revert goal allocations, summed per goal, in one atomic UPDATE
+        Map<Long, BigDecimal> goalDeltas = new LinkedHashMap<>();
+        for (GoalAllocationTotalRow alloc : allocationRepository.sumByGoalForTransactions(deleted)) {
+            goalDeltas.put(alloc.getGoalId(), alloc.getTotal().negate());
+        }
+        try {
+            goalBudgetService.adjustGoalSavedAmounts(userId, goalDeltas);
+        } catch (Exception e) {
+            log.warn("Failed to revert goal allocations for user {}: {}", userId, e.getMessage());
+        }
+
+        List<BudgetSpendTracker.SpendDelta> spendDeltas = new ArrayList<>();
+        for (Long id : deleted) {
+            BulkDeleteCandidateRow row = deletable.get(id);
+            if (Boolean.TRUE.equals(row.getRecurring())) {
+                recurringScheduleIndex.removeAfterCommit(id);
+            }
+            if (row.getType() == TransactionType.EXPENSE && row.getName() != null && row.getCreatedAt() != null) {
+                subscriptionDetector.onExpenseRemoved(userId, row.getName(),
+                        row.getCreatedAt().toLocalDate(), row.getAmount());
+            }
+            if (row.getType() == TransactionType.EXPENSE) {
+                spendDeltas.add(new BudgetSpendTracker.SpendDelta(row.getCategory(), row.getCreatedAt(),
+                        row.getAmount().negate()));
+            }
+        }
+        budgetSpendTracker.apply(userId, spendDeltas);
+
+        OutboxEvent event = new OutboxEvent();
+        event.setUserId(userId);
+        event.setEventType("BULK_DELETE");
+        event.setEntityId((long) deleted.size());
+        outboxEventRepository.save(event);
+
+        deleteCounter.increment(deleted.size());
+        queryCacheEvictor.evictUserKeysWithReplicationGuard(userId);
+
+        log.info("Bulk delete: {} of {} entries deleted for user={}", deleted.size(), requested.size(), userId);
+        return new BulkDeleteResponse(deleted.size(), toResults(outcome));
+    }
+
+    private static List<BulkDeleteResponse.Result> toResults(Map<Long, BulkDeleteResponse.Status> outcome) {
+        List<BulkDeleteResponse.Result> results = new ArrayList<>(outcome.size());
+        outcome.forEach((id, status) -> results.add(new BulkDeleteResponse.Result(id, status)));
+        return results;
+    }
+
     // ── Read — single entry & goal contributions ──────────────────────────────
 
     @Transactional(readOnly = true)
@@ -367,7 +505,9 @@ public class TransactionEntryService {
         LocalDateTime start = startDate != null ? startDate.atStartOfDay()          : null;
         LocalDateTime end   = endDate   != null ? endDate.atTime(23, 59, 59) : null;
 
-        return repository.findByUserIdAndFilters(userId, type, start, end, PageRequest.of(page, size));
+        return repository.findAll(
+                TransactionFilter.forUser(userId).withType(type).between(start, end).toSpecification(),
+                PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt")));
     }
 
     // ── Read — search ─────────────────────────────────────────────────────────
@@ -0,0 +1,112 @@
+package com.finance.command.service;
+
+import com.finance.command.shard.ShardContext;
+import com.finance.command.shard.ShardMap;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the monthly partitions of {@code finance.transaction_entries} ahead of
+ * the calendar and, if a retention is configured, detaches the oldest ones.
+ *
+ * The partition DDL lives in SQL functions installed by the V1 migration, so
+ * the job only decides which months to touch. Rows that land in the default
+ * partition (e.g. a month that wasn't created in time) are moved into their
+ * month when it is created. Detached partitions are kept as standalone
+ * tables for archiving; nothing is dropped.
+ */
+@Slf4j
+@Service
+public class TransactionPartitionMaintenance {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ShardMap shardMap;
+    private final int monthsAhead;
+    private final int retentionMonths;
+
+    public TransactionPartitionMaintenance(JdbcTemplate jdbcTemplate,
+                                           TransactionTemplate transactionTemplate,
+                                           MeterRegistry meterRegistry,
+                                           ShardMap shardMap,
+                                           @Value("${transactions.partitions.months-ahead:3}") int monthsAhead,
+                                           @Value("${transactions.partitions.retention-months:0}") int retentionMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.shardMap = shardMap;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        shardMap.shards().forEach(shard -> ShardContext.run(shard, () -> {
+            try {
+                createAhead(LocalDate.now(ZoneOffset.UTC));
+            } catch (Exception e) {
+                // Another instance may be creating the same month; the nightly run catches up
+                log.warn("Startup partition check failed on shard {}: {}", shard, e.getMessage());
+            }
+        }));
+    }
+
+    @Scheduled(cron = "${transactions.partitions.cron:0 15 2 * * *}", zone = "UTC")
+    @SchedulerLock(name = "maintainTransactionPartitions", lockAtLeastFor = "5m", lockAtMostFor = "30m")
+    public void maintain() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        // Each shard holds its own partitioned transaction_entries
+        shardMap.shards().forEach(shard -> ShardContext.run(shard, () -> {
+            createAhead(today);
+            if (retentionMonths > 0) {
+                detachBefore(today.withDayOfMonth(1).minusMonths(retentionMonths));
+            }
+        }));
+    }
+
+    /** Ensures partitions exist for the current month and {@code monthsAhead} after it. */
+    List<String> createAhead(LocalDate today) {
+        List<String> created = new ArrayList<>();
+        LocalDate month = today.withDayOfMonth(1);
+        for (int i = 0; i <= monthsAhead; i++) {
+            Date target = Date.valueOf(month.plusMonths(i));
+            // One transaction per month keeps the ACCESS EXCLUSIVE lock from ATTACH short
+            String name = transactionTemplate.execute(status -> jdbcTemplate.queryForObject(
+                    "SELECT finance.create_transaction_entries_partition(?)", String.class, target));
+            if (name != null) {
+                created.add(name);
+            }
+        }
+        if (!created.isEmpty()) {
+            meterRegistry.counter("transactions.partitions.created").increment(created.size());
+            log.info("Created transaction_entries partitions: {}", created);
+        }
+        return created;
+    }
+
+    /** Detaches every monthly partition that ends on or before {@code cutoff}. */
+    List<String> detachBefore(LocalDate cutoff) {
+        List<String> detached = transactionTemplate.execute(status -> jdbcTemplate.queryForList(
+                "SELECT finance.detach_transaction_entries_partitions(?)", String.class, Date.valueOf(cutoff)));
+        if (!detached.isEmpty()) {
+            meterRegistry.counter("transactions.partitions.detached").increment(detached.size());
+            log.info("Detached transaction_entries partitions older than {}: {}", cutoff, detached);
+        }
+        return detached;
+    }
+}
@@ -0,0 +1,166 @@
+package com.finance.command.shard;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Default {@link ShardMap}: a user lives on {@code mix(userId) mod hashShards}
+ * unless the rebalancer has moved them, in which case an override says where.
+ *
+ * Overrides and the set of users being moved are kept in Redis and mirrored in
+ * memory on every instance (command and query service read the same keys).
+ * Changes are announced on {@link #CHANGED_CHANNEL}; a periodic reload covers
+ * missed messages. With a single shard Redis is never consulted.
+ */
+@Slf4j
+@Component
+public class HashShardMap implements ShardMap {
+
+    static final String OVERRIDES_KEY = "finance:shard-map:v1:overrides";
+    static final String MIGRATING_KEY = "finance:shard-map:v1:migrating";
+    static final String CHANGED_CHANNEL = "finance:shard-map:v1:changed";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final int shardCount;
+    private final int hashShards;
+    private final int groupShard;
+
+    private volatile Map<UUID, Integer> overrides = Map.of();
+    private volatile Set<UUID> migrating = Set.of();
+
+    public HashShardMap(ShardingProperties properties,
+                        StringRedisTemplate redisTemplate,
+                        RedisMessageListenerContainer listenerContainer,
+                        MeterRegistry meterRegistry) {
+        if (properties.groupShard() < 0 || properties.groupShard() >= properties.shardCount()) {
+            throw new IllegalArgumentException("app.sharding.group-shard must name a configured shard");
+        }
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.shardCount = properties.shardCount();
+        this.hashShards = properties.effectiveHashShards();
+        this.groupShard = properties.groupShard();
+        meterRegistry.gauge("sharding.overrides", this, m -> m.overrides.size());
+    }
+
+    @PostConstruct
+    void start() {
+        if (shardCount == 1) {
+            return;
+        }
+        // Routing a moved user by hash would read and write the wrong shard: fail startup instead
+        reload();
+        listenerContainer.addMessageListener((message, pattern) -> reloadQuietly(), new ChannelTopic(CHANGED_CHANNEL));
+        log.info("Sharding enabled: {} shards, users hashed across {}, groups on shard {}, {} overrides",
+                shardCount, hashShards, groupShard, overrides.size());
+    }
+
+    // ── ShardMap ──────────────────────────────────────────────────────────────
+
+    @Override
+    public int shardCount() {
+        return shardCount;
+    }
+
+    @Override
+    public int shardFor(UUID userId) {
+        if (shardCount == 1) {
+            return ShardContext.DEFAULT_SHARD;
+        }
+        Integer moved = overrides.get(userId);
+        return moved != null ? moved : hashShard(userId, hashShards);
+    }
+
+    @Override
+    public int groupShard() {
+        return groupShard;
+    }
+
+    @Override
+    public boolean isMigrating(UUID userId) {
+        return migrating.contains(userId);
+    }
+
+    /** Stable across JVMs and releases — never change it without a full rebalance. */
+    static int hashShard(UUID userId, int shards) {
+        long h = userId.getMostSignificantBits() ^ userId.getLeastSignificantBits();
+        // SplitMix64 finalizer: UUIDv4 bits are random already, but spread any that aren't
+        h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+        h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+        h = h ^ (h >>> 31);
+        return (int) Math.floorMod(h, (long) shards);
+    }
+
+    // ── Rebalancer operations ─────────────────────────────────────────────────
+
+    void beginMigration(UUID userId) {
+        redisTemplate.opsForSet().add(MIGRATING_KEY, userId.toString());
+        announce();
+    }
+
+    /** Points the user at {@code shard} and lifts the write freeze in one announcement. */
+    void completeMigration(UUID userId, int shard) {
+        if (shard == hashShard(userId, hashShards)) {
+            redisTemplate.opsForHash().delete(OVERRIDES_KEY, userId.toString());
+        } else {
+            redisTemplate.opsForHash().put(OVERRIDES_KEY, userId.toString(), Integer.toString(shard));
+        }
+        redisTemplate.opsForSet().remove(MIGRATING_KEY, userId.toString());
+        announce();
+    }
+
+    void abortMigration(UUID userId) {
+        redisTemplate.opsForSet().remove(MIGRATING_KEY, userId.toString());
+        announce();
+    }
+
+    // ── Sync ──────────────────────────────────────────────────────────────────
+
+    @Scheduled(fixedDelayString = "${app.sharding.reload-interval:PT30S}")
+    void reloadQuietly() {
+        if (shardCount == 1) {
+            return;
+        }
+        try {
+            reload();
+        } catch (Exception e) {
+            // Keep the last known map; a missed update is picked up on the next reload
+            log.warn("Failed to reload shard map: {}", e.getMessage());
+        }
+    }
+
+    void reload() {
+        Map<UUID, Integer> loadedOverrides = new ConcurrentHashMap<>();
+        redisTemplate.opsForHash().entries(OVERRIDES_KEY).forEach((user, shard) -> {
+            int target = Integer.parseInt(shard.toString());
+            if (target < 0 || target >= shardCount) {
+                throw new IllegalStateException("Shard override for " + user + " names unknown shard " + target);
+            }
+            loadedOverrides.put(UUID.fromString(user.toString()), target);
+        });
+        Set<String> members = redisTemplate.opsForSet().members(MIGRATING_KEY);
+        Set<UUID> loadedMigrating = ConcurrentHashMap.newKeySet();
+        if (members != null) {
+            members.forEach(m -> loadedMigrating.add(UUID.fromString(m)));
+        }
+        overrides = loadedOverrides;
+        migrating = loadedMigrating;
+    }
+
+    private void announce() {
+        reload();
+        redisTemplate.convertAndSend(CHANGED_CHANNEL, "reload");
+    }
+}
@@ -0,0 +1,30 @@
+package com.finance.command.shard;
+
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+/**
+ * Decides which primary/replica pair owns a user's rows.
+ *
+ * User-scoped tables (transactions, budgets, goals, subscriptions, …) live on
+ * the user's shard; the groups schema lives entirely on {@link #groupShard()}.
+ */
+public interface ShardMap {
+
+    int shardCount();
+
+    int shardFor(UUID userId);
+
+    /** Home shard of every expense group, its members, splits and balances. */
+    int groupShard();
+
+    /**
+     * True while the user's rows are being copied to another shard; writes for
+     * the user are refused until the move completes.
+     */
+    boolean isMigrating(UUID userId);
+
+    default IntStream shards() {
+        return IntStream.range(0, shardCount());
+    }
+}
@@ -0,0 +1,169 @@
+package com.finance.command.shard;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Moves one user's rows to another shard while the service stays up.
+ *
+ *   1. Freeze  — the user is marked migrating; every instance starts refusing
+ *                their writes, and in-flight ones get {@code drain} to finish.
+ *   2. Copy    — leftovers of an earlier failed attempt are cleared from the
+ *                target, then rows are copied table by table, parents first,
+ *                in pages. Ids come from per-shard ranges, so they never collide.
+ *   3. Flip    — the override and the end of the freeze are announced together.
+ *   4. Cleanup — the source rows are deleted, children first.
+ *
+ * Reads keep hitting the source until the flip, and the source copy is
+ * complete until cleanup, so readers never see a partial user. A failure
+ * before the flip deletes whatever was copied to the target, lifts the freeze
+ * and leaves the source authoritative.
+ */
+@Slf4j
+@Service
+public class ShardRebalancer {
+
+    private static final int PAGE_SIZE = 1000;
+
+    /** Copy order — parents before children; deletes run in reverse. */
+    private static final List<OwnedTable> TABLES = List.of(
+            new OwnedTable("finance.transaction_entries", "user_id = ?"),
+            new OwnedTable("finance.savings_goals", "user_id = ?"),
+            new OwnedTable("finance.transaction_goal_allocations",
+                    "goal_id IN (SELECT id FROM finance.savings_goals WHERE user_id = ?)"),
+            new OwnedTable("finance.category_budgets", "user_id = ?"),
+            new OwnedTable("finance.budget_spend_counters",
+                    "budget_id IN (SELECT id FROM finance.category_budgets WHERE user_id = ?)"),
+            new OwnedTable("finance.subscriptions", "user_id = ?"),
+            new OwnedTable("finance.merchant_pattern_state", "user_id = ?"),
+            new OwnedTable("finance.idempotency_records", "user_id = ?"),
+            new OwnedTable("finance.outbox_events", "user_id = ?"));
+
+    private record OwnedTable(String name, String ownedBy) {}
+
+    public record MoveResult(UUID userId, int fromShard, int toShard, Map<String, Integer> copied) {}
+
+    private final HashShardMap shardMap;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration drain;
+    private final Counter movedCounter;
+
+    public ShardRebalancer(HashShardMap shardMap,
+                           JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           ShardingProperties properties,
+                           MeterRegistry meterRegistry) {
+        this.shardMap = shardMap;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.drain = properties.drain();
+        this.movedCounter = meterRegistry.counter("sharding.users.moved");
+    }
+
+    public MoveResult moveUser(UUID userId, int target) {
+        if (target < 0 || target >= shardMap.shardCount()) {
+            throw new IllegalArgumentException("Unknown shard " + target);
+        }
+        int source = shardMap.shardFor(userId);
+        if (source == target) {
+            throw new IllegalArgumentException("User " + userId + " already lives on shard " + target);
+        }
+        if (shardMap.isMigrating(userId)) {
+            throw new IllegalStateException("User " + userId + " is already being moved");
+        }
+
+        log.info("Moving user {} from shard {} to shard {}", userId, source, target);
+        shardMap.beginMigration(userId);
+        Map<String, Integer> copied;
+        try {
+            Thread.sleep(drain.toMillis());
+            // A copy that died mid-way, or whose cleanup failed, may have left rows the source has since changed
+            delete(userId, target);
+            copied = copy(userId, source, target);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abort(userId, target);
+            throw new IllegalStateException("Interrupted while moving user " + userId, e);
+        } catch (RuntimeException e) {
+            abort(userId, target);
+            throw e;
+        }
+        shardMap.completeMigration(userId, target);
+        movedCounter.increment();
+
+        try {
+            delete(userId, source);
+        } catch (RuntimeException e) {
+            // The user already reads and writes the target; leftovers are invisible and safe to purge by hand
+            log.error("User {} moved to shard {} but source cleanup on shard {} failed", userId, target, source, e);
+        }
+        log.info("Moved user {} from shard {} to shard {}: {}", userId, source, target, copied);
+        return new MoveResult(userId, source, target, copied);
+    }
+
+    private void abort(UUID userId, int target) {
+        try {
+            delete(userId, target);
+        } catch (RuntimeException e) {
+            // The next attempt clears the target before copying
+            log.warn("Could not remove user {}'s partial copy from shard {}", userId, target, e);
+        }
+        shardMap.abortMigration(userId);
+    }
+
+    /** Deletes the user's rows from one shard, children first. */
+    private void delete(UUID userId, int shard) {
+        ShardContext.run(shard, () -> transactionTemplate.executeWithoutResult(status ->
+                TABLES.reversed().forEach(t ->
+                        jdbcTemplate.update("DELETE FROM " + t.name() + " WHERE " + t.ownedBy(), userId))));
+    }
+
+    // ── Copy ──────────────────────────────────────────────────────────────────
+
+    private Map<String, Integer> copy(UUID userId, int source, int target) {
+        Map<String, Integer> copied = new LinkedHashMap<>();
+        for (OwnedTable table : TABLES) {
+            int rows = 0;
+            long afterId = Long.MIN_VALUE;
+            while (true) {
+                long after = afterId;
+                // Read-write transaction: the freeze only holds on the primary, a replica may still lag behind it
+                List<Map<String, Object>> page = ShardContext.call(source, () -> transactionTemplate.execute(status ->
+                        jdbcTemplate.queryForList("SELECT * FROM " + table.name()
+                                + " WHERE " + table.ownedBy() + " AND id > ? ORDER BY id LIMIT " + PAGE_SIZE,
+                                userId, after)));
+                if (page == null || page.isEmpty()) {
+                    break;
+                }
+                ShardContext.run(target, () -> transactionTemplate.executeWithoutResult(status ->
+                        insert(table.name(), page)));
+                rows += page.size();
+                afterId = ((Number) page.getLast().get("id")).longValue();
+            }
+            copied.put(table.name(), rows);
+        }
+        return copied;
+    }
+
+    private void insert(String table, List<Map<String, Object>> rows) {
+        List<String> columns = new ArrayList<>(rows.getFirst().keySet());
+        String sql = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+                + String.join(", ", columns.stream().map(c -> "?").toList()) + ")";
+        jdbcTemplate.batchUpdate(sql, rows.stream()
+                .map(row -> columns.stream().map(row::get).toArray())
+                .toList());
+    }
+}
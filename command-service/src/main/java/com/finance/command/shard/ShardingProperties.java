@@ -0,0 +1,40 @@
+package com.finance.command.shard;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * {@code app.sharding.*}. Shard 0 is always the {@code app.datasource.write/read}
+ * pair; {@code shards} lists the additional pairs as shards 1..N.
+ *
+ * @param shards       additional primary/replica pairs
+ * @param hashShards   how many shards (0..hashShards-1) new users are hashed across;
+ *                     0 means all of them. Raising it re-homes existing users, so new
+ *                     shards are normally filled with the rebalancer instead.
+ * @param groupShard   home shard of the groups schema
+ * @param drain        how long a user's writes are refused before their rows are copied
+ */
+@ConfigurationProperties("app.sharding")
+public record ShardingProperties(@DefaultValue List<Shard> shards,
+                                 @DefaultValue("0") int hashShards,
+                                 @DefaultValue("0") int groupShard,
+                                 @DefaultValue("PT5S") Duration drain) {
+
+    public record Shard(Pool write, Pool read) {}
+
+    public record Pool(String jdbcUrl,
+                       String username,
+                       String password,
+                       @DefaultValue("10") int maximumPoolSize) {}
+
+    public int shardCount() {
+        return 1 + shards.size();
+    }
+
+    public int effectiveHashShards() {
+        return hashShards > 0 ? Math.min(hashShards, shardCount()) : shardCount();
+    }
+}
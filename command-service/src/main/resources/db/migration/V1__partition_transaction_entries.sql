@@ -0,0 +1,174 @@
+-- Monthly range partitioning of finance.transaction_entries on created_at.
+--
+-- Layout after this migration:
+--   transaction_entries_history   [MINVALUE, first month)  rows that predate partitioning
+--   transaction_entries_yYYYYmMM  one per month             created ahead by TransactionPartitionMaintenance
+--   transaction_entries_default   DEFAULT                   safety net; rows are moved out when their month is created
+--
+-- The primary key becomes (id, created_at) because a partitioned table's unique
+-- constraints must include the partition key. ids still come from
+-- transaction_entries_id_seq and stay unique; JPA keeps mapping id alone.
+--
+-- An existing heap table (including one Hibernate just created on a fresh
+-- database) is converted in place; if the table is missing it is created here.
+
+CREATE SCHEMA IF NOT EXISTS finance;
+
+-- ── Partition helpers (also called by TransactionPartitionMaintenance) ─────────
+
+-- Creates the partition for the month containing p_month, moving any of its rows
+-- out of the default partition first. Returns the new partition name, or NULL
+-- if it already existed.
+CREATE OR REPLACE FUNCTION finance.create_transaction_entries_partition(p_month date)
+RETURNS text LANGUAGE plpgsql AS $$
+DECLARE
+    v_from date := date_trunc('month', p_month)::date;
+    v_to   date := (date_trunc('month', p_month) + interval '1 month')::date;
+    v_name text := format('transaction_entries_y%sm%s', to_char(v_from, 'YYYY'), to_char(v_from, 'MM'));
+BEGIN
+    IF to_regclass('finance.' || v_name) IS NOT NULL THEN
+        RETURN NULL;
+    END IF;
+
+    EXECUTE format('CREATE TABLE finance.%I (LIKE finance.transaction_entries INCLUDING DEFAULTS INCLUDING CONSTRAINTS)',
+                   v_name);
+    -- Attaching while the default partition holds rows of this range would fail
+    IF to_regclass('finance.transaction_entries_default') IS NOT NULL THEN
+        EXECUTE format('WITH moved AS (DELETE FROM finance.transaction_entries_default
+                                        WHERE created_at >= %L AND created_at < %L RETURNING *)
+                        INSERT INTO finance.%I SELECT * FROM moved', v_from, v_to, v_name);
+    END IF;
+    EXECUTE format('ALTER TABLE finance.transaction_entries ATTACH PARTITION finance.%I FOR VALUES FROM (%L) TO (%L)',
+                   v_name, v_from, v_to);
+    RETURN v_name;
+END
+$$;
+
+-- Detaches monthly partitions that end on or before p_before and returns their
+-- names. Detached tables keep their rows as standalone archives; the history
+-- partition is never detached automatically.
+CREATE OR REPLACE FUNCTION finance.detach_transaction_entries_partitions(p_before date)
+RETURNS SETOF text LANGUAGE plpgsql AS $$
+DECLARE
+    r record;
+BEGIN
+    FOR r IN
+        SELECT c.relname
+          FROM pg_inherits i
+          JOIN pg_class c ON c.oid = i.inhrelid
+         WHERE i.inhparent = 'finance.transaction_entries'::regclass
+           AND c.relname ~ '^transaction_entries_y[0-9]{4}m[0-9]{2}$'
+           AND to_date(substr(c.relname, 21), '"y"YYYY"m"MM') + interval '1 month' <= p_before
+         ORDER BY c.relname
+    LOOP
+        EXECUTE format('ALTER TABLE finance.transaction_entries DETACH PARTITION finance.%I', r.relname);
+        RETURN NEXT r.relname;
+    END LOOP;
+END
+$$;
+
+-- ── Convert or create ───────────────────────────────────────────────────────────
+
+DO $$
+DECLARE
+    v_boundary date := date_trunc('month', now())::date;
+    v_kind     "char";
+    v_seq      text;
+    v_next     bigint;
+    r          record;
+BEGIN
+    SELECT c.relkind INTO v_kind
+      FROM pg_class c
+      JOIN pg_namespace n ON n.oid = c.relnamespace
+     WHERE n.nspname = 'finance' AND c.relname = 'transaction_entries';
+
+    IF v_kind = 'p' THEN
+        RETURN;
+    END IF;
+
+    IF v_kind = 'r' THEN
+        -- The id sequence may be owned by an identity/serial column; detach it so it
+        -- outlives the column and continues past the highest existing id.
+        v_seq := pg_get_serial_sequence('finance.transaction_entries', 'id');
+        IF v_seq IS NOT NULL THEN
+            EXECUTE format('SELECT last_value FROM %s', v_seq) INTO v_next;
+            SELECT GREATEST(v_next, COALESCE(max(id), 0)) + 50 INTO v_next FROM finance.transaction_entries;
+            IF EXISTS (SELECT 1 FROM information_schema.columns
+                        WHERE table_schema = 'finance' AND table_name = 'transaction_entries'
+                          AND column_name = 'id' AND is_identity = 'YES') THEN
+                ALTER TABLE finance.transaction_entries ALTER COLUMN id DROP IDENTITY;
+            ELSE
+                ALTER TABLE finance.transaction_entries ALTER COLUMN id DROP DEFAULT;
+                EXECUTE format('DROP SEQUENCE %s', v_seq);
+            END IF;
+            CREATE SEQUENCE finance.transaction_entries_id_seq INCREMENT BY 50;
+            PERFORM setval('finance.transaction_entries_id_seq', v_next);
+        END IF;
+
+        -- A foreign key can't target (id) alone on a partitioned table; allocations
+        -- and split links keep referencing ids, enforced by the application.
+        FOR r IN SELECT conname, conrelid::regclass AS tbl
+                   FROM pg_constraint
+                  WHERE contype = 'f' AND confrelid = 'finance.transaction_entries'::regclass
+        LOOP
+            EXECUTE format('ALTER TABLE %s DROP CONSTRAINT %I', r.tbl, r.conname);
+        END LOOP;
+
+        ALTER TABLE finance.transaction_entries RENAME TO transaction_entries_history;
+        -- Free index names (schema-wide) for the partitioned parent
+        FOR r IN SELECT c.relname
+                   FROM pg_index i
+                   JOIN pg_class c ON c.oid = i.indexrelid
+                  WHERE i.indrelid = 'finance.transaction_entries_history'::regclass
+        LOOP
+            EXECUTE format('ALTER INDEX finance.%I RENAME TO %I', r.relname, left(r.relname, 54) || '_history');
+        END LOOP;
+
+        CREATE TABLE finance.transaction_entries
+            (LIKE finance.transaction_entries_history INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+            PARTITION BY RANGE (created_at);
+        ALTER TABLE finance.transaction_entries ADD PRIMARY KEY (id, created_at);
+
+        -- Validating first lets ATTACH skip its own full scan of the old rows
+        EXECUTE format('ALTER TABLE finance.transaction_entries_history
+                            ADD CONSTRAINT transaction_entries_history_bound CHECK (created_at < %L) NOT VALID',
+                       v_boundary);
+        ALTER TABLE finance.transaction_entries_history VALIDATE CONSTRAINT transaction_entries_history_bound;
+        EXECUTE format('ALTER TABLE finance.transaction_entries ATTACH PARTITION finance.transaction_entries_history
+                            FOR VALUES FROM (MINVALUE) TO (%L)', v_boundary);
+    ELSE
+        CREATE TABLE finance.transaction_entries (
+            id               bigint        NOT NULL,
+            user_id          uuid          NOT NULL,
+            name             varchar(100)  NOT NULL,
+            amount           numeric(38,2) NOT NULL,
+            type             varchar(255)  NOT NULL,
+            category         varchar(255)  NOT NULL,
+            currency         varchar(3)    NOT NULL,
+            description      varchar(500),
+            created_at       timestamp(6)  NOT NULL,
+            updated_at       timestamp(6),
+            recurring        boolean       NOT NULL DEFAULT false,
+            recurring_period varchar(20),
+            next_run_date    timestamp(6),
+            deleted_at       timestamp(6),
+            receipt_url      varchar(500),
+            PRIMARY KEY (id, created_at)
+        ) PARTITION BY RANGE (created_at);
+        EXECUTE format('CREATE TABLE finance.transaction_entries_history PARTITION OF finance.transaction_entries
+                            FOR VALUES FROM (MINVALUE) TO (%L)', v_boundary);
+    END IF;
+
+    CREATE SEQUENCE IF NOT EXISTS finance.transaction_entries_id_seq INCREMENT BY 50;
+    ALTER TABLE finance.transaction_entries ALTER COLUMN id SET DEFAULT nextval('finance.transaction_entries_id_seq');
+
+    -- Same definitions as the entity's @Index entries; existing history indexes are adopted, not rebuilt
+    CREATE INDEX IF NOT EXISTS idx_transaction_user_deleted ON finance.transaction_entries (user_id, deleted_at);
+    CREATE INDEX IF NOT EXISTS idx_transaction_user_type_created ON finance.transaction_entries (user_id, type, created_at);
+
+    CREATE TABLE finance.transaction_entries_default PARTITION OF finance.transaction_entries DEFAULT;
+    FOR i IN 0..3 LOOP
+        PERFORM finance.create_transaction_entries_partition((v_boundary + make_interval(months => i))::date);
+    END LOOP;
+END
+$$;
@@ -0,0 +1,21 @@
+-- Indexes behind the analytics and outbox read paths.
+--
+-- Almost every transaction query filters on deleted_at IS NULL, so the main
+-- index is partial: soft-deleted rows never enter it. INCLUDE carries the
+-- columns the aggregations read (type, category, amount), letting per-user,
+-- date-bounded sums run as index-only scans. Created on the partitioned parent,
+-- so every existing and future monthly partition gets its own copy.
+
+CREATE INDEX IF NOT EXISTS idx_transaction_active_user_created
+    ON finance.transaction_entries (user_id, created_at)
+    INCLUDE (type, category, amount)
+    WHERE deleted_at IS NULL;
+
+-- created_at correlates with physical insert order, so a BRIN index answers
+-- wide date-range scans (reports, maintenance) for a few pages per partition.
+CREATE INDEX IF NOT EXISTS idx_transaction_created_brin
+    ON finance.transaction_entries USING brin (created_at);
+
+-- OutboxProcessor polls findByStatusOrderByCreatedAtAsc(PENDING)
+CREATE INDEX IF NOT EXISTS idx_outbox_events_status_created
+    ON finance.outbox_events (status, created_at);
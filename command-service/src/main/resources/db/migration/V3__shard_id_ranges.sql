@@ -0,0 +1,26 @@
+-- Gives every shard its own id range: shard n draws ids from n * 2^48 upwards.
+--
+-- The rebalancer copies a user's rows between shards with their ids intact, so
+-- ids must never collide across shards. Shard 0 keeps its existing sequences;
+-- ${shard_id} is set per shard by Flyway (FlywayConfig / ShardSchemaInitializer).
+-- Identity columns are backed by sequences too and are covered by the same loop.
+
+DO $$
+DECLARE
+    v_floor bigint := ${shard_id}::bigint << 48;
+    r       record;
+BEGIN
+    IF v_floor = 0 THEN
+        RETURN;
+    END IF;
+    FOR r IN
+        SELECT schemaname, sequencename, COALESCE(last_value, 0) AS last_value
+          FROM pg_sequences
+         WHERE schemaname IN ('finance', 'groups', 'activity')
+    LOOP
+        IF r.last_value < v_floor THEN
+            EXECUTE format('SELECT setval(%L, %s)', r.schemaname || '.' || r.sequencename, v_floor);
+        END IF;
+    END LOOP;
+END
+$$;
@@ -0,0 +1,469 @@
+-- Stores enum and currency columns as smallint codes instead of varchar names.
+--
+-- A coded enum is two bytes in place of a 5-25 byte string, so rows, the
+-- INCLUDE (type, category, amount) analytics index and every index on these
+-- columns shrink, and filters / GROUP BYs compare integers instead of collated
+-- text. Codes are defined on the Java enums (CodedEnum) and never change; the
+-- arrays below list each enum's labels in code order, code = position.
+--
+-- Currencies are packed from their three letters (CurrencyCodes in Java,
+-- finance.currency_code() here), so no lookup is needed to read or write
+-- them and all shards agree. finance.currencies is the dictionary for people
+-- and reports joining from a code back to the ISO currency.
+--
+-- Every column is converted only while it is still text: on a fresh database
+-- Hibernate has already created smallint columns and this is a no-op. Each
+-- table is rewritten once (all its columns in one ALTER TABLE) under an
+-- ACCESS EXCLUSIVE lock, so larger installations should run it off-peak.
+-- Detached transaction_entries archives (V1) keep their old text layout.
+
+-- ── Currency codes & dictionary ─────────────────────────────────────────────────
+
+-- 'AAA' = 1 ... 'ZZZ' = 17576; NULL for anything that isn't three letters
+CREATE OR REPLACE FUNCTION finance.currency_code(p_alpha text)
+RETURNS smallint LANGUAGE sql IMMUTABLE STRICT AS $$
+    SELECT ((ascii(substr(u, 1, 1)) - 65) * 676
+          + (ascii(substr(u, 2, 1)) - 65) * 26
+          + (ascii(substr(u, 3, 1)) - 65) + 1)::smallint
+    FROM (SELECT upper(p_alpha) AS u) v
+    WHERE v.u ~ '^[A-Z]{3}$'
+$$;
+
+CREATE OR REPLACE FUNCTION finance.currency_alpha(p_code smallint)
+RETURNS text LANGUAGE sql IMMUTABLE STRICT AS $$
+    SELECT chr(65 + (p_code - 1) / 676) || chr(65 + (p_code - 1) / 26 % 26) || chr(65 + (p_code - 1) % 26)
+    WHERE p_code BETWEEN 1 AND 17576
+$$;
+
+CREATE TABLE IF NOT EXISTS finance.currencies (
+    code        smallint PRIMARY KEY,
+    alpha_code  char(3)  NOT NULL UNIQUE,
+    iso_numeric smallint,
+    minor_units smallint,
+    name        text     NOT NULL
+);
+
+-- ISO 4217 as shipped with the JDK; codes outside this list still round-trip
+INSERT INTO finance.currencies (code, alpha_code, iso_numeric, minor_units, name)
+SELECT finance.currency_code(v.alpha_code), v.alpha_code, NULLIF(v.iso_numeric, 0), NULLIF(v.minor_units, -1), v.name
+FROM (VALUES
+    ('ADP', 20, 0, 'Andorran Peseta'),
+    ('AED', 784, 2, 'United Arab Emirates Dirham'),
+    ('AFA', 4, 2, 'Afghan Afghani (1927-2002)'),
+    ('AFN', 971, 2, 'Afghan Afghani'),
+    ('ALL', 8, 2, 'Albanian Lek'),
+    ('AMD', 51, 2, 'Armenian Dram'),
+    ('ANG', 532, 2, 'Netherlands Antillean Guilder'),
+    ('AOA', 973, 2, 'Angolan Kwanza'),
+    ('ARS', 32, 2, 'Argentine Peso'),
+    ('ATS', 40, 2, 'Austrian Schilling'),
+    ('AUD', 36, 2, 'Australian Dollar'),
+    ('AWG', 533, 2, 'Aruban Florin'),
+    ('AYM', 945, 2, 'AYM'),
+    ('AZM', 31, 2, 'Azerbaijani Manat (1993-2006)'),
+    ('AZN', 944, 2, 'Azerbaijan Manat'),
+    ('BAM', 977, 2, 'Bosnia-Herzegovina Convertible Mark'),
+    ('BBD', 52, 2, 'Barbadian Dollar'),
+    ('BDT', 50, 2, 'Bangladeshi Taka'),
+    ('BEF', 56, 0, 'Belgian Franc'),
+    ('BGL', 100, 2, 'Bulgarian Hard Lev'),
+    ('BGN', 975, 2, 'Bulgarian Lev'),
+    ('BHD', 48, 3, 'Bahraini Dinar'),
+    ('BIF', 108, 0, 'Burundian Franc'),
+    ('BMD', 60, 2, 'Bermudan Dollar'),
+    ('BND', 96, 2, 'Brunei Dollar'),
+    ('BOB', 68, 2, 'Bolivian Boliviano'),
+    ('BOV', 984, 2, 'Bolivian Mvdol'),
+    ('BRL', 986, 2, 'Brazilian Real'),
+    ('BSD', 44, 2, 'Bahamian Dollar'),
+    ('BTN', 64, 2, 'Bhutanese Ngultrum'),
+    ('BWP', 72, 2, 'Botswanan Pula'),
+    ('BYB', 112, 0, 'Belarusian Ruble (1994-1999)'),
+    ('BYN', 933, 2, 'Belarusian Ruble'),
+    ('BYR', 974, 0, 'Belarusian Ruble (2000-2016)'),
+    ('BZD', 84, 2, 'Belize Dollar'),
+    ('CAD', 124, 2, 'Canadian Dollar'),
+    ('CDF', 976, 2, 'Congolese Franc'),
+    ('CHE', 947, 2, 'CHE'),
+    ('CHF', 756, 2, 'Swiss Franc'),
+    ('CHW', 948, 2, 'CHW'),
+    ('CLF', 990, 4, 'Chilean Unit of Account (UF)'),
+    ('CLP', 152, 0, 'Chilean Peso'),
+    ('CNY', 156, 2, 'Chinese Yuan'),
+    ('COP', 170, 2, 'Colombian Peso'),
+    ('COU', 970, 2, 'COU'),
+    ('CRC', 188, 2, 'Costa Rican Colón'),
+    ('CSD', 891, 2, 'Serbian Dinar (2002-2006)'),
+    ('CUC', 931, 2, 'Cuban Convertible Peso'),
+    ('CUP', 192, 2, 'Cuban Peso'),
+    ('CVE', 132, 2, 'Cape Verdean Escudo'),
+    ('CYP', 196, 2, 'Cypriot Pound'),
+    ('CZK', 203, 2, 'Czech Republic Koruna'),
+    ('DEM', 276, 2, 'German Mark'),
+    ('DJF', 262, 0, 'Djiboutian Franc'),
+    ('DKK', 208, 2, 'Danish Krone'),
+    ('DOP', 214, 2, 'Dominican Peso'),
+    ('DZD', 12, 2, 'Algerian Dinar'),
+    ('EEK', 233, 2, 'Estonian Kroon'),
+    ('EGP', 818, 2, 'Egyptian Pound'),
+    ('ERN', 232, 2, 'Eritrean Nakfa'),
+    ('ESP', 724, 0, 'Spanish Peseta'),
+    ('ETB', 230, 2, 'Ethiopian Birr'),
+    ('EUR', 978, 2, 'Euro'),
+    ('FIM', 246, 2, 'Finnish Markka'),
+    ('FJD', 242, 2, 'Fijian Dollar'),
+    ('FKP', 238, 2, 'Falkland Islands Pound'),
+    ('FRF', 250, 2, 'French Franc'),
+    ('GBP', 826, 2, 'British Pound Sterling'),
+    ('GEL', 981, 2, 'Georgian Lari'),
+    ('GHC', 288, 2, 'Ghanaian Cedi (1979-2007)'),
+    ('GHS', 936, 2, 'Ghanaian Cedi'),
+    ('GIP', 292, 2, 'Gibraltar Pound'),
+    ('GMD', 270, 2, 'Gambian Dalasi'),
+    ('GNF', 324, 0, 'Guinean Franc'),
+    ('GRD', 300, 0, 'Greek Drachma'),
+    ('GTQ', 320, 2, 'Guatemalan Quetzal'),
+    ('GWP', 624, 2, 'Guinea-Bissau Peso'),
+    ('GYD', 328, 2, 'Guyanaese Dollar'),
+    ('HKD', 344, 2, 'Hong Kong Dollar'),
+    ('HNL', 340, 2, 'Honduran Lempira'),
+    ('HRK', 191, 2, 'Kuna'),
+    ('HTG', 332, 2, 'Haitian Gourde'),
+    ('HUF', 348, 2, 'Hungarian Forint'),
+    ('IDR', 360, 2, 'Indonesian Rupiah'),
+    ('IEP', 372, 2, 'Irish Pound'),
+    ('ILS', 376, 2, 'Israeli New Sheqel'),
+    ('INR', 356, 2, 'Indian Rupee'),
+    ('IQD', 368, 3, 'Iraqi Dinar'),
+    ('IRR', 364, 2, 'Iranian Rial'),
+    ('ISK', 352, 0, 'Icelandic Króna'),
+    ('ITL', 380, 0, 'Italian Lira'),
+    ('JMD', 388, 2, 'Jamaican Dollar'),
+    ('JOD', 400, 3, 'Jordanian Dinar'),
+    ('JPY', 392, 0, 'Japanese Yen'),
+    ('KES', 404, 2, 'Kenyan Shilling'),
+    ('KGS', 417, 2, 'Kyrgystani Som'),
+    ('KHR', 116, 2, 'Cambodian Riel'),
+    ('KMF', 174, 0, 'Comorian Franc'),
+    ('KPW', 408, 2, 'North Korean Won'),
+    ('KRW', 410, 0, 'South Korean Won'),
+    ('KWD', 414, 3, 'Kuwaiti Dinar'),
+    ('KYD', 136, 2, 'Cayman Islands Dollar'),
+    ('KZT', 398, 2, 'Kazakhstani Tenge'),
+    ('LAK', 418, 2, 'Lao Kip'),
+    ('LBP', 422, 2, 'Lebanese Pound'),
+    ('LKR', 144, 2, 'Sri Lankan Rupee'),
+    ('LRD', 430, 2, 'Liberian Dollar'),
+    ('LSL', 426, 2, 'Lesotho Loti'),
+    ('LTL', 440, 2, 'Lithuanian Litas'),
+    ('LUF', 442, 0, 'Luxembourgian Franc'),
+    ('LVL', 428, 2, 'Latvian Lats'),
+    ('LYD', 434, 3, 'Libyan Dinar'),
+    ('MAD', 504, 2, 'Moroccan Dirham'),
+    ('MDL', 498, 2, 'Moldovan Leu'),
+    ('MGA', 969, 2, 'Malagasy Ariary'),
+    ('MGF', 450, 0, 'Malagasy Franc'),
+    ('MKD', 807, 2, 'Macedonian Denar'),
+    ('MMK', 104, 2, 'Myanma Kyat'),
+    ('MNT', 496, 2, 'Mongolian Tugrik'),
+    ('MOP', 446, 2, 'Macanese Pataca'),
+    ('MRO', 478, 2, 'Mauritanian Ouguiya'),
+    ('MRU', 929, 2, 'Mauritanian Ouguiya'),
+    ('MTL', 470, 2, 'Maltese Lira'),
+    ('MUR', 480, 2, 'Mauritian Rupee'),
+    ('MVR', 462, 2, 'Maldivian Rufiyaa'),
+    ('MWK', 454, 2, 'Malawian Malawi Kwacha'),
+    ('MXN', 484, 2, 'Mexican Peso'),
+    ('MXV', 979, 2, 'Mexican Investment Unit'),
+    ('MYR', 458, 2, 'Malaysian Ringgit'),
+    ('MZM', 508, 2, 'Mozambican Metical (1980-2006)'),
+    ('MZN', 943, 2, 'Mozambican Metical'),
+    ('NAD', 516, 2, 'Namibian Dollar'),
+    ('NGN', 566, 2, 'Nigerian Naira'),
+    ('NIO', 558, 2, 'Nicaraguan Córdoba'),
+    ('NLG', 528, 2, 'Dutch Guilder'),
+    ('NOK', 578, 2, 'Norwegian Krone'),
+    ('NPR', 524, 2, 'Nepalese Rupee'),
+    ('NZD', 554, 2, 'New Zealand Dollar'),
+    ('OMR', 512, 3, 'Omani Rial'),
+    ('PAB', 590, 2, 'Panamanian Balboa'),
+    ('PEN', 604, 2, 'Peruvian Sol'),
+    ('PGK', 598, 2, 'Papua New Guinean Kina'),
+    ('PHP', 608, 2, 'Philippine Peso'),
+    ('PKR', 586, 2, 'Pakistani Rupee'),
+    ('PLN', 985, 2, 'Polish Zloty'),
+    ('PTE', 620, 0, 'Portuguese Escudo'),
+    ('PYG', 600, 0, 'Paraguayan Guarani'),
+    ('QAR', 634, 2, 'Qatari Rial'),
+    ('ROL', 642, 0, 'Romanian Leu (1952-2006)'),
+    ('RON', 946, 2, 'Romanian Leu'),
+    ('RSD', 941, 2, 'Serbian Dinar'),
+    ('RUB', 643, 2, 'Russian Ruble'),
+    ('RUR', 810, 2, 'Russian Ruble (1991-1998)'),
+    ('RWF', 646, 0, 'Rwandan Franc'),
+    ('SAR', 682, 2, 'Saudi Riyal'),
+    ('SBD', 90, 2, 'Solomon Islands Dollar'),
+    ('SCR', 690, 2, 'Seychellois Rupee'),
+    ('SDD', 736, 2, 'Sudanese Dinar (1992-2007)'),
+    ('SDG', 938, 2, 'Sudanese Pound'),
+    ('SEK', 752, 2, 'Swedish Krona'),
+    ('SGD', 702, 2, 'Singapore Dollar'),
+    ('SHP', 654, 2, 'Saint Helena Pound'),
+    ('SIT', 705, 2, 'Slovenian Tolar'),
+    ('SKK', 703, 2, 'Slovak Koruna'),
+    ('SLE', 925, 2, 'Sierra Leonean Leone'),
+    ('SLL', 694, 2, 'Sierra Leonean Leone'),
+    ('SOS', 706, 2, 'Somali Shilling'),
+    ('SRD', 968, 2, 'Surinamese Dollar'),
+    ('SRG', 740, 2, 'Surinamese Guilder'),
+    ('SSP', 728, 2, 'South Sudanese Pound'),
+    ('STD', 678, 2, 'São Tomé and Príncipe Dobra'),
+    ('STN', 930, 2, 'São Tomé and Príncipe Dobra'),
+    ('SVC', 222, 2, 'Salvadoran Colón'),
+    ('SYP', 760, 2, 'Syrian Pound'),
+    ('SZL', 748, 2, 'Swazi Lilangeni'),
+    ('THB', 764, 2, 'Thai Baht'),
+    ('TJS', 972, 2, 'Tajikistani Somoni'),
+    ('TMM', 795, 2, 'Turkmenistani Manat (1993-2009)'),
+    ('TMT', 934, 2, 'Turkmenistani Manat'),
+    ('TND', 788, 3, 'Tunisian Dinar'),
+    ('TOP', 776, 2, 'Tongan Paʻanga'),
+    ('TPE', 626, 0, 'Timorese Escudo'),
+    ('TRL', 792, 0, 'Turkish Lira (1922-2005)'),
+    ('TRY', 949, 2, 'Turkish Lira'),
+    ('TTD', 780, 2, 'Trinidad and Tobago Dollar'),
+    ('TWD', 901, 2, 'New Taiwan Dollar'),
+    ('TZS', 834, 2, 'Tanzanian Shilling'),
+    ('UAH', 980, 2, 'Ukrainian Hryvnia'),
+    ('UGX', 800, 0, 'Ugandan Shilling'),
+    ('USD', 840, 2, 'US Dollar'),
+    ('USN', 997, 2, 'US Dollar (Next day)'),
+    ('USS', 998, 2, 'US Dollar (Same day)'),
+    ('UYI', 940, 0, 'UYI'),
+    ('UYU', 858, 2, 'Uruguayan Peso'),
+    ('UZS', 860, 2, 'Uzbekistan Som'),
+    ('VEB', 862, 2, 'Venezuelan Bolívar (1871-2008)'),
+    ('VED', 926, 2, 'Venezuelan Bolívar Soberano'),
+    ('VEF', 937, 2, 'Venezuelan Bolívar'),
+    ('VES', 928, 2, 'Venezuelan Bolívar Soberano'),
+    ('VND', 704, 0, 'Vietnamese Dong'),
+    ('VUV', 548, 0, 'Vanuatu Vatu'),
+    ('WST', 882, 2, 'Samoan Tala'),
+    ('XAF', 950, 0, 'CFA Franc BEAC'),
+    ('XAG', 961, -1, 'Silver'),
+    ('XAU', 959, -1, 'Gold'),
+    ('XBA', 955, -1, 'European Composite Unit'),
+    ('XBB', 956, -1, 'European Monetary Unit'),
+    ('XBC', 957, -1, 'European Unit of Account (XBC)'),
+    ('XBD', 958, -1, 'European Unit of Account (XBD)'),
+    ('XCD', 951, 2, 'East Caribbean Dollar'),
+    ('XDR', 960, -1, 'Special Drawing Rights'),
+    ('XFO', 0, -1, 'French Gold Franc'),
+    ('XFU', 0, -1, 'French UIC-Franc'),
+    ('XOF', 952, 0, 'CFA Franc BCEAO'),
+    ('XPD', 964, -1, 'Palladium'),
+    ('XPF', 953, 0, 'CFP Franc'),
+    ('XPT', 962, -1, 'Platinum'),
+    ('XSU', 994, -1, 'Sucre'),
+    ('XTS', 963, -1, 'Testing Currency Code'),
+    ('XUA', 965, -1, 'ADB Unit of Account'),
+    ('XXX', 999, -1, 'Unknown Currency'),
+    ('YER', 886, 2, 'Yemeni Rial'),
+    ('YUM', 891, 2, 'Yugoslavian New Dinar (1994-2002)'),
+    ('ZAR', 710, 2, 'South African Rand'),
+    ('ZMK', 894, 2, 'Zambian Kwacha'),
+    ('ZMW', 967, 2, 'ZMW'),
+    ('ZWD', 716, 2, 'Zimbabwean Dollar (1980-2008)'),
+    ('ZWL', 932, 2, 'Zimbabwean Dollar (2009)'),
+    ('ZWN', 942, 2, 'ZWN'),
+    ('ZWR', 935, 2, 'Zimbabwean Dollar (2008)')
+) AS v (alpha_code, iso_numeric, minor_units, name)
+ON CONFLICT (code) DO NOTHING;
+
+-- ── Conversion helpers (session-local) ──────────────────────────────────────────
+
+-- Drops CHECK constraints on a column across a table and its partitions.
+-- Hibernate guards STRING enums with CHECK (col IN ('A', ...)), which would
+-- reject the codes. Partitions created with LIKE ... INCLUDING CONSTRAINTS hold
+-- local copies, so the parent goes first and each partition's leftovers after.
+CREATE OR REPLACE FUNCTION pg_temp.drop_column_checks(p_table regclass, p_column text)
+RETURNS void LANGUAGE plpgsql AS $$
+DECLARE
+    r record;
+    c record;
+BEGIN
+    FOR r IN
+        SELECT p_table AS relid, 0 AS level
+        UNION
+        SELECT relid, level FROM pg_partition_tree(p_table)
+        ORDER BY level
+    LOOP
+        FOR c IN
+            SELECT con.conname
+              FROM pg_constraint con
+              JOIN pg_attribute a ON a.attrelid = con.conrelid AND a.attnum = ANY (con.conkey)
+             WHERE con.conrelid = r.relid AND con.contype = 'c' AND con.coninhcount = 0
+               AND a.attname = p_column
+        LOOP
+            EXECUTE format('ALTER TABLE %s DROP CONSTRAINT %I', r.relid::regclass, c.conname);
+        END LOOP;
+    END LOOP;
+END
+$$;
+
+-- The column's type, or NULL when the table or column does not exist
+CREATE OR REPLACE FUNCTION pg_temp.column_type(p_table text, p_column text)
+RETURNS text LANGUAGE sql AS $$
+    SELECT t.typname::text
+      FROM pg_attribute a
+      JOIN pg_type t ON t.oid = a.atttypid
+     WHERE a.attrelid = to_regclass(p_table) AND a.attname = p_column
+       AND a.attnum > 0 AND NOT a.attisdropped
+$$;
+
+-- ALTER COLUMN clause turning enum names into codes, or NULL if already done.
+-- A value that isn't a label aborts the migration rather than being lost.
+CREATE OR REPLACE FUNCTION pg_temp.enum_column(p_table text, p_column text, p_labels text[])
+RETURNS text LANGUAGE plpgsql AS $$
+DECLARE
+    v_type    text := pg_temp.column_type(p_table, p_column);
+    v_unknown text;
+BEGIN
+    IF v_type IS NULL OR v_type = 'int2' THEN
+        RETURN NULL;
+    END IF;
+    EXECUTE format('SELECT string_agg(DISTINCT %1$I::text, '', '') FROM %2$s
+                     WHERE %1$I IS NOT NULL AND array_position(%3$L::text[], %1$I::text) IS NULL',
+                   p_column, p_table, p_labels)
+       INTO v_unknown;
+    IF v_unknown IS NOT NULL THEN
+        RAISE EXCEPTION '%.% holds values without a code: %', p_table, p_column, v_unknown;
+    END IF;
+    PERFORM pg_temp.drop_column_checks(p_table::regclass, p_column);
+    RETURN format('ALTER COLUMN %1$I TYPE smallint USING array_position(%2$L::text[], %1$I::text)::smallint',
+                  p_column, p_labels);
+END
+$$;
+
+-- ALTER COLUMN clause packing currency codes, or NULL if already done
+CREATE OR REPLACE FUNCTION pg_temp.currency_column(p_table text, p_column text)
+RETURNS text LANGUAGE plpgsql AS $$
+DECLARE
+    v_type    text := pg_temp.column_type(p_table, p_column);
+    v_unknown text;
+BEGIN
+    IF v_type IS NULL OR v_type = 'int2' THEN
+        RETURN NULL;
+    END IF;
+    EXECUTE format('SELECT string_agg(DISTINCT %1$I::text, '', '') FROM %2$s
+                     WHERE %1$I IS NOT NULL AND finance.currency_code(%1$I::text) IS NULL',
+                   p_column, p_table)
+       INTO v_unknown;
+    IF v_unknown IS NOT NULL THEN
+        RAISE EXCEPTION '%.% holds values that are not three-letter currency codes: %', p_table, p_column, v_unknown;
+    END IF;
+    PERFORM pg_temp.drop_column_checks(p_table::regclass, p_column);
+    RETURN format('ALTER COLUMN %1$I TYPE smallint USING finance.currency_code(%1$I::text)', p_column);
+END
+$$;
+
+-- Applies a table's clauses in one ALTER TABLE (one rewrite), then refreshes
+-- the statistics the type change discarded
+CREATE OR REPLACE FUNCTION pg_temp.rewrite_columns(p_table text, VARIADIC p_clauses text[])
+RETURNS void LANGUAGE plpgsql AS $$
+DECLARE
+    v_clauses text := array_to_string(p_clauses, ', ');
+BEGIN
+    IF v_clauses <> '' THEN
+        EXECUTE format('ALTER TABLE %s %s', p_table, v_clauses);
+        EXECUTE format('ANALYZE %s', p_table);
+    END IF;
+END
+$$;
+
+-- ── Convert ─────────────────────────────────────────────────────────────────────
+
+SELECT pg_temp.rewrite_columns('finance.transaction_entries',
+    pg_temp.enum_column('finance.transaction_entries', 'type', ARRAY['INCOME', 'EXPENSE']),
+    pg_temp.enum_column('finance.transaction_entries', 'category',
+            ARRAY['SALARY', 'FREELANCE', 'BUSINESS', 'INVESTMENTS', 'RENTAL_INCOME', 'DIVIDENDS',
+                  'INTEREST', 'BONUS', 'PENSION', 'GOVT_BENEFITS', 'CASHBACK_REWARDS',
+                  'GIFTS_RECEIVED', 'TAX_REFUND', 'SIDE_HUSTLE', 'OTHER_INCOME', 'RENT',
+                  'HOME_LOAN_EMI', 'HOME_MAINTENANCE', 'PROPERTY_TAX', 'ELECTRICITY', 'WATER', 'GAS',
+                  'INTERNET', 'MOBILE_PHONE', 'OTT_SUBSCRIPTIONS', 'GROCERIES', 'RESTAURANTS',
+                  'FOOD_DELIVERY', 'COFFEE_AND_SNACKS', 'FUEL', 'PUBLIC_TRANSPORT', 'CAB_AND_AUTO',
+                  'VEHICLE_EMI', 'VEHICLE_MAINTENANCE', 'PARKING_AND_TOLLS', 'FLIGHT_AND_TRAIN',
+                  'DOCTOR_AND_CLINIC', 'MEDICINES', 'HEALTH_INSURANCE', 'GYM_AND_FITNESS',
+                  'MENTAL_WELLNESS', 'TUITION_AND_FEES', 'BOOKS_AND_COURSES', 'COACHING',
+                  'STUDENT_LOAN_EMI', 'CLOTHING', 'ELECTRONICS', 'HOME_APPLIANCES', 'PERSONAL_CARE',
+                  'GIFTS_GIVEN', 'MOVIES_AND_EVENTS', 'GAMING', 'SPORTS_AND_HOBBIES',
+                  'BOOKS_AND_MAGAZINES', 'TRAVEL_VACATION', 'HOTEL_AND_STAYS', 'LIFE_INSURANCE',
+                  'VEHICLE_INSURANCE', 'CREDIT_CARD_PAYMENT', 'LOAN_REPAYMENT', 'MUTUAL_FUNDS_SIP',
+                  'STOCKS_AND_TRADING', 'CRYPTO', 'EMERGENCY_FUND', 'FIXED_DEPOSIT',
+                  'CHARITY_AND_DONATIONS', 'TAXES', 'FINES_AND_PENALTIES', 'PETS', 'CHILDCARE',
+                  'ELDER_CARE', 'GOAL', 'SETTLEMENT', 'OTHERS']),
+    pg_temp.enum_column('finance.transaction_entries', 'recurring_period', ARRAY['DAILY', 'WEEKLY', 'MONTHLY', 'YEARLY']),
+    pg_temp.currency_column('finance.transaction_entries', 'currency'));
+
+SELECT pg_temp.rewrite_columns('finance.category_budgets',
+    pg_temp.enum_column('finance.category_budgets', 'expense_category',
+            ARRAY['SALARY', 'FREELANCE', 'BUSINESS', 'INVESTMENTS', 'RENTAL_INCOME', 'DIVIDENDS',
+                  'INTEREST', 'BONUS', 'PENSION', 'GOVT_BENEFITS', 'CASHBACK_REWARDS',
+                  'GIFTS_RECEIVED', 'TAX_REFUND', 'SIDE_HUSTLE', 'OTHER_INCOME', 'RENT',
+                  'HOME_LOAN_EMI', 'HOME_MAINTENANCE', 'PROPERTY_TAX', 'ELECTRICITY', 'WATER', 'GAS',
+                  'INTERNET', 'MOBILE_PHONE', 'OTT_SUBSCRIPTIONS', 'GROCERIES', 'RESTAURANTS',
+                  'FOOD_DELIVERY', 'COFFEE_AND_SNACKS', 'FUEL', 'PUBLIC_TRANSPORT', 'CAB_AND_AUTO',
+                  'VEHICLE_EMI', 'VEHICLE_MAINTENANCE', 'PARKING_AND_TOLLS', 'FLIGHT_AND_TRAIN',
+                  'DOCTOR_AND_CLINIC', 'MEDICINES', 'HEALTH_INSURANCE', 'GYM_AND_FITNESS',
+                  'MENTAL_WELLNESS', 'TUITION_AND_FEES', 'BOOKS_AND_COURSES', 'COACHING',
+                  'STUDENT_LOAN_EMI', 'CLOTHING', 'ELECTRONICS', 'HOME_APPLIANCES', 'PERSONAL_CARE',
+                  'GIFTS_GIVEN', 'MOVIES_AND_EVENTS', 'GAMING', 'SPORTS_AND_HOBBIES',
+                  'BOOKS_AND_MAGAZINES', 'TRAVEL_VACATION', 'HOTEL_AND_STAYS', 'LIFE_INSURANCE',
+                  'VEHICLE_INSURANCE', 'CREDIT_CARD_PAYMENT', 'LOAN_REPAYMENT', 'MUTUAL_FUNDS_SIP',
+                  'STOCKS_AND_TRADING', 'CRYPTO', 'EMERGENCY_FUND', 'FIXED_DEPOSIT',
+                  'CHARITY_AND_DONATIONS', 'TAXES', 'FINES_AND_PENALTIES', 'PETS', 'CHILDCARE',
+                  'ELDER_CARE', 'GOAL', 'SETTLEMENT', 'OTHERS']),
+    pg_temp.enum_column('finance.category_budgets', 'period', ARRAY['DAILY', 'WEEKLY', 'MONTHLY', 'YEARLY']),
+    pg_temp.currency_column('finance.category_budgets', 'currency'));
+
+SELECT pg_temp.rewrite_columns('finance.savings_goals',
+    pg_temp.enum_column('finance.savings_goals', 'priority', ARRAY['CRITICAL', 'HIGH', 'MEDIUM', 'LOW']),
+    pg_temp.currency_column('finance.savings_goals', 'currency'));
+
+SELECT pg_temp.rewrite_columns('finance.subscriptions',
+    pg_temp.enum_column('finance.subscriptions', 'period', ARRAY['DAILY', 'WEEKLY', 'MONTHLY', 'YEARLY']),
+    pg_temp.currency_column('finance.subscriptions', 'currency'));
+
+SELECT pg_temp.rewrite_columns('finance.merchant_pattern_state',
+    pg_temp.enum_column('finance.merchant_pattern_state', 'candidate_period', ARRAY['DAILY', 'WEEKLY', 'MONTHLY', 'YEARLY']),
+    pg_temp.currency_column('finance.merchant_pattern_state', 'currency'));
+
+SELECT pg_temp.rewrite_columns('finance.outbox_events',
+    pg_temp.enum_column('finance.outbox_events', 'status', ARRAY['PENDING', 'PROCESSED', 'FAILED']));
+
+SELECT pg_temp.rewrite_columns('groups.expense_groups',
+    pg_temp.currency_column('groups.expense_groups', 'currency'));
+
+SELECT pg_temp.rewrite_columns('groups.shared_expenses',
+    pg_temp.enum_column('groups.shared_expenses', 'split_type', ARRAY['EQUAL', 'PERCENTAGE', 'EXACT', 'SETTLEMENT']),
+    pg_temp.enum_column('groups.shared_expenses', 'expense_category',
+            ARRAY['RENT', 'HOME_LOAN_EMI', 'HOME_MAINTENANCE', 'PROPERTY_TAX', 'ELECTRICITY',
+                  'WATER', 'GAS', 'INTERNET', 'MOBILE_PHONE', 'OTT_SUBSCRIPTIONS', 'GROCERIES',
+                  'RESTAURANTS', 'FOOD_DELIVERY', 'COFFEE_AND_SNACKS', 'FUEL', 'PUBLIC_TRANSPORT',
+                  'CAB_AND_AUTO', 'VEHICLE_EMI', 'VEHICLE_MAINTENANCE', 'PARKING_AND_TOLLS',
+                  'FLIGHT_AND_TRAIN', 'DOCTOR_AND_CLINIC', 'MEDICINES', 'HEALTH_INSURANCE',
+                  'GYM_AND_FITNESS', 'MENTAL_WELLNESS', 'TUITION_AND_FEES', 'BOOKS_AND_COURSES',
+                  'COACHING', 'STUDENT_LOAN_EMI', 'CLOTHING', 'ELECTRONICS', 'HOME_APPLIANCES',
+                  'PERSONAL_CARE', 'GIFTS_GIVEN', 'MOVIES_AND_EVENTS', 'GAMING',
+                  'SPORTS_AND_HOBBIES', 'BOOKS_AND_MAGAZINES', 'TRAVEL_VACATION', 'HOTEL_AND_STAYS',
+                  'LIFE_INSURANCE', 'VEHICLE_INSURANCE', 'CREDIT_CARD_PAYMENT', 'LOAN_REPAYMENT',
+                  'MUTUAL_FUNDS_SIP', 'STOCKS_AND_TRADING', 'CRYPTO', 'EMERGENCY_FUND',
+                  'FIXED_DEPOSIT', 'CHARITY_AND_DONATIONS', 'TAXES', 'FINES_AND_PENALTIES', 'PETS',
+                  'CHILDCARE', 'ELDER_CARE', 'SETTLEMENT', 'OTHERS']),
+    pg_temp.currency_column('groups.shared_expenses', 'currency'));
+
+SELECT pg_temp.rewrite_columns('groups.group_members',
+    pg_temp.enum_column('groups.group_members', 'status', ARRAY['PENDING', 'ACCEPTED', 'REJECTED']));
+
+SELECT pg_temp.rewrite_columns('activity.group_activities',
+    pg_temp.enum_column('activity.group_activities', 'activity_type', ARRAY['GROUP_CREATED', 'MEMBER_ADDED', 'EXPENSE_ADDED', 'EXPENSE_DELETED', 'SETTLEMENT_RECORDED']));
@@ -0,0 +1,15 @@
+-- Stores merchant_pattern_state.recent_occurrences as text.
+--
+-- The column was varchar(255), and the pattern backfill rebuilds it from a
+-- merchant's history: amounts with a long scale could push a full window past
+-- 255 characters and fail the whole user's rebuild. varchar -> text is a
+-- catalog-only change in Postgres, with no table rewrite.
+-- A no-op when Hibernate has not created the table yet.
+
+DO $$
+BEGIN
+    IF to_regclass('finance.merchant_pattern_state') IS NOT NULL THEN
+        ALTER TABLE finance.merchant_pattern_state ALTER COLUMN recent_occurrences TYPE text;
+    END IF;
+END
+$$;
@@ -0,0 +1,10 @@
+-- Runs after Hibernate schema update (spring.jpa.defer-datasource-initialization).
+-- Must stay idempotent: executed on every startup.
+
+-- Pooled id generators reserve 50 ids per nextval(); the underlying sequences
+-- (originally created for IDENTITY columns) must step by the same amount.
+ALTER SEQUENCE IF EXISTS finance.transaction_entries_id_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS finance.outbox_events_id_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS groups.expense_splits_id_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS groups.expense_transaction_links_id_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS activity.group_activities_id_seq INCREMENT BY 50;
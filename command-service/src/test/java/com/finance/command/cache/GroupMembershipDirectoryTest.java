@@ -0,0 +1,114 @@
+package com.finance.command.cache;
+
+import com.finance.command.model.GroupMember;
+import com.finance.command.repository.GroupMemberRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.*;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("GroupMembershipDirectory — Unit Tests")
+class GroupMembershipDirectoryTest {
+
+    @Mock GroupMemberRepository memberRepo;
+    @Mock StringRedisTemplate redisTemplate;
+    @Mock RedisMessageListenerContainer listenerContainer;
+
+    GroupMembershipDirectory directory;
+
+    private final UUID alice = UUID.randomUUID();
+    private final UUID bob = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        directory = new GroupMembershipDirectory(memberRepo, redisTemplate, listenerContainer,
+                new SimpleMeterRegistry(), 100, Duration.ofMinutes(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("get: repeated lookups for a group hit the database once")
+    void get_cachesSnapshot() {
+        when(memberRepo.findByGroupId(1L)).thenReturn(List.of(member(alice, "Alice")));
+
+        directory.get(1L);
+        GroupMembershipDirectory.Snapshot snapshot = directory.requireMember(1L, alice);
+
+        assertThat(snapshot.nameOf(alice)).contains("Alice");
+        verify(memberRepo, times(1)).findByGroupId(1L);
+    }
+
+    @Test
+    @DisplayName("requireMember: non-member is rejected with SecurityException")
+    void requireMember_nonMember_throws() {
+        when(memberRepo.findByGroupId(1L)).thenReturn(List.of(member(alice, "Alice")));
+
+        assertThatThrownBy(() -> directory.requireMember(1L, bob))
+                .isInstanceOf(SecurityException.class);
+    }
+
+    @Test
+    @DisplayName("invalidate outside a transaction: next lookup reloads and the change is published")
+    void invalidate_noTransaction_reloadsAndPublishes() {
+        when(memberRepo.findByGroupId(1L))
+                .thenReturn(List.of(member(alice, "Alice")))
+                .thenReturn(List.of(member(alice, "Alice"), member(bob, "Bob")));
+
+        directory.get(1L);
+        directory.invalidate(1L);
+
+        assertThat(directory.get(1L).contains(bob)).isTrue();
+        verify(redisTemplate).convertAndSend(GroupMembershipDirectory.INVALIDATE_CHANNEL, "1");
+    }
+
+    @Test
+    @DisplayName("invalidate inside a transaction: reads bypass the cache until commit, then publish")
+    void invalidate_inTransaction_readsThroughUntilCommit() {
+        when(memberRepo.findByGroupId(1L)).thenReturn(List.of(member(alice, "Alice")));
+        TransactionSynchronizationManager.initSynchronization();
+
+        directory.invalidate(1L);
+        directory.get(1L);
+        directory.get(1L);
+
+        verify(memberRepo, times(2)).findByGroupId(1L);
+        verify(redisTemplate, never()).convertAndSend(anyString(), anyString());
+
+        for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+            sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+
+        directory.get(1L);
+        directory.get(1L);
+        verify(memberRepo, times(3)).findByGroupId(1L);
+        verify(redisTemplate).convertAndSend(GroupMembershipDirectory.INVALIDATE_CHANNEL, "1");
+    }
+
+    private GroupMember member(UUID userId, String name) {
+        GroupMember m = new GroupMember();
+        m.setUserId(userId);
+        m.setName(name);
+        m.setStatus(GroupMember.InvitationStatus.ACCEPTED);
+        return m;
+    }
+}
@@ -0,0 +1,146 @@
+package com.finance.command.cache;
+
+import com.finance.command.model.GroupMember;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.service.spi.ServiceRegistryImplementor;
+import org.hibernate.type.Type;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.*;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("SecondLevelCacheInvalidator — Unit Tests")
+class SecondLevelCacheInvalidatorTest {
+
+    private static final String MEMBER = GroupMember.class.getName();
+
+    @Mock StringRedisTemplate redisTemplate;
+    @Mock RedisMessageListenerContainer listenerContainer;
+    @Mock TaskScheduler taskScheduler;
+    @Mock EntityManagerFactory entityManagerFactory;
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS) SessionFactoryImplementor sessionFactory;
+    @Mock CacheImplementor cache;
+    @Mock EntityPersister persister;
+
+    SecondLevelCacheInvalidator local;
+    SecondLevelCacheInvalidator remote;
+
+    @BeforeEach
+    void setUp() {
+        when(entityManagerFactory.unwrap(SessionFactoryImplementor.class)).thenReturn(sessionFactory);
+        ServiceRegistryImplementor services = mock(ServiceRegistryImplementor.class);
+        when(services.getService(EventListenerRegistry.class)).thenReturn(mock(EventListenerRegistry.class));
+        when(sessionFactory.getServiceRegistry()).thenReturn(services);
+        when(sessionFactory.getCache()).thenReturn(cache);
+        when(sessionFactory.getMappingMetamodel().findEntityDescriptor(MEMBER)).thenReturn(persister);
+        when(persister.getEntityName()).thenReturn(MEMBER);
+        when(persister.canWriteToCache()).thenReturn(true);
+        Type idType = mock(Type.class);
+        doReturn(Long.class).when(idType).getReturnedClass();
+        when(persister.getIdentifierType()).thenReturn(idType);
+
+        local = newInstance();
+        remote = newInstance();
+    }
+
+    @Test
+    @DisplayName("commit on one instance evicts the entity and query regions on another")
+    void remoteCommit_evictsEntityAndQueries() {
+        local.onPostUpdate(updateOf(42L));
+
+        String payload = published();
+        remote.onRemoteInvalidate(payload);
+
+        verify(cache).evictEntityData(MEMBER, 42L);
+        verify(cache).evictQueryRegions();
+    }
+
+    @Test
+    @DisplayName("remote eviction is repeated after the replica's max lag")
+    void remoteCommit_schedulesSecondEviction() {
+        local.onPostUpdate(updateOf(42L));
+        remote.onRemoteInvalidate(published());
+
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler).schedule(task.capture(), any(Instant.class));
+        task.getValue().run();
+
+        verify(cache, times(2)).evictEntityData(MEMBER, 42L);
+    }
+
+    @Test
+    @DisplayName("an instance ignores its own invalidations")
+    void ownMessage_ignored() {
+        local.onPostUpdate(updateOf(42L));
+
+        local.onRemoteInvalidate(published());
+
+        verifyNoInteractions(cache, taskScheduler);
+    }
+
+    @Test
+    @DisplayName("entities without a cache region are not published")
+    void uncachedEntity_notPublished() {
+        when(persister.canWriteToCache()).thenReturn(false);
+
+        local.onPostUpdate(updateOf(42L));
+
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("malformed payloads are ignored")
+    void malformedPayload_ignored() {
+        remote.onRemoteInvalidate("garbage");
+        remote.onRemoteInvalidate("other|" + MEMBER + "|not-a-number");
+
+        verifyNoInteractions(cache);
+    }
+
+    @Test
+    @DisplayName("rolled-back transactions are not published")
+    void commitFailed_notPublished() {
+        local.onPostUpdateCommitFailed(updateOf(42L));
+
+        verifyNoInteractions(redisTemplate);
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private SecondLevelCacheInvalidator newInstance() {
+        SecondLevelCacheInvalidator invalidator = new SecondLevelCacheInvalidator(entityManagerFactory,
+                redisTemplate, listenerContainer, taskScheduler, new SimpleMeterRegistry(), Duration.ofSeconds(1));
+        invalidator.register();
+        return invalidator;
+    }
+
+    private PostUpdateEvent updateOf(Long id) {
+        return new PostUpdateEvent(new Object(), id, new Object[0], new Object[0], new int[0], persister, null);
+    }
+
+    private String published() {
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(SecondLevelCacheInvalidator.INVALIDATE_CHANNEL), payload.capture());
+        return payload.getValue();
+    }
+}
@@ -0,0 +1,85 @@
+package com.finance.command.config;
+
+import com.finance.command.config.TransactionRoutingDataSource.DataSourceType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("ReplicaLagMonitor — Unit Tests")
+class ReplicaLagMonitorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DataSource readDataSource = mock(DataSource.class);
+
+    private ReplicaLagMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        monitor = new ReplicaLagMonitor(readDataSource, meterRegistry,
+                Duration.ofSeconds(1), Duration.ofMillis(250), 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    @DisplayName("record: stops routing above max-lag and resumes only below resume-lag")
+    void record_appliesHysteresis() {
+        monitor.record(0.5);
+        assertThat(monitor.isReplicaRoutable()).isTrue();
+
+        monitor.record(1.5);
+        assertThat(monitor.isReplicaRoutable()).isFalse();
+
+        // Between the two thresholds — stays on the primary
+        monitor.record(0.5);
+        assertThat(monitor.isReplicaRoutable()).isFalse();
+
+        monitor.record(0.2);
+        assertThat(monitor.isReplicaRoutable()).isTrue();
+        assertThat(meterRegistry.get("datasource.replica.lag").tag("shard", "0").gauge().value()).isEqualTo(0.2);
+    }
+
+    @Test
+    @DisplayName("sample: an unreachable replica is treated as lagging")
+    void sample_failure_marksReplicaUnroutable() throws SQLException {
+        when(readDataSource.getConnection()).thenThrow(new SQLException("connection refused"));
+
+        monitor.sample();
+
+        assertThat(monitor.isReplicaRoutable()).isFalse();
+        assertThat(meterRegistry.get("datasource.replica.routable").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("routing: read-only transactions use the write pool while the replica lags")
+    void routing_lagging_sendsReadsToWritePool() {
+        TransactionRoutingDataSource routing = new TransactionRoutingDataSource(monitor, meterRegistry);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(DataSourceType.READ);
+
+        monitor.record(5);
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(DataSourceType.WRITE);
+        assertThat(meterRegistry.counter("datasource.routing.decisions",
+                "target", "write", "reason", "replica-lag", "shard", "0").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("constructor: resume-lag above max-lag is rejected")
+    void constructor_invertedThresholds_throws() {
+        assertThatThrownBy(() -> new ReplicaLagMonitor(readDataSource, meterRegistry,
+                Duration.ofMillis(100), Duration.ofSeconds(1), 2))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,155 @@
+package com.finance.command.config;
+
+import com.finance.command.config.TransactionRoutingDataSource.DataSourceType;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs a streaming-replication pair, pauses WAL replay on the replica while
+ * the primary keeps writing, and checks that reads fail over to the write pool
+ * and come back once replay resumes. Also cuts the replica's WAL receiver,
+ * which leaves receive = replay and must not read as zero lag.
+ */
+@Testcontainers
+@DisplayName("Replica lag routing — Integration Tests")
+class ReplicaLagRoutingIntegrationTest {
+
+    private static final String IMAGE = "bitnami/postgresql:16";
+    private static final String PASSWORD = "finance_pass";
+
+    static Network network = Network.newNetwork();
+
+    @Container
+    static GenericContainer<?> primary = new GenericContainer<>(IMAGE)
+            .withNetwork(network)
+            .withNetworkAliases("pg-primary")
+            .withEnv("POSTGRESQL_REPLICATION_MODE", "master")
+            .withEnv("POSTGRESQL_REPLICATION_USER", "repl_user")
+            .withEnv("POSTGRESQL_REPLICATION_PASSWORD", "repl_pass")
+            .withEnv("POSTGRESQL_PASSWORD", PASSWORD)
+            .withEnv("POSTGRESQL_DATABASE", "finance_assistant")
+            .withExposedPorts(5432)
+            .waitingFor(Wait.forLogMessage(".*database system is ready to accept connections.*", 1));
+
+    @Container
+    static GenericContainer<?> replica = new GenericContainer<>(IMAGE)
+            .dependsOn(primary)
+            .withNetwork(network)
+            .withEnv("POSTGRESQL_REPLICATION_MODE", "slave")
+            .withEnv("POSTGRESQL_MASTER_HOST", "pg-primary")
+            .withEnv("POSTGRESQL_MASTER_PORT_NUMBER", "5432")
+            .withEnv("POSTGRESQL_REPLICATION_USER", "repl_user")
+            .withEnv("POSTGRESQL_REPLICATION_PASSWORD", "repl_pass")
+            .withEnv("POSTGRESQL_PASSWORD", PASSWORD)
+            .withExposedPorts(5432)
+            .waitingFor(Wait.forLogMessage(".*started streaming WAL.*", 1));
+
+    private HikariDataSource writePool;
+    private HikariDataSource readPool;
+    private ReplicaLagMonitor monitor;
+    private TransactionRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() {
+        writePool = pool(primary);
+        readPool = pool(replica);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        monitor = new ReplicaLagMonitor(readPool, meterRegistry, Duration.ofSeconds(1), Duration.ofMillis(250), 2);
+        routing = new TransactionRoutingDataSource(monitor, meterRegistry);
+        new JdbcTemplate(writePool).execute("CREATE TABLE IF NOT EXISTS lag_probe (id serial PRIMARY KEY, at timestamptz DEFAULT now())");
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        JdbcTemplate reader = new JdbcTemplate(readPool);
+        reader.execute("SELECT pg_wal_replay_resume()");
+        reader.execute("ALTER SYSTEM RESET primary_conninfo");
+        reader.execute("SELECT pg_reload_conf()");
+        writePool.close();
+        readPool.close();
+    }
+
+    @Test
+    @DisplayName("reads leave the replica while replay is paused and return after it catches up")
+    void pausedReplay_routesReadsToPrimaryUntilCaughtUp() throws Exception {
+        monitor.sample();
+        assertThat(monitor.isReplicaRoutable()).isTrue();
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(DataSourceType.READ);
+
+        new JdbcTemplate(readPool).execute("SELECT pg_wal_replay_pause()");
+        JdbcTemplate writer = new JdbcTemplate(writePool);
+        long deadline = System.nanoTime() + Duration.ofSeconds(20).toNanos();
+        while (monitor.isReplicaRoutable() && System.nanoTime() < deadline) {
+            writer.update("INSERT INTO lag_probe DEFAULT VALUES");
+            Thread.sleep(200);
+            monitor.sample();
+        }
+        assertThat(monitor.isReplicaRoutable()).isFalse();
+        assertThat(monitor.getLagSeconds()).isGreaterThan(1.0);
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(DataSourceType.WRITE);
+
+        new JdbcTemplate(readPool).execute("SELECT pg_wal_replay_resume()");
+        deadline = System.nanoTime() + Duration.ofSeconds(20).toNanos();
+        while (!monitor.isReplicaRoutable() && System.nanoTime() < deadline) {
+            Thread.sleep(200);
+            monitor.sample();
+        }
+        assertThat(monitor.isReplicaRoutable()).isTrue();
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(DataSourceType.READ);
+    }
+
+    @Test
+    @DisplayName("a replica whose WAL receiver is disconnected is not routable, though receive = replay")
+    void disconnectedReceiver_routesReadsToPrimary() throws Exception {
+        monitor.sample();
+        assertThat(monitor.isReplicaRoutable()).isTrue();
+
+        // An empty primary_conninfo stops the WAL receiver without touching replay
+        JdbcTemplate reader = new JdbcTemplate(readPool);
+        reader.execute("ALTER SYSTEM SET primary_conninfo = ''");
+        reader.execute("SELECT pg_reload_conf()");
+        long deadline = System.nanoTime() + Duration.ofSeconds(20).toNanos();
+        while (monitor.isReplicaRoutable() && System.nanoTime() < deadline) {
+            Thread.sleep(200);
+            monitor.sample();
+        }
+        assertThat(reader.queryForObject(
+                "SELECT pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn()", Boolean.class)).isTrue();
+        assertThat(monitor.isReplicaRoutable()).isFalse();
+        assertThat(monitor.getLagSeconds()).isInfinite();
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(DataSourceType.WRITE);
+
+        reader.execute("ALTER SYSTEM RESET primary_conninfo");
+        reader.execute("SELECT pg_reload_conf()");
+        deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        while (!monitor.isReplicaRoutable() && System.nanoTime() < deadline) {
+            Thread.sleep(200);
+            monitor.sample();
+        }
+        assertThat(monitor.isReplicaRoutable()).isTrue();
+    }
+
+    private static HikariDataSource pool(GenericContainer<?> container) {
+        HikariConfig cfg = new HikariConfig();
+        cfg.setJdbcUrl("jdbc:postgresql://" + container.getHost() + ":" + container.getMappedPort(5432) + "/finance_assistant");
+        cfg.setUsername("postgres");
+        cfg.setPassword(PASSWORD);
+        cfg.setMaximumPoolSize(2);
+        return new HikariDataSource(cfg);
+    }
+}
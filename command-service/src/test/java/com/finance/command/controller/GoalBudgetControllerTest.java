@@ -4,6 +4,7 @@ import com.finance.command.dto.*;
 import com.finance.command.model.Category;
 import com.finance.command.model.RecurringPeriod;
 import com.finance.command.service.GoalBudgetService;
+import com.finance.command.shard.ShardMap;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.DisplayName;
@@ -42,6 +43,9 @@ public class GoalBudgetControllerTest {
     @MockitoBean
     private MeterRegistry meterRegistry;
 
+    @MockitoBean
+    private ShardMap shardMap;
+
     @Test
     @DisplayName("POST /goals: creates savings goal")
     void createGoal_succeeds() throws Exception {
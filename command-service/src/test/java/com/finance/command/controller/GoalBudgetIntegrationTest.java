@@ -7,6 +7,8 @@ import com.finance.command.model.Category;
 import com.finance.command.model.RecurringPeriod;
 import com.finance.command.repository.CategoryBudgetRepository;
 import com.finance.command.repository.SavingsGoalRepository;
+import com.finance.command.model.SavingsGoal;
+import com.finance.command.service.GoalBudgetService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -23,7 +25,12 @@ import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -73,6 +80,9 @@ public class GoalBudgetIntegrationTest {
     @Autowired
     private CategoryBudgetRepository budgetRepository;
 
+    @Autowired
+    private GoalBudgetService goalBudgetService;
+
     private UUID userId;
 
     @BeforeEach
@@ -140,4 +150,31 @@ public class GoalBudgetIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].expenseCategory").value("TRAVEL"));
     }
+
+    @Test
+    @DisplayName("Concurrency: parallel goal adjustments are all applied, none lost")
+    void concurrentGoalAdjustments_noLostUpdates() throws Exception {
+        SavingsGoal goal = new SavingsGoal();
+        goal.setUserId(userId);
+        goal.setName("Shared trip");
+        goal.setTargetAmount(new BigDecimal("150.00"));
+        goal.setCurrency("INR");
+        Long goalId = goalRepository.save(goal).getId();
+
+        int parallelism = 200;
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < parallelism; i++) {
+                futures.add(pool.submit(() ->
+                        goalBudgetService.adjustGoalSavedAmount(goalId, userId, BigDecimal.ONE)));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        }
+
+        SavingsGoal reloaded = goalRepository.findById(goalId).orElseThrow();
+        assertThat(reloaded.getSavedAmount()).isEqualByComparingTo(BigDecimal.valueOf(parallelism));
+        assertThat(reloaded.getCompletedAt()).isNotNull();
+    }
 }
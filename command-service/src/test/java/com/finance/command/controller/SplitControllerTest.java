@@ -3,6 +3,7 @@ package com.finance.command.controller;
 import com.finance.command.dto.*;
 import com.finance.command.model.*;
 import com.finance.command.service.SplitService;
+import com.finance.command.shard.ShardMap;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.DisplayName;
@@ -40,6 +41,9 @@ public class SplitControllerTest {
     @MockitoBean
     private MeterRegistry meterRegistry;
 
+    @MockitoBean
+    private ShardMap shardMap;
+
     @Test
     @DisplayName("POST /upsert/groups: creates expense group")
     void createGroup_succeeds() throws Exception {
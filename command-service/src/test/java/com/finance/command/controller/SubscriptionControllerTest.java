@@ -3,6 +3,7 @@ package com.finance.command.controller;
 import com.finance.command.dto.SubscriptionResponse;
 import com.finance.command.model.RecurringPeriod;
 import com.finance.command.service.SubscriptionDetectorService;
+import com.finance.command.shard.ShardMap;
 import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -37,6 +38,9 @@ public class SubscriptionControllerTest {
     @MockitoBean
     private MeterRegistry meterRegistry;
 
+    @MockitoBean
+    private ShardMap shardMap;
+
     @Test
     @DisplayName("GET /subscriptions: returns detected recurring payments")
     void getSubscriptions_succeeds() throws Exception {
@@ -46,7 +50,7 @@ public class SubscriptionControllerTest {
                 RecurringPeriod.MONTHLY, LocalDate.now().plusDays(5), 5, true
         );
 
-        when(service.detectAndGetForUser(userId)).thenReturn(List.of(response));
+        when(service.getSubscriptionsForUser(userId)).thenReturn(List.of(response));
 
         mockMvc.perform(get("/upsert/subscriptions")
                         .header("X-User-Id", userId.toString())
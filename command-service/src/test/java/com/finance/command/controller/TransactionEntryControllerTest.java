@@ -4,7 +4,10 @@ import com.finance.command.dto.CreateEntryRequest;
 import com.finance.command.dto.CreateEntryResponse;
 import com.finance.command.model.Category;
 import com.finance.command.model.TransactionType;
+import com.finance.command.imports.StatementImportService;
+import com.finance.command.service.CreateEntryGroupCommitter;
 import com.finance.command.service.TransactionEntryService;
+import com.finance.command.shard.ShardMap;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.DisplayName;
@@ -40,9 +43,18 @@ public class TransactionEntryControllerTest {
     @MockitoBean
     private TransactionEntryService service;
 
+    @MockitoBean
+    private StatementImportService importService;
+
+    @MockitoBean
+    private CreateEntryGroupCommitter groupCommitter;
+
     @MockitoBean
     private MeterRegistry meterRegistry;
 
+    @MockitoBean
+    private ShardMap shardMap;
+
     @Test
     @DisplayName("POST /upsert/create: returns 201 when X-User-Id matches request")
     void createEntry_succeeds() throws Exception {
@@ -59,7 +71,7 @@ public class TransactionEntryControllerTest {
                 1L, userId, "Salary", new BigDecimal("5000.00"),
                 TransactionType.INCOME, Category.SALARY, "INR", "Monthly salary",
                 false, null,
-                LocalDateTime.now(), LocalDateTime.now()
+                LocalDateTime.now(), LocalDateTime.now(), null
         );
 
         when(service.createEntry(any(), any())).thenReturn(response);
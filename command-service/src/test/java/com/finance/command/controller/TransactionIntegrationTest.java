@@ -5,6 +5,7 @@ import com.finance.command.dto.CreateEntryRequest;
 import com.finance.command.dto.CreateEntryResponse;
 import com.finance.command.model.Category;
 import com.finance.command.model.TransactionType;
+import com.finance.command.model.convert.CurrencyCodes;
 import com.finance.command.repository.TransactionEntryRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -13,6 +14,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
@@ -23,6 +26,11 @@ import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
 import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -76,6 +84,9 @@ public class TransactionIntegrationTest {
     @Autowired
     private TransactionEntryRepository repository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @BeforeEach
     void setupMock() {
         repository.deleteAll();
@@ -148,4 +159,64 @@ public class TransactionIntegrationTest {
         // Verify it was soft deleted (no longer returned by findByIdAndDeletedAtIsNull)
         assertThat(repository.findByIdAndDeletedAtIsNull(id)).isEmpty();
     }
+
+    @Test
+    @DisplayName("Date-bounded queries are pruned to the matching monthly partition")
+    void dateBoundedQuery_prunesToOnePartition() {
+        LocalDate month = LocalDate.now().withDayOfMonth(1);
+        String partition = String.format("transaction_entries_y%dm%02d", month.getYear(), month.getMonthValue());
+
+        List<String> plan = jdbcTemplate.queryForList("""
+                EXPLAIN SELECT category, SUM(amount) FROM finance.transaction_entries
+                WHERE user_id = '%s' AND deleted_at IS NULL
+                  AND created_at >= '%s' AND created_at < '%s'
+                GROUP BY category
+                """.formatted(UUID.randomUUID(), month, month.plusMonths(1)), String.class);
+
+        String text = String.join("\n", plan);
+        assertThat(text).contains(partition);
+        assertThat(text).doesNotContain("transaction_entries_history", "transaction_entries_default");
+    }
+
+    @Test
+    @DisplayName("Per-user date-bounded sums are answered by an index-only scan")
+    void dateBoundedSum_usesIndexOnlyScan() {
+        UUID userId = UUID.randomUUID();
+        LocalDate month = LocalDate.now().withDayOfMonth(1);
+
+        String text = jdbcTemplate.execute((ConnectionCallback<String>) conn -> {
+            // VACUUM can't run inside a transaction block; it sets the visibility map
+            conn.setAutoCommit(true);
+            try (Statement st = conn.createStatement()) {
+                st.executeUpdate("""
+                        INSERT INTO finance.transaction_entries
+                            (user_id, name, amount, type, category, currency, created_at, recurring)
+                        SELECT '%s', 'entry ' || g, g, %d, %d, %d, now(), false
+                        FROM generate_series(1, 200) g
+                        """.formatted(userId, TransactionType.EXPENSE.code(), Category.GROCERIES.code(),
+                                CurrencyCodes.encode("USD")));
+                st.execute("VACUUM ANALYZE finance.transaction_entries");
+                // Tiny tables favour a seq scan; take it off the table to see the index choice
+                st.execute("SET enable_seqscan = off");
+                st.execute("SET enable_bitmapscan = off");
+
+                List<String> plan = new ArrayList<>();
+                try (ResultSet rs = st.executeQuery("""
+                        EXPLAIN SELECT type, SUM(amount) FROM finance.transaction_entries
+                        WHERE user_id = '%s' AND deleted_at IS NULL
+                          AND created_at >= '%s' AND created_at < '%s'
+                        GROUP BY type
+                        """.formatted(userId, month, month.plusMonths(1)))) {
+                    while (rs.next()) {
+                        plan.add(rs.getString(1));
+                    }
+                }
+                st.execute("RESET enable_seqscan");
+                st.execute("RESET enable_bitmapscan");
+                return String.join("\n", plan);
+            }
+        });
+
+        assertThat(text).contains("Index Only Scan using");
+    }
 }
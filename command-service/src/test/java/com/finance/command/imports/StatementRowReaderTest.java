@@ -0,0 +1,99 @@
+package com.finance.command.imports;
+
+import com.finance.command.model.Category;
+import com.finance.command.model.TransactionType;
+import org.junit.jupiter.api.*;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("StatementRowReader / ImportRow — Unit Tests")
+class StatementRowReaderTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 1, 12, 0);
+
+    @Test
+    @DisplayName("CSV: quoted commas, escaped quotes and embedded newlines survive; header is case-insensitive")
+    void csv_handlesQuoting() throws Exception {
+        String csv = """
+                Name,Amount,Type,Date,Description
+                "Coffee, large",4.50,expense,2026-02-10,"said ""hi""
+                twice"
+                Salary,1000,INCOME,2026-02-01,
+                """;
+
+        List<Map<String, String>> rows = new ArrayList<>();
+        List<Long> lines = new ArrayList<>();
+        read(csv, ImportFormat.CSV, rows, lines, new ArrayList<>());
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0)).containsEntry("name", "Coffee, large")
+                .containsEntry("description", "said \"hi\"\ntwice");
+        assertThat(lines).containsExactly(2L, 4L);
+    }
+
+    @Test
+    @DisplayName("NDJSON: one object per line, blank lines skipped, bad JSON reported with its line")
+    void ndjson_reportsMalformedLines() throws Exception {
+        String ndjson = """
+                {"name":"Netflix","amount":15.99,"type":"EXPENSE"}
+
+                {not json}
+                {"name":"Rent","amount":"1200","type":"EXPENSE","category":"RENT"}
+                """;
+
+        List<Map<String, String>> rows = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        read(ndjson, ImportFormat.NDJSON, rows, new ArrayList<>(), errors);
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0)).containsEntry("amount", "15.99");
+        assertThat(errors).containsExactly("3:invalid JSON");
+    }
+
+    @Test
+    @DisplayName("ImportRow: applies defaults and parses ISO offset timestamps")
+    void importRow_defaults() {
+        ImportRow row = ImportRow.validate(1, Map.of("name", "Netflix", "amount", "15.99", "type", "expense",
+                "createdat", "2026-02-10T08:30:00.000Z"), "INR", NOW);
+
+        assertThat(row.type()).isEqualTo(TransactionType.EXPENSE);
+        assertThat(row.category()).isEqualTo(Category.OTHERS);
+        assertThat(row.currency()).isEqualTo("INR");
+        assertThat(row.amount()).isEqualByComparingTo(new BigDecimal("15.99"));
+        assertThat(row.createdAt()).isEqualTo(LocalDateTime.of(2026, 2, 10, 8, 30));
+    }
+
+    @Test
+    @DisplayName("ImportRow: rejects the same amounts CreateEntryRequest would")
+    void importRow_rejectsInvalidAmounts() {
+        assertThatThrownBy(() -> ImportRow.validate(1, Map.of("name", "x", "amount", "0", "type", "EXPENSE"), "INR", NOW))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ImportRow.validate(1, Map.of("name", "x", "amount", "1.999", "type", "EXPENSE"), "INR", NOW))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ImportRow.validate(1, Map.of("name", "x", "amount", "5", "type", "REFUND"), "INR", NOW))
+                .hasMessageContaining("type");
+    }
+
+    private static void read(String body, ImportFormat format, List<Map<String, String>> rows,
+                             List<Long> lines, List<String> errors) throws Exception {
+        StatementRowReader.read(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), format,
+                new StatementRowReader.Sink() {
+                    @Override
+                    public void row(long line, Map<String, String> fields) {
+                        rows.add(fields);
+                        lines.add(line);
+                    }
+
+                    @Override
+                    public void malformed(long line, String reason) {
+                        errors.add(line + ":" + reason);
+                    }
+                });
+    }
+}
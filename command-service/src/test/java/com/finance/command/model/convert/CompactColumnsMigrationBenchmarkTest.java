@@ -0,0 +1,234 @@
+package com.finance.command.model.convert;
+
+import com.finance.command.model.Category;
+import com.finance.command.model.RecurringPeriod;
+import com.finance.command.model.TransactionType;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
+import org.junit.jupiter.api.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Runs V1–V3 over 200k transactions in the old varchar layout, measures,
+ * then applies V4 and measures again: table + index bytes, the analytics
+ * covering index on its own, and a per-category aggregate (best of five).
+ * Sizes are asserted; timings are only printed so the test stays stable on
+ * shared CI hardware.
+ */
+@Testcontainers
+@DisplayName("Compact enum & currency columns — migration benchmark (200k rows)")
+class CompactColumnsMigrationBenchmarkTest {
+
+    static {
+        System.setProperty("docker.api.version", "1.40");
+        System.setProperty("DOCKER_API_VERSION", "1.40");
+    }
+
+    private static final int ROWS = 200_000;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16");
+
+    /** What Hibernate generated for the entities while enums were @Enumerated(STRING). */
+    private static final String LEGACY_SCHEMA = """
+            DROP SCHEMA IF EXISTS finance CASCADE;
+            CREATE SCHEMA finance;
+            CREATE SEQUENCE finance.transaction_entries_id_seq INCREMENT BY 50;
+            CREATE TABLE finance.transaction_entries (
+                id               bigint        PRIMARY KEY,
+                user_id          uuid          NOT NULL,
+                name             varchar(100)  NOT NULL,
+                amount           numeric(38,2) NOT NULL,
+                type             varchar(255)  NOT NULL CHECK (type IN (%s)),
+                category         varchar(255)  NOT NULL,
+                currency         varchar(3)    NOT NULL,
+                description      varchar(500),
+                created_at       timestamp(6)  NOT NULL,
+                updated_at       timestamp(6),
+                recurring        boolean       NOT NULL,
+                recurring_period varchar(20)   CHECK (recurring_period IN (%s)),
+                next_run_date    timestamp(6),
+                deleted_at       timestamp(6),
+                receipt_url      varchar(500)
+            );
+            CREATE TABLE finance.outbox_events (
+                id         bigint       PRIMARY KEY,
+                user_id    uuid         NOT NULL,
+                event_type varchar(255) NOT NULL,
+                entity_id  bigint,
+                status     varchar(255) NOT NULL CHECK (status IN ('PENDING', 'PROCESSED', 'FAILED')),
+                created_at timestamp(6)
+            );
+            """.formatted(labels(TransactionType.values()), labels(RecurringPeriod.values()));
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        HikariConfig cfg = new HikariConfig();
+        cfg.setJdbcUrl(postgres.getJdbcUrl());
+        cfg.setUsername(postgres.getUsername());
+        cfg.setPassword(postgres.getPassword());
+        cfg.setMaximumPoolSize(2);
+        dataSource = new HikariDataSource(cfg);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute(LEGACY_SCHEMA);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    @DisplayName("V4 shrinks the table and covering index, and every row keeps its value")
+    void v4_shrinksRowsAndKeepsValues() {
+        UUID userId = UUID.randomUUID();
+        seed(userId);
+        migrate("3");
+        long tableBefore = treeSize("finance.transaction_entries");
+        long indexBefore = treeSize("finance.idx_transaction_active_user_created");
+        long aggregateBefore = bestOfFive();
+
+        migrate("4");
+        long tableAfter = treeSize("finance.transaction_entries");
+        long indexAfter = treeSize("finance.idx_transaction_active_user_created");
+        long aggregateAfter = bestOfFive();
+
+        System.out.printf("%-22s %,14d → %,14d bytes%n", "table + indexes", tableBefore, tableAfter);
+        System.out.printf("%-22s %,14d → %,14d bytes%n", "covering index", indexBefore, indexAfter);
+        System.out.printf("%-22s %,14d → %,14d µs%n", "GROUP BY category", aggregateBefore, aggregateAfter);
+
+        assertThat(tableAfter).isLessThan(tableBefore);
+        assertThat(indexAfter).isLessThan(indexBefore);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM finance.transaction_entries WHERE type = ?",
+                Integer.class, TransactionType.INCOME.code())).isEqualTo(ROWS / 4);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM finance.transaction_entries WHERE category = ?",
+                Integer.class, Category.GROCERIES.code())).isEqualTo(ROWS - ROWS / 4);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM finance.transaction_entries WHERE recurring_period = ?",
+                Integer.class, RecurringPeriod.MONTHLY.code())).isEqualTo(ROWS / 10);
+        Map<String, Integer> byCurrency = jdbcTemplate.query("""
+                        SELECT finance.currency_alpha(currency) AS alpha, count(*) AS n
+                        FROM finance.transaction_entries GROUP BY currency
+                        """, rs -> {
+                    Map<String, Integer> counts = new java.util.HashMap<>();
+                    while (rs.next()) counts.put(rs.getString("alpha"), rs.getInt("n"));
+                    return counts;
+                });
+        assertThat(byCurrency).containsOnlyKeys("INR", "USD", "EUR");
+
+        // SQL and Java agree on currency codes, and the dictionary resolves them
+        assertThat(jdbcTemplate.queryForObject("SELECT finance.currency_code('usd')", Short.class))
+                .isEqualTo(CurrencyCodes.encode("USD"));
+        assertThat(jdbcTemplate.queryForObject("SELECT alpha_code FROM finance.currencies WHERE code = ?",
+                String.class, CurrencyCodes.encode("INR"))).isEqualTo("INR");
+
+        // Hibernate's CHECK (type IN (...)) guards are gone from the parent and every partition
+        assertThat(jdbcTemplate.queryForObject("""
+                SELECT count(*) FROM pg_constraint
+                WHERE contype = 'c'
+                  AND conrelid IN (SELECT relid FROM pg_partition_tree('finance.transaction_entries'))
+                  AND pg_get_constraintdef(oid) LIKE '%INCOME%'
+                """, Integer.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject("""
+                SELECT data_type FROM information_schema.columns
+                WHERE table_schema = 'finance' AND table_name = 'outbox_events' AND column_name = 'status'
+                """, String.class)).isEqualTo("smallint");
+    }
+
+    @Test
+    @DisplayName("a value without a code aborts V4 and leaves the column untouched")
+    void v4_unknownLabel_aborts() {
+        migrate("3");
+        jdbcTemplate.update("""
+                INSERT INTO finance.transaction_entries
+                    (id, user_id, name, amount, type, category, currency, created_at, recurring)
+                VALUES (1, ?, 'legacy', 10, 'EXPENSE', 'FOOD_AND_DINING', 'INR', now(), false)
+                """, UUID.randomUUID());
+
+        assertThatThrownBy(() -> migrate("4"))
+                .isInstanceOf(FlywayException.class)
+                .hasMessageContaining("FOOD_AND_DINING");
+
+        assertThat(jdbcTemplate.queryForObject("""
+                SELECT data_type FROM information_schema.columns
+                WHERE table_schema = 'finance' AND table_name = 'transaction_entries' AND column_name = 'category'
+                """, String.class)).isEqualTo("character varying");
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private void seed(UUID userId) {
+        jdbcTemplate.update("""
+                INSERT INTO finance.transaction_entries
+                    (id, user_id, name, amount, type, category, currency, created_at, recurring, recurring_period)
+                SELECT g, ?, 'entry ' || g, (g % 500) + 0.99,
+                       CASE WHEN g % 4 = 0 THEN 'INCOME' ELSE 'EXPENSE' END,
+                       CASE WHEN g % 4 = 0 THEN 'SALARY' ELSE 'GROCERIES' END,
+                       (ARRAY['INR', 'USD', 'EUR'])[g % 3 + 1],
+                       now() - (g % 400 || ' days')::interval,
+                       g % 10 = 0,
+                       CASE WHEN g % 10 = 0 THEN 'MONTHLY' END
+                FROM generate_series(1, ?) g
+                """, userId, ROWS);
+        jdbcTemplate.execute("VACUUM ANALYZE finance.transaction_entries");
+    }
+
+    private void migrate(String target) {
+        Flyway.configure()
+                .dataSource(dataSource)
+                .schemas("finance")
+                .defaultSchema("finance")
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .placeholders(Map.of("shard_id", "0"))
+                .target(target)
+                .load()
+                .migrate();
+    }
+
+    /** Bytes of a table or index including every partition (and, for tables, their indexes and TOAST). */
+    private long treeSize(String relation) {
+        return jdbcTemplate.queryForObject("""
+                SELECT sum(CASE WHEN c.relkind IN ('r', 'p') THEN pg_total_relation_size(t.relid)
+                                ELSE pg_relation_size(t.relid) END)
+                FROM pg_partition_tree(?::regclass) t
+                JOIN pg_class c ON c.oid = t.relid
+                """, Long.class, relation);
+    }
+
+    /** Microseconds of the fastest of five runs, after one warm-up. */
+    private long bestOfFive() {
+        String sql = """
+                SELECT category, sum(amount) FROM finance.transaction_entries
+                WHERE deleted_at IS NULL GROUP BY category
+                """;
+        jdbcTemplate.queryForList(sql);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            long start = System.nanoTime();
+            jdbcTemplate.queryForList(sql);
+            best = Math.min(best, (System.nanoTime() - start) / 1_000);
+        }
+        return best;
+    }
+
+    private static String labels(Enum<?>[] constants) {
+        return Arrays.stream(constants).map(c -> "'" + c.name() + "'").collect(Collectors.joining(", "));
+    }
+}
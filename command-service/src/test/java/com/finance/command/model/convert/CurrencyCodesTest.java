@@ -0,0 +1,79 @@
+package com.finance.command.model.convert;
+
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Currency;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("CurrencyCodes — Unit Tests")
+class CurrencyCodesTest {
+
+    @Test
+    @DisplayName("codes are pinned — finance.currency_code() computes the same values")
+    void encode_isPinned() {
+        assertThat(CurrencyCodes.encode("AAA")).isEqualTo((short) 1);
+        assertThat(CurrencyCodes.encode("INR")).isEqualTo((short) 5764);
+        assertThat(CurrencyCodes.encode("USD")).isEqualTo((short) 13992);
+        assertThat(CurrencyCodes.encode("ZZZ")).isEqualTo((short) 17576);
+    }
+
+    @Test
+    @DisplayName("every ISO currency round-trips to a distinct code")
+    void isoCurrencies_roundTrip() {
+        Set<Short> seen = new HashSet<>();
+        for (Currency currency : Currency.getAvailableCurrencies()) {
+            short code = CurrencyCodes.encode(currency.getCurrencyCode());
+            assertThat(seen.add(code)).as(currency.getCurrencyCode()).isTrue();
+            assertThat(CurrencyCodes.decode(code)).isEqualTo(currency.getCurrencyCode());
+        }
+    }
+
+    @Test
+    @DisplayName("lower-case input is stored upper-case")
+    void encode_normalizesCase() {
+        assertThat(CurrencyCodes.decode(CurrencyCodes.encode("eur"))).isEqualTo("EUR");
+    }
+
+    @Test
+    @DisplayName("anything but three letters is rejected")
+    void encode_invalid_rejected() {
+        for (String invalid : new String[] {null, "", "US", "USDT", "U$D", "12A"}) {
+            assertThatThrownBy(() -> CurrencyCodes.encode(invalid))
+                    .as(String.valueOf(invalid))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    @DisplayName("codes outside AAA..ZZZ are rejected on read")
+    void decode_outOfRange_rejected() {
+        assertThatThrownBy(() -> CurrencyCodes.decode((short) 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CurrencyCodes.decode((short) 17577)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(new CurrencyConverter().convertToEntityAttribute(null)).isNull();
+    }
+
+    @Test
+    @DisplayName("the V4 currency dictionary names survive as UTF-8 and match the code column")
+    void v4CurrencySeed_isIntact() throws IOException {
+        String sql;
+        try (InputStream in = getClass().getResourceAsStream("/db/migration/V4__compact_enum_currency_columns.sql")) {
+            sql = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        Matcher row = Pattern.compile("\\('([A-Z]{3})', (-?\\d+), (-?\\d+), '([^']*)'\\)").matcher(sql);
+        int rows = 0;
+        while (row.find()) {
+            rows++;
+            assertThat(row.group(4)).as(row.group(1)).doesNotContain("?", "\uFFFD");
+        }
+        assertThat(rows).isGreaterThan(200);
+        assertThat(sql).contains("'Costa Rican Colón'", "'São Tomé and Príncipe Dobra'");
+    }
+}
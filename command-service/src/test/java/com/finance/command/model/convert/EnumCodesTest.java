@@ -0,0 +1,135 @@
+package com.finance.command.model.convert;
+
+import com.finance.command.model.Category;
+import com.finance.command.model.CodedEnum;
+import com.finance.command.model.GroupActivity;
+import com.finance.command.model.GroupMember;
+import com.finance.command.model.OutboxEvent;
+import com.finance.command.model.Priority;
+import com.finance.command.model.RecurringPeriod;
+import com.finance.command.model.SharedExpense;
+import com.finance.command.model.TransactionType;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("EnumCodes — Unit Tests")
+class EnumCodesTest {
+
+    private static final List<CodedEnumConverter<?>> CONVERTERS = List.of(
+            new EnumConverters.TransactionTypeConverter(),
+            new EnumConverters.CategoryConverter(),
+            new EnumConverters.RecurringPeriodConverter(),
+            new EnumConverters.PriorityConverter(),
+            new EnumConverters.EventStatusConverter(),
+            new EnumConverters.SplitTypeConverter(),
+            new EnumConverters.ExpenseCategoryConverter(),
+            new EnumConverters.ActivityTypeConverter(),
+            new EnumConverters.InvitationStatusConverter());
+
+    /** Column → enum for every coded column V4 rewrites. */
+    private static final Map<String, Class<? extends Enum<?>>> V4_COLUMNS = Map.ofEntries(
+            Map.entry("finance.transaction_entries.type", TransactionType.class),
+            Map.entry("finance.transaction_entries.category", Category.class),
+            Map.entry("finance.transaction_entries.recurring_period", RecurringPeriod.class),
+            Map.entry("finance.category_budgets.expense_category", Category.class),
+            Map.entry("finance.category_budgets.period", RecurringPeriod.class),
+            Map.entry("finance.savings_goals.priority", Priority.class),
+            Map.entry("finance.subscriptions.period", RecurringPeriod.class),
+            Map.entry("finance.merchant_pattern_state.candidate_period", RecurringPeriod.class),
+            Map.entry("finance.outbox_events.status", OutboxEvent.EventStatus.class),
+            Map.entry("groups.shared_expenses.split_type", SharedExpense.SplitType.class),
+            Map.entry("groups.shared_expenses.expense_category", SharedExpense.ExpenseCategory.class),
+            Map.entry("groups.group_members.status", GroupMember.InvitationStatus.class),
+            Map.entry("activity.group_activities.activity_type", GroupActivity.ActivityType.class));
+
+    @Test
+    @DisplayName("stored codes are pinned — changing one corrupts existing rows")
+    void codes_arePinned() {
+        assertThat(TransactionType.INCOME.code()).isEqualTo((short) 1);
+        assertThat(TransactionType.EXPENSE.code()).isEqualTo((short) 2);
+        assertThat(Category.SALARY.code()).isEqualTo((short) 1);
+        assertThat(Category.GROCERIES.code()).isEqualTo((short) 26);
+        assertThat(Category.OTHERS.code()).isEqualTo((short) 74);
+        assertThat(RecurringPeriod.WEEKLY.code()).isEqualTo((short) 2);
+        assertThat(OutboxEvent.EventStatus.PENDING.code()).isEqualTo((short) 1);
+        assertThat(SharedExpense.ExpenseCategory.GROCERIES.code()).isEqualTo((short) 11);
+    }
+
+    @Test
+    @DisplayName("every constant of every coded enum round-trips through its converter")
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void converters_roundTrip() {
+        for (CodedEnumConverter converter : CONVERTERS) {
+            Class<?> type = converter.convertToEntityAttribute((short) 1).getClass();
+            for (Object constant : type.getEnumConstants()) {
+                Short code = converter.convertToDatabaseColumn((Enum) constant);
+                assertThat(code).isEqualTo(((CodedEnum) constant).code());
+                assertThat(converter.convertToEntityAttribute(code)).isSameAs(constant);
+            }
+            assertThat(converter.convertToDatabaseColumn(null)).isNull();
+            assertThat(converter.convertToEntityAttribute(null)).isNull();
+        }
+    }
+
+    @Test
+    @DisplayName("an unknown code is rejected instead of mapping to a wrong constant")
+    void decode_unknownCode_rejected() {
+        assertThatThrownBy(() -> EnumCodes.decode(TransactionType.class, (short) 3))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("TransactionType code 3");
+        assertThatThrownBy(() -> new EnumConverters.CategoryConverter().convertToEntityAttribute((short) 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("decodeNullable accepts any numeric type a native query returns")
+    void decodeNullable_widensNumbers() {
+        assertThat(EnumCodes.decodeNullable(RecurringPeriod.class, 3)).isEqualTo(RecurringPeriod.MONTHLY);
+        assertThat(EnumCodes.decodeNullable(RecurringPeriod.class, (short) 4)).isEqualTo(RecurringPeriod.YEARLY);
+        assertThat(EnumCodes.decodeNullable(RecurringPeriod.class, null)).isNull();
+    }
+
+    @Test
+    @DisplayName("V4 migration writes the same code the enum declares for every label")
+    void v4Migration_matchesEnumCodes() throws IOException {
+        String sql;
+        try (InputStream in = getClass().getResourceAsStream("/db/migration/V4__compact_enum_currency_columns.sql")) {
+            assertThat(in).isNotNull();
+            sql = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        Matcher m = Pattern.compile("enum_column\\('([^']+)', '([^']+)',\\s*ARRAY\\[([^]]+)]\\)").matcher(sql);
+        int columns = 0;
+        while (m.find()) {
+            String column = m.group(1) + "." + m.group(2);
+            Class<? extends Enum<?>> type = V4_COLUMNS.get(column);
+            assertThat(type).as("enum for " + column).isNotNull();
+            String[] labels = m.group(3).replaceAll("[\\s']", "").split(",");
+            assertThat(labels).as(column).hasSize(type.getEnumConstants().length);
+            for (int i = 0; i < labels.length; i++) {
+                assertThat(codeOf(type, labels[i])).as(column + " " + labels[i]).isEqualTo(i + 1);
+            }
+            columns++;
+        }
+        assertThat(columns).isEqualTo(V4_COLUMNS.size());
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private static int codeOf(Class<? extends Enum<?>> type, String label) {
+        for (Enum<?> constant : type.getEnumConstants()) {
+            if (constant.name().equals(label)) {
+                return ((CodedEnum) constant).code();
+            }
+        }
+        throw new AssertionError(type.getSimpleName() + " has no constant " + label);
+    }
+}
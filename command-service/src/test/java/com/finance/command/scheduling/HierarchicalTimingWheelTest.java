@@ -0,0 +1,103 @@
+package com.finance.command.scheduling;
+
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("HierarchicalTimingWheel — Unit Tests")
+class HierarchicalTimingWheelTest {
+
+    private final List<long[]> fired = new CopyOnWriteArrayList<>();
+    private CountDownLatch latch;
+    private HierarchicalTimingWheel wheel;
+
+    private void startWheel(long tickMs, int wheelSize, int expectedFires) {
+        latch = new CountDownLatch(expectedFires);
+        wheel = new HierarchicalTimingWheel("test-wheel", tickMs, wheelSize, (key, dueAtMs) -> {
+            fired.add(new long[]{key, dueAtMs, System.currentTimeMillis()});
+            latch.countDown();
+        }, Runnable::run);
+        wheel.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (wheel != null) wheel.close();
+    }
+
+    @Test
+    @DisplayName("schedule: fires once, no earlier than its due time")
+    void schedule_firesAtDueTime() throws InterruptedException {
+        startWheel(10, 20, 1);
+        long due = System.currentTimeMillis() + 100;
+
+        wheel.schedule(1L, due);
+
+        assertThat(latch.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(fired).hasSize(1);
+        assertThat(fired.get(0)[0]).isEqualTo(1L);
+        assertThat(fired.get(0)[2]).isGreaterThanOrEqualTo(due - 10);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("schedule: already-due key fires immediately")
+    void schedule_pastDue_firesImmediately() throws InterruptedException {
+        startWheel(10, 20, 1);
+
+        wheel.schedule(7L, System.currentTimeMillis() - 1000);
+
+        assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(fired.get(0)[0]).isEqualTo(7L);
+    }
+
+    @Test
+    @DisplayName("cancel: cancelled key never fires")
+    void cancel_preventsFiring() throws InterruptedException {
+        startWheel(10, 20, 1);
+
+        wheel.schedule(1L, System.currentTimeMillis() + 100);
+        assertThat(wheel.cancel(1L)).isTrue();
+
+        assertThat(latch.await(400, TimeUnit.MILLISECONDS)).isFalse();
+        assertThat(fired).isEmpty();
+        assertThat(wheel.cancel(1L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("schedule: rescheduling a key replaces the earlier due time")
+    void schedule_reschedule_replacesPrevious() throws InterruptedException {
+        startWheel(10, 20, 1);
+        long later = System.currentTimeMillis() + 250;
+
+        wheel.schedule(1L, System.currentTimeMillis() + 50);
+        wheel.schedule(1L, later);
+
+        assertThat(wheel.dueAt(1L)).isEqualTo(later);
+        assertThat(latch.await(2, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(100);
+        assertThat(fired).hasSize(1);
+        assertThat(fired.get(0)[1]).isEqualTo(later);
+    }
+
+    @Test
+    @DisplayName("schedule: delays beyond one wheel cascade through overflow wheels")
+    void schedule_beyondWheelInterval_cascades() throws InterruptedException {
+        // 5ms x 4 slots = 20ms per level, so 300ms needs several overflow levels
+        startWheel(5, 4, 3);
+        long now = System.currentTimeMillis();
+
+        wheel.schedule(3L, now + 300);
+        wheel.schedule(1L, now + 30);
+        wheel.schedule(2L, now + 120);
+
+        assertThat(latch.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(fired).extracting(f -> f[0]).containsExactly(1L, 2L, 3L);
+        fired.forEach(f -> assertThat(f[2]).isGreaterThanOrEqualTo(f[1] - 5));
+    }
+}
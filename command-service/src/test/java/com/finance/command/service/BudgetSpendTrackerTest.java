@@ -0,0 +1,119 @@
+package com.finance.command.service;
+
+import com.finance.command.model.Category;
+import com.finance.command.model.CategoryBudget;
+import com.finance.command.model.RecurringPeriod;
+import com.finance.command.model.TransactionType;
+import com.finance.command.repository.BudgetSpendCounterRepository;
+import com.finance.command.repository.CategoryBudgetRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.*;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BudgetSpendTracker — Unit Tests")
+class BudgetSpendTrackerTest {
+
+    @Mock CategoryBudgetRepository budgetRepository;
+    @Mock BudgetSpendCounterRepository counterRepository;
+    @Mock NotificationService notificationService;
+
+    BudgetSpendTracker tracker;
+
+    private final UUID userId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        tracker = new BudgetSpendTracker(budgetRepository, counterRepository, notificationService,
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("crossedThreshold: reports the highest threshold crossed upwards only")
+    void crossedThreshold_detectsUpwardCrossings() {
+        BigDecimal budget = new BigDecimal("1000");
+
+        assertThat(BudgetSpendTracker.crossedThreshold(new BigDecimal("700"), new BigDecimal("800"), budget)).isEqualTo(80);
+        assertThat(BudgetSpendTracker.crossedThreshold(new BigDecimal("700"), new BigDecimal("1200"), budget)).isEqualTo(100);
+        assertThat(BudgetSpendTracker.crossedThreshold(new BigDecimal("850"), new BigDecimal("900"), budget)).isZero();
+        assertThat(BudgetSpendTracker.crossedThreshold(new BigDecimal("1200"), new BigDecimal("700"), budget)).isZero();
+    }
+
+    @Test
+    @DisplayName("apply: sums deltas per category and pushes a notification when 80% is crossed")
+    void apply_crossesWarning_notifies() {
+        CategoryBudget budget = budget(new BigDecimal("1000"));
+        when(budgetRepository.findByUserIdAndExpenseCategoryAndActiveTrue(userId, Category.GROCERIES))
+                .thenReturn(Optional.of(budget));
+        when(counterRepository.applyDelta(eq(7L), any(), eq(userId), eq(TransactionType.EXPENSE.code()),
+                eq(Category.GROCERIES.code()), any(), any(),
+                eq(new BigDecimal("150")))).thenReturn(new BigDecimal("820"));
+
+        LocalDateTime now = LocalDateTime.now();
+        tracker.apply(userId, List.of(
+                new BudgetSpendTracker.SpendDelta(Category.GROCERIES, now, new BigDecimal("100")),
+                new BudgetSpendTracker.SpendDelta(Category.GROCERIES, now, new BigDecimal("50"))));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<String, Object>> payload = ArgumentCaptor.forClass(Map.class);
+        verify(notificationService).sendNotification(eq(userId), payload.capture());
+        assertThat(payload.getValue())
+                .containsEntry("event", "budget-threshold")
+                .containsEntry("threshold", 80);
+    }
+
+    @Test
+    @DisplayName("apply: deltas outside the current period and categories without a budget are ignored")
+    void apply_outsidePeriodOrNoBudget_noCounterUpdate() {
+        when(budgetRepository.findByUserIdAndExpenseCategoryAndActiveTrue(userId, Category.GROCERIES))
+                .thenReturn(Optional.of(budget(new BigDecimal("1000"))));
+        when(budgetRepository.findByUserIdAndExpenseCategoryAndActiveTrue(userId, Category.RESTAURANTS))
+                .thenReturn(Optional.empty());
+
+        tracker.apply(userId, List.of(
+                new BudgetSpendTracker.SpendDelta(Category.GROCERIES, LocalDateTime.now().minusMonths(2), BigDecimal.TEN),
+                new BudgetSpendTracker.SpendDelta(Category.RESTAURANTS, LocalDateTime.now(), BigDecimal.TEN)));
+
+        verify(counterRepository, never()).applyDelta(any(), any(), any(), anyShort(), anyShort(), any(), any(), any());
+        verifyNoInteractions(notificationService);
+    }
+
+    @Test
+    @DisplayName("SpendTotals: folds deltas per category and day, keeping later-than-asOf ones exact")
+    void spendTotals_foldsPerCategoryAndDay() {
+        LocalDateTime asOf = LocalDateTime.of(2025, 5, 20, 12, 0);
+        BudgetSpendTracker.SpendTotals totals = new BudgetSpendTracker.SpendTotals(asOf);
+        totals.add(Category.GROCERIES, asOf.minusHours(3), new BigDecimal("10"));
+        totals.add(Category.GROCERIES, asOf.minusHours(1), new BigDecimal("5"));
+        totals.add(Category.GROCERIES, asOf.minusDays(1), new BigDecimal("7"));
+        totals.add(Category.RESTAURANTS, asOf.minusHours(1), new BigDecimal("4"));
+        totals.add(Category.GROCERIES, asOf.plusHours(2), new BigDecimal("1"));
+
+        assertThat(totals.deltas()).containsExactlyInAnyOrder(
+                new BudgetSpendTracker.SpendDelta(Category.GROCERIES, asOf.toLocalDate().atStartOfDay(), new BigDecimal("15")),
+                new BudgetSpendTracker.SpendDelta(Category.GROCERIES, asOf.minusDays(1).toLocalDate().atStartOfDay(), new BigDecimal("7")),
+                new BudgetSpendTracker.SpendDelta(Category.RESTAURANTS, asOf.toLocalDate().atStartOfDay(), new BigDecimal("4")),
+                new BudgetSpendTracker.SpendDelta(Category.GROCERIES, asOf.plusHours(2), new BigDecimal("1")));
+    }
+
+    private CategoryBudget budget(BigDecimal amount) {
+        CategoryBudget b = new CategoryBudget();
+        b.setId(7L);
+        b.setUserId(userId);
+        b.setExpenseCategory(Category.GROCERIES);
+        b.setBudgetAmount(amount);
+        b.setPeriod(RecurringPeriod.MONTHLY);
+        b.setCurrency("INR");
+        return b;
+    }
+}
@@ -0,0 +1,161 @@
+package com.finance.command.service;
+
+import com.finance.command.dto.CreateEntryRequest;
+import com.finance.command.dto.CreateEntryResponse;
+import com.finance.command.model.Category;
+import com.finance.command.model.TransactionType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.*;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CreateEntryGroupCommitter — Unit Tests")
+class CreateEntryGroupCommitterTest {
+
+    @Mock TransactionEntryService service;
+
+    CreateEntryGroupCommitter committer;
+
+    private final UUID userId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        committer = new CreateEntryGroupCommitter(service, new SimpleAsyncTaskExecutor(), new SimpleMeterRegistry(),
+                true, Duration.ofSeconds(5), 3, 2, Duration.ofSeconds(10));
+        committer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        committer.stop();
+    }
+
+    @Test
+    @DisplayName("concurrent creates are written as one group and each caller gets its own entry")
+    void create_coalescesConcurrentRequests() throws Exception {
+        when(service.createEntries(anyList(), eq(true))).thenAnswer(inv -> {
+            List<CreateEntryRequest> requests = inv.getArgument(0);
+            return requests.stream().map(r -> response(Long.parseLong(r.getName()), r)).toList();
+        });
+
+        Map<String, CreateEntryResponse> results = createConcurrently("1", "2", "3");
+
+        results.forEach((name, response) -> assertThat(response.getId()).isEqualTo(Long.parseLong(name)));
+        verify(service, times(1)).createEntries(argThat(list -> list.size() == 3), eq(true));
+        verify(service, never()).createEntry(any(), any());
+    }
+
+    @Test
+    @DisplayName("a group is written in (user, merchant) order and responses still reach their callers")
+    void create_sortsGroupByUserAndMerchant() throws Exception {
+        when(service.createEntries(anyList(), eq(true))).thenAnswer(inv -> {
+            List<CreateEntryRequest> requests = inv.getArgument(0);
+            return requests.stream().map(r -> response(Long.parseLong(r.getName().trim()), r)).toList();
+        });
+
+        Map<String, CreateEntryResponse> results = createConcurrently("3", " 1", "2");
+
+        results.forEach((name, response) -> assertThat(response.getId()).isEqualTo(Long.parseLong(name.trim())));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<CreateEntryRequest>> written = ArgumentCaptor.forClass(List.class);
+        verify(service).createEntries(written.capture(), eq(true));
+        assertThat(written.getValue()).extracting(CreateEntryRequest::getName).containsExactly(" 1", "2", "3");
+    }
+
+    @Test
+    @DisplayName("a failing group is replayed individually so only the bad request fails")
+    void create_groupFailure_replaysIndividually() throws Exception {
+        when(service.createEntries(anyList(), eq(true))).thenThrow(new IllegalArgumentException("bad row"));
+        when(service.createEntry(any(), isNull())).thenAnswer(inv -> {
+            CreateEntryRequest r = inv.getArgument(0);
+            if (r.getName().equals("2")) {
+                throw new IllegalArgumentException("bad row");
+            }
+            return response(Long.parseLong(r.getName()), r);
+        });
+
+        ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor();
+        Future<CreateEntryResponse> ok1 = callers.submit(() -> committer.create(request("1")));
+        Future<CreateEntryResponse> bad = callers.submit(() -> committer.create(request("2")));
+        Future<CreateEntryResponse> ok3 = callers.submit(() -> committer.create(request("3")));
+
+        assertThat(ok1.get(5, TimeUnit.SECONDS).getId()).isEqualTo(1L);
+        assertThat(ok3.get(5, TimeUnit.SECONDS).getId()).isEqualTo(3L);
+        assertThatThrownBy(() -> bad.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+        callers.shutdown();
+    }
+
+    @Test
+    @DisplayName("a group the executor rejects fails its callers and frees its in-flight slot")
+    void create_executorRejects_failsCallersAndReleasesPermit() {
+        AtomicInteger executions = new AtomicInteger();
+        AsyncTaskExecutor rejectingAfterLeader = task -> {
+            if (executions.getAndIncrement() > 0) {
+                throw new TaskRejectedException("executor saturated");
+            }
+            Thread.ofVirtual().start(task);
+        };
+        CreateEntryGroupCommitter rejecting = new CreateEntryGroupCommitter(service, rejectingAfterLeader,
+                new SimpleMeterRegistry(), true, Duration.ofMillis(1), 3, 1, Duration.ofSeconds(5));
+        rejecting.start();
+        try {
+            // With max-in-flight 1, a leaked permit would leave the second caller waiting out its timeout
+            for (String name : List.of("1", "2")) {
+                assertThatThrownBy(() -> rejecting.create(request(name)))
+                        .isInstanceOf(IllegalStateException.class)
+                        .hasMessageContaining("Group commit unavailable");
+            }
+        } finally {
+            rejecting.stop();
+        }
+        verifyNoInteractions(service);
+    }
+
+    private Map<String, CreateEntryResponse> createConcurrently(String... names) throws Exception {
+        ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor();
+        Map<String, Future<CreateEntryResponse>> futures = new LinkedHashMap<>();
+        for (String name : names) {
+            futures.put(name, callers.submit(() -> committer.create(request(name))));
+        }
+        Map<String, CreateEntryResponse> results = new LinkedHashMap<>();
+        for (Map.Entry<String, Future<CreateEntryResponse>> e : futures.entrySet()) {
+            results.put(e.getKey(), e.getValue().get(5, TimeUnit.SECONDS));
+        }
+        callers.shutdown();
+        return results;
+    }
+
+    private CreateEntryRequest request(String name) {
+        CreateEntryRequest request = new CreateEntryRequest();
+        request.setUserId(userId);
+        request.setName(name);
+        request.setAmount(new BigDecimal("10.00"));
+        request.setType(TransactionType.EXPENSE);
+        request.setCategory(Category.OTHERS);
+        request.setCurrency("INR");
+        return request;
+    }
+
+    private CreateEntryResponse response(Long id, CreateEntryRequest r) {
+        return new CreateEntryResponse(id, r.getUserId(), r.getName(), r.getAmount(),
+                r.getType(), r.getCategory(), r.getCurrency(), null,
+                false, null, LocalDateTime.now(), LocalDateTime.now(), null);
+    }
+}
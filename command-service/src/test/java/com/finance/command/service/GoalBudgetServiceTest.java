@@ -13,6 +13,8 @@ import java.time.LocalDateTime;
 import java.util.*;
 
 import static org.assertj.core.api.Assertions.*;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -23,6 +25,7 @@ class GoalBudgetServiceTest {
     @Mock CategoryBudgetRepository budgetRepository;
     @Mock TransactionEntryRepository transactionRepository;
     @Mock TransactionGoalAllocationRepository allocationRepository;
+    @Mock BudgetSpendTracker budgetSpendTracker;
 
     @InjectMocks GoalBudgetService service;
 
@@ -65,7 +68,9 @@ class GoalBudgetServiceTest {
     void contributeToGoal_reachesTarget_marksCompleted() {
         SavingsGoal goal = buildGoal(new BigDecimal("10000"), new BigDecimal("9000"));
         when(goalRepository.findById(1L)).thenReturn(Optional.of(goal));
-        when(goalRepository.save(any())).thenAnswer(i -> i.getArgument(0));
+        GoalProgressRow progress = progress(new BigDecimal("10000"), new BigDecimal("10000"), true);
+        when(goalRepository.applySavedDelta(eq(1L), eq(userId), eq(new BigDecimal("1000")), any()))
+                .thenReturn(Optional.of(progress));
 
         GoalContributionRequest req = new GoalContributionRequest();
         req.setAmount(new BigDecimal("1000"));
@@ -85,7 +90,8 @@ class GoalBudgetServiceTest {
     void contributeToGoal_partialAmount_notCompleted() {
         SavingsGoal goal = buildGoal(new BigDecimal("10000"), BigDecimal.ZERO);
         when(goalRepository.findById(1L)).thenReturn(Optional.of(goal));
-        when(goalRepository.save(any())).thenAnswer(i -> i.getArgument(0));
+        GoalProgressRow progress = progress(new BigDecimal("3000"), new BigDecimal("10000"), false);
+        when(goalRepository.applySavedDelta(eq(1L), eq(userId), any(), any())).thenReturn(Optional.of(progress));
 
         GoalContributionRequest req = new GoalContributionRequest();
         req.setAmount(new BigDecimal("3000"));
@@ -133,6 +139,47 @@ class GoalBudgetServiceTest {
                 .isInstanceOf(SecurityException.class);
     }
 
+    @Test
+    @DisplayName("adjustGoalSavedAmount: applies the delta in the database without loading the goal")
+    void adjustGoalSavedAmount_atomicDelta_noReadModifyWrite() {
+        GoalProgressRow progress = progress(new BigDecimal("500"), new BigDecimal("1000"), false);
+        when(goalRepository.applySavedDelta(eq(1L), eq(userId), eq(new BigDecimal("-200")), any()))
+                .thenReturn(Optional.of(progress));
+
+        service.adjustGoalSavedAmount(1L, userId, new BigDecimal("-200"));
+
+        verify(goalRepository, never()).findById(any());
+        verify(goalRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("adjustGoalSavedAmount: throws SecurityException when no row updated for another user's goal")
+    void adjustGoalSavedAmount_wrongUser_throwsSecurityException() {
+        SavingsGoal goal = buildGoal(new BigDecimal("1000"), BigDecimal.ZERO);
+        goal.setUserId(UUID.randomUUID());
+        when(goalRepository.applySavedDelta(any(), any(), any(), any())).thenReturn(Optional.empty());
+        when(goalRepository.findById(1L)).thenReturn(Optional.of(goal));
+
+        assertThatThrownBy(() -> service.adjustGoalSavedAmount(1L, userId, BigDecimal.TEN))
+                .isInstanceOf(SecurityException.class);
+    }
+
+    @Test
+    @DisplayName("adjustGoalSavedAmounts: applies every goal's delta in one statement")
+    void adjustGoalSavedAmounts_batchesDeltas() {
+        when(goalRepository.applySavedDeltas(any(), any(), eq(userId), any())).thenReturn(List.of());
+
+        Map<Long, BigDecimal> deltas = new LinkedHashMap<>();
+        deltas.put(1L, new BigDecimal("-30"));
+        deltas.put(2L, new BigDecimal("15"));
+        service.adjustGoalSavedAmounts(userId, deltas);
+
+        verify(goalRepository).applySavedDeltas(
+                aryEq(new Long[]{1L, 2L}),
+                aryEq(new BigDecimal[]{new BigDecimal("-30"), new BigDecimal("15")}),
+                eq(userId), any());
+    }
+
     @Test
     @DisplayName("getGoals: returns list of active goals mapped to response")
     void getGoals_returnsActiveGoals() {
@@ -172,15 +219,21 @@ class GoalBudgetServiceTest {
     }
 
     @Test
-    @DisplayName("getBudgets: returns utilization for all active budgets")
+    @DisplayName("getBudgets: returns utilization for all active budgets from one grouped query")
     void getBudgets_returnsUtilizationList() {
-        CategoryBudget budget = buildBudget(new BigDecimal("1000"), RecurringPeriod.MONTHLY);
-        when(budgetRepository.findByUserIdAndActiveTrueOrderByCreatedAtDesc(userId)).thenReturn(List.of(budget));
-        when(transactionRepository.sumExpensesByCategory(any(), any(), any(), any()))
-                .thenReturn(new BigDecimal("850")); // 85%
+        BudgetSpendRow row = mock(BudgetSpendRow.class);
+        when(row.getBudgetId()).thenReturn(1L);
+        when(row.getExpenseCategory()).thenReturn(Category.RESTAURANTS);
+        when(row.getBudgetAmount()).thenReturn(new BigDecimal("1000"));
+        when(row.getPeriod()).thenReturn(RecurringPeriod.MONTHLY);
+        when(row.getCurrency()).thenReturn("INR");
+        when(row.getSpent()).thenReturn(new BigDecimal("850")); // 85%
+        when(budgetRepository.findActiveWithSpend(eq(userId), any())).thenReturn(List.of(row));
 
         List<BudgetUtilizationResponse> res = service.getBudgets(userId);
 
+        verify(transactionRepository, never()).sumExpensesByCategory(any(), any(), any(), any());
+
         assertThat(res).hasSize(1);
         assertThat(res.get(0).getStatus()).isEqualTo("WARNING");
         assertThat(res.get(0).getUtilizationPercentage()).isEqualTo(85.0);
@@ -274,6 +327,16 @@ class GoalBudgetServiceTest {
         return g;
     }
 
+    private GoalProgressRow progress(BigDecimal saved, BigDecimal target, boolean justCompleted) {
+        GoalProgressRow row = mock(GoalProgressRow.class);
+        lenient().when(row.getId()).thenReturn(1L);
+        lenient().when(row.getSavedAmount()).thenReturn(saved);
+        lenient().when(row.getTargetAmount()).thenReturn(target);
+        lenient().when(row.getCompletedAt()).thenReturn(justCompleted ? LocalDateTime.now() : null);
+        lenient().when(row.getJustCompleted()).thenReturn(justCompleted);
+        return row;
+    }
+
     private CategoryBudget buildBudget(BigDecimal amount, RecurringPeriod period) {
         CategoryBudget b = new CategoryBudget();
         b.setId(1L);
@@ -0,0 +1,95 @@
+package com.finance.command.service;
+
+import com.finance.command.model.ExpenseSplit;
+import com.finance.command.model.SharedExpense;
+import com.finance.command.repository.ExpenseGroupRepository;
+import com.finance.command.repository.GroupMemberBalanceRepository;
+import com.finance.command.shard.ShardMap;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.*;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("GroupBalanceLedger — Unit Tests")
+class GroupBalanceLedgerTest {
+
+    @Mock GroupMemberBalanceRepository balanceRepo;
+    @Mock ExpenseGroupRepository groupRepo;
+    @Mock TransactionTemplate transactionTemplate;
+    @Mock CacheManager cacheManager;
+    @Mock ShardMap shardMap;
+
+    GroupBalanceLedger ledger;
+
+    private final UUID payer = UUID.randomUUID();
+    private final UUID other = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        ledger = new GroupBalanceLedger(balanceRepo, groupRepo, transactionTemplate, cacheManager, shardMap,
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("recordExpense: payer gets +paid, every split member gets +owed")
+    void recordExpense_existingLedger_appliesDeltas() {
+        when(balanceRepo.existsByGroupId(7L)).thenReturn(true);
+
+        ledger.recordExpense(expense("100.00"), List.of(split(payer, "50.00"), split(other, "50.00")));
+
+        verify(groupRepo).lockById(7L);
+        verify(balanceRepo).applyDelta(7L, payer, new BigDecimal("100.00"), new BigDecimal("50.00"));
+        verify(balanceRepo).applyDelta(7L, other, BigDecimal.ZERO, new BigDecimal("50.00"));
+        verify(balanceRepo, never()).rebuildFromSplits(any());
+    }
+
+    @Test
+    @DisplayName("recordExpense: group without a ledger is rebuilt instead of receiving a delta")
+    void recordExpense_noLedger_rebuilds() {
+        when(balanceRepo.existsByGroupId(7L)).thenReturn(false);
+
+        ledger.recordExpense(expense("100.00"), List.of(split(other, "100.00")));
+
+        verify(balanceRepo).rebuildFromSplits(7L);
+        verify(balanceRepo, never()).applyDelta(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("reverseExpense: applies the negated deltas")
+    void reverseExpense_existingLedger_negatesDeltas() {
+        when(balanceRepo.existsByGroupId(7L)).thenReturn(true);
+
+        ledger.reverseExpense(expense("30.00"), List.of(split(other, "30.00")));
+
+        verify(balanceRepo).applyDelta(7L, payer, new BigDecimal("-30.00"), BigDecimal.ZERO);
+        verify(balanceRepo).applyDelta(7L, other, BigDecimal.ZERO, new BigDecimal("-30.00"));
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private SharedExpense expense(String amount) {
+        SharedExpense e = new SharedExpense();
+        e.setId(1L);
+        e.setGroupId(7L);
+        e.setPaidBy(payer);
+        e.setAmount(new BigDecimal(amount));
+        return e;
+    }
+
+    private ExpenseSplit split(UUID userId, String amount) {
+        ExpenseSplit s = new ExpenseSplit();
+        s.setUserId(userId);
+        s.setAmount(new BigDecimal(amount));
+        return s;
+    }
+}
@@ -0,0 +1,130 @@
+package com.finance.command.service;
+
+import com.finance.command.model.Category;
+import com.finance.command.model.RecurringPeriod;
+import com.finance.command.model.TransactionEntry;
+import com.finance.command.model.TransactionType;
+import com.finance.command.repository.MerchantPatternStateRepository;
+import com.finance.command.repository.SubscriptionRepository;
+import com.finance.command.repository.TransactionEntryRepository;
+import com.finance.command.shard.ShardMap;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.*;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the daily detection job against a pool configured like the write pool
+ * (auto-commit off) and checks the upserted subscriptions are committed, not
+ * rolled back when the workers hand their connections back.
+ */
+@Testcontainers
+@DisplayName("Subscription detection — Integration Tests")
+class SubscriptionDetectionIntegrationTest {
+
+    static {
+        System.setProperty("docker.api.version", "1.40");
+        System.setProperty("DOCKER_API_VERSION", "1.40");
+    }
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16");
+
+    private static final String SCHEMA = """
+            DROP SCHEMA IF EXISTS finance CASCADE;
+            CREATE SCHEMA finance;
+            CREATE TABLE finance.subscriptions (
+                id bigserial PRIMARY KEY, user_id uuid NOT NULL, name varchar(100) NOT NULL,
+                amount numeric(12, 2) NOT NULL, currency smallint NOT NULL, period smallint NOT NULL,
+                next_charge_date date, days_until_charge int, active boolean NOT NULL,
+                detected_at timestamp NOT NULL, last_seen_at timestamp,
+                CONSTRAINT uk_subscription_user_name_amount UNIQUE (user_id, name, amount));
+            """;
+
+    private HikariDataSource pool;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionEntryRepository transactionRepository;
+    private SubscriptionDetectorService service;
+
+    @BeforeEach
+    void setUp() {
+        HikariConfig cfg = new HikariConfig();
+        cfg.setJdbcUrl(postgres.getJdbcUrl());
+        cfg.setUsername(postgres.getUsername());
+        cfg.setPassword(postgres.getPassword());
+        cfg.setMaximumPoolSize(4);
+        cfg.setAutoCommit(false);
+        pool = new HikariDataSource(cfg);
+        jdbcTemplate = new JdbcTemplate(pool);
+        new TransactionTemplate(new DataSourceTransactionManager(pool))
+                .executeWithoutResult(status -> jdbcTemplate.execute(SCHEMA));
+
+        transactionRepository = mock(TransactionEntryRepository.class);
+        ShardMap shardMap = mock(ShardMap.class);
+        when(shardMap.shardCount()).thenReturn(1);
+        service = new SubscriptionDetectorService(transactionRepository, mock(SubscriptionRepository.class),
+                mock(MerchantPatternStateRepository.class), jdbcTemplate,
+                new TransactionTemplate(new DataSourceTransactionManager(pool)),
+                mock(StringRedisTemplate.class, RETURNS_DEEP_STUBS), new SimpleAsyncTaskExecutor(), shardMap);
+        ReflectionTestUtils.setField(service, "userChunkSize", 2);
+        ReflectionTestUtils.setField(service, "parallelism", 2);
+        ReflectionTestUtils.setField(service, "staleAfter", Duration.ofMinutes(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    @DisplayName("subscriptions upserted by the parallel workers are committed")
+    void runDailyDetection_upsertsAreCommitted() {
+        List<UUID> users = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        List<UUID> sorted = users.stream().sorted().toList();
+        when(transactionRepository.findRecurringExpenseUserIdsAfter(any(), any()))
+                .thenReturn(sorted.subList(0, 2), sorted.subList(2, 3), List.of());
+        when(transactionRepository.findRecurringExpensesByUserIds(anyCollection())).thenAnswer(inv -> {
+            List<TransactionEntry> entries = new ArrayList<>();
+            for (Object userId : inv.<java.util.Collection<?>>getArgument(0)) {
+                entries.add(recurring((UUID) userId, "Netflix", "649.00"));
+                entries.add(recurring((UUID) userId, "Spotify", "119.00"));
+            }
+            return entries;
+        });
+
+        service.runDailyDetection();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM finance.subscriptions", Integer.class))
+                .isEqualTo(6);
+        assertThat(jdbcTemplate.queryForList("SELECT DISTINCT user_id FROM finance.subscriptions", UUID.class))
+                .containsExactlyInAnyOrderElementsOf(users);
+    }
+
+    private TransactionEntry recurring(UUID userId, String name, String amount) {
+        TransactionEntry e = new TransactionEntry(userId, name, new BigDecimal(amount), TransactionType.EXPENSE, "INR");
+        e.setCategory(Category.OTHERS);
+        e.setRecurring(true);
+        e.setRecurringPeriod(RecurringPeriod.MONTHLY);
+        e.setCreatedAt(LocalDateTime.now().minusDays(3));
+        return e;
+    }
+}
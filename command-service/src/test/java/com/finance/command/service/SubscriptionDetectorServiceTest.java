@@ -1,6 +1,7 @@
 package com.finance.command.service;
 
 import com.finance.command.model.*;
+import com.finance.command.repository.MerchantPatternStateRepository;
 import com.finance.command.repository.SubscriptionRepository;
 import com.finance.command.repository.TransactionEntryRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -24,6 +25,7 @@ class SubscriptionDetectorServiceTest {
 
     @Mock TransactionEntryRepository transactionRepository;
     @Mock SubscriptionRepository subscriptionRepository;
+    @Mock MerchantPatternStateRepository patternStateRepository;
 
     @InjectMocks SubscriptionDetectorService service;
 
@@ -115,6 +117,144 @@ class SubscriptionDetectorServiceTest {
         verify(subscriptionRepository, never()).save(any());
     }
 
+    // ── buildUpserts (bulk daily job) ─────────────────────────────────────────
+
+    @Test
+    @DisplayName("buildUpserts: one row per (user, name, amount), latest entry wins")
+    void buildUpserts_duplicateKeys_collapsedToLatest() {
+        TransactionEntry first = buildEntry("Netflix", new BigDecimal("649"), RecurringPeriod.MONTHLY);
+        TransactionEntry second = buildEntry("Netflix", new BigDecimal("649.00"), RecurringPeriod.YEARLY);
+        TransactionEntry other = buildEntry("Spotify", new BigDecimal("119.00"), RecurringPeriod.MONTHLY);
+
+        List<SubscriptionDetectorService.SubscriptionUpsert> rows =
+                service.buildUpserts(List.of(first, second, other));
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0).name()).isEqualTo("Netflix");
+        assertThat(rows.get(0).period()).isEqualTo(RecurringPeriod.YEARLY);
+        assertThat(rows.get(0).amount()).isEqualByComparingTo("649.00");
+        assertThat(rows.get(0).nextChargeDate()).isAfter(LocalDate.now());
+    }
+
+    @Test
+    @DisplayName("buildUpserts: skips INCOME and defaults missing period to MONTHLY")
+    void buildUpserts_incomeSkipped_periodDefaulted() {
+        TransactionEntry income = buildEntry("Salary", new BigDecimal("50000"), RecurringPeriod.MONTHLY);
+        income.setType(TransactionType.INCOME);
+        TransactionEntry noPeriod = buildEntry("Gym", new BigDecimal("999"), null);
+
+        List<SubscriptionDetectorService.SubscriptionUpsert> rows =
+                service.buildUpserts(List.of(income, noPeriod));
+
+        assertThat(rows).singleElement()
+                .satisfies(r -> assertThat(r.period()).isEqualTo(RecurringPeriod.MONTHLY));
+    }
+
+    // ── Incremental pattern detection ─────────────────────────────────────────
+
+    @Test
+    @DisplayName("onExpenseRecorded: monthly rhythm at a stable price promotes a subscription")
+    void onExpenseRecorded_monthlyPattern_promotesSubscription() {
+        MerchantPatternState state = patternState("2025-04-01@649.00,2025-05-01@649.00");
+        when(patternStateRepository.findForUpdate(userId, "netflix")).thenReturn(Optional.of(state));
+        when(subscriptionRepository.findByUserIdAndNameAndAmount(any(), any(), any())).thenReturn(Optional.empty());
+        when(subscriptionRepository.save(any())).thenAnswer(i -> {
+            Subscription sub = i.getArgument(0);
+            sub.setId(42L);
+            return sub;
+        });
+
+        TransactionEntry entry = buildEntry("  Netflix ", new BigDecimal("649.00"), null);
+        entry.setRecurring(false);
+        entry.setCreatedAt(LocalDateTime.of(2025, 5, 31, 10, 0));
+        service.onExpenseRecorded(entry);
+
+        assertThat(state.getCandidatePeriod()).isEqualTo(RecurringPeriod.MONTHLY);
+        assertThat(state.getSubscriptionId()).isEqualTo(42L);
+        assertThat(state.getRecentOccurrences()).endsWith("2025-05-31@649.00");
+        verify(patternStateRepository).insertIfAbsent(userId, "netflix");
+        verify(patternStateRepository).save(state);
+    }
+
+    @Test
+    @DisplayName("onExpenseRemoved: breaking the pattern demotes the promoted subscription")
+    void onExpenseRemoved_patternBroken_demotesSubscription() {
+        MerchantPatternState state = patternState("2025-04-01@649.00,2025-05-01@649.00");
+        state.setCandidatePeriod(RecurringPeriod.MONTHLY);
+        state.setSubscriptionId(42L);
+        Subscription sub = new Subscription();
+        sub.setId(42L);
+        sub.setUserId(userId);
+        sub.setName("Netflix");
+        sub.setAmount(new BigDecimal("649.00"));
+        sub.setActive(true);
+        when(patternStateRepository.findForUpdate(userId, "netflix")).thenReturn(Optional.of(state));
+        when(subscriptionRepository.findById(42L)).thenReturn(Optional.of(sub));
+
+        TransactionEntry entry = buildEntry("Netflix", new BigDecimal("649.00"), null);
+        entry.setCreatedAt(LocalDateTime.of(2025, 5, 1, 9, 0));
+        service.onExpenseRemoved(entry);
+
+        assertThat(sub.isActive()).isFalse();
+        assertThat(state.getSubscriptionId()).isNull();
+        assertThat(state.getCandidatePeriod()).isNull();
+        assertThat(state.getRecentOccurrences()).isEqualTo("2025-04-01@649.00");
+    }
+
+    @Test
+    @DisplayName("withinAmountBand: tolerates small price drift, rejects large jumps")
+    void withinAmountBand_driftVsJump() {
+        assertThat(SubscriptionDetectorService.withinAmountBand(new BigDecimal("499"), new BigDecimal("549"))).isTrue();
+        assertThat(SubscriptionDetectorService.withinAmountBand(new BigDecimal("100"), new BigDecimal("300"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("ImportedPatterns: keeps only the newest PATTERN_WINDOW expenses per merchant")
+    void importedPatterns_boundedPerMerchant() {
+        SubscriptionDetectorService.ImportedPatterns patterns = new SubscriptionDetectorService.ImportedPatterns();
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 9, 0);
+        for (int month = 11; month >= 0; month--) {
+            TransactionEntry e = buildEntry("Netflix", new BigDecimal("649"), null);
+            e.setCreatedAt(start.plusMonths(month));
+            patterns.add(e);
+        }
+        patterns.add(buildEntry("  SPOTIFY ", new BigDecimal("119"), null));
+
+        List<TransactionEntry> kept = patterns.entries();
+
+        assertThat(kept).hasSize(SubscriptionDetectorService.PATTERN_WINDOW + 1);
+        assertThat(kept).filteredOn(e -> e.getName().equals("Netflix"))
+                .extracting(TransactionEntry::getCreatedAt)
+                .containsExactly(start.plusMonths(6), start.plusMonths(7), start.plusMonths(8),
+                        start.plusMonths(9), start.plusMonths(10), start.plusMonths(11));
+    }
+
+    @Test
+    @DisplayName("rebuildPattern: replaces the window with the newest expenses and promotes the pattern")
+    void rebuildPattern_history_replacesWindowAndPromotes() {
+        MerchantPatternState state = patternState("2020-01-01@5.00");
+        when(subscriptionRepository.findByUserIdAndNameAndAmount(any(), any(), any())).thenReturn(Optional.empty());
+        when(subscriptionRepository.save(any())).thenAnswer(i -> {
+            Subscription sub = i.getArgument(0);
+            sub.setId(7L);
+            return sub;
+        });
+        List<TransactionEntry> history = new ArrayList<>();
+        for (int month = 7; month >= 0; month--) {
+            TransactionEntry e = buildEntry(month == 7 ? "NETFLIX.COM" : "Netflix", new BigDecimal("649.00"), null);
+            e.setCreatedAt(LocalDateTime.of(2025, 1, 3, 9, 0).plusMonths(month));
+            history.add(e);
+        }
+
+        service.rebuildPattern(state, history);
+
+        assertThat(state.getRecentOccurrences()).startsWith("2025-03-03@649.00").endsWith("2025-08-03@649.00");
+        assertThat(state.getLastName()).isEqualTo("NETFLIX.COM");
+        assertThat(state.getCandidatePeriod()).isEqualTo(RecurringPeriod.MONTHLY);
+        assertThat(state.getSubscriptionId()).isEqualTo(7L);
+        verify(patternStateRepository).save(state);
+    }
+
     // ── deactivateSubscription ────────────────────────────────────────────────
 
     @Test
@@ -147,6 +287,16 @@ class SubscriptionDetectorServiceTest {
 
     // ── Helpers ───────────────────────────────────────────────────────────────
 
+    private MerchantPatternState patternState(String occurrences) {
+        MerchantPatternState state = new MerchantPatternState();
+        state.setUserId(userId);
+        state.setMerchantKey("netflix");
+        state.setLastName("Netflix");
+        state.setCurrency("INR");
+        state.setRecentOccurrences(occurrences);
+        return state;
+    }
+
     private TransactionEntry buildEntry(String name, BigDecimal amount, RecurringPeriod period) {
         TransactionEntry e = new TransactionEntry();
         e.setUserId(userId);
@@ -0,0 +1,123 @@
+package com.finance.command.service;
+
+import com.finance.command.cache.QueryCacheEvictor;
+import com.finance.command.dto.BulkDeleteCandidateRow;
+import com.finance.command.dto.BulkDeleteResponse;
+import com.finance.command.dto.GoalAllocationTotalRow;
+import com.finance.command.model.Category;
+import com.finance.command.model.OutboxEvent;
+import com.finance.command.model.TransactionType;
+import com.finance.command.repository.ExpenseTransactionLinkRepository;
+import com.finance.command.repository.OutboxEventRepository;
+import com.finance.command.repository.TransactionEntryRepository;
+import com.finance.command.repository.TransactionGoalAllocationRepository;
+import com.finance.command.scheduling.RecurringScheduleIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.*;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TransactionEntryService — Unit Tests")
+class TransactionEntryServiceTest {
+
+    @Mock TransactionEntryRepository repository;
+    @Mock StringRedisTemplate redisTemplate;
+    @Mock OutboxEventRepository outboxEventRepository;
+    @Mock GoalBudgetService goalBudgetService;
+    @Mock TransactionGoalAllocationRepository allocationRepository;
+    @Mock QueryCacheEvictor queryCacheEvictor;
+    @Mock ExpenseTransactionLinkRepository transactionLinkRepo;
+    @Mock RecurringScheduleIndex recurringScheduleIndex;
+    @Mock SubscriptionDetectorService subscriptionDetector;
+    @Mock BudgetSpendTracker budgetSpendTracker;
+
+    TransactionEntryService service;
+
+    private final UUID userId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        service = new TransactionEntryService(repository, redisTemplate, new SimpleMeterRegistry(),
+                outboxEventRepository, goalBudgetService, allocationRepository, queryCacheEvictor,
+                transactionLinkRepo, recurringScheduleIndex, subscriptionDetector, budgetSpendTracker);
+    }
+
+    @Test
+    @DisplayName("bulkDelete: classifies each ID and soft-deletes only owned, unlinked entries")
+    void bulkDelete_reportsPerIdResults() {
+        BulkDeleteCandidateRow owned = row(1L, userId, 0L, false);
+        BulkDeleteCandidateRow foreign = row(2L, UUID.randomUUID(), 0L, false);
+        BulkDeleteCandidateRow linked = row(3L, userId, 1L, false);
+        when(repository.findBulkDeleteCandidates(any())).thenReturn(List.of(owned, foreign, linked));
+        when(repository.softDeleteAll(eq(new Long[]{1L}), eq(userId), any())).thenReturn(List.of(1L));
+
+        BulkDeleteResponse response = service.bulkDelete(List.of(1L, 2L, 3L, 4L, 1L), userId);
+
+        assertThat(response.deleted()).isEqualTo(1);
+        assertThat(response.results()).containsExactly(
+                new BulkDeleteResponse.Result(1L, BulkDeleteResponse.Status.DELETED),
+                new BulkDeleteResponse.Result(2L, BulkDeleteResponse.Status.FORBIDDEN),
+                new BulkDeleteResponse.Result(3L, BulkDeleteResponse.Status.GROUP_MANAGED),
+                new BulkDeleteResponse.Result(4L, BulkDeleteResponse.Status.NOT_FOUND));
+    }
+
+    @Test
+    @DisplayName("bulkDelete: one outbox event, one eviction and one batched goal adjustment")
+    void bulkDelete_aggregatesSideEffects() {
+        BulkDeleteCandidateRow recurring = row(1L, userId, 0L, true);
+        BulkDeleteCandidateRow oneOff = row(2L, userId, 0L, false);
+        when(repository.findBulkDeleteCandidates(any())).thenReturn(List.of(recurring, oneOff));
+        when(repository.softDeleteAll(any(), eq(userId), any())).thenReturn(List.of(1L, 2L));
+        GoalAllocationTotalRow goalTotal = mock(GoalAllocationTotalRow.class);
+        when(goalTotal.getGoalId()).thenReturn(9L);
+        when(goalTotal.getTotal()).thenReturn(new BigDecimal("30.00"));
+        when(allocationRepository.sumByGoalForTransactions(List.of(1L, 2L))).thenReturn(List.of(goalTotal));
+
+        service.bulkDelete(List.of(1L, 2L), userId);
+
+        verify(goalBudgetService).adjustGoalSavedAmounts(userId, Map.of(9L, new BigDecimal("-30.00")));
+        verify(recurringScheduleIndex).removeAfterCommit(1L);
+        verify(recurringScheduleIndex, never()).removeAfterCommit(2L);
+        verify(subscriptionDetector, times(2)).onExpenseRemoved(eq(userId), anyString(), any(), any());
+        verify(budgetSpendTracker, times(1)).apply(eq(userId), argThat(deltas -> deltas.size() == 2));
+        verify(outboxEventRepository, times(1)).save(any(OutboxEvent.class));
+        verify(queryCacheEvictor, times(1)).evictUserKeysWithReplicationGuard(userId);
+    }
+
+    @Test
+    @DisplayName("bulkDelete: nothing deletable skips the UPDATE and all side effects")
+    void bulkDelete_nothingDeletable_noWrites() {
+        when(repository.findBulkDeleteCandidates(any())).thenReturn(List.of());
+
+        BulkDeleteResponse response = service.bulkDelete(List.of(5L), userId);
+
+        assertThat(response.deleted()).isZero();
+        verify(repository, never()).softDeleteAll(any(), any(), any());
+        verifyNoInteractions(outboxEventRepository, queryCacheEvictor);
+    }
+
+    private BulkDeleteCandidateRow row(Long id, UUID owner, long linkCount, boolean recurring) {
+        BulkDeleteCandidateRow row = mock(BulkDeleteCandidateRow.class);
+        lenient().when(row.getId()).thenReturn(id);
+        lenient().when(row.getUserId()).thenReturn(owner);
+        lenient().when(row.getLinkCount()).thenReturn(linkCount);
+        lenient().when(row.getRecurring()).thenReturn(recurring);
+        lenient().when(row.getType()).thenReturn(TransactionType.EXPENSE);
+        lenient().when(row.getCategory()).thenReturn(Category.OTT_SUBSCRIPTIONS);
+        lenient().when(row.getName()).thenReturn("Netflix");
+        lenient().when(row.getAmount()).thenReturn(new BigDecimal("15.00"));
+        lenient().when(row.getCreatedAt()).thenReturn(LocalDateTime.of(2026, 1, 1, 10, 0));
+        return row;
+    }
+}
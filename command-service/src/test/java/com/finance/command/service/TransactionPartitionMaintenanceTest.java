@@ -0,0 +1,82 @@
+package com.finance.command.service;
+
+import com.finance.command.shard.ShardMap;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.*;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TransactionPartitionMaintenance — Unit Tests")
+class TransactionPartitionMaintenanceTest {
+
+    private static final String CREATE_SQL = "SELECT finance.create_transaction_entries_partition(?)";
+    private static final String DETACH_SQL = "SELECT finance.detach_transaction_entries_partitions(?)";
+
+    @Mock JdbcTemplate jdbcTemplate;
+    @Mock TransactionTemplate transactionTemplate;
+    @Mock ShardMap shardMap;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        when(transactionTemplate.execute(any())).thenAnswer(inv ->
+                inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(shardMap.shards()).thenAnswer(inv -> IntStream.of(0));
+    }
+
+    @Test
+    @DisplayName("createAhead: asks for the current month plus months-ahead and reports only new partitions")
+    void createAhead_requestsEachMonth() {
+        TransactionPartitionMaintenance maintenance = maintenance(0);
+        when(jdbcTemplate.queryForObject(eq(CREATE_SQL), eq(String.class), any(Date.class)))
+                .thenReturn(null, null, "transaction_entries_y2026m12");
+
+        List<String> created = maintenance.createAhead(LocalDate.of(2026, 10, 19));
+
+        assertThat(created).containsExactly("transaction_entries_y2026m12");
+        verify(jdbcTemplate).queryForObject(CREATE_SQL, String.class, Date.valueOf("2026-10-01"));
+        verify(jdbcTemplate).queryForObject(CREATE_SQL, String.class, Date.valueOf("2026-12-01"));
+        assertThat(meterRegistry.counter("transactions.partitions.created").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("maintain: without a retention nothing is detached")
+    void maintain_noRetention_neverDetaches() {
+        maintenance(0).maintain();
+
+        verify(jdbcTemplate, never()).queryForList(eq(DETACH_SQL), eq(String.class), any());
+    }
+
+    @Test
+    @DisplayName("maintain: with a retention detaches partitions ending before the cutoff month")
+    void maintain_withRetention_detachesOldPartitions() {
+        when(jdbcTemplate.queryForList(eq(DETACH_SQL), eq(String.class), any(Date.class)))
+                .thenReturn(List.of("transaction_entries_y2020m01"));
+
+        maintenance(24).maintain();
+
+        Date cutoff = Date.valueOf(LocalDate.now(ZoneOffset.UTC).withDayOfMonth(1).minusMonths(24));
+        verify(jdbcTemplate).queryForList(DETACH_SQL, String.class, cutoff);
+        assertThat(meterRegistry.counter("transactions.partitions.detached").count()).isEqualTo(1);
+    }
+
+    private TransactionPartitionMaintenance maintenance(int retentionMonths) {
+        return new TransactionPartitionMaintenance(jdbcTemplate, transactionTemplate, meterRegistry, shardMap, 2, retentionMonths);
+    }
+}
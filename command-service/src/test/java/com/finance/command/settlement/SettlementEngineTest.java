@@ -0,0 +1,91 @@
+package com.finance.command.settlement;
+
+import com.finance.command.settlement.SettlementEngine.Mode;
+import com.finance.command.settlement.SettlementEngine.Transfer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("SettlementEngine — Unit Tests")
+class SettlementEngineTest {
+
+    @Test
+    @DisplayName("OPTIMAL: finds fewer transfers than greedy when zero-sum subgroups exist")
+    void optimal_beatsGreedy_onSplittableGroup() {
+        long[] balances = {700, 300, -600, -400, 100, -100};
+
+        List<Transfer> fast = SettlementEngine.settle(balances, Mode.FAST);
+        List<Transfer> optimal = SettlementEngine.settle(balances, Mode.OPTIMAL);
+
+        assertSettles(balances, fast);
+        assertSettles(balances, optimal);
+        assertThat(optimal.size()).isLessThanOrEqualTo(fast.size());
+        // {100,-100} settles in one; the remaining four only zero out together → 1 + 3
+        assertThat(optimal).hasSize(4);
+    }
+
+    @Test
+    @DisplayName("OPTIMAL: disjoint zero-sum triples settle in two transfers each")
+    void optimal_disjointTriples() {
+        long[] balances = {500, -200, -300, 900, -450, -450};
+
+        List<Transfer> optimal = SettlementEngine.settle(balances, Mode.OPTIMAL);
+
+        assertSettles(balances, optimal);
+        assertThat(optimal).hasSize(4);
+    }
+
+    @Test
+    @DisplayName("OPTIMAL: non-zero total (rounding residue) falls back to FAST")
+    void optimal_nonZeroTotal_fallsBackToFast() {
+        long[] balances = {6667, -3333, -3333};
+
+        List<Transfer> transfers = SettlementEngine.settle(balances, Mode.OPTIMAL);
+
+        assertThat(transfers).hasSize(2);
+        assertThat(transfers).extracting(Transfer::amountMinor).containsExactlyInAnyOrder(3333L, 3333L);
+    }
+
+    @Test
+    @DisplayName("settle: all-zero balances need no transfers")
+    void settle_allSettled_empty() {
+        assertThat(SettlementEngine.settle(new long[]{0, 0, 0}, Mode.OPTIMAL)).isEmpty();
+        assertThat(SettlementEngine.settle(new long[]{0, 0, 0}, Mode.FAST)).isEmpty();
+    }
+
+    @ParameterizedTest(name = "group of {0}")
+    @ValueSource(ints = {2, 5, 12, 20, 21, 100, 500})
+    @DisplayName("settle: random zero-sum groups are fully settled in at most n-1 transfers")
+    void settle_randomGroups_settleCompletely(int size) {
+        Random random = new Random(size);
+        long[] balances = new long[size];
+        long total = 0;
+        for (int i = 0; i < size - 1; i++) {
+            balances[i] = random.nextLong(-50_000, 50_000);
+            total += balances[i];
+        }
+        balances[size - 1] = -total;
+
+        for (Mode mode : Mode.values()) {
+            List<Transfer> transfers = SettlementEngine.settle(balances, mode);
+            assertSettles(balances, transfers);
+            assertThat(transfers.size()).isLessThanOrEqualTo(size - 1);
+        }
+    }
+
+    private static void assertSettles(long[] balances, List<Transfer> transfers) {
+        long[] remaining = balances.clone();
+        for (Transfer t : transfers) {
+            assertThat(t.amountMinor()).isPositive();
+            remaining[t.from()] += t.amountMinor();
+            remaining[t.to()] -= t.amountMinor();
+        }
+        assertThat(remaining).containsOnly(0L);
+    }
+}
@@ -0,0 +1,149 @@
+package com.finance.command.shard;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("HashShardMap — Unit Tests")
+class HashShardMapTest {
+
+    private static final UUID USER = UUID.fromString("9b2e7c1a-5d4f-4e8b-a6c3-2f1d0e9b8a7c");
+
+    @Mock StringRedisTemplate redisTemplate;
+    @Mock RedisMessageListenerContainer listenerContainer;
+    @Mock HashOperations<String, Object, Object> hashOps;
+    @Mock SetOperations<String, String> setOps;
+
+    @BeforeEach
+    void setUp() {
+        doReturn(hashOps).when(redisTemplate).opsForHash();
+        when(redisTemplate.opsForSet()).thenReturn(setOps);
+        when(hashOps.entries(HashShardMap.OVERRIDES_KEY)).thenReturn(Map.of());
+        when(setOps.members(HashShardMap.MIGRATING_KEY)).thenReturn(Set.of());
+    }
+
+    @Test
+    @DisplayName("hash placement is pinned — query-service asserts the same values")
+    void hashShard_isStable() {
+        assertThat(HashShardMap.hashShard(UUID.fromString("00000000-0000-0000-0000-000000000001"), 4)).isEqualTo(1);
+        assertThat(HashShardMap.hashShard(UUID.fromString("3f2504e0-4f89-41d3-9a0c-0305e82c3301"), 4)).isEqualTo(1);
+        assertThat(HashShardMap.hashShard(USER, 4)).isEqualTo(3);
+        assertThat(HashShardMap.hashShard(UUID.fromString("c56a4180-65aa-42ec-a945-5fd21dec0538"), 4)).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("random users spread evenly across shards")
+    void hashShard_spreadsEvenly() {
+        int[] counts = new int[4];
+        for (int i = 0; i < 40_000; i++) {
+            counts[HashShardMap.hashShard(UUID.randomUUID(), 4)]++;
+        }
+        for (int count : counts) {
+            assertThat(count).isBetween(9_000, 11_000);
+        }
+    }
+
+    @Test
+    @DisplayName("a single shard never touches Redis")
+    void singleShard_skipsRedis() {
+        HashShardMap map = newMap(0, 0);
+
+        assertThat(map.shardFor(USER)).isZero();
+        verifyNoInteractions(redisTemplate, listenerContainer);
+    }
+
+    @Test
+    @DisplayName("an override wins over the hash")
+    void override_winsOverHash() {
+        when(hashOps.entries(HashShardMap.OVERRIDES_KEY)).thenReturn(Map.of(USER.toString(), "1"));
+
+        HashShardMap map = newMap(3, 0);
+
+        assertThat(map.shardFor(USER)).isEqualTo(1);
+        assertThat(map.shardFor(UUID.fromString("c56a4180-65aa-42ec-a945-5fd21dec0538"))).isZero();
+    }
+
+    @Test
+    @DisplayName("hash-shards limits where users land without an override")
+    void hashShards_limitsPlacement() {
+        HashShardMap map = newMap(3, 0, 3);
+
+        assertThat(map.shardFor(USER)).isEqualTo(HashShardMap.hashShard(USER, 3));
+    }
+
+    @Test
+    @DisplayName("an override naming an unknown shard fails the load")
+    void override_unknownShard_fails() {
+        when(hashOps.entries(HashShardMap.OVERRIDES_KEY)).thenReturn(Map.of(USER.toString(), "7"));
+
+        assertThatThrownBy(() -> newMap(1, 0))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("unknown shard 7");
+    }
+
+    @Test
+    @DisplayName("completing a move back to the hash shard drops the override")
+    void completeMigration_toHashShard_removesOverride() {
+        HashShardMap map = newMap(3, 0);
+
+        map.completeMigration(USER, HashShardMap.hashShard(USER, 4));
+
+        verify(hashOps).delete(HashShardMap.OVERRIDES_KEY, USER.toString());
+        verify(setOps).remove(HashShardMap.MIGRATING_KEY, USER.toString());
+        verify(redisTemplate).convertAndSend(eq(HashShardMap.CHANGED_CHANNEL), anyString());
+    }
+
+    @Test
+    @DisplayName("a migrating user is visible after the announcement reload")
+    void beginMigration_marksUser() {
+        HashShardMap map = newMap(3, 0);
+        when(setOps.members(HashShardMap.MIGRATING_KEY)).thenReturn(Set.of(USER.toString()));
+
+        map.beginMigration(USER);
+
+        assertThat(map.isMigrating(USER)).isTrue();
+        verify(setOps).add(HashShardMap.MIGRATING_KEY, USER.toString());
+    }
+
+    @Test
+    @DisplayName("group shard must be a configured shard")
+    void groupShard_outOfRange_rejected() {
+        assertThatThrownBy(() -> newMap(1, 2)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private HashShardMap newMap(int extraShards, int groupShard) {
+        return newMap(extraShards, groupShard, 0);
+    }
+
+    private HashShardMap newMap(int extraShards, int groupShard, int hashShards) {
+        ShardingProperties.Pool pool = new ShardingProperties.Pool("jdbc:postgresql://shard/db", "u", "p", 1);
+        List<ShardingProperties.Shard> shards = Collections.nCopies(extraShards, new ShardingProperties.Shard(pool, pool));
+        HashShardMap map = new HashShardMap(new ShardingProperties(shards, hashShards, groupShard, Duration.ZERO),
+                redisTemplate, listenerContainer, new SimpleMeterRegistry());
+        map.start();
+        return map;
+    }
+}
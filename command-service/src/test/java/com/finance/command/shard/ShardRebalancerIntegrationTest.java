@@ -0,0 +1,202 @@
+package com.finance.command.shard;
+
+import com.finance.command.config.ShardRoutingDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Two Postgres shards behind a ShardRoutingDataSource: checks that routing
+ * keeps each shard's rows apart and that a rebalance moves exactly one user's
+ * rows — children included — and flips the shard map only after the copy.
+ */
+@Testcontainers
+@DisplayName("Shard routing & rebalancing — Integration Tests")
+class ShardRebalancerIntegrationTest {
+
+    static {
+        System.setProperty("docker.api.version", "1.40");
+        System.setProperty("DOCKER_API_VERSION", "1.40");
+    }
+
+    @Container
+    static PostgreSQLContainer<?> shard0 = new PostgreSQLContainer<>("postgres:16");
+
+    @Container
+    static PostgreSQLContainer<?> shard1 = new PostgreSQLContainer<>("postgres:16");
+
+    private static final String SCHEMA = """
+            DROP SCHEMA IF EXISTS finance CASCADE;
+            CREATE SCHEMA finance;
+            CREATE TABLE finance.transaction_entries (id bigint PRIMARY KEY, user_id uuid NOT NULL, name text);
+            CREATE TABLE finance.savings_goals (id bigint PRIMARY KEY, user_id uuid NOT NULL, name text);
+            CREATE TABLE finance.transaction_goal_allocations (id bigint PRIMARY KEY, goal_id bigint NOT NULL, transaction_id bigint NOT NULL);
+            CREATE TABLE finance.category_budgets (id bigint PRIMARY KEY, user_id uuid NOT NULL);
+            CREATE TABLE finance.budget_spend_counters (id bigint PRIMARY KEY, budget_id bigint NOT NULL);
+            CREATE TABLE finance.subscriptions (id bigint PRIMARY KEY, user_id uuid NOT NULL);
+            CREATE TABLE finance.merchant_pattern_state (id bigint PRIMARY KEY, user_id uuid NOT NULL);
+            CREATE TABLE finance.idempotency_records (id bigint PRIMARY KEY, user_id uuid NOT NULL);
+            CREATE TABLE finance.outbox_events (id bigint PRIMARY KEY, user_id uuid NOT NULL);
+            """;
+
+    private final UUID mover = UUID.randomUUID();
+    private final UUID bystander = UUID.randomUUID();
+
+    private HikariDataSource pool0;
+    private HikariDataSource pool1;
+    private JdbcTemplate jdbcTemplate;
+    private HashShardMap shardMap;
+    private ShardRebalancer rebalancer;
+
+    @BeforeEach
+    void setUp() {
+        pool0 = pool(shard0);
+        pool1 = pool(shard1);
+        ShardRoutingDataSource routing = new ShardRoutingDataSource(List.<DataSource>of(pool0, pool1), new SimpleMeterRegistry());
+        jdbcTemplate = new JdbcTemplate(routing);
+        new JdbcTemplate(pool0).execute(SCHEMA);
+        new JdbcTemplate(pool1).execute(SCHEMA);
+
+        shardMap = mock(HashShardMap.class);
+        when(shardMap.shardCount()).thenReturn(2);
+        when(shardMap.shardFor(mover)).thenReturn(0);
+        rebalancer = new ShardRebalancer(shardMap, jdbcTemplate, new DataSourceTransactionManager(routing),
+                new ShardingProperties(List.of(), 0, 0, Duration.ZERO), new SimpleMeterRegistry());
+
+        ShardContext.run(0, () -> {
+            seed(mover, 100);
+            seed(bystander, 200);
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool0.close();
+        pool1.close();
+    }
+
+    @Test
+    @DisplayName("statements run on the shard named by ShardContext")
+    void routing_followsShardContext() {
+        ShardContext.run(1, () -> jdbcTemplate.update(
+                "INSERT INTO finance.transaction_entries (id, user_id, name) VALUES (?, ?, 'on shard 1')",
+                (1L << 48) + 1, UUID.randomUUID()));
+
+        assertThat(count(pool0, "transaction_entries")).isEqualTo(2);
+        assertThat(count(pool1, "transaction_entries")).isEqualTo(1);
+        assertThatThrownBy(() -> ShardContext.run(2, () -> jdbcTemplate.queryForObject("SELECT 1", Integer.class)))
+                .hasRootCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("moving a user copies their rows and children, then removes them from the source")
+    void moveUser_movesOnlyThatUser() {
+        ShardRebalancer.MoveResult result = rebalancer.moveUser(mover, 1);
+
+        assertThat(result.copied()).containsEntry("finance.transaction_entries", 1)
+                .containsEntry("finance.transaction_goal_allocations", 1)
+                .containsEntry("finance.budget_spend_counters", 1);
+        for (String table : List.of("transaction_entries", "savings_goals", "transaction_goal_allocations",
+                "category_budgets", "budget_spend_counters", "subscriptions", "merchant_pattern_state",
+                "idempotency_records", "outbox_events")) {
+            assertThat(count(pool1, table)).as("target " + table).isEqualTo(1);
+            assertThat(count(pool0, table)).as("source " + table).isEqualTo(1);
+        }
+        assertThat(new JdbcTemplate(pool0).queryForObject(
+                "SELECT user_id FROM finance.transaction_entries", UUID.class)).isEqualTo(bystander);
+
+        InOrder order = inOrder(shardMap);
+        order.verify(shardMap).beginMigration(mover);
+        order.verify(shardMap).completeMigration(mover, 1);
+        verify(shardMap, never()).abortMigration(mover);
+    }
+
+    @Test
+    @DisplayName("a failed copy lifts the freeze and leaves the source untouched")
+    void moveUser_copyFails_aborts() {
+        new JdbcTemplate(pool1).execute("DROP TABLE finance.subscriptions");
+
+        assertThatThrownBy(() -> rebalancer.moveUser(mover, 1)).isInstanceOf(RuntimeException.class);
+
+        verify(shardMap).abortMigration(mover);
+        verify(shardMap, never()).completeMigration(any(), anyInt());
+        assertThat(count(pool0, "transaction_entries")).isEqualTo(2);
+        assertThat(count(pool0, "subscriptions")).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("a failed copy removes the rows already copied to the target")
+    void moveUser_copyFails_clearsTarget() {
+        new JdbcTemplate(pool1).execute("ALTER TABLE finance.subscriptions ADD CONSTRAINT refuse CHECK (false)");
+
+        assertThatThrownBy(() -> rebalancer.moveUser(mover, 1)).isInstanceOf(RuntimeException.class);
+
+        verify(shardMap).abortMigration(mover);
+        for (String table : List.of("transaction_entries", "savings_goals", "transaction_goal_allocations",
+                "category_budgets", "budget_spend_counters")) {
+            assertThat(count(pool1, table)).as("target " + table).isZero();
+        }
+    }
+
+    @Test
+    @DisplayName("rows left on the target by an earlier attempt are replaced, not kept")
+    void moveUser_staleTargetRows_replaced() {
+        ShardContext.run(0, () -> jdbcTemplate.update(
+                "UPDATE finance.transaction_entries SET name = 'espresso' WHERE user_id = ?", mover));
+        new JdbcTemplate(pool1).update("INSERT INTO finance.transaction_entries VALUES (101, ?, 'coffee')", mover);
+
+        rebalancer.moveUser(mover, 1);
+
+        assertThat(new JdbcTemplate(pool1).queryForObject(
+                "SELECT name FROM finance.transaction_entries WHERE id = 101", String.class)).isEqualTo("espresso");
+    }
+
+    @Test
+    @DisplayName("moving to the current shard or an unknown shard is rejected")
+    void moveUser_invalidTarget_rejected() {
+        assertThatThrownBy(() -> rebalancer.moveUser(mover, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> rebalancer.moveUser(mover, 5)).isInstanceOf(IllegalArgumentException.class);
+        verify(shardMap, never()).beginMigration(any());
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private void seed(UUID user, long base) {
+        jdbcTemplate.update("INSERT INTO finance.transaction_entries VALUES (?, ?, 'coffee')", base + 1, user);
+        jdbcTemplate.update("INSERT INTO finance.savings_goals VALUES (?, ?, 'bike')", base + 2, user);
+        jdbcTemplate.update("INSERT INTO finance.transaction_goal_allocations VALUES (?, ?, ?)", base + 3, base + 2, base + 1);
+        jdbcTemplate.update("INSERT INTO finance.category_budgets VALUES (?, ?)", base + 4, user);
+        jdbcTemplate.update("INSERT INTO finance.budget_spend_counters VALUES (?, ?)", base + 5, base + 4);
+        for (String table : List.of("subscriptions", "merchant_pattern_state", "idempotency_records", "outbox_events")) {
+            jdbcTemplate.update("INSERT INTO finance." + table + " VALUES (?, ?)", base + 6, user);
+        }
+    }
+
+    private static int count(DataSource shard, String table) {
+        return new JdbcTemplate(shard).queryForObject("SELECT count(*) FROM finance." + table, Integer.class);
+    }
+
+    private static HikariDataSource pool(PostgreSQLContainer<?> container) {
+        HikariConfig cfg = new HikariConfig();
+        cfg.setJdbcUrl(container.getJdbcUrl());
+        cfg.setUsername(container.getUsername());
+        cfg.setPassword(container.getPassword());
+        cfg.setMaximumPoolSize(2);
+        return new HikariDataSource(cfg);
+    }
+}
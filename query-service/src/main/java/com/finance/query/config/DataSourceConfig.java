@@ -0,0 +1,164 @@
+package com.finance.query.config;
+
+import com.finance.query.config.ReplicaRoutingDataSource.BalanceMode;
+import com.finance.query.config.ReplicaRoutingDataSource.ReplicaNode;
+import com.finance.query.shard.ShardingProperties;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Registers one primary pool and one pool per read replica, wired through
+ * ReplicaRoutingDataSource so read-only transactions are balanced across the
+ * healthy replicas and everything else goes to the primary.
+ *
+ * Pool strategy:
+ *   - primary   → small pool (5 conns) → non-read-only work and replica fallback
+ *   - replica-N → one pool each (25 conns) → SELECT queries
+ *
+ * Every pool registers its HikariCP metrics (hikaricp.connections.*, tagged by
+ * pool name) so per-replica saturation is visible next to the routing metrics.
+ *
+ * LazyConnectionDataSourceProxy ensures a physical JDBC connection is not
+ * acquired until the first SQL statement, after the transaction's read-only
+ * flag is known.
+ *
+ * With app.sharding.shards configured, the pools above are shard 0 and a
+ * ShardRoutingDataSource picks between them and the same layout per extra
+ * shard (pool names and meters carry the shard number).
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+public class DataSourceConfig {
+
+    @Value("${app.datasource.username}")
+    private String username;
+
+    @Value("${app.datasource.password}")
+    private String password;
+
+    @Value("${app.datasource.schema:}")
+    private String schema;
+
+    @Value("${app.datasource.connection-timeout:3000}")
+    private long connectionTimeout;
+
+    @Value("${app.datasource.max-lifetime:1800000}")
+    private long maxLifetime;
+
+    // ── Primary pool properties ───────────────────────────────────────────────
+
+    @Value("${app.datasource.primary.jdbc-url}")
+    private String primaryUrl;
+
+    @Value("${app.datasource.primary.maximum-pool-size:5}")
+    private int primaryMaxPoolSize;
+
+    @Value("${app.datasource.primary.minimum-idle:1}")
+    private int primaryMinIdle;
+
+    // ── Replica pool properties ───────────────────────────────────────────────
+
+    @Value("${app.datasource.replicas.jdbc-urls}")
+    private List<String> replicaUrls;
+
+    @Value("${app.datasource.replicas.maximum-pool-size:25}")
+    private int replicaMaxPoolSize;
+
+    @Value("${app.datasource.replicas.minimum-idle:2}")
+    private int replicaMinIdle;
+
+    @Value("${app.datasource.replicas.balance:LEAST_IN_USE}")
+    private BalanceMode balanceMode;
+
+    // ── Bean definitions ──────────────────────────────────────────────────────
+
+    @Bean
+    public ReplicaRoutingDataSource routingDataSource(MeterRegistry meterRegistry) {
+        // Tagged shard=0 even unsharded: Prometheus drops meters whose tag keys differ from the first registered
+        return replicaRouting("", primaryUrl, replicaUrls, meterRegistry, Tags.of("shard", "0"));
+    }
+
+    /** Shard 0 plus one routing datasource per app.sharding.shards entry. */
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(ReplicaRoutingDataSource routingDataSource,
+                                                         ShardingProperties sharding,
+                                                         MeterRegistry meterRegistry) {
+        List<ReplicaRoutingDataSource> shards = new ArrayList<>();
+        shards.add(routingDataSource);
+        for (int i = 0; i < sharding.shards().size(); i++) {
+            ShardingProperties.Shard shard = sharding.shards().get(i);
+            String prefix = "shard" + (i + 1) + "-";
+            shards.add(replicaRouting(prefix, shard.jdbcUrl(),
+                    shard.replicaJdbcUrls().isEmpty() ? List.of(shard.jdbcUrl()) : shard.replicaJdbcUrls(),
+                    meterRegistry, Tags.of("shard", Integer.toString(i + 1))));
+        }
+        return new ShardRoutingDataSource(shards, meterRegistry);
+    }
+
+    /**
+     * Marked @Primary so Spring JPA / Hibernate auto-wires this bean.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        List<ReplicaRoutingDataSource> shards = shardRoutingDataSource.getShards();
+        if (shards.size() == 1) {
+            return new LazyConnectionDataSourceProxy(shards.getFirst());
+        }
+        log.info("Routing across {} shards", shards.size());
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    private ReplicaRoutingDataSource replicaRouting(String prefix, String primaryJdbcUrl, List<String> replicaJdbcUrls,
+                                                    MeterRegistry meterRegistry, Tags tags) {
+        HikariDataSource primary = pool("HikariPool-" + prefix + "primary", primaryJdbcUrl, primaryMaxPoolSize,
+                primaryMinIdle, false, meterRegistry);
+
+        List<ReplicaNode> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaJdbcUrls.size(); i++) {
+            String name = prefix + "replica-" + i;
+            replicas.add(new ReplicaNode(name, pool("HikariPool-" + name, replicaJdbcUrls.get(i).trim(),
+                    replicaMaxPoolSize, replicaMinIdle, true, meterRegistry)));
+        }
+        log.info("Routing {}reads across {} replica(s) using {}", prefix, replicas.size(), balanceMode);
+        return new ReplicaRoutingDataSource(primary, replicas, balanceMode, meterRegistry, tags);
+    }
+
+    private HikariDataSource pool(String poolName, String url, int maxPoolSize, int minIdle,
+                                  boolean readOnly, MeterRegistry meterRegistry) {
+        HikariConfig cfg = new HikariConfig();
+        cfg.setJdbcUrl(url);
+        cfg.setUsername(username);
+        cfg.setPassword(password);
+        cfg.setPoolName(poolName);
+        if (!schema.isBlank()) {
+            cfg.setSchema(schema);           // unqualified native queries resolve against it
+        }
+        cfg.setMaximumPoolSize(maxPoolSize);
+        cfg.setMinimumIdle(minIdle);
+        cfg.setConnectionTimeout(connectionTimeout);
+        cfg.setMaxLifetime(maxLifetime);
+        cfg.setReadOnly(readOnly);
+        if (readOnly) {
+            cfg.setInitializationFailTimeout(-1); // an unreachable replica is ejected by the probe, not fatal at boot
+        }
+        cfg.setAutoCommit(false);            // Spring manages commits via @Transactional
+        cfg.setMetricRegistry(meterRegistry);
+        log.info("Initialized connection pool: {} (max={})", poolName, maxPoolSize);
+        return new HikariDataSource(cfg);
+    }
+}
@@ -0,0 +1,29 @@
+package com.finance.query.config;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * query-service's migrations hold the indexes behind its read paths and are
+ * tracked in their own history table (flyway_schema_history_query), apart
+ * from command-service's. They run after Hibernate's schema update so the
+ * tables they index are guaranteed to exist.
+ */
+@Configuration
+public class FlywayConfig {
+
+    /** Boot would migrate before JPA starts; defer to {@link #migrateAfterSchemaUpdate}. */
+    @Bean
+    public FlywayMigrationStrategy deferredFlywayMigration() {
+        return flyway -> { };
+    }
+
+    /** Called once every singleton — including the EntityManagerFactory — is initialized. */
+    @Bean
+    public SmartInitializingSingleton migrateAfterSchemaUpdate(Flyway flyway) {
+        return flyway::migrate;
+    }
+}
@@ -0,0 +1,91 @@
+package com.finance.query.config;
+
+import com.finance.query.config.ReplicaRoutingDataSource.ReplicaNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Periodically probes every replica pool, on every shard. A replica is ejected from routing
+ * when it cannot be reached or its replay lag exceeds {@code max-lag}, and
+ * readmitted on the first probe that succeeds within the limit. Probe
+ * round-trips feed the latency used by LATENCY_WEIGHTED balancing.
+ */
+@Slf4j
+@Component
+public class ReplicaHealthProbe {
+
+    /** Seconds behind the primary — the rule documented on command-service's ReplicaLagMonitor.LAG_SQL; change both together. */
+    private static final String LAG_SQL = """
+            SELECT CASE
+                     WHEN NOT pg_is_in_recovery() THEN 0
+                     WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver
+                                      WHERE COALESCE(status, 'streaming') = 'streaming') THEN 'Infinity'::float8
+                     WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                     ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp())::float8, 0)
+                   END
+            """;
+
+    private final ShardRoutingDataSource routingDataSource;
+    private final Duration maxLag;
+    private final int timeoutSeconds;
+
+    public ReplicaHealthProbe(ShardRoutingDataSource routingDataSource,
+                              @Value("${app.datasource.replicas.max-lag:PT30S}") Duration maxLag,
+                              @Value("${app.datasource.replicas.probe-timeout-seconds:2}") int timeoutSeconds) {
+        this.routingDataSource = routingDataSource;
+        this.maxLag = maxLag;
+        this.timeoutSeconds = timeoutSeconds;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replicas.probe-interval:PT5S}")
+    public void probeAll() {
+        for (ReplicaRoutingDataSource shard : routingDataSource.getShards()) {
+            for (ReplicaNode node : shard.getReplicas()) {
+                probe(node);
+            }
+        }
+    }
+
+    void probe(ReplicaNode node) {
+        boolean wasHealthy = node.isHealthy();
+        long start = System.nanoTime();
+        double lag;
+        try (Connection conn = node.getPool().getConnection();
+             Statement st = conn.createStatement()) {
+            st.setQueryTimeout(timeoutSeconds);
+            try (ResultSet rs = st.executeQuery(LAG_SQL)) {
+                rs.next();
+                lag = rs.getDouble(1);
+            }
+            conn.rollback();
+        } catch (Exception e) {
+            node.eject(node.getLagSeconds());
+            if (wasHealthy) {
+                log.warn("Replica {} ejected: probe failed: {}", node.getName(), e.getMessage());
+            }
+            return;
+        }
+        double latencyMs = (System.nanoTime() - start) / 1_000_000.0;
+
+        if (lag * 1000 > maxLag.toMillis()) {
+            node.eject(lag);
+            if (wasHealthy && Double.isInfinite(lag)) {
+                log.warn("Replica {} ejected: no streaming WAL receiver", node.getName());
+            } else if (wasHealthy) {
+                log.warn("Replica {} ejected: replay lag {}s exceeds {}", node.getName(), lag, maxLag);
+            }
+            return;
+        }
+        node.markHealthy(latencyMs, lag);
+        if (!wasHealthy) {
+            log.info("Replica {} readmitted (lag={}s, latency={}ms)", node.getName(), lag, Math.round(latencyMs));
+        }
+    }
+}
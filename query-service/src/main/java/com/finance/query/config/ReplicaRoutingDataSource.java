@@ -0,0 +1,166 @@
+package com.finance.query.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Spreads reads across N replica pools and sends read-write transactions to
+ * the primary. This service only reads, so work outside any transaction
+ * (open-in-view, a plain JdbcTemplate call) counts as a read too.
+ *
+ * How it works:
+ *   1. Spring opens a @Transactional(readOnly = true) transaction (Spring Data
+ *      query methods are read-only by default).
+ *   2. On the first SQL statement LazyConnectionDataSourceProxy asks for a
+ *      connection and determineCurrentLookupKey() picks a target:
+ *        - read-write transaction      → primary
+ *        - read-only or no transaction → best healthy replica per {@link BalanceMode}
+ *        - ...with none healthy        → primary (fallback)
+ *
+ * Replica health (reachability and replay lag) is maintained by
+ * {@link ReplicaHealthProbe}; ejected replicas are skipped until a probe
+ * readmits them.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    public static final String PRIMARY = "primary";
+
+    public enum BalanceMode {
+        /** Fewest borrowed connections relative to pool size. */
+        LEAST_IN_USE,
+        /** Borrowed connections weighted by probe round-trip latency. */
+        LATENCY_WEIGHTED
+    }
+
+    /** One replica pool plus the health state the probe keeps up to date. */
+    public static final class ReplicaNode {
+
+        private static final double LATENCY_ALPHA = 0.3;
+
+        private final String name;
+        private final HikariDataSource pool;
+        private volatile boolean healthy = true;
+        private volatile double latencyMs = 1.0;
+        private volatile double lagSeconds;
+
+        public ReplicaNode(String name, HikariDataSource pool) {
+            this.name = name;
+            this.pool = pool;
+        }
+
+        public String getName() { return name; }
+        public HikariDataSource getPool() { return pool; }
+        public boolean isHealthy() { return healthy; }
+        public double getLatencyMs() { return latencyMs; }
+        public double getLagSeconds() { return lagSeconds; }
+
+        void markHealthy(double probeLatencyMs, double lag) {
+            latencyMs = LATENCY_ALPHA * probeLatencyMs + (1 - LATENCY_ALPHA) * latencyMs;
+            lagSeconds = lag;
+            healthy = true;
+        }
+
+        void eject(double lag) {
+            lagSeconds = lag;
+            healthy = false;
+        }
+
+        int inUse() {
+            HikariPoolMXBean mx = pool.getHikariPoolMXBean();
+            return mx != null ? mx.getActiveConnections() : 0;
+        }
+
+        double score(BalanceMode mode) {
+            return switch (mode) {
+                case LEAST_IN_USE     -> (double) inUse() / Math.max(1, pool.getMaximumPoolSize());
+                case LATENCY_WEIGHTED -> (inUse() + 1) * latencyMs;
+            };
+        }
+    }
+
+    private final HikariDataSource primary;
+    private final List<ReplicaNode> replicas;
+    private final BalanceMode mode;
+    private final AtomicInteger cursor = new AtomicInteger();
+    private final Map<String, Counter> routed = new HashMap<>();
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<ReplicaNode> replicas,
+                                    BalanceMode mode, MeterRegistry meterRegistry) {
+        this(primary, replicas, mode, meterRegistry, Tags.of("shard", "0"));
+    }
+
+    /** @param tags added to every meter, e.g. the shard when several routing datasources coexist */
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<ReplicaNode> replicas,
+                                    BalanceMode mode, MeterRegistry meterRegistry, Tags tags) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.mode = mode;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        routed.put(PRIMARY, meterRegistry.counter("datasource.routing.decisions", tags.and("target", PRIMARY)));
+        for (ReplicaNode node : this.replicas) {
+            targets.put(node.name, node.pool);
+            routed.put(node.name, meterRegistry.counter("datasource.routing.decisions", tags.and("target", node.name)));
+            Gauge.builder("datasource.replica.healthy", node, n -> n.healthy ? 1 : 0)
+                    .tags(tags).tag("replica", node.name).register(meterRegistry);
+            Gauge.builder("datasource.replica.latency", node, ReplicaNode::getLatencyMs)
+                    .tags(tags).tag("replica", node.name).baseUnit("milliseconds").register(meterRegistry);
+            Gauge.builder("datasource.replica.lag", node, ReplicaNode::getLagSeconds)
+                    .tags(tags).tag("replica", node.name).baseUnit("seconds").register(meterRegistry);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    public List<ReplicaNode> getReplicas() {
+        return replicas;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean readWrite = TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        String key = readWrite ? PRIMARY : selectReplica();
+        routed.get(key).increment();
+        return key;
+    }
+
+    /** Lowest-scoring healthy replica; ties rotate so equal replicas share load. */
+    String selectReplica() {
+        int size = replicas.size();
+        int start = Math.floorMod(cursor.getAndIncrement(), Math.max(1, size));
+        ReplicaNode best = null;
+        double bestScore = Double.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            ReplicaNode node = replicas.get((start + i) % size);
+            if (!node.healthy) {
+                continue;
+            }
+            double score = node.score(mode);
+            if (score < bestScore) {
+                best = node;
+                bestScore = score;
+            }
+        }
+        return best != null ? best.name : PRIMARY;
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(node -> node.pool.close());
+        primary.close();
+    }
+}
@@ -0,0 +1,52 @@
+package com.finance.query.config;
+
+import com.finance.query.shard.ShardContext;
+import com.finance.query.shard.ShardMap;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.UUID;
+
+/**
+ * Pins each request to a shard before any transaction starts:
+ *   - /upsert/groups/**  → the groups home shard
+ *   - everything else    → the shard of the X-User-Id user
+ *
+ * Runs after SecurityInterceptor, so X-User-Id is already checked.
+ */
+@Component
+@RequiredArgsConstructor
+public class ShardInterceptor implements HandlerInterceptor {
+
+    private static final String GROUPS_PREFIX = "/upsert/groups";
+
+    private final ShardMap shardMap;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (request.getRequestURI().startsWith(GROUPS_PREFIX)) {
+            ShardContext.set(shardMap.groupShard());
+            return true;
+        }
+        String xUserId = request.getHeader("X-User-Id");
+        if (xUserId == null || xUserId.isBlank()) {
+            return true;
+        }
+        try {
+            ShardContext.set(shardMap.shardFor(UUID.fromString(xUserId)));
+        } catch (IllegalArgumentException e) {
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            response.getWriter().write("{\"message\":\"Malformed user context\"}");
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ShardContext.clear();
+    }
+}
@@ -0,0 +1,64 @@
+package com.finance.query.config;
+
+import com.finance.query.shard.ShardContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * First routing hop: picks the shard from {@link ShardContext}, then that
+ * shard's ReplicaRoutingDataSource balances across its replicas as it does
+ * unsharded.
+ *
+ *   LazyConnectionDataSourceProxy
+ *     └─ ShardRoutingDataSource        (ShardContext.current())
+ *          └─ ReplicaRoutingDataSource per shard  (readOnly + replica health)
+ *               └─ primary pool / replica pools
+ *
+ * Always a bean, so ReplicaHealthProbe reaches every shard's replicas through
+ * {@link #getShards()}; only put in the connection path with more than one shard.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private final List<ReplicaRoutingDataSource> shards;
+    private final Counter[] routed;
+
+    /** @param shards per-shard routing datasources, indexed by shard number; shard 0 is a bean of its own */
+    public ShardRoutingDataSource(List<ReplicaRoutingDataSource> shards, MeterRegistry meterRegistry) {
+        this.shards = List.copyOf(shards);
+        this.routed = new Counter[this.shards.size()];
+        Map<Object, Object> targets = new HashMap<>();
+        for (int shard = 0; shard < this.shards.size(); shard++) {
+            targets.put(shard, this.shards.get(shard));
+            routed[shard] = meterRegistry.counter("datasource.shard.decisions", "shard", Integer.toString(shard));
+        }
+        setTargetDataSources(targets);
+        // Unknown keys must fail, not silently land on shard 0
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    public List<ReplicaRoutingDataSource> getShards() {
+        return shards;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        int shard = ShardContext.current();
+        if (shard < 0 || shard >= shards.size()) {
+            throw new IllegalStateException("No datasource for shard " + shard + " (" + shards.size() + " configured)");
+        }
+        routed[shard].increment();
+        return shard;
+    }
+
+    /** Closes shards 1..N; shard 0 is closed as its own bean. */
+    @Override
+    public void close() {
+        shards.subList(1, shards.size()).forEach(ReplicaRoutingDataSource::close);
+    }
+}
@@ -2,8 +2,8 @@ package com.finance.query.controller;
 
 import com.finance.query.dto.AnalyticsRequest;
 import com.finance.query.dto.ChartData;
+import com.finance.query.dto.TransactionRow;
 import com.finance.query.model.Category;
-import com.finance.query.model.TransactionEntry;
 import com.finance.query.model.TransactionType;
 import com.finance.query.service.AnalyticsService;
 import com.finance.query.service.BudgetTrendService;
@@ -43,13 +43,13 @@ public class AnalyticsController {
     }
 
     @GetMapping("/transaction-entries")
-    public Page<TransactionEntry> getTransactionEntries(@RequestParam UUID userId, Pageable pageable) {
+    public Page<TransactionRow> getTransactionEntries(@RequestParam UUID userId, Pageable pageable) {
         return analyticsService.getTransactionEntriesByUserId(userId, pageable);
     }
 
 
     @GetMapping("/transactions/income-by-category")
-    public Page<TransactionEntry> getIncomeByCategory(
+    public Page<TransactionRow> getIncomeByCategory(
             @RequestParam UUID userId,
             @RequestParam Category categoryName,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
@@ -59,7 +59,7 @@ public class AnalyticsController {
     }
 
     @GetMapping("/transactions/by-type")
-    public Page<TransactionEntry> getTransactionsByType(
+    public Page<TransactionRow> getTransactionsByType(
             @RequestParam UUID userId,
             @RequestParam TransactionType transactionType,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
@@ -1,7 +1,8 @@
 package com.finance.query.controller;
 
 import com.finance.query.dto.CreateEntryResponse;
-import com.finance.query.model.TransactionEntry;
+import com.finance.query.dto.PageResponse;
+import com.finance.query.dto.TransactionRow;
 import com.finance.query.model.TransactionType;
 import com.finance.query.service.QueryTransactionEntryService;
 import lombok.RequiredArgsConstructor;
@@ -47,7 +48,7 @@ public class QueryTransactionEntryController {
     }
 
     @GetMapping("/entries")
-    public ResponseEntity<Page<TransactionEntry>> getEntries(
+    public ResponseEntity<PageResponse<TransactionRow>> getEntries(
             @RequestParam UUID userId,
             @RequestParam(required = false) TransactionType type,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
@@ -58,7 +59,7 @@ public class QueryTransactionEntryController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Page<TransactionEntry>> searchEntries(
+    public ResponseEntity<PageResponse<TransactionRow>> searchEntries(
             @RequestParam UUID userId,
             @RequestParam String q,
             @RequestParam(defaultValue = "0")  int page,
@@ -72,7 +73,7 @@ public class QueryTransactionEntryController {
     }
 
     @GetMapping("/recurring")
-    public ResponseEntity<List<TransactionEntry>> getRecurringEntries(@RequestParam UUID userId) {
+    public ResponseEntity<List<TransactionRow>> getRecurringEntries(@RequestParam UUID userId) {
         return ResponseEntity.ok(service.getRecurringEntries(userId));
     }
 
@@ -0,0 +1,18 @@
+package com.finance.query.dto;
+
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+/**
+ * Flat page of results. Unlike {@code PageImpl} it round-trips through the
+ * Redis cache serializer, and its JSON keeps the fields clients read
+ * ({@code content}, {@code totalPages}, {@code totalElements}).
+ */
+public record PageResponse<T>(List<T> content, int number, int size, long totalElements, int totalPages) {
+
+    public static <T> PageResponse<T> of(Page<T> page) {
+        return new PageResponse<>(page.getContent(), page.getNumber(), page.getSize(),
+                page.getTotalElements(), page.getTotalPages());
+    }
+}
@@ -0,0 +1,31 @@
+package com.finance.query.dto;
+
+import com.finance.query.model.Category;
+import com.finance.query.model.RecurringPeriod;
+import com.finance.query.model.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Read-only view of a live transaction for list endpoints, selected column by
+ * column with a constructor expression so no entity is hydrated or tracked.
+ * Field names match the entity's JSON so clients see the same shape.
+ */
+public record TransactionRow(
+        Long id,
+        UUID userId,
+        String name,
+        BigDecimal amount,
+        TransactionType type,
+        Category category,
+        String currency,
+        String description,
+        boolean recurring,
+        RecurringPeriod recurringPeriod,
+        LocalDateTime nextRunDate,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        String receiptUrl) {
+}
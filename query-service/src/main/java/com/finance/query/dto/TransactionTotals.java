@@ -0,0 +1,11 @@
+package com.finance.query.dto;
+
+import java.math.BigDecimal;
+
+/** Income, expense and row count over a user's live transactions, computed in one aggregate query. */
+public record TransactionTotals(BigDecimal totalIncome, BigDecimal totalExpense, long totalCount) {
+
+    public BigDecimal netBalance() {
+        return totalIncome.subtract(totalExpense);
+    }
+}
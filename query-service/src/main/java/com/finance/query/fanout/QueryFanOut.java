@@ -0,0 +1,207 @@
+package com.finance.query.fanout;
+
+import com.finance.query.shard.ShardContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Runs the independent sub-queries of a composite read concurrently, one
+ * virtual thread per branch, with shutdown-on-failure semantics in the style
+ * of {@code StructuredTaskScope} (still a preview API on Java 21):
+ *
+ * <pre>
+ * try (QueryFanOut.Scope scope = fanOut.open()) {
+ *     Supplier&lt;BigDecimal&gt; income  = scope.fork("income",  () -> repo.total(INCOME));
+ *     Supplier&lt;BigDecimal&gt; expense = scope.fork("expense", () -> repo.total(EXPENSE));
+ *     scope.join();
+ *     return income.get().subtract(expense.get());
+ * }
+ * </pre>
+ *
+ * The first failing branch cancels its siblings and its exception is rethrown
+ * from {@link Scope#join()}. A branch that outlives its deadline (the scope's,
+ * or a tighter per-branch one) cancels the scope with a
+ * {@link QueryTimeoutException}. Closing the scope cancels whatever is still
+ * running, so an early return never leaks work.
+ *
+ * Branches run outside the caller's transaction: each opens its own read-only
+ * transaction, so it is routed to a replica and borrows its own pooled
+ * connection — keep callers non-transactional and fan-outs narrow.
+ */
+@Slf4j
+@Component
+public class QueryFanOut {
+
+    private final AsyncTaskExecutor executor;
+    private final TransactionTemplate readOnly;
+    private final Duration defaultDeadline;
+
+    public QueryFanOut(@Qualifier("applicationTaskExecutor") AsyncTaskExecutor executor,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${analytics.fan-out.deadline:PT5S}") Duration defaultDeadline) {
+        this.executor = executor;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.defaultDeadline = defaultDeadline;
+    }
+
+    public Scope open() {
+        return open(defaultDeadline);
+    }
+
+    public Scope open(Duration deadline) {
+        return new Scope(System.nanoTime() + deadline.toNanos());
+    }
+
+    public final class Scope implements AutoCloseable {
+
+        private final long deadlineNanos;
+        /** Appended by the caller, iterated by whichever branch fails first. */
+        private final List<Branch<?>> branches = new CopyOnWriteArrayList<>();
+        private final AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+        private boolean joined;
+
+        private Scope(long deadlineNanos) {
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        public <T> Supplier<T> fork(String name, Callable<T> task) {
+            return fork(name, null, task);
+        }
+
+        /** Forks {@code task}; {@code timeout} tightens the scope deadline for this branch only. */
+        public <T> Supplier<T> fork(String name, Duration timeout, Callable<T> task) {
+            if (joined) {
+                throw new IllegalStateException("Cannot fork after join");
+            }
+            long branchDeadline = timeout == null ? deadlineNanos
+                    : Math.min(deadlineNanos, System.nanoTime() + timeout.toNanos());
+            Branch<T> branch = new Branch<>(name, branchDeadline);
+            // Branches query the caller's shard; each runs on a fresh virtual thread
+            int shard = ShardContext.current();
+            // Listed before submit, so a sibling failing meanwhile reaches it once its future is set
+            branches.add(branch);
+            branch.future = executor.submit(() -> {
+                ShardContext.set(shard);
+                try {
+                    return readOnly.execute(status -> call(task));
+                } catch (Exception e) {
+                    if (firstFailure.compareAndSet(null, e)) {
+                        cancelAll();
+                    }
+                    throw e;
+                } finally {
+                    ShardContext.clear();
+                }
+            });
+            if (firstFailure.get() != null) {
+                branch.future.cancel(true);
+            }
+            return branch;
+        }
+
+        /** Waits for every branch; rethrows the first failure or a deadline breach. */
+        public void join() {
+            joined = true;
+            for (Branch<?> branch : branches) {
+                branch.await();
+            }
+        }
+
+        @Override
+        public void close() {
+            cancelAll();
+        }
+
+        private void cancelAll() {
+            for (Branch<?> branch : branches) {
+                Future<?> future = branch.future;
+                if (future != null) {
+                    future.cancel(true);
+                }
+            }
+        }
+
+        private static <T> T call(Callable<T> task) {
+            try {
+                return task.call();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException("Query branch failed", e);
+            }
+        }
+
+        private RuntimeException failure(Throwable fallback) {
+            Throwable cause = firstFailure.get() != null ? firstFailure.get() : fallback;
+            if (cause instanceof RuntimeException re) {
+                return re;
+            }
+            if (cause instanceof Error err) {
+                throw err;
+            }
+            return new IllegalStateException("Query branch failed", cause);
+        }
+
+        private final class Branch<T> implements Supplier<T> {
+
+            private final String name;
+            private final long deadlineNanos;
+            private volatile Future<T> future;
+            private T value;
+            private boolean done;
+
+            private Branch(String name, long deadlineNanos) {
+                this.name = name;
+                this.deadlineNanos = deadlineNanos;
+            }
+
+            private void await() {
+                try {
+                    value = future.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    done = true;
+                } catch (TimeoutException e) {
+                    cancelAll();
+                    log.warn("Query branch '{}' exceeded its deadline; cancelled the fan-out", name);
+                    throw new QueryTimeoutException("Query branch '" + name + "' exceeded its deadline");
+                } catch (ExecutionException e) {
+                    cancelAll();
+                    throw failure(e.getCause());
+                } catch (CancellationException e) {
+                    // A sibling failed first
+                    throw failure(e);
+                } catch (InterruptedException e) {
+                    cancelAll();
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for query branch '" + name + "'", e);
+                }
+            }
+
+            @Override
+            public T get() {
+                if (!done) {
+                    throw new IllegalStateException("Query branch '" + name + "' read before join()");
+                }
+                return value;
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.finance.query.model;
 
+import com.finance.query.model.convert.CurrencyConverter;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
@@ -28,7 +29,6 @@ CategoryBudget {
     @NotNull
     private UUID userId;
 
-    @Enumerated(EnumType.STRING)
     @Column(name = "expense_category", nullable = false)
     @NotNull
     private Category expenseCategory;
@@ -38,12 +38,12 @@ CategoryBudget {
     private BigDecimal budgetAmount;
 
     /** MONTHLY or WEEKLY period for budget reset. */
-    @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     @NotNull
     private RecurringPeriod period;
 
-    @Column(nullable = false, length = 3)
+    @Convert(converter = CurrencyConverter.class)
+    @Column(nullable = false)
     @NotBlank
     private String currency;
 
@@ -1,5 +1,6 @@
 package com.finance.query.model;
 
+import com.finance.query.model.convert.CurrencyConverter;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -33,7 +34,8 @@ public class ExpenseGroup {
     @Column(name = "created_by", nullable = false)
     private UUID createdBy;
 
-    @Column(nullable = false, length = 3)
+    @Convert(converter = CurrencyConverter.class)
+    @Column(nullable = false)
     private String currency = "INR";
 
     @Column(name = "created_at", nullable = false, updatable = false)
@@ -11,14 +11,19 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "expense_splits", schema = "groups")
+@Table(name = "expense_splits", schema = "groups", indexes = {
+    @Index(name = "idx_expense_split_expense", columnList = "shared_expense_id"),
+    @Index(name = "idx_expense_split_user_expense", columnList = "user_id, shared_expense_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class ExpenseSplit {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "expense_splits_seq")
+    @SequenceGenerator(name = "expense_splits_seq", sequenceName = "expense_splits_id_seq",
+            schema = "groups", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -19,7 +19,9 @@ import java.util.UUID;
 public class GroupActivity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "group_activities_seq")
+    @SequenceGenerator(name = "group_activities_seq", sequenceName = "group_activities_id_seq",
+            schema = "activity", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -36,8 +38,7 @@ public class GroupActivity {
     @Column(name = "actor_name", nullable = false, length = 150)
     private String actorName;
 
-    @Enumerated(EnumType.STRING)
-    @Column(name = "activity_type", nullable = false, length = 40)
+    @Column(name = "activity_type", nullable = false)
     private ActivityType activityType;
 
     @Column(nullable = false, length = 500)
@@ -49,12 +50,23 @@ public class GroupActivity {
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
-    public enum ActivityType {
-        GROUP_CREATED,
-        MEMBER_ADDED,
-        EXPENSE_ADDED,
-        EXPENSE_DELETED,
-        SETTLEMENT_RECORDED
+    public enum ActivityType implements CodedEnum {
+        GROUP_CREATED(1),
+        MEMBER_ADDED(2),
+        EXPENSE_ADDED(3),
+        EXPENSE_DELETED(4),
+        SETTLEMENT_RECORDED(5);
+
+        private final short code;
+
+        ActivityType(int code) {
+            this.code = (short) code;
+        }
+
+        @Override
+        public short code() {
+            return code;
+        }
     }
 
     @PrePersist
@@ -17,8 +17,19 @@ import java.util.UUID;
 @AllArgsConstructor
 public class GroupMember {
 
-    public enum InvitationStatus {
-        PENDING, ACCEPTED, REJECTED
+    public enum InvitationStatus implements CodedEnum {
+        PENDING(1), ACCEPTED(2), REJECTED(3);
+
+        private final short code;
+
+        InvitationStatus(int code) {
+            this.code = (short) code;
+        }
+
+        @Override
+        public short code() {
+            return code;
+        }
     }
 
     @Id
@@ -43,8 +54,7 @@ public class GroupMember {
     @Column(name = "joined_at", nullable = false, updatable = false)
     private LocalDateTime joinedAt;
 
-    @Enumerated(EnumType.STRING)
-    @Column(nullable = false, length = 20)
+    @Column(nullable = false)
     private InvitationStatus status = InvitationStatus.PENDING;
 
     @Column(name = "is_archived", nullable = false)
@@ -0,0 +1,44 @@
+package com.finance.query.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Running paid/owed totals per (group, user). Written by command-service
+ * alongside every shared expense; read-only here.
+ */
+@Entity
+@Table(name = "group_member_balance", schema = "groups",
+       uniqueConstraints = @UniqueConstraint(name = "uk_group_member_balance", columnNames = {"group_id", "user_id"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupMemberBalance {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "group_id", nullable = false)
+    private Long groupId;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    /** Sum of shared expenses this user paid for. */
+    @Column(name = "total_paid", nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalPaid = BigDecimal.ZERO;
+
+    /** Sum of this user's splits across all shared expenses. */
+    @Column(name = "total_owed", nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalOwed = BigDecimal.ZERO;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -16,7 +16,9 @@ import java.util.UUID;
 public class OutboxEvent {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_seq")
+    @SequenceGenerator(name = "outbox_events_seq", sequenceName = "outbox_events_id_seq",
+            schema = "finance", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -29,14 +31,24 @@ public class OutboxEvent {
     private Long entityId;
 
     @Column(nullable = false)
-    @Enumerated(EnumType.STRING)
     private EventStatus status = EventStatus.PENDING;
 
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
 
-    public enum EventStatus {
-        PENDING, PROCESSED, FAILED
+    public enum EventStatus implements CodedEnum {
+        PENDING(1), PROCESSED(2), FAILED(3);
+
+        private final short code;
+
+        EventStatus(int code) {
+            this.code = (short) code;
+        }
+
+        @Override
+        public short code() {
+            return code;
+        }
     }
 }
@@ -1,8 +1,19 @@
 package com.finance.query.model;
 
-public enum Priority {
-    CRITICAL,
-    HIGH,
-    MEDIUM,
-    LOW
+public enum Priority implements CodedEnum {
+    CRITICAL(1),
+    HIGH(2),
+    MEDIUM(3),
+    LOW(4);
+
+    private final short code;
+
+    Priority(int code) {
+        this.code = (short) code;
+    }
+
+    @Override
+    public short code() {
+        return code;
+    }
 }
@@ -4,9 +4,20 @@ package com.finance.query.model;
  * Period for recurring transactions.
  * Used in conjunction with {@link TransactionEntry#} flag.
  */
-public enum RecurringPeriod {
-    DAILY,
-    WEEKLY,
-    MONTHLY,
-    YEARLY
+public enum RecurringPeriod implements CodedEnum {
+    DAILY(1),
+    WEEKLY(2),
+    MONTHLY(3),
+    YEARLY(4);
+
+    private final short code;
+
+    RecurringPeriod(int code) {
+        this.code = (short) code;
+    }
+
+    @Override
+    public short code() {
+        return code;
+    }
 }
@@ -1,5 +1,6 @@
 package com.finance.query.model;
 
+import com.finance.query.model.convert.CurrencyConverter;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
@@ -13,7 +14,8 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "shared_expenses", schema = "groups", indexes = {
-    @Index(name = "idx_shared_expense_group", columnList = "group_id")
+    @Index(name = "idx_shared_expense_group", columnList = "group_id"),
+    @Index(name = "idx_shared_expense_group_payer", columnList = "group_id, paid_by")
 })
 @Data
 @NoArgsConstructor
@@ -42,17 +44,16 @@ public class SharedExpense {
     @Column(nullable = false, precision = 12, scale = 2)
     private BigDecimal amount;
 
-    @Column(nullable = false, length = 3)
+    @Convert(converter = CurrencyConverter.class)
+    @Column(nullable = false)
     private String currency = "INR";
 
     @Column(name = "paid_by", nullable = false)
     private UUID paidBy;   // userId of who paid
 
-    @Enumerated(EnumType.STRING)
     @Column(name = "split_type", nullable = false)
     private SplitType splitType = SplitType.EQUAL;
 
-    @Enumerated(EnumType.STRING)
     @Column(name = "expense_category")
     private ExpenseCategory expenseCategory;
 
@@ -66,87 +67,109 @@ public class SharedExpense {
     @Column(name = "receipt_url", length = 500)
     private String receiptUrl;
 
-    public enum SplitType {
-        EQUAL, PERCENTAGE, EXACT, SETTLEMENT
+    public enum SplitType implements CodedEnum {
+        EQUAL(1), PERCENTAGE(2), EXACT(3), SETTLEMENT(4);
+
+        private final short code;
+
+        SplitType(int code) {
+            this.code = (short) code;
+        }
+
+        @Override
+        public short code() {
+            return code;
+        }
     }
 
-    public enum ExpenseCategory {
+    public enum ExpenseCategory implements CodedEnum {
 
         // ── Housing & Utilities ───────────────────────────────────────────────────
-        RENT,               // split from HOUSING
-        HOME_LOAN_EMI,
-        HOME_MAINTENANCE,   // repairs, painting, plumbing
-        PROPERTY_TAX,
-        ELECTRICITY,        // split from UTILITIES
-        WATER,
-        GAS,
-        INTERNET,
-        MOBILE_PHONE,
-        OTT_SUBSCRIPTIONS,  // Netflix, Hotstar, Spotify
+        RENT(1),               // split from HOUSING
+        HOME_LOAN_EMI(2),
+        HOME_MAINTENANCE(3),   // repairs, painting, plumbing
+        PROPERTY_TAX(4),
+        ELECTRICITY(5),        // split from UTILITIES
+        WATER(6),
+        GAS(7),
+        INTERNET(8),
+        MOBILE_PHONE(9),
+        OTT_SUBSCRIPTIONS(10), // Netflix, Hotstar, Spotify
 
         // ── Food & Dining ─────────────────────────────────────────────────────────
-        GROCERIES,          // split from FOOD_AND_DINING
-        RESTAURANTS,
-        FOOD_DELIVERY,      // Swiggy, Zomato
-        COFFEE_AND_SNACKS,
+        GROCERIES(11),         // split from FOOD_AND_DINING
+        RESTAURANTS(12),
+        FOOD_DELIVERY(13),     // Swiggy, Zomato
+        COFFEE_AND_SNACKS(14),
 
         // ── Transport ─────────────────────────────────────────────────────────────
-        FUEL,               // split from TRANSPORT
-        PUBLIC_TRANSPORT,   // bus, metro, train
-        CAB_AND_AUTO,       // Ola, Uber, auto
-        VEHICLE_EMI,
-        VEHICLE_MAINTENANCE,
-        PARKING_AND_TOLLS,
-        FLIGHT_AND_TRAIN,   // intercity travel
+        FUEL(15),              // split from TRANSPORT
+        PUBLIC_TRANSPORT(16),  // bus, metro, train
+        CAB_AND_AUTO(17),      // Ola, Uber, auto
+        VEHICLE_EMI(18),
+        VEHICLE_MAINTENANCE(19),
+        PARKING_AND_TOLLS(20),
+        FLIGHT_AND_TRAIN(21),  // intercity travel
 
         // ── Health ────────────────────────────────────────────────────────────────
-        DOCTOR_AND_CLINIC,  // split from HEALTHCARE
-        MEDICINES,
-        HEALTH_INSURANCE,
-        GYM_AND_FITNESS,
-        MENTAL_WELLNESS,
+        DOCTOR_AND_CLINIC(22), // split from HEALTHCARE
+        MEDICINES(23),
+        HEALTH_INSURANCE(24),
+        GYM_AND_FITNESS(25),
+        MENTAL_WELLNESS(26),
 
         // ── Education ─────────────────────────────────────────────────────────────
-        TUITION_AND_FEES,   // split from EDUCATION
-        BOOKS_AND_COURSES,
-        COACHING,
-        STUDENT_LOAN_EMI,
+        TUITION_AND_FEES(27),  // split from EDUCATION
+        BOOKS_AND_COURSES(28),
+        COACHING(29),
+        STUDENT_LOAN_EMI(30),
 
         // ── Shopping ──────────────────────────────────────────────────────────────
-        CLOTHING,           // split from SHOPPING
-        ELECTRONICS,
-        HOME_APPLIANCES,
-        PERSONAL_CARE,      // cosmetics, haircut, salon
-        GIFTS_GIVEN,
+        CLOTHING(31),          // split from SHOPPING
+        ELECTRONICS(32),
+        HOME_APPLIANCES(33),
+        PERSONAL_CARE(34),     // cosmetics, haircut, salon
+        GIFTS_GIVEN(35),
 
         // ── Entertainment & Lifestyle ─────────────────────────────────────────────
-        MOVIES_AND_EVENTS,  // split from ENTERTAINMENT
-        GAMING,
-        SPORTS_AND_HOBBIES,
-        BOOKS_AND_MAGAZINES,
-        TRAVEL_VACATION,    // split from TRAVEL — leisure trips
-        HOTEL_AND_STAYS,
+        MOVIES_AND_EVENTS(36), // split from ENTERTAINMENT
+        GAMING(37),
+        SPORTS_AND_HOBBIES(38),
+        BOOKS_AND_MAGAZINES(39),
+        TRAVEL_VACATION(40),   // split from TRAVEL — leisure trips
+        HOTEL_AND_STAYS(41),
 
         // ── Finance & Insurance ───────────────────────────────────────────────────
-        LIFE_INSURANCE,     // split from INSURANCE
-        VEHICLE_INSURANCE,
-        CREDIT_CARD_PAYMENT,
-        LOAN_REPAYMENT,
-        MUTUAL_FUNDS_SIP,
-        STOCKS_AND_TRADING,
-        CRYPTO,
-        EMERGENCY_FUND,
-        FIXED_DEPOSIT,
+        LIFE_INSURANCE(42),    // split from INSURANCE
+        VEHICLE_INSURANCE(43),
+        CREDIT_CARD_PAYMENT(44),
+        LOAN_REPAYMENT(45),
+        MUTUAL_FUNDS_SIP(46),
+        STOCKS_AND_TRADING(47),
+        CRYPTO(48),
+        EMERGENCY_FUND(49),
+        FIXED_DEPOSIT(50),
 
         // ── Miscellaneous ─────────────────────────────────────────────────────────
-        CHARITY_AND_DONATIONS,
-        TAXES,
-        FINES_AND_PENALTIES,
-        PETS,
-        CHILDCARE,
-        ELDER_CARE,
-        SETTLEMENT,
-        OTHERS
+        CHARITY_AND_DONATIONS(51),
+        TAXES(52),
+        FINES_AND_PENALTIES(53),
+        PETS(54),
+        CHILDCARE(55),
+        ELDER_CARE(56),
+        SETTLEMENT(57),
+        OTHERS(58);
+
+        private final short code;
+
+        ExpenseCategory(int code) {
+            this.code = (short) code;
+        }
+
+        @Override
+        public short code() {
+            return code;
+        }
     }
 
     @PrePersist
@@ -1,5 +1,6 @@
 package com.finance.query.model;
 
+import com.finance.query.model.convert.CurrencyConverter;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -32,10 +33,10 @@ public class Subscription {
     @Column(nullable = false, precision = 12, scale = 2)
     private BigDecimal amount;
 
-    @Column(nullable = false, length = 3)
+    @Convert(converter = CurrencyConverter.class)
+    @Column(nullable = false)
     private String currency;
 
-    @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private RecurringPeriod period;
 
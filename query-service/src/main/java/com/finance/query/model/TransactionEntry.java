@@ -1,5 +1,6 @@
 package com.finance.query.model;
 
+import com.finance.query.model.convert.CurrencyConverter;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
@@ -18,7 +19,9 @@ public class TransactionEntry implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_entries_seq")
+    @SequenceGenerator(name = "transaction_entries_seq", sequenceName = "transaction_entries_id_seq",
+            schema = "finance", allocationSize = 50)
     @Getter
     @Setter
     private Long id;
@@ -44,7 +47,6 @@ public class TransactionEntry implements Serializable {
     @Setter
     private BigDecimal amount;
 
-    @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     @NotNull(message = "Transaction type is required")
     @Getter
@@ -52,13 +54,13 @@ public class TransactionEntry implements Serializable {
     private TransactionType type;
 
     @Column(name = "category", nullable = false)
-    @Enumerated(EnumType.STRING)
     @Setter
     @Getter
     private Category category;
 
 
-    @Column(nullable = false, length = 3)
+    @Convert(converter = CurrencyConverter.class)
+    @Column(nullable = false)
     @NotBlank(message = "Currency is required")
     @Size(min = 3, max = 3, message = "Currency must be 3 characters")
     @Getter
@@ -102,10 +104,9 @@ public class TransactionEntry implements Serializable {
 
     /**
      * Recurrence period — only meaningful when {@code recurring = true}.
-     * Hibernate adds this as a nullable VARCHAR column automatically.
+     * Hibernate adds this as a nullable SMALLINT column automatically.
      */
-    @Enumerated(EnumType.STRING)
-    @Column(name = "recurring_period", length = 20)
+    @Column(name = "recurring_period")
     @Getter
     @Setter
     private RecurringPeriod recurringPeriod;
@@ -26,7 +26,9 @@ public class TransactionGoalAllocation {
     private Long id;
 
     @OneToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "transaction_id", nullable = false, unique = true)
+    // transaction_entries is partitioned (PK id, created_at), so no FK on id alone
+    @JoinColumn(name = "transaction_id", nullable = false, unique = true,
+            foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     @JsonIgnore
     private TransactionEntry transaction;
 
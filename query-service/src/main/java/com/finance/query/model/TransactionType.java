@@ -1,6 +1,17 @@
 package com.finance.query.model;
 
-public enum TransactionType {
-    INCOME,
-    EXPENSE
+public enum TransactionType implements CodedEnum {
+    INCOME(1),
+    EXPENSE(2);
+
+    private final short code;
+
+    TransactionType(int code) {
+        this.code = (short) code;
+    }
+
+    @Override
+    public short code() {
+        return code;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,53 @@
+package com.finance.query.model.convert;
+
+import java.util.Locale;
+
+/**
+ * Packs a three-letter currency code into a smallint: each letter is a base-26
+ * digit, plus one so that 0 never encodes a currency (AAA = 1, ZZZ = 17576).
+ *
+ * The code is derived from the letters rather than assigned, so every service
+ * and every shard agrees on it without a shared sequence, and a currency the
+ * dictionary table (finance.currencies) doesn't list yet still round-trips.
+ * finance.currency_code() / finance.currency_alpha() are the SQL equivalents.
+ */
+public final class CurrencyCodes {
+
+    private static final int RADIX = 26;
+
+    private CurrencyCodes() {}
+
+    public static short encode(String currency) {
+        if (currency == null || currency.length() != 3) {
+            throw new IllegalArgumentException("Currency must be a three-letter code: " + currency);
+        }
+        String upper = currency.toUpperCase(Locale.ROOT);
+        int code = 0;
+        for (int i = 0; i < 3; i++) {
+            char c = upper.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                throw new IllegalArgumentException("Currency must be a three-letter code: " + currency);
+            }
+            code = code * RADIX + (c - 'A');
+        }
+        return (short) (code + 1);
+    }
+
+    public static String decode(short code) {
+        int value = code - 1;
+        if (value < 0 || value >= RADIX * RADIX * RADIX) {
+            throw new IllegalArgumentException("Unknown currency code " + code);
+        }
+        char[] letters = new char[3];
+        for (int i = 2; i >= 0; i--) {
+            letters[i] = (char) ('A' + value % RADIX);
+            value /= RADIX;
+        }
+        return new String(letters);
+    }
+
+    /** Null-safe variant for nullable columns read outside Hibernate (native projections, JDBC). */
+    public static String decodeNullable(Number code) {
+        return code == null ? null : decode(code.shortValue());
+    }
+}
@@ -0,0 +1,22 @@
+package com.finance.query.model.convert;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores a currency code as a smallint ({@link CurrencyCodes}). Applied per
+ * field with {@code @Convert} — auto-applying to every String would be wrong.
+ */
+@Converter
+public class CurrencyConverter implements AttributeConverter<String, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(String currency) {
+        return currency == null ? null : CurrencyCodes.encode(currency);
+    }
+
+    @Override
+    public String convertToEntityAttribute(Short code) {
+        return code == null ? null : CurrencyCodes.decode(code);
+    }
+}
@@ -0,0 +1,66 @@
+package com.finance.query.model.convert;
+
+import com.finance.query.model.Category;
+import com.finance.query.model.GroupActivity;
+import com.finance.query.model.GroupMember;
+import com.finance.query.model.OutboxEvent;
+import com.finance.query.model.Priority;
+import com.finance.query.model.RecurringPeriod;
+import com.finance.query.model.SharedExpense;
+import com.finance.query.model.TransactionType;
+import jakarta.persistence.Converter;
+
+/**
+ * One auto-applied converter per coded enum, so every entity attribute of
+ * these types is stored as a smallint without per-field annotations.
+ * command-service's V4__compact_enum_currency_columns rewrote the old varchar columns.
+ */
+public final class EnumConverters {
+
+    private EnumConverters() {}
+
+    @Converter(autoApply = true)
+    public static class TransactionTypeConverter extends CodedEnumConverter<TransactionType> {
+        public TransactionTypeConverter() { super(TransactionType.class); }
+    }
+
+    @Converter(autoApply = true)
+    public static class CategoryConverter extends CodedEnumConverter<Category> {
+        public CategoryConverter() { super(Category.class); }
+    }
+
+    @Converter(autoApply = true)
+    public static class RecurringPeriodConverter extends CodedEnumConverter<RecurringPeriod> {
+        public RecurringPeriodConverter() { super(RecurringPeriod.class); }
+    }
+
+    @Converter(autoApply = true)
+    public static class PriorityConverter extends CodedEnumConverter<Priority> {
+        public PriorityConverter() { super(Priority.class); }
+    }
+
+    @Converter(autoApply = true)
+    public static class EventStatusConverter extends CodedEnumConverter<OutboxEvent.EventStatus> {
+        public EventStatusConverter() { super(OutboxEvent.EventStatus.class); }
+    }
+
+    @Converter(autoApply = true)
+    public static class SplitTypeConverter extends CodedEnumConverter<SharedExpense.SplitType> {
+        public SplitTypeConverter() { super(SharedExpense.SplitType.class); }
+    }
+
+    @Converter(autoApply = true)
+    public static class ExpenseCategoryConverter extends CodedEnumConverter<SharedExpense.ExpenseCategory> {
+        public ExpenseCategoryConverter() { super(SharedExpense.ExpenseCategory.class); }
+    }
+
+    @Converter(autoApply = true)
+    public static class ActivityTypeConverter extends CodedEnumConverter<GroupActivity.ActivityType> {
+        public ActivityTypeConverter() { super(GroupActivity.ActivityType.class); }
+    }
+
+    @Converter(autoApply = true)
+    public static class InvitationStatusConverter extends CodedEnumConverter<GroupMember.InvitationStatus> {
+        public InvitationStatusConverter() { super(GroupMember.InvitationStatus.class); }
+    }
+}
@@ -0,0 +1,13 @@
+package com.finance.query.repository;
+
+import com.finance.query.model.GroupMemberBalance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface GroupMemberBalanceRepository extends JpaRepository<GroupMemberBalance, Long> {
+
+    List<GroupMemberBalance> findByGroupId(Long groupId);
+}
@@ -1,9 +1,12 @@
 package com.finance.query.repository;
 
+import com.finance.query.dto.GroupNetBalanceRow;
 import com.finance.query.model.SharedExpense;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -15,4 +18,25 @@ public interface SharedExpenseRepository extends JpaRepository<SharedExpense, Lo
     List<SharedExpense> findByGroupIdOrderByCreatedAtDesc(Long groupId);
     List<SharedExpense> findByGroupIdAndPaidBy(Long groupId, UUID paidBy);
     List<SharedExpense> findByGroupIdIn(List<Long> groupIds);
+
+    /**
+     * One user's paid and owed totals per group, aggregated in the database.
+     * Groups where the user neither paid nor owes anything are absent.
+     */
+    @Query(value = """
+            SELECT t.group_id AS "groupId", SUM(t.paid) AS "paid", SUM(t.owed) AS "owed"
+            FROM (
+                SELECT e.group_id, e.amount AS paid, 0 AS owed
+                FROM groups.shared_expenses e
+                WHERE e.group_id IN (:groupIds) AND e.paid_by = :userId
+                UNION ALL
+                SELECT e.group_id, 0, s.amount
+                FROM groups.expense_splits s
+                JOIN groups.shared_expenses e ON e.id = s.shared_expense_id
+                WHERE e.group_id IN (:groupIds) AND s.user_id = :userId
+            ) t
+            GROUP BY t.group_id
+            """, nativeQuery = true)
+    List<GroupNetBalanceRow> sumPaidAndOwedByGroupForUser(@Param("userId") UUID userId,
+                                                          @Param("groupIds") List<Long> groupIds);
 }
@@ -0,0 +1,34 @@
+package com.finance.query.repository;
+
+import com.finance.query.dto.CategoryRow;
+import com.finance.query.dto.DailyRow;
+import com.finance.query.dto.MonthlyRow;
+import com.finance.query.dto.TransactionRow;
+import com.finance.query.dto.YearlyRow;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Row projections and aggregations over {@link TransactionFilter}. Each call emits only the
+ * predicates the filter actually carries; see {@link TransactionAggregateRepositoryImpl}.
+ */
+public interface TransactionAggregateRepository {
+
+    /** One page of matching rows as {@link TransactionRow} projections, ordered by the pageable's sort. */
+    Page<TransactionRow> findRows(TransactionFilter filter, Pageable pageable);
+
+    /** Sum of amounts matching the filter; zero when nothing matches. */
+    BigDecimal sumAmount(TransactionFilter filter);
+
+    /** Totals per category, largest first. */
+    List<CategoryRow> sumByCategory(TransactionFilter filter);
+
+    List<DailyRow> sumByDay(TransactionFilter filter);
+
+    List<MonthlyRow> sumByMonth(TransactionFilter filter);
+
+    List<YearlyRow> sumByYear(TransactionFilter filter);
+}
@@ -0,0 +1,197 @@
+package com.finance.query.repository;
+
+import com.finance.query.dto.CategoryRow;
+import com.finance.query.dto.DailyRow;
+import com.finance.query.dto.MonthlyRow;
+import com.finance.query.dto.TransactionRow;
+import com.finance.query.dto.YearlyRow;
+import com.finance.query.model.Category;
+import com.finance.query.model.TransactionEntry;
+import com.finance.query.model.TransactionType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.Session;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.criteria.JpaExpression;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Criteria-built row and aggregate queries. The WHERE clause always comes from
+ * {@link TransactionFilter#toSpecification()}, so listing and aggregation
+ * share one definition of "matching transactions".
+ */
+class TransactionAggregateRepositoryImpl implements TransactionAggregateRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<TransactionRow> findRows(TransactionFilter filter, Pageable pageable) {
+        HibernateCriteriaBuilder cb = criteriaBuilder();
+        CriteriaQuery<TransactionRow> query = cb.createQuery(TransactionRow.class);
+        Root<TransactionEntry> t = query.from(TransactionEntry.class);
+        query.select(cb.construct(TransactionRow.class,
+                        t.get("id"), t.get("userId"), t.get("name"), t.get("amount"), t.get("type"),
+                        t.get("category"), t.get("currency"), t.get("description"), t.get("recurring"),
+                        t.get("recurringPeriod"), t.get("nextRunDate"), t.get("createdAt"), t.get("updatedAt"),
+                        t.get("receiptUrl")))
+             .where(filter.toSpecification().toPredicate(t, query, cb))
+             .orderBy(QueryUtils.toOrders(pageable.getSort(), t, cb));
+        List<TransactionRow> content = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(filter));
+    }
+
+    @Override
+    public BigDecimal sumAmount(TransactionFilter filter) {
+        HibernateCriteriaBuilder cb = criteriaBuilder();
+        CriteriaQuery<BigDecimal> query = cb.createQuery(BigDecimal.class);
+        Root<TransactionEntry> t = query.from(TransactionEntry.class);
+        query.select(cb.coalesce(cb.sum(t.<BigDecimal>get("amount")), BigDecimal.ZERO))
+             .where(filter.toSpecification().toPredicate(t, query, cb));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    @Override
+    public List<CategoryRow> sumByCategory(TransactionFilter filter) {
+        HibernateCriteriaBuilder cb = criteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<TransactionEntry> t = query.from(TransactionEntry.class);
+        Expression<Category> category = t.get("category");
+        Expression<BigDecimal> total = cb.sum(t.<BigDecimal>get("amount"));
+        query.multiselect(category, total, cb.count(t))
+             .where(filter.toSpecification().toPredicate(t, query, cb))
+             .groupBy(category)
+             .orderBy(cb.desc(total));
+        return entityManager.createQuery(query).getResultStream()
+                .<CategoryRow>map(r -> new CategoryTotals(r.get(0, Category.class), r.get(1, BigDecimal.class), r.get(2, Long.class)))
+                .toList();
+    }
+
+    @Override
+    public List<DailyRow> sumByDay(TransactionFilter filter) {
+        HibernateCriteriaBuilder cb = criteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<TransactionEntry> t = query.from(TransactionEntry.class);
+        Expression<LocalDate> day = cb.cast((JpaExpression<LocalDateTime>) t.<LocalDateTime>get("createdAt"), LocalDate.class);
+        query.multiselect(day, income(cb, t), expense(cb, t), cb.count(t))
+             .where(filter.toSpecification().toPredicate(t, query, cb))
+             .groupBy(day)
+             .orderBy(cb.asc(day));
+        return entityManager.createQuery(query).getResultStream()
+                .<DailyRow>map(r -> new DailyTotals(Date.valueOf(r.get(0, LocalDate.class)),
+                        r.get(1, BigDecimal.class), r.get(2, BigDecimal.class), r.get(3, Long.class)))
+                .toList();
+    }
+
+    @Override
+    public List<MonthlyRow> sumByMonth(TransactionFilter filter) {
+        HibernateCriteriaBuilder cb = criteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<TransactionEntry> t = query.from(TransactionEntry.class);
+        Expression<Integer> year = cb.year(t.<LocalDateTime>get("createdAt"));
+        Expression<Integer> month = cb.month(t.<LocalDateTime>get("createdAt"));
+        query.multiselect(year, month, income(cb, t), expense(cb, t), cb.count(t))
+             .where(filter.toSpecification().toPredicate(t, query, cb))
+             .groupBy(year, month)
+             .orderBy(cb.asc(year), cb.asc(month));
+        return entityManager.createQuery(query).getResultStream()
+                .<MonthlyRow>map(r -> new MonthlyTotals(r.get(0, Integer.class), r.get(1, Integer.class),
+                        r.get(2, BigDecimal.class), r.get(3, BigDecimal.class), r.get(4, Long.class)))
+                .toList();
+    }
+
+    @Override
+    public List<YearlyRow> sumByYear(TransactionFilter filter) {
+        HibernateCriteriaBuilder cb = criteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<TransactionEntry> t = query.from(TransactionEntry.class);
+        Expression<Integer> year = cb.year(t.<LocalDateTime>get("createdAt"));
+        query.multiselect(year, income(cb, t), expense(cb, t), cb.count(t))
+             .where(filter.toSpecification().toPredicate(t, query, cb))
+             .groupBy(year)
+             .orderBy(cb.asc(year));
+        return entityManager.createQuery(query).getResultStream()
+                .<YearlyRow>map(r -> new YearlyTotals(r.get(0, Integer.class),
+                        r.get(1, BigDecimal.class), r.get(2, BigDecimal.class), r.get(3, Long.class)))
+                .toList();
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private long count(TransactionFilter filter) {
+        HibernateCriteriaBuilder cb = criteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<TransactionEntry> t = query.from(TransactionEntry.class);
+        query.select(cb.count(t)).where(filter.toSpecification().toPredicate(t, query, cb));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private HibernateCriteriaBuilder criteriaBuilder() {
+        return entityManager.unwrap(Session.class).getCriteriaBuilder();
+    }
+
+    private static Expression<BigDecimal> income(HibernateCriteriaBuilder cb, Root<TransactionEntry> t) {
+        return sumOfType(cb, t, TransactionType.INCOME);
+    }
+
+    private static Expression<BigDecimal> expense(HibernateCriteriaBuilder cb, Root<TransactionEntry> t) {
+        return sumOfType(cb, t, TransactionType.EXPENSE);
+    }
+
+    /** SUM(CASE WHEN type = :type THEN amount ELSE 0 END) */
+    private static Expression<BigDecimal> sumOfType(HibernateCriteriaBuilder cb, Root<TransactionEntry> t, TransactionType type) {
+        return cb.sum(cb.<BigDecimal>selectCase()
+                .when(cb.equal(t.get("type"), type), t.<BigDecimal>get("amount"))
+                .otherwise(BigDecimal.ZERO));
+    }
+
+    // ── Row implementations ───────────────────────────────────────────────────
+
+    private record CategoryTotals(Category category, BigDecimal totalAmount, Long transactionCount)
+            implements CategoryRow {
+        @Override public Category getCategory()        { return category; }
+        @Override public BigDecimal getTotalAmount()   { return totalAmount; }
+        @Override public Long getTransactionCount()    { return transactionCount; }
+    }
+
+    private record DailyTotals(Date day, BigDecimal incomeAmount, BigDecimal expenseAmount, Long transactionCount)
+            implements DailyRow {
+        @Override public Date getDay()                 { return day; }
+        @Override public BigDecimal getIncomeAmount()  { return incomeAmount; }
+        @Override public BigDecimal getExpenseAmount() { return expenseAmount; }
+        @Override public Long getTransactionCount()    { return transactionCount; }
+    }
+
+    private record MonthlyTotals(Integer year, Integer month, BigDecimal incomeAmount, BigDecimal expenseAmount,
+                                 Long transactionCount) implements MonthlyRow {
+        @Override public Integer getYear()             { return year; }
+        @Override public Integer getMonth()            { return month; }
+        @Override public BigDecimal getIncomeAmount()  { return incomeAmount; }
+        @Override public BigDecimal getExpenseAmount() { return expenseAmount; }
+        @Override public Long getTransactionCount()    { return transactionCount; }
+    }
+
+    private record YearlyTotals(Integer year, BigDecimal incomeAmount, BigDecimal expenseAmount, Long transactionCount)
+            implements YearlyRow {
+        @Override public Integer getYear()             { return year; }
+        @Override public BigDecimal getIncomeAmount()  { return incomeAmount; }
+        @Override public BigDecimal getExpenseAmount() { return expenseAmount; }
+        @Override public Long getTransactionCount()    { return transactionCount; }
+    }
+}
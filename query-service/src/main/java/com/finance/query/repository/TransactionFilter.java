@@ -0,0 +1,72 @@
+package com.finance.query.repository;
+
+import com.finance.query.model.Category;
+import com.finance.query.model.TransactionEntry;
+import com.finance.query.model.TransactionType;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Typed filter over a user's live (not soft-deleted) transactions.
+ *
+ * Only the criteria that are set become predicates — there is no
+ * {@code (:x IS NULL OR col = :x)} form — so each combination is its own
+ * statement and Postgres plans it against the matching index instead of
+ * caching one generic plan for every combination.
+ *
+ * Bounds are inclusive; either may be open.
+ */
+public record TransactionFilter(UUID userId,
+                                TransactionType type,
+                                Category category,
+                                LocalDateTime start,
+                                LocalDateTime end) {
+
+    public TransactionFilter {
+        Objects.requireNonNull(userId, "userId");
+    }
+
+    public static TransactionFilter forUser(UUID userId) {
+        return new TransactionFilter(userId, null, null, null, null);
+    }
+
+    public TransactionFilter withType(TransactionType type) {
+        return new TransactionFilter(userId, type, category, start, end);
+    }
+
+    public TransactionFilter withCategory(Category category) {
+        return new TransactionFilter(userId, type, category, start, end);
+    }
+
+    public TransactionFilter between(LocalDateTime start, LocalDateTime end) {
+        return new TransactionFilter(userId, type, category, start, end);
+    }
+
+    /** Usable with {@code findAll(Specification, ...)} and as the WHERE clause of the aggregate queries. */
+    public Specification<TransactionEntry> toSpecification() {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>(6);
+            predicates.add(cb.equal(root.get("userId"), userId));
+            predicates.add(cb.isNull(root.get("deletedAt")));
+            if (type != null) {
+                predicates.add(cb.equal(root.get("type"), type));
+            }
+            if (category != null) {
+                predicates.add(cb.equal(root.get("category"), category));
+            }
+            if (start != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("createdAt"), start));
+            }
+            if (end != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("createdAt"), end));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+}
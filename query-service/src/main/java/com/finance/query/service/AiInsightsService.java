@@ -4,8 +4,10 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.finance.query.dto.AiInsightResponse;
 import com.finance.query.dto.CategoryRow;
+import com.finance.query.fanout.QueryFanOut;
 import com.finance.query.model.TransactionType;
 import com.finance.query.repository.TransactionEntryRepository;
+import com.finance.query.repository.TransactionFilter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -21,6 +23,7 @@ import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.function.Supplier;
 
 @Slf4j
 @Service
@@ -40,6 +43,7 @@ public class AiInsightsService {
     private final GoalForecastingService goalForecastingService;
     private final BudgetTrendService budgetTrendService;
     private final com.finance.query.repository.SavingsGoalRepository savingsGoalRepository;
+    private final QueryFanOut fanOut;
 
     private final HttpClient httpClient = HttpClient.newBuilder()
             .connectTimeout(Duration.ofSeconds(10))
@@ -48,21 +52,38 @@ public class AiInsightsService {
     // Cache AI insights for 24 hours per user (avoid repeated LLM calls)
     @Cacheable(value = "ai-insights", key = "#userId")
     public AiInsightResponse generateInsights(UUID userId) {
-        BigDecimal income  = safeAmount(repository.getTotalAmountByType(userId, TransactionType.valueOf("INCOME")));
-        BigDecimal expense = safeAmount(repository.getTotalAmountByType(userId, TransactionType.valueOf("EXPENSE")));
-        List<CategoryRow> categories = repository.getAllCategoryAnalytics(userId);
+        BigDecimal income;
+        BigDecimal expense;
+        List<CategoryRow> categories;
+        List<GoalForecastingService.GoalForecast> goalForecasts;
+        List<BudgetTrendService.BudgetTrend> budgetTrends;
+        // Goals and budget trends are fetched alongside the totals; for a user with no
+        // data they're wasted work, but the common case saves two sequential round trips.
+        TransactionFilter all = TransactionFilter.forUser(userId);
+        try (QueryFanOut.Scope scope = fanOut.open()) {
+            Supplier<BigDecimal> incomeBranch  = scope.fork("income",  () -> repository.sumAmount(all.withType(TransactionType.INCOME)));
+            Supplier<BigDecimal> expenseBranch = scope.fork("expense", () -> repository.sumAmount(all.withType(TransactionType.EXPENSE)));
+            Supplier<List<CategoryRow>> categoryBranch = scope.fork("categories", () -> repository.sumByCategory(all));
+            Supplier<List<GoalForecastingService.GoalForecast>> goalBranch = scope.fork("goals", () -> {
+                List<GoalForecastingService.GoalForecast> forecasts = new ArrayList<>();
+                for (com.finance.query.model.SavingsGoal goal : savingsGoalRepository.findByUserIdAndActiveTrueOrderByCreatedAtDesc(userId)) {
+                    forecasts.add(goalForecastingService.forecastGoal(goal));
+                }
+                return forecasts;
+            });
+            Supplier<List<BudgetTrendService.BudgetTrend>> trendBranch = scope.fork("budgetTrends", () -> budgetTrendService.getTrends(userId));
+            scope.join();
+            income        = safeAmount(incomeBranch.get());
+            expense       = safeAmount(expenseBranch.get());
+            categories    = categoryBranch.get();
+            goalForecasts = goalBranch.get();
+            budgetTrends  = trendBranch.get();
+        }
 
         if (income.compareTo(BigDecimal.ZERO) == 0 && expense.compareTo(BigDecimal.ZERO) == 0) {
             return buildDefaultResponse();
         }
 
-        // Fetch goals & budgets
-        List<GoalForecastingService.GoalForecast> goalForecasts = new ArrayList<>();
-        for (com.finance.query.model.SavingsGoal goal : savingsGoalRepository.findByUserIdAndActiveTrueOrderByCreatedAtDesc(userId)) {
-            goalForecasts.add(goalForecastingService.forecastGoal(goal));
-        }
-        List<BudgetTrendService.BudgetTrend> budgetTrends = budgetTrendService.getTrends(userId);
-
         String prompt = buildPrompt(income, expense, categories, goalForecasts, budgetTrends);
 
         if (groqApiKey == null || groqApiKey.isBlank()) {
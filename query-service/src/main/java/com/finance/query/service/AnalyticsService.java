@@ -1,17 +1,20 @@
 package com.finance.query.service;
 
 import com.finance.query.dto.*;
+import com.finance.query.fanout.QueryFanOut;
 import com.finance.query.model.Category;
 
 import com.finance.query.model.TransactionEntry;
 import com.finance.query.model.TransactionType;
 import com.finance.query.repository.TransactionEntryRepository;
+import com.finance.query.repository.TransactionFilter;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -21,6 +24,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.http.ResponseEntity;
@@ -35,6 +39,7 @@ import org.springframework.http.MediaType;
 public class AnalyticsService {
 
     private final TransactionEntryRepository repository;
+    private final QueryFanOut fanOut;
 
     // ── Comprehensive ─────────────────────────────────────────────────────────
 
@@ -42,38 +47,43 @@ public class AnalyticsService {
             value = "comprehensive-analytics",
             key = "#request.userId + ':' + #request.timelineType + ':' + #request.cacheStartDate() + ':' + #request.cacheEndDate()"
     )
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Map<String, Object> getComprehensiveAnalytics(AnalyticsRequest request) {
-        Map<String, Object> analytics = new LinkedHashMap<>();
-
-        BigDecimal totalIncome  = getTotalAmountByType(request, TransactionType.INCOME);
-        BigDecimal totalExpense = getTotalAmountByType(request, TransactionType.EXPENSE);
-        BigDecimal safeIncome   = totalIncome  != null ? totalIncome  : BigDecimal.ZERO;
-        BigDecimal safeExpense  = totalExpense != null ? totalExpense : BigDecimal.ZERO;
-
-        analytics.put("totalIncome",  safeIncome);
-        analytics.put("totalExpense", safeExpense);
-        analytics.put("netAmount",    safeIncome.subtract(safeExpense));
-
         // toBuilder() ensures any future fields on AnalyticsRequest are inherited automatically
         AnalyticsRequest incomeRequest   = request.toBuilder().transactionFilter(TransactionType.INCOME).build();
         AnalyticsRequest expenseRequest  = request.toBuilder().transactionFilter(TransactionType.EXPENSE).build();
         AnalyticsRequest timelineRequest = request.toBuilder().transactionFilter(null).build();
 
+        // The six reads are independent — run them side by side rather than back to back.
         // Direct calls — @Cacheable on these won't fire via this internal call path,
         // but getComprehensiveAnalytics is itself cached so this is fine.
-        analytics.put("incomeByCategory",  getCategoryAnalytics(incomeRequest));
-        analytics.put("expenseByCategory", getCategoryAnalytics(expenseRequest));
-        analytics.put("timelineTrends",    getTimelineAnalytics(timelineRequest));
-
-        // Hardcoded limit of 10, display only.
-        // Not cached independently — the outer comprehensive cache covers this.
-        Page<TransactionEntry> recentPage = repository.findByUserId(
-                request.getUserId(),
-                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt")));
-        analytics.put("recentTransactions", recentPage.getContent());
-        analytics.put("transactionCount",   recentPage.getTotalElements());
-
-        return analytics;
+        try (QueryFanOut.Scope scope = fanOut.open()) {
+            Supplier<BigDecimal> totalIncome       = scope.fork("totalIncome",  () -> getTotalAmountByType(request, TransactionType.INCOME));
+            Supplier<BigDecimal> totalExpense      = scope.fork("totalExpense", () -> getTotalAmountByType(request, TransactionType.EXPENSE));
+            Supplier<ChartData> incomeByCategory   = scope.fork("incomeByCategory",  () -> getCategoryAnalytics(incomeRequest));
+            Supplier<ChartData> expenseByCategory  = scope.fork("expenseByCategory", () -> getCategoryAnalytics(expenseRequest));
+            Supplier<ChartData> timelineTrends     = scope.fork("timelineTrends",    () -> getTimelineAnalytics(timelineRequest));
+            // Hardcoded limit of 10, display only.
+            // Not cached independently — the outer comprehensive cache covers this.
+            Supplier<Page<TransactionRow>> recent = scope.fork("recentTransactions", () -> repository.findRows(
+                    TransactionFilter.forUser(request.getUserId()),
+                    PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt"))));
+            scope.join();
+
+            BigDecimal safeIncome  = totalIncome.get()  != null ? totalIncome.get()  : BigDecimal.ZERO;
+            BigDecimal safeExpense = totalExpense.get() != null ? totalExpense.get() : BigDecimal.ZERO;
+
+            Map<String, Object> analytics = new LinkedHashMap<>();
+            analytics.put("totalIncome",  safeIncome);
+            analytics.put("totalExpense", safeExpense);
+            analytics.put("netAmount",    safeIncome.subtract(safeExpense));
+            analytics.put("incomeByCategory",  incomeByCategory.get());
+            analytics.put("expenseByCategory", expenseByCategory.get());
+            analytics.put("timelineTrends",    timelineTrends.get());
+            analytics.put("recentTransactions", recent.get().getContent());
+            analytics.put("transactionCount",   recent.get().getTotalElements());
+            return analytics;
+        }
     }
 
     // ── Category ──────────────────────────────────────────────────────────────
@@ -83,7 +93,7 @@ public class AnalyticsService {
             key = "#request.userId + ':' + #request.transactionFilter + ':' + #request.cacheStartDate() + ':' + #request.cacheEndDate()"
     )
     public ChartData getCategoryAnalytics(AnalyticsRequest request) {
-        List<CategoryRow> rows = fetchCategoryRows(request);
+        List<CategoryRow> rows = repository.sumByCategory(filterOf(request));
 
         List<CategoryAnalytics> categoryData = new ArrayList<>();
         BigDecimal totalAmount = BigDecimal.ZERO;
@@ -122,23 +132,6 @@ public class AnalyticsService {
         return new ChartData("pie", title, labels, List.of(new ChartData.DataSet("Amount", amounts, null)));
     }
 
-    private List<CategoryRow> fetchCategoryRows(AnalyticsRequest request) {
-        UUID userId             = request.getUserId();
-        String type             = request.getTransactionFilter() != null ? request.getTransactionFilter().name() : null;
-        LocalDateTime startDate = request.getStartDate();
-        LocalDateTime endDate   = request.getEndDate();
-
-        if (type != null && startDate != null && endDate != null) {
-            return repository.getCategoryAnalyticsByTypeAndDateRange(userId, TransactionType.valueOf(type), startDate, endDate);
-        } else if (type != null) {
-            return repository.getCategoryAnalyticsByType(userId, TransactionType.valueOf(type));
-        } else if (startDate != null && endDate != null) {
-            return repository.getCategoryAnalyticsByDateRange(userId, startDate, endDate);
-        } else {
-            return repository.getAllCategoryAnalytics(userId);
-        }
-    }
-
     // ── Timeline ──────────────────────────────────────────────────────────────
 
     @Cacheable(
@@ -172,9 +165,7 @@ public class AnalyticsService {
     }
 
     private List<TimelineAnalytics> buildDailyTimeline(AnalyticsRequest request) {
-        List<DailyRow> rows = request.getStartDate() != null && request.getEndDate() != null
-                ? repository.getDailyAnalyticsByDateRange(request.getUserId(), request.getStartDate(), request.getEndDate())
-                : repository.getAllDailyAnalytics(request.getUserId());
+        List<DailyRow> rows = repository.sumByDay(timelineFilterOf(request));
 
         return rows.stream().map(row -> {
             LocalDate date = row.getDay().toLocalDate();
@@ -190,9 +181,7 @@ public class AnalyticsService {
     }
 
     private List<TimelineAnalytics> buildMonthlyTimeline(AnalyticsRequest request) {
-        List<MonthlyRow> rows = request.getStartDate() != null && request.getEndDate() != null
-                ? repository.getMonthlyAnalyticsByDateRange(request.getUserId(), request.getStartDate(), request.getEndDate())
-                : repository.getAllMonthlyAnalytics(request.getUserId());
+        List<MonthlyRow> rows = repository.sumByMonth(timelineFilterOf(request));
 
         return rows.stream().map(row -> {
             int year = row.getYear(), month = row.getMonth();
@@ -205,9 +194,7 @@ public class AnalyticsService {
     }
 
     private List<TimelineAnalytics> buildYearlyTimeline(AnalyticsRequest request) {
-        List<YearlyRow> rows = request.getStartDate() != null && request.getEndDate() != null
-                ? repository.getYearlyAnalyticsByDateRange(request.getUserId(), request.getStartDate(), request.getEndDate())
-                : repository.getAllYearlyAnalytics(request.getUserId());
+        List<YearlyRow> rows = repository.sumByYear(timelineFilterOf(request));
 
         return rows.stream().map(row -> {
             int year = row.getYear();
@@ -252,8 +239,8 @@ public class AnalyticsService {
 
     // ── Paginated queries ─────────────────────────────────────────────────────
 
-    public Page<TransactionEntry> getTransactionEntriesByUserId(UUID userId, Pageable pageable) {
-        return repository.findByUserId(userId, pageable);
+    public Page<TransactionRow> getTransactionEntriesByUserId(UUID userId, Pageable pageable) {
+        return repository.findRows(TransactionFilter.forUser(userId), pageable);
     }
 
     public Object getAIAdvisorInsights(UUID userId) {
@@ -287,30 +274,36 @@ public class AnalyticsService {
         }
     }
 
-    public Page<TransactionEntry> findIncomeByCategoryAndDate(
+    public Page<TransactionRow> findIncomeByCategoryAndDate(
             UUID userId, Category incomeCategory,
             LocalDateTime start, LocalDateTime end, Pageable pageable) {
-        return repository.findByUserIdAndCategoryAndCreatedAtBetween(
-                userId, incomeCategory, start, end, pageable);
+        return repository.findRows(
+                TransactionFilter.forUser(userId).withCategory(incomeCategory).between(start, end), pageable);
     }
 
-    public Page<TransactionEntry> findTransactionsByTypeAndDate(
+    public Page<TransactionRow> findTransactionsByTypeAndDate(
             UUID userId, TransactionType type,
             LocalDateTime start, LocalDateTime end, Pageable pageable) {
-        return repository.findByUserIdAndTypeAndCreatedAtBetween(
-                userId, type, start, end, pageable);
+        return repository.findRows(
+                TransactionFilter.forUser(userId).withType(type).between(start, end), pageable);
     }
 
     // ── Helpers ───────────────────────────────────────────────────────────────
 
     private BigDecimal getTotalAmountByType(AnalyticsRequest request, TransactionType type) {
-        UUID userId             = request.getUserId();
-        LocalDateTime startDate = request.getStartDate();
-        LocalDateTime endDate   = request.getEndDate();
+        return repository.sumAmount(filterOf(request).withType(type));
+    }
+
+    /** Only the parts of the request that are present become predicates. */
+    private TransactionFilter filterOf(AnalyticsRequest request) {
+        return TransactionFilter.forUser(request.getUserId())
+                .withType(request.getTransactionFilter())
+                .between(request.getStartDate(), request.getEndDate());
+    }
 
-        return (startDate != null && endDate != null)
-                ? repository.getTotalAmountByTypeAndDateRange(userId, TransactionType.valueOf(type.name()), startDate, endDate)
-                : repository.getTotalAmountByType(userId, TransactionType.valueOf(type.name()));
+    /** Timelines always split income and expense, so the type filter only picks the datasets shown. */
+    private TransactionFilter timelineFilterOf(AnalyticsRequest request) {
+        return filterOf(request).withType(null);
     }
 
     private BigDecimal zeroIfNull(BigDecimal value) {
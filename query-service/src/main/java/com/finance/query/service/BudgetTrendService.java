@@ -6,6 +6,7 @@ import com.finance.query.model.CategoryBudget;
 import com.finance.query.model.TransactionType;
 import com.finance.query.repository.CategoryBudgetRepository;
 import com.finance.query.repository.TransactionEntryRepository;
+import com.finance.query.repository.TransactionFilter;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -51,10 +52,9 @@ public class BudgetTrendService {
         LocalDateTime previousEnd = currentStart.minusSeconds(1);
 
         // Fetch all category expenses for both periods in 2 queries instead of 2 * N queries
-        List<CategoryRow> currentRows = transactionRepository.getCategoryAnalyticsByTypeAndDateRange(
-                userId, TransactionType.EXPENSE, currentStart, now);
-        List<CategoryRow> previousRows = transactionRepository.getCategoryAnalyticsByTypeAndDateRange(
-                userId, TransactionType.EXPENSE, previousStart, previousEnd);
+        TransactionFilter expenses = TransactionFilter.forUser(userId).withType(TransactionType.EXPENSE);
+        List<CategoryRow> currentRows = transactionRepository.sumByCategory(expenses.between(currentStart, now));
+        List<CategoryRow> previousRows = transactionRepository.sumByCategory(expenses.between(previousStart, previousEnd));
 
         Map<Category, BigDecimal> currentMap = currentRows.stream()
                 .filter(r -> r.getCategory() != null)
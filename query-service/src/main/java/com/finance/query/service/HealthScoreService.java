@@ -2,36 +2,50 @@ package com.finance.query.service;
 
 import com.finance.query.dto.CategoryRow;
 import com.finance.query.dto.HealthScoreResponse;
+import com.finance.query.fanout.QueryFanOut;
 import com.finance.query.model.TransactionType;
 import com.finance.query.repository.TransactionEntryRepository;
+import com.finance.query.repository.TransactionFilter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.function.Supplier;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
-@Transactional(readOnly = true)
 public class HealthScoreService {
 
     private final TransactionEntryRepository repository;
+    private final QueryFanOut fanOut;
 
     // Cache score for 1 hour
     @Cacheable(value = "health-score", key = "#userId")
     public HealthScoreResponse calculateScore(UUID userId) {
-        BigDecimal income  = safe(repository.getTotalAmountByType(userId, TransactionType.valueOf("INCOME")));
-        BigDecimal expense = safe(repository.getTotalAmountByType(userId, TransactionType.valueOf("EXPENSE")));
-        List<CategoryRow> categories = repository.getAllCategoryAnalytics(userId);
-        long txCount = repository.countByUserId(userId);
+        BigDecimal income;
+        BigDecimal expense;
+        List<CategoryRow> categories;
+        long txCount;
+        TransactionFilter all = TransactionFilter.forUser(userId);
+        try (QueryFanOut.Scope scope = fanOut.open()) {
+            Supplier<BigDecimal> incomeBranch  = scope.fork("income",  () -> repository.sumAmount(all.withType(TransactionType.INCOME)));
+            Supplier<BigDecimal> expenseBranch = scope.fork("expense", () -> repository.sumAmount(all.withType(TransactionType.EXPENSE)));
+            Supplier<List<CategoryRow>> categoryBranch = scope.fork("categories", () -> repository.sumByCategory(all));
+            Supplier<Long> countBranch = scope.fork("count", () -> repository.countByUserId(userId));
+            scope.join();
+            income     = safe(incomeBranch.get());
+            expense    = safe(expenseBranch.get());
+            categories = categoryBranch.get();
+            txCount    = countBranch.get();
+        }
 
         if (txCount == 0) {
             Map<String, Integer> emptyBreakdown = new LinkedHashMap<>();
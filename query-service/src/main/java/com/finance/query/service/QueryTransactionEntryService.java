@@ -1,13 +1,18 @@
 package com.finance.query.service;
 
 import com.finance.query.dto.CreateEntryResponse;
+import com.finance.query.dto.PageResponse;
+import com.finance.query.dto.TransactionRow;
+import com.finance.query.dto.TransactionTotals;
 import com.finance.query.model.TransactionEntry;
 import com.finance.query.model.TransactionType;
 import com.finance.query.repository.TransactionEntryRepository;
+import com.finance.query.repository.TransactionFilter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -38,9 +43,12 @@ public class QueryTransactionEntryService {
         return convertToResponse(entry);
     }
 
+    // List endpoints read TransactionRow projections: no entity hydration, no
+    // dirty-check snapshots, and a cache value that deserializes cleanly.
+
     @Transactional(readOnly = true)
-    @Cacheable(value = "transactions", key = "#userId + ':' + (#type != null ? #type : 'ALL') + ':' + (#startDate != null ? #startDate : 'MIN') + ':' + (#endDate != null ? #endDate : 'MAX') + ':' + #page + ':' + #size", sync = true)
-    public Page<TransactionEntry> getEntriesByUserId(
+    @Cacheable(value = "transaction-rows", key = "#userId + ':' + (#type != null ? #type : 'ALL') + ':' + (#startDate != null ? #startDate : 'MIN') + ':' + (#endDate != null ? #endDate : 'MAX') + ':' + #page + ':' + #size", sync = true)
+    public PageResponse<TransactionRow> getEntriesByUserId(
             UUID userId, TransactionType type,
             LocalDate startDate, LocalDate endDate,
             int page, int size) {
@@ -48,53 +56,51 @@ public class QueryTransactionEntryService {
         LocalDateTime start = startDate != null ? startDate.atStartOfDay()          : null;
         LocalDateTime end   = endDate   != null ? endDate.atTime(23, 59, 59) : null;
 
-        return repository.findByUserIdAndFilters(userId, type, start, end, PageRequest.of(page, size));
+        return PageResponse.of(repository.findRows(
+                TransactionFilter.forUser(userId).withType(type).between(start, end),
+                PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"))));
     }
 
     @Transactional(readOnly = true)
-    @Cacheable(value = "transactions", key = "#userId + ':search:' + #query + ':' + #page + ':' + #size", sync = true)
-    public Page<TransactionEntry> searchEntries(UUID userId, String query, int page, int size) {
-        return repository.searchByUserId(userId, query, PageRequest.of(page, size));
+    @Cacheable(value = "transaction-rows", key = "#userId + ':search:' + #query + ':' + #page + ':' + #size", sync = true)
+    public PageResponse<TransactionRow> searchEntries(UUID userId, String query, int page, int size) {
+        return PageResponse.of(repository.searchRowsByUserId(userId, query, PageRequest.of(page, size)));
     }
 
     @Transactional(readOnly = true)
     @Cacheable(value = "transactions", key = "#userId + ':summary'", sync = true)
     public Map<String, Object> getSummary(UUID userId) {
-        List<TransactionEntry> all = repository.findByUserIdAndDeletedAtIsNullOrderByCreatedAtDesc(userId);
-        BigDecimal income  = all.stream().filter(e -> e.getType() == TransactionType.INCOME)
-                .map(TransactionEntry::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
-        BigDecimal expense = all.stream().filter(e -> e.getType() == TransactionType.EXPENSE)
-                .map(TransactionEntry::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+        TransactionTotals totals = repository.summarize(userId);
         Map<String, Object> summary = new LinkedHashMap<>();
-        summary.put("totalIncome",  income);
-        summary.put("totalExpense", expense);
-        summary.put("netBalance",   income.subtract(expense));
-        summary.put("totalCount",   all.size());
+        summary.put("totalIncome",  totals.totalIncome());
+        summary.put("totalExpense", totals.totalExpense());
+        summary.put("netBalance",   totals.netBalance());
+        summary.put("totalCount",   totals.totalCount());
         return summary;
     }
 
     @Transactional(readOnly = true)
-    @Cacheable(value = "transactions", key = "#userId + ':recurring'", sync = true)
-    public List<TransactionEntry> getRecurringEntries(UUID userId) {
-        return repository.findByUserIdAndRecurringTrueAndDeletedAtIsNull(userId);
+    @Cacheable(value = "transaction-rows", key = "#userId + ':recurring'", sync = true)
+    public List<TransactionRow> getRecurringEntries(UUID userId) {
+        return repository.findRecurringRowsByUserId(userId);
     }
 
     @Transactional(readOnly = true)
     public String exportCsv(UUID userId) {
-        List<TransactionEntry> all = repository.findByUserIdAndDeletedAtIsNullOrderByCreatedAtDesc(userId);
+        List<TransactionRow> all = repository.findRowsByUserId(userId);
         StringBuilder csv = new StringBuilder();
         csv.append("id,name,amount,type,expenseCategory,incomeCategory,currency,description,recurring,recurringPeriod,createdAt\n");
-        for (TransactionEntry e : all) {
-            csv.append(e.getId()).append(',')
-               .append(escapeCsv(e.getName())).append(',')
-               .append(e.getAmount()).append(',')
-               .append(e.getType()).append(',')
-               .append(e.getCategory() != null ? e.getCategory() : "").append(',')
-               .append(e.getCurrency()).append(',')
-               .append(escapeCsv(e.getDescription())).append(',')
-               .append(e.isRecurring()).append(',')
-               .append(e.getRecurringPeriod() != null ? e.getRecurringPeriod() : "").append(',')
-               .append(e.getCreatedAt()).append('\n');
+        for (TransactionRow e : all) {
+            csv.append(e.id()).append(',')
+               .append(escapeCsv(e.name())).append(',')
+               .append(e.amount()).append(',')
+               .append(e.type()).append(',')
+               .append(e.category() != null ? e.category() : "").append(',')
+               .append(e.currency()).append(',')
+               .append(escapeCsv(e.description())).append(',')
+               .append(e.recurring()).append(',')
+               .append(e.recurringPeriod() != null ? e.recurringPeriod() : "").append(',')
+               .append(e.createdAt()).append('\n');
         }
         return csv.toString();
     }
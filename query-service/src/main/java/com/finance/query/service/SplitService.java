@@ -5,9 +5,11 @@ import com.finance.query.events.CacheEvictPublisher;
 import com.finance.query.model.*;
 import com.finance.query.model.GroupActivity.ActivityType;
 import com.finance.query.repository.*;
+import com.finance.query.settlement.SettlementEngine;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
@@ -33,11 +35,15 @@ public class SplitService {
     private final ExpenseSplitRepository splitRepo;
     private final org.springframework.cache.CacheManager cacheManager;
     private final GroupActivityRepository groupActivityRepo;
+    private final GroupMemberBalanceRepository balanceRepo;
 
     @Lazy
     @Autowired
     private SplitService self;
 
+    @Value("${groups.settlement.mode:OPTIMAL}")
+    private SettlementEngine.Mode settlementMode;
+
     /* ─── GROUPS ─── */
 
 
@@ -52,12 +58,11 @@ public class SplitService {
         Map<Long, GroupMember> membershipByGroup = memberRepo.findByGroupIdInAndUserId(groupIds, userId)
                 .stream().collect(Collectors.toMap(GroupMember::getGroupId, m -> m));
 
-        List<SharedExpense> allExpenses = expenseRepo.findByGroupIdIn(groupIds);
-        List<Long> expenseIds = allExpenses.stream().map(SharedExpense::getId).toList();
-        List<ExpenseSplit> allSplits = expenseIds.isEmpty() ? List.of()
-                : splitRepo.findBySharedExpenseIdIn(expenseIds);
-
-        Map<Long, BigDecimal> netBalances = computeNetBalancesForUser(userId, groupIds, allExpenses, allSplits);
+        Map<Long, BigDecimal> netBalances = new HashMap<>();
+        for (GroupNetBalanceRow row : expenseRepo.sumPaidAndOwedByGroupForUser(userId, groupIds)) {
+            netBalances.put(row.getGroupId(),
+                    row.getPaid().subtract(row.getOwed()).setScale(2, RoundingMode.HALF_UP));
+        }
 
         for (ExpenseGroup group : groups) {
             GroupMember membership = membershipByGroup.get(group.getId());
@@ -72,39 +77,6 @@ public class SplitService {
     }
 
 
-    private Map<Long, BigDecimal> computeNetBalancesForUser(UUID userId, List<Long> groupIds,
-                                                            List<SharedExpense> allExpenses, List<ExpenseSplit> allSplits) {
-
-        // map expenseId -> groupId
-        Map<Long, Long> expenseToGroup = allExpenses.stream()
-                .collect(Collectors.toMap(SharedExpense::getId, SharedExpense::getGroupId));
-
-        Map<Long, BigDecimal> paidByGroup = new HashMap<>();
-        for (SharedExpense e : allExpenses) {
-            if (e.getPaidBy().equals(userId)) {
-                paidByGroup.merge(e.getGroupId(), e.getAmount(), BigDecimal::add);
-            }
-        }
-
-        Map<Long, BigDecimal> owedByGroup = new HashMap<>();
-        for (ExpenseSplit s : allSplits) {
-            if (s.getUserId().equals(userId)) {
-                Long gid = expenseToGroup.get(s.getSharedExpenseId());
-                if (gid != null) {
-                    owedByGroup.merge(gid, s.getAmount(), BigDecimal::add);
-                }
-            }
-        }
-
-        Map<Long, BigDecimal> result = new HashMap<>();
-        for (Long gid : groupIds) {
-            BigDecimal paid = paidByGroup.getOrDefault(gid, BigDecimal.ZERO);
-            BigDecimal owed = owedByGroup.getOrDefault(gid, BigDecimal.ZERO);
-            result.put(gid, paid.subtract(owed).setScale(2, RoundingMode.HALF_UP));
-        }
-        return result;
-    }
-
     @Transactional(readOnly = true)
     @Cacheable(value = "group-details", key = "#groupId + '-' + #userId", sync = true)
     public Optional<ExpenseGroup> getGroup(Long groupId, UUID userId) {
@@ -156,22 +128,30 @@ public class SplitService {
         ExpenseGroup group = groupRepo.findById(groupId)
                 .orElseThrow(() -> new IllegalArgumentException("Group " + groupId + " not found"));
         List<GroupMember> members = memberRepo.findByGroupId(groupId);
-        List<SharedExpense> expenses = expenseRepo.findByGroupIdOrderByCreatedAtDesc(groupId);
-        List<Long> expenseIds = expenses.stream().map(SharedExpense::getId).toList();
-        List<ExpenseSplit> allSplits = expenseIds.isEmpty() ? List.of()
-                : splitRepo.findBySharedExpenseIdIn(expenseIds);
 
         Map<UUID, String> nameMap = members.stream()
                 .collect(Collectors.toMap(GroupMember::getUserId, GroupMember::getName));
 
         Map<UUID, BigDecimal> totalPaid = new HashMap<>();
-        for (SharedExpense e : expenses) {
-            totalPaid.merge(e.getPaidBy(), e.getAmount(), BigDecimal::add);
-        }
-
         Map<UUID, BigDecimal> totalOwed = new HashMap<>();
-        for (ExpenseSplit s : allSplits) {
-            totalOwed.merge(s.getUserId(), s.getAmount(), BigDecimal::add);
+        List<GroupMemberBalance> ledger = balanceRepo.findByGroupId(groupId);
+        if (!ledger.isEmpty()) {
+            for (GroupMemberBalance b : ledger) {
+                totalPaid.put(b.getUserId(), b.getTotalPaid());
+                totalOwed.put(b.getUserId(), b.getTotalOwed());
+            }
+        } else {
+            // Group predates the ledger and has not been written to since — compute from raw splits
+            List<SharedExpense> expenses = expenseRepo.findByGroupIdOrderByCreatedAtDesc(groupId);
+            List<Long> expenseIds = expenses.stream().map(SharedExpense::getId).toList();
+            List<ExpenseSplit> allSplits = expenseIds.isEmpty() ? List.of()
+                    : splitRepo.findBySharedExpenseIdIn(expenseIds);
+            for (SharedExpense e : expenses) {
+                totalPaid.merge(e.getPaidBy(), e.getAmount(), BigDecimal::add);
+            }
+            for (ExpenseSplit s : allSplits) {
+                totalOwed.merge(s.getUserId(), s.getAmount(), BigDecimal::add);
+            }
         }
 
         List<GroupBalanceResponse.MemberBalance> memberBalances = members.stream().map(m -> {
@@ -195,62 +175,21 @@ public class SplitService {
             Map<UUID, String> nameMap,
             String currency) {
 
-        Map<UUID, BigDecimal> debt = new HashMap<>();
-        Map<UUID, BigDecimal> credit = new HashMap<>();
-
-        for (GroupBalanceResponse.MemberBalance mb : balances) {
-            BigDecimal net = mb.getNetBalance();
-            if (net.compareTo(BigDecimal.ZERO) < 0)
-                debt.put(mb.getUserId(), net.negate());
-            else if (net.compareTo(BigDecimal.ZERO) > 0)
-                credit.put(mb.getUserId(), net);
+        // Engine works on long minor units; balances are already scale 2
+        long[] minor = new long[balances.size()];
+        for (int i = 0; i < minor.length; i++) {
+            minor[i] = balances.get(i).getNetBalance().movePointRight(2).longValueExact();
         }
 
-        if (debt.isEmpty() || credit.isEmpty()) {
-            return List.of();
-        }
-        // Sort by amount descending — largest debts/credits settled first
-        List<UUID> debtorList = debt.keySet().stream()
-                .sorted(Comparator.comparing(debt::get).reversed())
-                .collect(Collectors.toCollection(ArrayList::new));
-        List<UUID> creditorList = credit.keySet().stream()
-                .sorted(Comparator.comparing(credit::get).reversed())
-                .collect(Collectors.toCollection(ArrayList::new));
-
         List<GroupBalanceResponse.SettlementSuggestion> suggestions = new ArrayList<>();
-        int di = 0, ci = 0;
-
-        while (di < debtorList.size() && ci < creditorList.size()) {
-            UUID debtor = debtorList.get(di);
-            UUID creditor = creditorList.get(ci);
-
-            BigDecimal debtAmt = debt.getOrDefault(debtor, BigDecimal.ZERO);
-            BigDecimal creditAmt = credit.getOrDefault(creditor, BigDecimal.ZERO);
-
-            if (debtAmt.compareTo(BigDecimal.ZERO) <= 0) {
-                di++;
-                continue;
-            }
-            if (creditAmt.compareTo(BigDecimal.ZERO) <= 0) {
-                ci++;
-                continue;
-            }
-
-            BigDecimal settle = debtAmt.min(creditAmt).setScale(2, RoundingMode.HALF_UP);
+        for (SettlementEngine.Transfer t : SettlementEngine.settle(minor, settlementMode)) {
+            UUID debtor = balances.get(t.from()).getUserId();
+            UUID creditor = balances.get(t.to()).getUserId();
             suggestions.add(new GroupBalanceResponse.SettlementSuggestion(
                     debtor, nameMap.getOrDefault(debtor, debtor.toString()),
                     creditor, nameMap.getOrDefault(creditor, creditor.toString()),
-                    settle, currency));
-
-            debt.put(debtor, debtAmt.subtract(settle));
-            credit.put(creditor, creditAmt.subtract(settle));
-
-            if (debt.get(debtor).compareTo(BigDecimal.ZERO) == 0)
-                di++;
-            if (credit.get(creditor).compareTo(BigDecimal.ZERO) == 0)
-                ci++;
+                    BigDecimal.valueOf(t.amountMinor(), 2), currency));
         }
-
         return suggestions;
     }
 
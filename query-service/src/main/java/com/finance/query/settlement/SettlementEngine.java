@@ -0,0 +1,219 @@
+package com.finance.query.settlement;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Debt simplification over net balances in minor units (paise/cents).
+ *
+ * Input is one net balance per participant: positive = is owed money,
+ * negative = owes money. Output is a list of transfers that settles them.
+ *
+ *   FAST    — greedy on two max-heaps (largest debtor pays largest creditor).
+ *             O(n log n), at most n-1 transfers.
+ *   OPTIMAL — minimum number of transfers. Splits participants into the
+ *             largest possible number of disjoint zero-sum subsets via bitmask
+ *             DP (each subset of k people settles in k-1 transfers). O(2^n · n),
+ *             so it is only used up to {@link #OPTIMAL_MAX_PARTICIPANTS}
+ *             non-zero balances; above that, or when balances do not sum to
+ *             zero (rounding residue from equal splits), it falls back to FAST.
+ *
+ * Stateless and allocation-light; safe to call from any thread.
+ */
+public final class SettlementEngine {
+
+    public enum Mode { FAST, OPTIMAL }
+
+    /** Participants are referred to by their index in the input array. */
+    public record Transfer(int from, int to, long amountMinor) {}
+
+    public static final int OPTIMAL_MAX_PARTICIPANTS = 20;
+
+    private SettlementEngine() {}
+
+    public static List<Transfer> settle(long[] balances, Mode mode) {
+        if (mode == Mode.OPTIMAL) {
+            List<Transfer> optimal = settleOptimal(balances);
+            if (optimal != null) {
+                return optimal;
+            }
+        }
+        return settleFast(balances);
+    }
+
+    // ── FAST: heap greedy ─────────────────────────────────────────────────────
+
+    public static List<Transfer> settleFast(long[] balances) {
+        int n = balances.length;
+        long[] remaining = new long[n];
+        IndexHeap creditors = new IndexHeap(n, remaining);
+        IndexHeap debtors = new IndexHeap(n, remaining);
+        for (int i = 0; i < n; i++) {
+            remaining[i] = Math.abs(balances[i]);
+            if (balances[i] > 0) creditors.push(i);
+            else if (balances[i] < 0) debtors.push(i);
+        }
+
+        List<Transfer> transfers = new ArrayList<>(Math.max(0, n - 1));
+        while (!creditors.isEmpty() && !debtors.isEmpty()) {
+            int c = creditors.pop();
+            int d = debtors.pop();
+            long amount = Math.min(remaining[c], remaining[d]);
+            transfers.add(new Transfer(d, c, amount));
+            remaining[c] -= amount;
+            remaining[d] -= amount;
+            if (remaining[c] > 0) creditors.push(c);
+            if (remaining[d] > 0) debtors.push(d);
+        }
+        return transfers;
+    }
+
+    // ── OPTIMAL: zero-sum subset decomposition ────────────────────────────────
+
+    /** @return minimum-transfer settlement, or null if the input is out of scope for OPTIMAL */
+    static List<Transfer> settleOptimal(long[] balances) {
+        long total = 0;
+        int nonZero = 0;
+        for (long b : balances) {
+            total += b;
+            if (b != 0) nonZero++;
+        }
+        if (total != 0) {
+            return null;
+        }
+
+        List<Transfer> transfers = new ArrayList<>();
+
+        // Equal-and-opposite pairs always belong to some optimal partition — settle them up front
+        boolean[] done = new boolean[balances.length];
+        Map<Long, List<Integer>> waiting = new HashMap<>();
+        for (int i = 0; i < balances.length; i++) {
+            long b = balances[i];
+            if (b == 0) {
+                done[i] = true;
+                continue;
+            }
+            List<Integer> partners = waiting.get(-b);
+            if (partners != null && !partners.isEmpty()) {
+                int j = partners.removeLast();
+                transfers.add(b < 0 ? new Transfer(i, j, -b) : new Transfer(j, i, b));
+                done[i] = done[j] = true;
+                nonZero -= 2;
+            } else {
+                waiting.computeIfAbsent(b, k -> new ArrayList<>()).add(i);
+            }
+        }
+
+        if (nonZero > OPTIMAL_MAX_PARTICIPANTS) {
+            return null;
+        }
+        if (nonZero == 0) {
+            return transfers;
+        }
+
+        int[] idx = new int[nonZero];
+        for (int i = 0, k = 0; i < balances.length; i++) {
+            if (!done[i]) idx[k++] = i;
+        }
+
+        int full = (1 << nonZero) - 1;
+        long[] sum = new long[full + 1];
+        byte[] groups = new byte[full + 1];
+        for (int mask = 1; mask <= full; mask++) {
+            int low = Integer.numberOfTrailingZeros(mask);
+            sum[mask] = sum[mask & (mask - 1)] + balances[idx[low]];
+            int best = 0;
+            for (int rest = mask; rest != 0; rest &= rest - 1) {
+                int without = mask & ~Integer.lowestOneBit(rest);
+                if (groups[without] > best) best = groups[without];
+            }
+            groups[mask] = (byte) (best + (sum[mask] == 0 ? 1 : 0));
+        }
+
+        // Walk back from the full set; every zero-sum prefix closes one group
+        int mask = full;
+        int groupMask = 0;
+        while (mask != 0) {
+            int target = groups[mask] - (sum[mask] == 0 ? 1 : 0);
+            for (int rest = mask; rest != 0; rest &= rest - 1) {
+                int bit = Integer.lowestOneBit(rest);
+                if (groups[mask & ~bit] == target) {
+                    groupMask |= bit;
+                    mask &= ~bit;
+                    break;
+                }
+            }
+            if (sum[mask] == 0) {
+                settleGroup(balances, idx, groupMask, transfers);
+                groupMask = 0;
+            }
+        }
+        return transfers;
+    }
+
+    /** Settles one zero-sum group of k members in exactly k-1 transfers. */
+    private static void settleGroup(long[] balances, int[] idx, int groupMask, List<Transfer> out) {
+        long[] members = new long[Integer.bitCount(groupMask)];
+        int[] who = new int[members.length];
+        int k = 0;
+        for (int rest = groupMask; rest != 0; rest &= rest - 1) {
+            int i = idx[Integer.numberOfTrailingZeros(rest)];
+            who[k] = i;
+            members[k++] = balances[i];
+        }
+        for (Transfer t : settleFast(members)) {
+            out.add(new Transfer(who[t.from()], who[t.to()], t.amountMinor()));
+        }
+    }
+
+    // ── Primitive max-heap of indices keyed by a shared long[] ────────────────
+
+    private static final class IndexHeap {
+        private final int[] heap;
+        private final long[] key;
+        private int size;
+
+        IndexHeap(int capacity, long[] key) {
+            this.heap = new int[capacity];
+            this.key = key;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void push(int i) {
+            int pos = size++;
+            heap[pos] = i;
+            while (pos > 0) {
+                int parent = (pos - 1) >>> 1;
+                if (key[heap[parent]] >= key[heap[pos]]) break;
+                swap(pos, parent);
+                pos = parent;
+            }
+        }
+
+        int pop() {
+            int top = heap[0];
+            heap[0] = heap[--size];
+            int pos = 0;
+            while (true) {
+                int left = 2 * pos + 1;
+                if (left >= size) break;
+                int larger = left + 1 < size && key[heap[left + 1]] > key[heap[left]] ? left + 1 : left;
+                if (key[heap[pos]] >= key[heap[larger]]) break;
+                swap(pos, larger);
+                pos = larger;
+            }
+            return top;
+        }
+
+        private void swap(int a, int b) {
+            int t = heap[a];
+            heap[a] = heap[b];
+            heap[b] = t;
+        }
+    }
+}
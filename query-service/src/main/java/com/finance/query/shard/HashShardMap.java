@@ -0,0 +1,114 @@
+package com.finance.query.shard;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read-only mirror of command-service's HashShardMap: same hash, same Redis
+ * keys and change channel. Users are only ever moved by command-service; a
+ * move flips the override once the copy is complete, so reads switch straight
+ * from one complete copy to the other.
+ */
+@Slf4j
+@Component
+public class HashShardMap implements ShardMap {
+
+    static final String OVERRIDES_KEY = "finance:shard-map:v1:overrides";
+    static final String CHANGED_CHANNEL = "finance:shard-map:v1:changed";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final int shardCount;
+    private final int hashShards;
+    private final int groupShard;
+
+    private volatile Map<UUID, Integer> overrides = Map.of();
+
+    public HashShardMap(ShardingProperties properties,
+                        StringRedisTemplate redisTemplate,
+                        RedisMessageListenerContainer listenerContainer,
+                        MeterRegistry meterRegistry) {
+        if (properties.groupShard() < 0 || properties.groupShard() >= properties.shardCount()) {
+            throw new IllegalArgumentException("app.sharding.group-shard must name a configured shard");
+        }
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.shardCount = properties.shardCount();
+        this.hashShards = properties.effectiveHashShards();
+        this.groupShard = properties.groupShard();
+        meterRegistry.gauge("sharding.overrides", this, m -> m.overrides.size());
+    }
+
+    @PostConstruct
+    void start() {
+        if (shardCount == 1) {
+            return;
+        }
+        reload();
+        listenerContainer.addMessageListener((message, pattern) -> reloadQuietly(), new ChannelTopic(CHANGED_CHANNEL));
+        log.info("Sharding enabled: {} shards, users hashed across {}, groups on shard {}, {} overrides",
+                shardCount, hashShards, groupShard, overrides.size());
+    }
+
+    @Override
+    public int shardCount() {
+        return shardCount;
+    }
+
+    @Override
+    public int shardFor(UUID userId) {
+        if (shardCount == 1) {
+            return ShardContext.DEFAULT_SHARD;
+        }
+        Integer moved = overrides.get(userId);
+        return moved != null ? moved : hashShard(userId, hashShards);
+    }
+
+    @Override
+    public int groupShard() {
+        return groupShard;
+    }
+
+    /** Must stay identical to command-service's HashShardMap.hashShard. */
+    static int hashShard(UUID userId, int shards) {
+        long h = userId.getMostSignificantBits() ^ userId.getLeastSignificantBits();
+        h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+        h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+        h = h ^ (h >>> 31);
+        return (int) Math.floorMod(h, (long) shards);
+    }
+
+    @Scheduled(fixedDelayString = "${app.sharding.reload-interval:PT30S}")
+    void reloadQuietly() {
+        if (shardCount == 1) {
+            return;
+        }
+        try {
+            reload();
+        } catch (Exception e) {
+            log.warn("Failed to reload shard map: {}", e.getMessage());
+        }
+    }
+
+    void reload() {
+        Map<UUID, Integer> loaded = new ConcurrentHashMap<>();
+        redisTemplate.opsForHash().entries(OVERRIDES_KEY).forEach((user, shard) -> {
+            int target = Integer.parseInt(shard.toString());
+            if (target < 0 || target >= shardCount) {
+                throw new IllegalStateException("Shard override for " + user + " names unknown shard " + target);
+            }
+            loaded.put(UUID.fromString(user.toString()), target);
+        });
+        overrides = loaded;
+    }
+}
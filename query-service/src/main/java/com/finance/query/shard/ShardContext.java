@@ -0,0 +1,65 @@
+package com.finance.query.shard;
+
+import java.util.function.Supplier;
+
+/**
+ * The shard the current thread's database work is routed to.
+ *
+ * Read by ShardRoutingDataSource when a connection is first borrowed, so the
+ * shard must be set before a transaction runs its first statement; changing
+ * it mid-transaction has no effect on that transaction. Unset means
+ * {@link #DEFAULT_SHARD}, which also hosts groups unless configured otherwise.
+ *
+ * Work handed to other threads does not inherit the shard — capture it with
+ * {@link #wrap(Runnable)}.
+ */
+public final class ShardContext {
+
+    public static final int DEFAULT_SHARD = 0;
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {}
+
+    public static int current() {
+        Integer shard = CURRENT.get();
+        return shard != null ? shard : DEFAULT_SHARD;
+    }
+
+    /** Pins the calling thread to {@code shard} until {@link #clear()}; for request-scoped callers. */
+    public static void set(int shard) {
+        CURRENT.set(shard);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /** Runs {@code work} on {@code shard}, restoring the previous shard afterwards. */
+    public static <T> T call(int shard, Supplier<T> work) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return work.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    public static void run(int shard, Runnable work) {
+        call(shard, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /** {@code work} bound to the caller's current shard, for execution on another thread. */
+    public static Runnable wrap(Runnable work) {
+        int shard = current();
+        return () -> run(shard, work);
+    }
+}
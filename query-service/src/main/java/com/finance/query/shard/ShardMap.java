@@ -0,0 +1,18 @@
+package com.finance.query.shard;
+
+import java.util.UUID;
+
+/**
+ * Decides which primary/replica pair owns a user's rows. Must agree with
+ * command-service's shard map: both read the same overrides from Redis and
+ * hash users the same way.
+ */
+public interface ShardMap {
+
+    int shardCount();
+
+    int shardFor(UUID userId);
+
+    /** Home shard of every expense group, its members, splits and balances. */
+    int groupShard();
+}
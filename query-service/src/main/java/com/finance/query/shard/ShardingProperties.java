@@ -0,0 +1,32 @@
+package com.finance.query.shard;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * {@code app.sharding.*}. Shard 0 is always the {@code app.datasource} primary
+ * and replicas; {@code shards} lists the additional shards as 1..N, in the
+ * same order as command-service's.
+ *
+ * @param shards      additional shards
+ * @param hashShards  how many shards users are hashed across; 0 means all
+ * @param groupShard  home shard of the groups schema
+ */
+@ConfigurationProperties("app.sharding")
+public record ShardingProperties(@DefaultValue List<Shard> shards,
+                                 @DefaultValue("0") int hashShards,
+                                 @DefaultValue("0") int groupShard) {
+
+    /** One shard's primary and its comma-separated replicas (pool sizes as for shard 0). */
+    public record Shard(String jdbcUrl, @DefaultValue List<String> replicaJdbcUrls) {}
+
+    public int shardCount() {
+        return 1 + shards.size();
+    }
+
+    public int effectiveHashShards() {
+        return hashShards > 0 ? Math.min(hashShards, shardCount()) : shardCount();
+    }
+}
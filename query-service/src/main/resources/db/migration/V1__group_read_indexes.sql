@@ -0,0 +1,16 @@
+-- Covering indexes behind the group balance aggregation
+-- (SharedExpenseRepository.sumPaidAndOwedByGroupForUser).
+--
+-- The entity indexes already locate the rows; INCLUDE (amount) lets both
+-- branches of the UNION be answered from the index alone. transaction_entries
+-- indexes live in command-service's migrations, which own that table's layout.
+
+-- Paid branch: WHERE group_id IN (...) AND paid_by = ?
+CREATE INDEX IF NOT EXISTS idx_shared_expense_group_payer_amount
+    ON groups.shared_expenses (group_id, paid_by)
+    INCLUDE (amount);
+
+-- Owed branch: WHERE s.user_id = ?, joined on shared_expense_id
+CREATE INDEX IF NOT EXISTS idx_expense_split_user_expense_amount
+    ON groups.expense_splits (user_id, shared_expense_id)
+    INCLUDE (amount);
@@ -0,0 +1,8 @@
+-- "My groups" lookup (ExpenseGroupRepository.findGroupsByMember): WHERE m.user_id = ?
+--
+-- The only existing index on group_members is the unique (group_id, user_id)
+-- constraint, which leads with group_id and cannot serve a lookup by user, so
+-- every call scanned the whole table.
+
+CREATE INDEX IF NOT EXISTS idx_group_members_user
+    ON groups.group_members (user_id);
@@ -0,0 +1,102 @@
+package com.finance.query.config;
+
+import com.finance.query.config.ReplicaRoutingDataSource.BalanceMode;
+import com.finance.query.config.ReplicaRoutingDataSource.ReplicaNode;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("ReplicaRoutingDataSource — Unit Tests")
+class ReplicaRoutingDataSourceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    @DisplayName("read-only transactions go to the replica with the fewest connections in use")
+    void readOnly_leastInUse_picksIdlestReplica() {
+        ReplicaNode busy = node("replica-0", 18, 20);
+        ReplicaNode idle = node("replica-1", 3, 20);
+        ReplicaRoutingDataSource routing = routing(BalanceMode.LEAST_IN_USE, busy, idle);
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo("replica-1");
+        assertThat(meterRegistry.counter("datasource.routing.decisions", "target", "replica-1", "shard", "0").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("latency-weighted balancing prefers a busier but much faster replica")
+    void readOnly_latencyWeighted_prefersFastReplica() {
+        ReplicaNode slow = node("replica-0", 1, 20);
+        ReplicaNode fast = node("replica-1", 3, 20);
+        for (int i = 0; i < 10; i++) {
+            slow.markHealthy(200, 0);
+            fast.markHealthy(2, 0);
+        }
+        ReplicaRoutingDataSource routing = routing(BalanceMode.LATENCY_WEIGHTED, slow, fast);
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo("replica-1");
+    }
+
+    @Test
+    @DisplayName("ejected replicas are skipped; with none healthy reads fall back to the primary")
+    void readOnly_ejectedReplicas_fallBackToPrimary() {
+        ReplicaNode a = node("replica-0", 0, 20);
+        ReplicaNode b = node("replica-1", 5, 20);
+        ReplicaRoutingDataSource routing = routing(BalanceMode.LEAST_IN_USE, a, b);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        a.eject(Duration.ofMinutes(2).toSeconds());
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo("replica-1");
+
+        b.eject(0);
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+    }
+
+    @Test
+    @DisplayName("read-write transactions always go to the primary")
+    void readWrite_routesToPrimary() {
+        ReplicaRoutingDataSource routing = routing(BalanceMode.LEAST_IN_USE, node("replica-0", 0, 20));
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+    }
+
+    @Test
+    @DisplayName("queries outside any transaction are reads and go to a replica")
+    void noTransaction_routesToReplica() {
+        ReplicaRoutingDataSource routing = routing(BalanceMode.LEAST_IN_USE, node("replica-0", 0, 20));
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo("replica-0");
+    }
+
+    private ReplicaRoutingDataSource routing(BalanceMode mode, ReplicaNode... replicas) {
+        return new ReplicaRoutingDataSource(mock(HikariDataSource.class), List.of(replicas), mode, meterRegistry);
+    }
+
+    private ReplicaNode node(String name, int active, int max) {
+        HikariDataSource pool = mock(HikariDataSource.class);
+        HikariPoolMXBean mx = mock(HikariPoolMXBean.class);
+        when(pool.getHikariPoolMXBean()).thenReturn(mx);
+        when(pool.getMaximumPoolSize()).thenReturn(max);
+        when(mx.getActiveConnections()).thenReturn(active);
+        return new ReplicaNode(name, pool);
+    }
+}
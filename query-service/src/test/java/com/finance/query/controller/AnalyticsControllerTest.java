@@ -6,6 +6,7 @@ import com.finance.query.dto.HealthScoreResponse;
 import com.finance.query.service.AiInsightsService;
 import com.finance.query.service.AnalyticsService;
 import com.finance.query.service.HealthScoreService;
+import com.finance.query.shard.ShardMap;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -47,6 +48,9 @@ public class AnalyticsControllerTest {
     @MockitoBean
     private com.finance.query.service.BudgetTrendService budgetTrendService;
 
+    @MockitoBean
+    private ShardMap shardMap;
+
     @Test
     @DisplayName("GET /analytics/category-pie-chart: returns chart data")
     void getCategoryPieChart_succeeds() throws Exception {
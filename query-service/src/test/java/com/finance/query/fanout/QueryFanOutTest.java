@@ -0,0 +1,112 @@
+package com.finance.query.fanout;
+
+import org.junit.jupiter.api.*;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("QueryFanOut — Unit Tests")
+class QueryFanOutTest {
+
+    private final DataSource dataSource = mock(DataSource.class);
+    private final QueryFanOut fanOut = new QueryFanOut(new VirtualThreadTaskExecutor(),
+            new DataSourceTransactionManager(dataSource), Duration.ofSeconds(5));
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(dataSource.getConnection()).thenAnswer(inv -> mock(Connection.class));
+    }
+
+    @Test
+    @DisplayName("fork: each branch runs in its own read-only transaction")
+    void fork_runsBranchReadOnly() {
+        try (QueryFanOut.Scope scope = fanOut.open()) {
+            Supplier<Boolean> readOnly = scope.fork("a", () -> TransactionSynchronizationManager.isActualTransactionActive()
+                    && TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+            scope.join();
+
+            assertThat(readOnly.get()).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("join: branches run concurrently and results are readable afterwards")
+    void join_runsBranchesConcurrently() {
+        // Each branch waits for the other — only completes if both run at once
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        try (QueryFanOut.Scope scope = fanOut.open()) {
+            Supplier<String> a = scope.fork("a", () -> rendezvous(bothStarted, "A"));
+            Supplier<String> b = scope.fork("b", () -> rendezvous(bothStarted, "B"));
+            assertThatThrownBy(a::get).isInstanceOf(IllegalStateException.class);
+
+            scope.join();
+
+            assertThat(a.get()).isEqualTo("A");
+            assertThat(b.get()).isEqualTo("B");
+        }
+    }
+
+    @Test
+    @DisplayName("join: first failure is rethrown and cancels the sibling branches")
+    void join_failure_cancelsSiblings() throws Exception {
+        AtomicBoolean siblingInterrupted = new AtomicBoolean();
+        CountDownLatch siblingDone = new CountDownLatch(1);
+
+        try (QueryFanOut.Scope scope = fanOut.open()) {
+            scope.fork("slow", () -> {
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    siblingInterrupted.set(true);
+                } finally {
+                    siblingDone.countDown();
+                }
+                return null;
+            });
+            scope.fork("broken", () -> { throw new IllegalArgumentException("bad filter"); });
+
+            assertThatThrownBy(scope::join)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("bad filter");
+        }
+        assertThat(siblingDone.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(siblingInterrupted).isTrue();
+    }
+
+    @Test
+    @DisplayName("join: a branch past its own deadline fails the scope with QueryTimeoutException")
+    void join_branchDeadline_timesOut() {
+        try (QueryFanOut.Scope scope = fanOut.open()) {
+            scope.fork("fast", () -> "ok");
+            scope.fork("stuck", Duration.ofMillis(50), () -> {
+                Thread.sleep(10_000);
+                return "late";
+            });
+
+            assertThatThrownBy(scope::join)
+                    .isInstanceOf(QueryTimeoutException.class)
+                    .hasMessageContaining("stuck");
+        }
+    }
+
+    private static String rendezvous(CountDownLatch latch, String value) throws InterruptedException {
+        latch.countDown();
+        if (!latch.await(2, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("branches did not overlap");
+        }
+        return value;
+    }
+}
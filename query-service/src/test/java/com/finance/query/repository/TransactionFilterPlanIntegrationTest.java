@@ -0,0 +1,163 @@
+package com.finance.query.repository;
+
+import com.finance.query.model.Category;
+import com.finance.query.model.TransactionType;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Captures the SQL Hibernate emits for each filter combination and checks its
+ * generic plan — the plan Postgres caches for a prepared statement — so a
+ * combination that can only be answered by a sequential scan, or that carries
+ * an {@code IS NULL OR} catch-all, fails here instead of in production.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.hbm2ddl.create_namespaces=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.finance.query.repository.TransactionFilterPlanIntegrationTest$CapturingInspector"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers
+@DisplayName("TransactionFilter — Plan Integration Tests")
+class TransactionFilterPlanIntegrationTest {
+
+    static {
+        System.setProperty("docker.api.version", "1.40");
+        System.setProperty("DOCKER_API_VERSION", "1.40");
+    }
+
+    // EXPLAIN (GENERIC_PLAN) needs Postgres 16
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16")
+            .withDatabaseName("finance_assistant")
+            .withUsername("finance_user")
+            .withPassword("finance_pass")
+            .withInitScript("init.sql");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    public static class CapturingInspector implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+
+    @Autowired
+    private TransactionEntryRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // An empty table always favours a seq scan; the question is whether an index *can* answer the query
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+        CapturingInspector.STATEMENTS.clear();
+    }
+
+    static Stream<Arguments> filters() {
+        UUID userId = UUID.randomUUID();
+        LocalDateTime start = LocalDateTime.now().minusMonths(1);
+        LocalDateTime end = LocalDateTime.now();
+        TransactionFilter user = TransactionFilter.forUser(userId);
+        return Stream.of(
+                Arguments.of("user", user),
+                Arguments.of("user + type", user.withType(TransactionType.EXPENSE)),
+                Arguments.of("user + range", user.between(start, end)),
+                Arguments.of("user + open range", user.between(start, null)),
+                Arguments.of("user + type + range", user.withType(TransactionType.EXPENSE).between(start, end)),
+                Arguments.of("user + category + range", user.withCategory(Category.SALARY).between(start, end)),
+                Arguments.of("user + type + category + range",
+                        user.withType(TransactionType.INCOME).withCategory(Category.SALARY).between(start, end)));
+    }
+
+    @ParameterizedTest(name = "listing: {0}")
+    @MethodSource("filters")
+    void listing_usesIndex(String label, TransactionFilter filter) {
+        assertIndexPlan(f -> repository.findAll(f.toSpecification(),
+                PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "createdAt"))), filter);
+    }
+
+    @ParameterizedTest(name = "totals: {0}")
+    @MethodSource("filters")
+    void totals_useIndex(String label, TransactionFilter filter) {
+        assertIndexPlan(repository::sumAmount, filter);
+    }
+
+    @ParameterizedTest(name = "category: {0}")
+    @MethodSource("filters")
+    void category_usesIndex(String label, TransactionFilter filter) {
+        assertIndexPlan(repository::sumByCategory, filter);
+    }
+
+    @ParameterizedTest(name = "timeline: {0}")
+    @MethodSource("filters")
+    void timeline_usesIndex(String label, TransactionFilter filter) {
+        assertIndexPlan(repository::sumByMonth, filter);
+    }
+
+    private void assertIndexPlan(Consumer<TransactionFilter> query, TransactionFilter filter) {
+        query.accept(filter);
+        String sql = CapturingInspector.STATEMENTS.stream()
+                .filter(s -> s.contains("transaction_entries"))
+                .findFirst()
+                .orElseThrow();
+
+        String plan = String.join("\n", jdbcTemplate.queryForList(
+                "EXPLAIN (GENERIC_PLAN) " + numberPlaceholders(sql), String.class));
+
+        assertThat(plan).contains("Index").doesNotContain("Seq Scan").doesNotContain("IS NULL) OR");
+        assertThat(plan).containsPattern("Index Cond: \\(.*user_id");
+        if (filter.type() != null) {
+            assertThat(plan).containsPattern("Index Cond: \\(.*type");
+        }
+    }
+
+    /** Hibernate emits JDBC {@code ?} markers; EXPLAIN (GENERIC_PLAN) wants {@code $n}. */
+    private static String numberPlaceholders(String sql) {
+        StringBuilder out = new StringBuilder(sql.length() + 16);
+        int n = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                out.append('$').append(++n);
+            } else {
+                out.append(c);
+            }
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,145 @@
+package com.finance.query.repository;
+
+import com.finance.query.dto.TransactionRow;
+import com.finance.query.dto.TransactionTotals;
+import com.finance.query.model.Category;
+import com.finance.query.model.TransactionEntry;
+import com.finance.query.model.TransactionType;
+import com.finance.query.model.convert.CurrencyCodes;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Entity path vs projection path for a user with 100k transactions: bytes
+ * allocated on the calling thread and wall time, printed per case. Assertions
+ * only check the direction (projections allocate less) so the test stays
+ * stable on shared CI hardware.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.hbm2ddl.create_namespaces=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers
+@DisplayName("Transaction read model — allocation benchmark (100k rows)")
+class TransactionReadModelBenchmarkTest {
+
+    static {
+        System.setProperty("docker.api.version", "1.40");
+        System.setProperty("DOCKER_API_VERSION", "1.40");
+    }
+
+    private static final int ROWS = 100_000;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("finance_assistant")
+            .withUsername("finance_user")
+            .withPassword("finance_pass")
+            .withInitScript("init.sql");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private TransactionEntryRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+        jdbcTemplate.update("""
+                INSERT INTO finance.transaction_entries
+                    (id, user_id, name, amount, type, category, currency, created_at, recurring)
+                SELECT g, ?, 'entry ' || g, (g % 500) + 0.99,
+                       CASE WHEN g % 4 = 0 THEN ? ELSE ? END,
+                       CASE WHEN g % 4 = 0 THEN ? ELSE ? END,
+                       ?, now() - (g || ' minutes')::interval, false
+                FROM generate_series(1, ?) g
+                """, userId,
+                TransactionType.INCOME.code(), TransactionType.EXPENSE.code(),
+                Category.SALARY.code(), Category.GROCERIES.code(),
+                CurrencyCodes.encode("USD"), ROWS);
+        jdbcTemplate.execute("ANALYZE finance.transaction_entries");
+    }
+
+    @Test
+    @DisplayName("summary: one aggregate query vs loading every entity")
+    void summary_aggregateAllocatesLess() {
+        long entityBytes = measure("summary / entities", () -> {
+            List<TransactionEntry> all = repository.findAll(TransactionFilter.forUser(userId).toSpecification());
+            return all.stream().filter(e -> e.getType() == TransactionType.INCOME)
+                    .map(TransactionEntry::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+        });
+        long projectionBytes = measure("summary / aggregate", () -> repository.summarize(userId));
+
+        TransactionTotals totals = repository.summarize(userId);
+        assertThat(totals.totalCount()).isEqualTo(ROWS);
+        assertThat(projectionBytes).isLessThan(entityBytes / 10);
+    }
+
+    @Test
+    @DisplayName("list page: row projection vs managed entities")
+    void listPage_projectionAllocatesLess() {
+        PageRequest page = PageRequest.of(0, 500, Sort.by(Sort.Direction.DESC, "createdAt"));
+        TransactionFilter filter = TransactionFilter.forUser(userId);
+
+        long entityBytes = measure("page / entities", () -> repository.findAll(filter.toSpecification(), page));
+        long projectionBytes = measure("page / rows", () -> repository.findRows(filter, page));
+
+        Page<TransactionRow> rows = repository.findRows(filter, page);
+        assertThat(rows.getTotalElements()).isEqualTo(ROWS);
+        assertThat(projectionBytes).isLessThan(entityBytes);
+    }
+
+    /** Warms up, then reports allocation and time for one run on a fresh persistence context. */
+    private long measure(String label, Supplier<?> work) {
+        for (int i = 0; i < 3; i++) {
+            work.get();
+            entityManager.clear();
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().threadId();
+        long bytesBefore = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        work.get();
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        long bytes = threads.getThreadAllocatedBytes(thread) - bytesBefore;
+        entityManager.clear();
+        System.out.printf("%-22s %,14d bytes  %,6d ms%n", label, bytes, millis);
+        return bytes;
+    }
+}
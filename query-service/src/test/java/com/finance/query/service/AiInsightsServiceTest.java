@@ -2,15 +2,21 @@ package com.finance.query.service;
 
 import com.finance.query.dto.AiInsightResponse;
 import com.finance.query.dto.CategoryRow;
+import com.finance.query.fanout.QueryFanOut;
 import com.finance.query.model.Category;
 import com.finance.query.model.TransactionType;
+import com.finance.query.repository.SavingsGoalRepository;
 import com.finance.query.repository.TransactionEntryRepository;
+import com.finance.query.repository.TransactionFilter;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.*;
 
 import static org.assertj.core.api.Assertions.*;
@@ -21,6 +27,11 @@ import static org.mockito.Mockito.*;
 class AiInsightsServiceTest {
 
     @Mock TransactionEntryRepository repository;
+    @Mock GoalForecastingService goalForecastingService;
+    @Mock BudgetTrendService budgetTrendService;
+    @Mock SavingsGoalRepository savingsGoalRepository;
+    @Spy QueryFanOut fanOut = new QueryFanOut(new VirtualThreadTaskExecutor(),
+            mock(PlatformTransactionManager.class), Duration.ofSeconds(5));
 
     @InjectMocks AiInsightsService service;
 
@@ -124,12 +135,10 @@ class AiInsightsServiceTest {
     @Test
     @DisplayName("generateInsights: returns default response when user has no transactions")
     void generateInsights_noTransactions_returnsDefaultMessage() {
-        when(repository.getTotalAmountByTypeAndDateRange(any(), ArgumentMatchers.eq(TransactionType.INCOME), any(), any()))
-                .thenReturn(null);
-        when(repository.getTotalAmountByTypeAndDateRange(any(), ArgumentMatchers.eq(TransactionType.EXPENSE), any(), any()))
-                .thenReturn(null);
-        when(repository.getCategoryAnalyticsByDateRange(any(), any(), any()))
-                .thenReturn(Collections.emptyList());
+        TransactionFilter all = TransactionFilter.forUser(userId);
+        when(repository.sumAmount(all.withType(TransactionType.INCOME))).thenReturn(null);
+        when(repository.sumAmount(all.withType(TransactionType.EXPENSE))).thenReturn(null);
+        when(repository.sumByCategory(all)).thenReturn(Collections.emptyList());
 
         AiInsightResponse res = service.generateInsights(userId);
 
@@ -2,15 +2,20 @@ package com.finance.query.service;
 
 import com.finance.query.dto.CategoryRow;
 import com.finance.query.dto.HealthScoreResponse;
+import com.finance.query.fanout.QueryFanOut;
 import com.finance.query.model.Category;
 import com.finance.query.model.TransactionType;
 import com.finance.query.repository.TransactionEntryRepository;
+import com.finance.query.repository.TransactionFilter;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.*;
 
 import static org.assertj.core.api.Assertions.*;
@@ -21,6 +26,8 @@ import static org.mockito.Mockito.*;
 class HealthScoreServiceTest {
 
     @Mock TransactionEntryRepository repository;
+    @Spy QueryFanOut fanOut = new QueryFanOut(new VirtualThreadTaskExecutor(),
+            mock(PlatformTransactionManager.class), Duration.ofSeconds(5));
 
     @InjectMocks HealthScoreService service;
 
@@ -101,9 +108,9 @@ class HealthScoreServiceTest {
     @Test
     @DisplayName("calculateScore: excellent financials → score ≥ 700, grade A or higher")
     void calculateScore_excellentFinancials_highScore() {
-        when(repository.getTotalAmountByType(userId, TransactionType.valueOf("INCOME"))).thenReturn(new BigDecimal("100000"));
-        when(repository.getTotalAmountByType(userId, TransactionType.valueOf("EXPENSE"))).thenReturn(new BigDecimal("30000"));
-        when(repository.getAllCategoryAnalytics(userId)).thenReturn(buildCategories(6));
+        when(repository.sumAmount(TransactionFilter.forUser(userId).withType(TransactionType.INCOME))).thenReturn(new BigDecimal("100000"));
+        when(repository.sumAmount(TransactionFilter.forUser(userId).withType(TransactionType.EXPENSE))).thenReturn(new BigDecimal("30000"));
+        when(repository.sumByCategory(TransactionFilter.forUser(userId))).thenReturn(buildCategories(6));
         when(repository.countByUserId(userId)).thenReturn(60L);
 
         HealthScoreResponse res = service.calculateScore(userId);
@@ -116,9 +123,9 @@ class HealthScoreServiceTest {
     @Test
     @DisplayName("calculateScore: poor financials (over-spender) → score ≤ 400")
     void calculateScore_poorFinancials_lowScore() {
-        when(repository.getTotalAmountByType(userId, TransactionType.valueOf("INCOME"))).thenReturn(new BigDecimal("10000"));
-        when(repository.getTotalAmountByType(userId, TransactionType.valueOf("EXPENSE"))).thenReturn(new BigDecimal("30000"));
-        when(repository.getAllCategoryAnalytics(userId)).thenReturn(buildCategories(1));
+        when(repository.sumAmount(TransactionFilter.forUser(userId).withType(TransactionType.INCOME))).thenReturn(new BigDecimal("10000"));
+        when(repository.sumAmount(TransactionFilter.forUser(userId).withType(TransactionType.EXPENSE))).thenReturn(new BigDecimal("30000"));
+        when(repository.sumByCategory(TransactionFilter.forUser(userId))).thenReturn(buildCategories(1));
         when(repository.countByUserId(userId)).thenReturn(2L);
 
         HealthScoreResponse res = service.calculateScore(userId);
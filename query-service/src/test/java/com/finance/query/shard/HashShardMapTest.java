@@ -0,0 +1,69 @@
+package com.finance.query.shard;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("HashShardMap — Unit Tests")
+class HashShardMapTest {
+
+    private static final UUID USER = UUID.fromString("9b2e7c1a-5d4f-4e8b-a6c3-2f1d0e9b8a7c");
+
+    @Mock StringRedisTemplate redisTemplate;
+    @Mock RedisMessageListenerContainer listenerContainer;
+    @Mock HashOperations<String, Object, Object> hashOps;
+
+    @Test
+    @DisplayName("hash placement matches command-service's pinned values")
+    void hashShard_matchesCommandService() {
+        assertThat(HashShardMap.hashShard(UUID.fromString("00000000-0000-0000-0000-000000000001"), 4)).isEqualTo(1);
+        assertThat(HashShardMap.hashShard(UUID.fromString("3f2504e0-4f89-41d3-9a0c-0305e82c3301"), 4)).isEqualTo(1);
+        assertThat(HashShardMap.hashShard(USER, 4)).isEqualTo(3);
+        assertThat(HashShardMap.hashShard(UUID.fromString("c56a4180-65aa-42ec-a945-5fd21dec0538"), 4)).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("a single shard never touches Redis")
+    void singleShard_skipsRedis() {
+        HashShardMap map = newMap(0);
+
+        assertThat(map.shardFor(USER)).isZero();
+        verifyNoInteractions(redisTemplate, listenerContainer);
+    }
+
+    @Test
+    @DisplayName("overrides written by command-service win over the hash")
+    void override_winsOverHash() {
+        doReturn(hashOps).when(redisTemplate).opsForHash();
+        when(hashOps.entries(HashShardMap.OVERRIDES_KEY)).thenReturn(Map.of(USER.toString(), "1"));
+
+        HashShardMap map = newMap(3);
+
+        assertThat(map.shardFor(USER)).isEqualTo(1);
+    }
+
+    private HashShardMap newMap(int extraShards) {
+        List<ShardingProperties.Shard> shards = java.util.Collections.nCopies(extraShards,
+                new ShardingProperties.Shard("jdbc:postgresql://shard/db", List.of()));
+        HashShardMap map = new HashShardMap(new ShardingProperties(shards, 0, 0),
+                redisTemplate, listenerContainer, new SimpleMeterRegistry());
+        map.start();
+        return map;
+    }
+}